@@ -2,10 +2,18 @@ package com.github.anilople.javajvm;
 
 import com.github.anilople.javajvm.classpath.Classpath;
 import com.github.anilople.javajvm.command.Command;
+import com.github.anilople.javajvm.heap.AllocationProfiler;
+import com.github.anilople.javajvm.heap.ClassLoadingTimeline;
+import com.github.anilople.javajvm.heap.HeapDump;
 import com.github.anilople.javajvm.heap.JvmClass;
 import com.github.anilople.javajvm.heap.JvmClassLoader;
+import com.github.anilople.javajvm.heap.JvmHeap;
 import com.github.anilople.javajvm.heap.JvmMethod;
+import com.github.anilople.javajvm.heap.Metaspace;
 import com.github.anilople.javajvm.instructions.Instruction;
+import com.github.anilople.javajvm.instructions.references.ATHROW;
+import com.github.anilople.javajvm.natives.FileDescriptorTable;
+import com.github.anilople.javajvm.natives.ThreadNatives;
 import com.github.anilople.javajvm.runtimedataarea.Frame;
 import com.github.anilople.javajvm.runtimedataarea.JvmThread;
 import org.slf4j.Logger;
@@ -13,6 +21,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collections;
 
 public class JavaJvmApplication {
 
@@ -22,6 +31,11 @@ public class JavaJvmApplication {
 
     private Classpath classpath;
 
+    /**
+     * when this jvm created
+     */
+    private long startNanos;
+
     /**
      * initial a jvm
      *
@@ -29,10 +43,24 @@ public class JavaJvmApplication {
      */
     public JavaJvmApplication(Command command) {
         this.command = command;
+        this.startNanos = System.nanoTime();
+        if(command.getOptions().isClassLoadLogFlag()) {
+            ClassLoadingTimeline.enable(System.out);
+        }
+        if(command.getOptions().isAllocationLogFlag()) {
+            AllocationProfiler.enable();
+        }
+        if(command.getOptions().getMaxHeapSize() > 0) {
+            JvmHeap.setMaxBytes(command.getOptions().getMaxHeapSize());
+        }
+        if(command.getOptions().getInitialHeapSize() >= 0) {
+            JvmHeap.setInitialBytes(command.getOptions().getInitialHeapSize());
+        }
         if(!Classpath.isInitialized()) {
             // just use jre now
             // may add classpath todo
             Classpath.initialize(command.getOptions().getXjre());
+            ClassLoadingTimeline.phase("classpath", System.nanoTime() - this.startNanos);
         }
         this.classpath = Classpath.getInstance();
     }
@@ -87,23 +115,47 @@ public class JavaJvmApplication {
         logger.debug("interpret method {}", jvmMethod);
         JvmThread jvmThread = new JvmThread();
         jvmThread.pushFrame(new Frame(jvmThread, jvmMethod));
-        loop(jvmThread);
+        try {
+            loop(jvmThread);
+        } finally {
+            ThreadNatives.unbind(jvmThread);
+        }
     }
 
     public static void loop(JvmThread jvmThread) {
         logger.trace("start loop: {}", jvmThread);
 
-        while (jvmThread.existFrame()) {
-            jvmThread.currentFrame().traceStatus();
-            // get next instruction from frame (there is a pc register in frame)
-            Instruction instruction = jvmThread.currentFrame().readNextInstruction();
-            // change nextPc in top frame
-            instruction.execute(jvmThread.currentFrame());
+        final JvmThread previous = JvmThread.enter(jvmThread);
+        try {
+            while (jvmThread.existFrame()) {
+                jvmThread.currentFrame().traceStatus();
+                // get next instruction from frame (there is a pc register in frame)
+                Instruction instruction = jvmThread.currentFrame().readNextInstruction();
+                // change nextPc in top frame
+                execute(instruction, jvmThread.currentFrame());
+            }
+        } finally {
+            JvmThread.exit(previous);
         }
 
         logger.trace("loop finished: {}", jvmThread);
     }
 
+    /**
+     * execute an instruction,
+     * if heap is full when it allocates, a java.lang.OutOfMemoryError is thrown in guest,
+     * wherever it allocates, i.e a new object, a string constant, or an object made by a native method.
+     * @param instruction instruction read from the frame
+     * @param frame current frame
+     */
+    public static void execute(Instruction instruction, Frame frame) {
+        try {
+            instruction.execute(frame);
+        } catch (JvmHeap.HeapExhaustedException e) {
+            ATHROW.throwOutOfMemoryError(frame, e);
+        }
+    }
+
     /**
      * run jvm
      */
@@ -111,18 +163,57 @@ public class JavaJvmApplication {
         String className = command.getClassName().replace('.', '/');
         logger.debug("class name = {}", className);
 
-        JvmClassLoader jvmClassLoader = JvmClassLoader.getInstance();
+        JvmClassLoader jvmClassLoader = JvmClassLoader.createBootstrapClassLoader();
+        final long mainClassLoadStart = System.nanoTime();
         JvmClass jvmClass = jvmClassLoader.loadClass(className);
+        ClassLoadingTimeline.phase("mainClassLoad", System.nanoTime() - mainClassLoadStart);
 
         if(!jvmClass.existMethod("main", "([Ljava/lang/String;)V")) {
             throw new RuntimeException("cannot find main method in class " + jvmClass.getName());
         }
 
-        for(JvmMethod jvmMethod : jvmClass.getJvmMethods()) {
-            logger.debug("jvm method : {}", jvmMethod);
-            if("main".equals(jvmMethod.getName())) {
-                interpret(jvmMethod);
+        JvmMethod mainMethod = jvmClass.getMethod("main", "([Ljava/lang/String;)V");
+        logger.debug("jvm method : {}", mainMethod);
+        JvmThread jvmThread = new JvmThread();
+        jvmThread.pushFrame(new Frame(jvmThread, mainMethod));
+        // jvms 5.5, the initial class is initialized before main is invoked
+        jvmClass.initializeIfNecessary(jvmThread);
+        ClassLoadingTimeline.startup(System.nanoTime() - this.startNanos);
+        try {
+            loop(jvmThread);
+        } finally {
+            // jvms 5.7, the vm exits when all the non-daemon threads terminate
+            ThreadNatives.joinNonDaemonThreads(jvmClassLoader);
+            ThreadNatives.unbind(jvmThread);
+            // output of guest comes before the reports
+            FileDescriptorTable.flushAll();
+        }
+
+        if(command.getOptions().isLogMetaspaceFlag()) {
+            System.out.print(Metaspace.report(jvmClassLoader));
+        }
+        if(command.getOptions().isAllocationLogFlag()) {
+            System.out.print(AllocationProfiler.report());
+            // the records hold the classes of this run
+            AllocationProfiler.reset();
+        }
+        if(command.getOptions().isHistogramLogFlag() || null != command.getOptions().getHeapDumpPath()) {
+            dumpHeap(HeapDump.of(jvmClassLoader, Collections.singletonList(jvmThread)));
+        }
+    }
+
+    private void dumpHeap(HeapDump heapDump) {
+        if(command.getOptions().isHistogramLogFlag()) {
+            System.out.print(heapDump.histogram());
+        }
+        final String heapDumpPath = command.getOptions().getHeapDumpPath();
+        if(null != heapDumpPath) {
+            try {
+                heapDump.writeHprof(heapDumpPath);
+            } catch (IOException e) {
+                throw new RuntimeException("cannot write heap dump to " + heapDumpPath, e);
             }
+            System.out.println("Heap dump file created [" + heapDumpPath + "]");
         }
     }
 }
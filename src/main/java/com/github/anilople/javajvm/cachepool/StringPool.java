@@ -4,40 +4,151 @@ import com.github.anilople.javajvm.runtimedataarea.reference.ObjectReference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
 
 /**
- * use string pool to save string have been appear
+ * use string pool to save string have been appear,
+ * string literals and the strings of String.intern()
+ * <p>
+ * one pool per vm, it is owned by the bootstrap class loader,
+ * so it goes with the vm.
+ * strings are held weakly, a string is kept only when something else,
+ * i.e a constant pool of some class, or a object in heap, refers to it.
+ * so strings of an unreachable class loader can be reclaimed,
+ * the pool is bounded by the strings alive.
+ * <p>
+ * lookup is lock free, a miss only locks a bin of the map.
  */
 public class StringPool {
 
     private static final Logger logger = LoggerFactory.getLogger(StringPool.class);
 
-    private static final Map<String, ObjectReference> pool = new ConcurrentHashMap<>();
+    private final Map<String, Entry> pool = new ConcurrentHashMap<>();
 
-    public static boolean exists(String string) {
-        return pool.containsKey(string);
+    /**
+     * strings reclaimed are enqueued here
+     */
+    private final ReferenceQueue<ObjectReference> queue = new ReferenceQueue<>();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * remove the entries whose string is reclaimed
+     */
+    private void expungeStaleEntries() {
+        for(Object stale = queue.poll(); null != stale; stale = queue.poll()) {
+            Entry entry = (Entry) stale;
+            pool.remove(entry.string, entry);
+        }
     }
 
-    public static void add(String string, ObjectReference objectReference) {
-        if(!exists(string)) {
-            logger.debug("add string [{}] to pool. object reference: {}", string, objectReference);
-            pool.put(string, objectReference);
+    /**
+     * @param string content
+     * @return null if the string not exists in pool
+     */
+    public ObjectReference get(String string) {
+        Entry entry = pool.get(string);
+        return null == entry ? null : entry.get();
+    }
+
+    /**
+     * the one in pool, or make one and add it.
+     * if some other thread add the same string before,
+     * the one in pool wins.
+     * @param string content
+     * @param factory make the string object when it is not in pool
+     * @return the one in pool
+     */
+    public ObjectReference intern(String string, Function<String, ObjectReference> factory) {
+        ObjectReference pooled = get(string);
+        if(null != pooled) {
+            hits.increment();
+            return pooled;
         }
+        misses.increment();
+        return add(string, factory.apply(string));
+    }
+
+    private ObjectReference add(String string, ObjectReference objectReference) {
+        expungeStaleEntries();
+        while (true) {
+            Entry entry = pool.get(string);
+            ObjectReference existing = null == entry ? null : entry.get();
+            if(null != existing) {
+                return existing;
+            }
+            Entry newEntry = new Entry(string, objectReference, queue);
+            boolean added = null == entry ? null == pool.putIfAbsent(string, newEntry) : pool.replace(string, entry, newEntry);
+            if(added) {
+                logger.debug("add string [{}] to pool. object reference: {}", string, objectReference);
+                return objectReference;
+            }
+        }
+    }
+
+    /**
+     * @return count of entries, including the ones reclaimed but not expunged yet
+     */
+    public int size() {
+        expungeStaleEntries();
+        return pool.size();
+    }
+
+    /**
+     * @return lookups found in pool
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return lookups not found in pool, a string is added for each of them
+     */
+    public long getMisses() {
+        return misses.sum();
     }
 
     /**
-     *
-     * @param string
-     * @throws RuntimeException
-     * @return the cached one
+     * @return 0 if no lookup
      */
-    public static ObjectReference get(String string) {
-        if(!exists(string)) {
-            throw new RuntimeException(string + " does not exists in the pool");
+    public double getHitRate() {
+        final long hits = getHits();
+        final long lookups = hits + getMisses();
+        return 0 == lookups ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * @return the strings not reclaimed yet
+     */
+    public List<ObjectReference> strings() {
+        expungeStaleEntries();
+        List<ObjectReference> strings = new ArrayList<>(pool.size());
+        for(Entry entry : pool.values()) {
+            ObjectReference objectReference = entry.get();
+            if(null != objectReference) {
+                strings.add(objectReference);
+            }
+        }
+        return strings;
+    }
+
+    private static class Entry extends WeakReference<ObjectReference> {
+
+        private final String string;
+
+        Entry(String string, ObjectReference objectReference, ReferenceQueue<ObjectReference> queue) {
+            super(objectReference, queue);
+            this.string = string;
         }
-        return pool.get(string);
     }
 
 }
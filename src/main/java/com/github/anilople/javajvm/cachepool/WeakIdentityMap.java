@@ -0,0 +1,102 @@
+package com.github.anilople.javajvm.cachepool;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * keys are compared by identity, not equals.
+ * both keys and values are held weakly,
+ * so a value refers to its key does not keep the entry alive,
+ * an entry is gone when its key or its value is reclaimed.
+ * @param <K> key
+ * @param <V> value
+ */
+public class WeakIdentityMap<K, V> {
+
+    private final Map<Key<K>, WeakReference<V>> map = new ConcurrentHashMap<>();
+
+    /**
+     * keys reclaimed are enqueued here
+     */
+    private final ReferenceQueue<K> queue = new ReferenceQueue<>();
+
+    /**
+     * remove the entries whose key is reclaimed
+     */
+    private void expungeStaleEntries() {
+        for(Object stale = queue.poll(); null != stale; stale = queue.poll()) {
+            map.remove(stale);
+        }
+    }
+
+    /**
+     * @return null if not exists, or the value is reclaimed
+     */
+    public V get(K key) {
+        WeakReference<V> value = map.get(new Key<>(key, null));
+        return null == value ? null : value.get();
+    }
+
+    /**
+     * if some other thread put the same key before,
+     * the one in map wins.
+     * @return the one in map
+     */
+    public V putIfAbsent(K key, V value) {
+        expungeStaleEntries();
+        final Key<K> newKey = new Key<>(key, queue);
+        final WeakReference<V> newValue = new WeakReference<>(value);
+        while (true) {
+            WeakReference<V> entry = map.get(newKey);
+            V existing = null == entry ? null : entry.get();
+            if(null != existing) {
+                return existing;
+            }
+            boolean added = null == entry ? null == map.putIfAbsent(newKey, newValue) : map.replace(newKey, entry, newValue);
+            if(added) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * @return count of entries, including the ones reclaimed but not expunged yet
+     */
+    public int size() {
+        expungeStaleEntries();
+        return map.size();
+    }
+
+    /**
+     * a reclaimed key only equals itself
+     */
+    private static class Key<K> extends WeakReference<K> {
+
+        private final int hash;
+
+        Key(K key, ReferenceQueue<K> queue) {
+            super(key, queue);
+            this.hash = System.identityHashCode(key);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if(this == object) {
+                return true;
+            }
+            if(!(object instanceof Key)) {
+                return false;
+            }
+            Object key = this.get();
+            return null != key && key == ((Key<?>) object).get();
+        }
+    }
+
+}
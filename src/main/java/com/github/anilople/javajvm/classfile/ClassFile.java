@@ -215,7 +215,10 @@ public class ClassFile {
 
         private InputStream inputStream;
 
-        private ClassReader() {
+        /**
+         * for the readers not backed by a stream
+         */
+        protected ClassReader() {
         }
 
         public ClassReader(byte[] bytes) {
@@ -18,6 +18,10 @@ public class BootstrapMethodsAttribute extends AttributeInfo {
         this.bootstrapMethods = BootstrapMethod.parseBootstrapMethods(new ClassFile.ClassReader(info));
     }
 
+    public BootstrapMethod[] getBootstrapMethods() {
+        return bootstrapMethods;
+    }
+
     public static class BootstrapMethod {
 
         private short bootstrapMethodRef;
@@ -46,5 +50,23 @@ public class BootstrapMethodsAttribute extends AttributeInfo {
             return bootstrapMethods;
         }
 
+        /**
+         * @return index of a CONSTANT_MethodHandle_info in constant pool
+         */
+        public int getBootstrapMethodRef() {
+            return bootstrapMethodRef & 0xFFFF;
+        }
+
+        /**
+         * @return indexes of static arguments in constant pool
+         */
+        public int[] getBootstrapArguments() {
+            int[] indexes = new int[bootstrapArguments.length];
+            for (int i = 0; i < indexes.length; i++) {
+                indexes[i] = bootstrapArguments[i] & 0xFFFF;
+            }
+            return indexes;
+        }
+
     }
 }
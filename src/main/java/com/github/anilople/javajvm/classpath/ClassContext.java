@@ -18,4 +18,12 @@ interface ClassContext {
      * @return null if there is no this class
      */
     byte[] readClass(String className);
+
+    /**
+     * where the classes are read from,
+     * like a jar file or a class file
+     *
+     * @return description of the location
+     */
+    String getSource();
 }
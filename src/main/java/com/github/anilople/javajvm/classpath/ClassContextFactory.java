@@ -15,18 +15,30 @@ class ClassContextFactory {
 
     static ClassContext getInstance(Path path) {
         if(!path2ClassContextCaches.containsKey(path)) {
-            String pathname = path.toString();
-            if (pathname.endsWith(".class")) {
-                path2ClassContextCaches.put(path, new ClassFileClassContextImpl(path));
-            } else if (
-                    pathname.endsWith(".jar") || pathname.endsWith(".JAR")
-                            || pathname.endsWith(".zip") || pathname.endsWith(".ZIP")) {
-                path2ClassContextCaches.put(path, new ZipClassContextImpl(path));
-            } else {
-//            logger.trace("{} cannot be recognized", path);
+            ClassContext classContext = newInstance(path);
+            if(null != classContext) {
+                path2ClassContextCaches.put(path, classContext);
             }
         }
         return path2ClassContextCaches.get(path);
     }
 
+    /**
+     * without cache, the class context will be reclaimed when not used
+     * @return null if the path cannot be recognized
+     */
+    static ClassContext newInstance(Path path) {
+        String pathname = path.toString();
+        if (pathname.endsWith(".class")) {
+            return new ClassFileClassContextImpl(path);
+        } else if (
+                pathname.endsWith(".jar") || pathname.endsWith(".JAR")
+                        || pathname.endsWith(".zip") || pathname.endsWith(".ZIP")) {
+            return new ZipClassContextImpl(path);
+        } else {
+//            logger.trace("{} cannot be recognized", path);
+            return null;
+        }
+    }
+
 }
@@ -44,4 +44,9 @@ class ClassFileClassContextImpl implements ClassContext {
 //        logger.trace("class {} not match with class file {}", className, classfile);
         return null;
     }
+
+    @Override
+    public String getSource() {
+        return classfile.toString();
+    }
 }
@@ -7,9 +7,8 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.nio.file.Path;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -22,8 +21,6 @@ public class Classpath implements ClassContext {
 
     private static volatile Classpath INSTANCE = null;
 
-    private static final Map<String, byte[]> classBytesCaches = new ConcurrentHashMap<>();
-
     /**
      * class under
      * jre/lib/*
@@ -72,6 +69,30 @@ public class Classpath implements ClassContext {
         return INSTANCE;
     }
 
+    private Classpath(List<ClassContext> bootList, List<ClassContext> extList, List<ClassContext> userList) {
+        this.bootList = bootList;
+        this.extList = extList;
+        this.userList = userList;
+    }
+
+    /**
+     * a classpath only contains the classes under paths given,
+     * i.e for the class loader of some plugins.
+     * it is not the single case, and its class contexts are not cached,
+     * so they are reclaimed with the class loader using it.
+     *
+     * @param pathname one path or multiple path split by path separator
+     * @return new classpath
+     */
+    public static Classpath of(String pathname) {
+        List<ClassContext> classContexts = ClassPathUtils.getAllPathNested(pathname)
+                .stream()
+                .map(ClassContextFactory::newInstance)
+                .filter(classContext -> null != classContext)
+                .collect(Collectors.toList());
+        return new Classpath(Collections.emptyList(), Collections.emptyList(), classContexts);
+    }
+
     /**
      * initial a class context from command
      *
@@ -107,10 +128,13 @@ public class Classpath implements ClassContext {
     }
 
     /**
-     * just read class's byte one time,
-     * {@link this#readClass(String)} will cache the result
+     * bytes are not cached,
+     * a class is read only once by class loader and the bytes are dropped after linking
+     *
+     * @param className class name like java/lang/Object
+     * @return null if there is no this class
      */
-    private byte[] readClassOneTime(String className) {
+    public ClassData readClassData(String className) {
         // add ".class" suffix
         className = className + ".class";
 
@@ -118,7 +142,7 @@ public class Classpath implements ClassContext {
         for (ClassContext classContext : bootList) {
             byte[] data = classContext.readClass(className);
             if (null != data) {
-                return data;
+                return new ClassData(data, classContext.getSource());
             }
         }
 
@@ -126,7 +150,7 @@ public class Classpath implements ClassContext {
         for (ClassContext classContext : extList) {
             byte[] data = classContext.readClass(className);
             if (null != data) {
-                return data;
+                return new ClassData(data, classContext.getSource());
             }
         }
 
@@ -134,20 +158,46 @@ public class Classpath implements ClassContext {
         for (ClassContext classContext : userList) {
             byte[] data = classContext.readClass(className);
             if (null != data) {
-                return data;
+                return new ClassData(data, classContext.getSource());
             }
         }
 
-        logger.error("{} not exist", className);
+        // parent class loader may try to find a class not in its classpath
+        logger.debug("{} not exist", className);
         return null;
     }
 
     @Override
     public byte[] readClass(String className) {
-        classBytesCaches.computeIfAbsent(
-                className,
-                this::readClassOneTime
-        );
-        return classBytesCaches.get(className);
+        ClassData classData = this.readClassData(className);
+        return null == classData ? null : classData.getBytes();
+    }
+
+    @Override
+    public String getSource() {
+        return "classpath";
+    }
+
+    /**
+     * bytes of a class file and where they are read from
+     */
+    public static class ClassData {
+
+        private final byte[] bytes;
+
+        private final String source;
+
+        ClassData(byte[] bytes, String source) {
+            this.bytes = bytes;
+            this.source = source;
+        }
+
+        public byte[] getBytes() {
+            return bytes;
+        }
+
+        public String getSource() {
+            return source;
+        }
     }
 }
@@ -55,6 +55,11 @@ class ZipClassContextImpl implements ClassContext {
         }
     }
 
+    @Override
+    public String getSource() {
+        return zipFile.getName();
+    }
+
     @Override
     public String toString() {
         return "ZipClassContextImpl{" +
@@ -42,6 +42,57 @@ public class Options {
      */
     private String Xjre;
 
+    /**
+     * -Xlog:metaspace
+     *
+     * print the metaspace report when main method finished
+     */
+    private boolean logMetaspaceFlag;
+
+    /**
+     * -Xlog:class+load
+     * or
+     * -verbose:class
+     *
+     * print the timeline of class loading and initialization as json lines
+     */
+    private boolean classLoadLogFlag;
+
+    /**
+     * -Xlog:alloc
+     *
+     * print the allocations per site when main method finished
+     */
+    private boolean allocationLogFlag;
+
+    /**
+     * -Xlog:histogram
+     *
+     * print the class histogram of objects reachable when main method finished
+     */
+    private boolean histogramLogFlag;
+
+    /**
+     * -XX:HeapDumpPath=&lt;file&gt;
+     *
+     * write the heap in HPROF format to file when main method finished, null if not given
+     */
+    private String heapDumpPath;
+
+    /**
+     * -Xmx&lt;size&gt;
+     *
+     * maximum bytes of heap, -1 if no limit
+     */
+    private long maxHeapSize = -1;
+
+    /**
+     * -Xms&lt;size&gt;
+     *
+     * initial bytes of heap, -1 if not given
+     */
+    private long initialHeapSize = -1;
+
     /**
      * parse command line
      *
@@ -76,8 +127,33 @@ public class Options {
                     options.Xjre = args[i + 1];
                     i += 2;
                     break;
+                case "-Xlog:metaspace":
+                    options.logMetaspaceFlag = true;
+                    i += 1;
+                    break;
+                case "-Xlog:alloc":
+                    options.allocationLogFlag = true;
+                    i += 1;
+                    break;
+                case "-Xlog:histogram":
+                    options.histogramLogFlag = true;
+                    i += 1;
+                    break;
+                case "-Xlog:class+load":
+                case "-verbose:class":
+                    options.classLoadLogFlag = true;
+                    i += 1;
+                    break;
                 default:
-                    logger.warn("[{}] cannot be recognized", nowArg);
+                    if(nowArg.startsWith("-Xmx")) {
+                        options.maxHeapSize = parseSize(nowArg.substring("-Xmx".length()));
+                    } else if(nowArg.startsWith("-Xms")) {
+                        options.initialHeapSize = parseSize(nowArg.substring("-Xms".length()));
+                    } else if(nowArg.startsWith("-XX:HeapDumpPath=")) {
+                        options.heapDumpPath = nowArg.substring("-XX:HeapDumpPath=".length());
+                    } else {
+                        logger.warn("[{}] cannot be recognized", nowArg);
+                    }
                     i += 1;
             }
         }
@@ -88,9 +164,51 @@ public class Options {
             options.Xjre = System.getProperty("java.home");
         }
 
+        if(options.maxHeapSize >= 0 && options.initialHeapSize > options.maxHeapSize) {
+            throw new IllegalArgumentException("Initial heap size set to a larger value than the maximum heap size");
+        }
+
         return i;
     }
 
+    /**
+     * like hotspot, k, m or g is allowed after the number,
+     * i.e 64m, 1g, 1024
+     * @param size text after -Xmx or -Xms
+     * @return bytes
+     */
+    static long parseSize(String size) {
+        if(size.isEmpty()) {
+            throw new IllegalArgumentException("Invalid heap size: " + size);
+        }
+        final char unit = Character.toLowerCase(size.charAt(size.length() - 1));
+        final int shift;
+        switch (unit) {
+            case 'k':
+                shift = 10;
+                break;
+            case 'm':
+                shift = 20;
+                break;
+            case 'g':
+                shift = 30;
+                break;
+            default:
+                shift = 0;
+        }
+        final String number = 0 == shift ? size : size.substring(0, size.length() - 1);
+        final long value;
+        try {
+            value = Long.parseLong(number);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid heap size: " + size, e);
+        }
+        if(value < 0 || value > (Long.MAX_VALUE >> shift)) {
+            throw new IllegalArgumentException("Invalid heap size: " + size);
+        }
+        return value << shift;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -122,4 +240,32 @@ public class Options {
     public String getXjre() {
         return Xjre;
     }
+
+    public boolean isLogMetaspaceFlag() {
+        return logMetaspaceFlag;
+    }
+
+    public boolean isClassLoadLogFlag() {
+        return classLoadLogFlag;
+    }
+
+    public boolean isAllocationLogFlag() {
+        return allocationLogFlag;
+    }
+
+    public boolean isHistogramLogFlag() {
+        return histogramLogFlag;
+    }
+
+    public String getHeapDumpPath() {
+        return heapDumpPath;
+    }
+
+    public long getMaxHeapSize() {
+        return maxHeapSize;
+    }
+
+    public long getInitialHeapSize() {
+        return initialHeapSize;
+    }
 }
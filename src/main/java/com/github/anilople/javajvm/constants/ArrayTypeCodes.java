@@ -106,4 +106,22 @@ public class ArrayTypeCodes {
                 throw new IllegalStateException("Unexpected value: " + typeCode);
         }
     }
+
+    /**
+     * @param clazz base type
+     * @return bytes of an element in array
+     */
+    public static int elementSize(Class<?> clazz) {
+        if(clazz.equals(boolean.class) || clazz.equals(byte.class)) {
+            return 1;
+        } else if(clazz.equals(short.class) || clazz.equals(char.class)) {
+            return 2;
+        } else if(clazz.equals(int.class) || clazz.equals(float.class)) {
+            return 4;
+        } else if(clazz.equals(long.class) || clazz.equals(double.class)) {
+            return 8;
+        } else {
+            throw new IllegalArgumentException("Not a base type " + clazz);
+        }
+    }
 }
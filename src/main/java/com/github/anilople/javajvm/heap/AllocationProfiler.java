@@ -0,0 +1,180 @@
+package com.github.anilople.javajvm.heap;
+
+import com.github.anilople.javajvm.runtimedataarea.Frame;
+import com.github.anilople.javajvm.runtimedataarea.JvmThread;
+import com.github.anilople.javajvm.runtimedataarea.Reference;
+import com.github.anilople.javajvm.runtimedataarea.reference.ArrayReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.ObjectReference;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * -Xlog:alloc
+ * <p>
+ * count and bytes of allocations, per (method, pc, class).
+ * every allocation accounted by {@link JvmHeap} is recorded,
+ * i.e new, newarray, anewarray, multianewarray,
+ * and the objects returned by native methods.
+ * the site of an allocation is the current frame of the thread interpreted,
+ * for a native method, it is the invoke instruction of its caller.
+ * allocations out of the interpreter, i.e vm initial, have no site.
+ * <p>
+ * the sites hold their methods and classes,
+ * so the records should be removed by {@link #reset()} when they are not needed,
+ * then the class loaders profiled can be reclaimed.
+ */
+public class AllocationProfiler {
+
+    private static volatile boolean enabled = false;
+
+    private static final Map<Site, Counter> COUNTERS = new ConcurrentHashMap<>();
+
+    private AllocationProfiler() {}
+
+    public static void enable() {
+        enabled = true;
+    }
+
+    public static void disable() {
+        enabled = false;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * remove all the records
+     */
+    public static void reset() {
+        COUNTERS.clear();
+    }
+
+    /**
+     * @param reference object or array allocated
+     * @param size estimated bytes of it
+     */
+    static void allocated(Reference reference, long size) {
+        JvmMethod jvmMethod = null;
+        int pc = -1;
+        JvmThread jvmThread = JvmThread.current();
+        if(null != jvmThread && jvmThread.existFrame()) {
+            Frame frame = jvmThread.currentFrame();
+            jvmMethod = frame.getJvmMethod();
+            pc = frame.getNextPc();
+        }
+        Site site;
+        if(reference instanceof ArrayReference) {
+            site = new Site(jvmMethod, pc, ((ArrayReference) reference).getComponentType(), true);
+        } else {
+            site = new Site(jvmMethod, pc, ((ObjectReference) reference).getJvmClass(), false);
+        }
+        Counter counter = COUNTERS.computeIfAbsent(site, key -> new Counter());
+        counter.count.increment();
+        counter.bytes.add(size);
+    }
+
+    /**
+     * sites allocate more bytes first.
+     * the records are kept
+     * @return lines of report
+     */
+    public static String report() {
+        List<Map.Entry<Site, Counter>> entries = new ArrayList<>(COUNTERS.entrySet());
+        entries.sort(Comparator.comparingLong((Map.Entry<Site, Counter> entry) -> entry.getValue().bytes.sum()).reversed());
+
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append(String.format("%12s %10s  %-40s %s%n", "bytes", "count", "class", "site"));
+        long totalBytes = 0;
+        long totalCount = 0;
+        for(Map.Entry<Site, Counter> entry : entries) {
+            long bytes = entry.getValue().bytes.sum();
+            long count = entry.getValue().count.sum();
+            totalBytes += bytes;
+            totalCount += count;
+            stringBuilder.append(String.format(
+                    "%12d %10d  %-40s %s%n",
+                    bytes,
+                    count,
+                    entry.getKey().className(),
+                    entry.getKey().location()
+            ));
+        }
+        stringBuilder.append(String.format("%12d %10d  in %d sites%n", totalBytes, totalCount, entries.size()));
+        return stringBuilder.toString();
+    }
+
+    /**
+     * where an allocation happens, and what is allocated
+     */
+    private static class Site {
+
+        /**
+         * null if out of interpreter
+         */
+        private final JvmMethod jvmMethod;
+
+        private final int pc;
+
+        /**
+         * class of object, or component type of array
+         */
+        private final JvmClass jvmClass;
+
+        private final boolean array;
+
+        Site(JvmMethod jvmMethod, int pc, JvmClass jvmClass, boolean array) {
+            this.jvmMethod = jvmMethod;
+            this.pc = pc;
+            this.jvmClass = jvmClass;
+            this.array = array;
+        }
+
+        String className() {
+            return array ? jvmClass.getJavaLevelClassName() + "[]" : jvmClass.getJavaLevelClassName();
+        }
+
+        /**
+         * i.e java/lang/String.substring(II)Ljava/lang/String;:1933 pc=52
+         */
+        String location() {
+            if(null == jvmMethod) {
+                return "<vm>";
+            }
+            return jvmMethod.getJvmClass().getName() + "." + jvmMethod.getName() + jvmMethod.getDescriptor()
+                    + ":" + jvmMethod.getLineNumber(pc) + " pc=" + pc;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Site site = (Site) o;
+            return pc == site.pc &&
+                    array == site.array &&
+                    jvmMethod == site.jvmMethod &&
+                    jvmClass == site.jvmClass;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(jvmMethod);
+            result = 31 * result + pc;
+            result = 31 * result + System.identityHashCode(jvmClass);
+            result = 31 * result + (array ? 1 : 0);
+            return result;
+        }
+    }
+
+    private static class Counter {
+
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder bytes = new LongAdder();
+    }
+}
@@ -0,0 +1,198 @@
+package com.github.anilople.javajvm.heap;
+
+import com.github.anilople.javajvm.runtimedataarea.JvmThread;
+
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * -Xlog:class+load or -verbose:class
+ * <p>
+ * every event is a json object in one line, so it can be parsed by tools easily.
+ * <pre>
+ * {"event":"load","class":"java/lang/Object","source":"/jre/lib/rt.jar","trigger":null,"readNanos":1,"parseNanos":2,"linkNanos":3}
+ * {"event":"initialize","class":"java/lang/Object","trigger":"Main","clinitNanos":4,"success":true}
+ * {"event":"startup","classpathNanos":1,"vmInitialNanos":2,"mainClassLoadNanos":3,"timeToMainNanos":6}
+ * </pre>
+ * Time of a class loading excludes the loading of other classes nested in it,
+ * i.e its super class and interfaces.
+ * Time of "&lt;clinit&gt;" is from the frame pushed to it returns,
+ * so the "&lt;clinit&gt;" of super class is included.
+ */
+public class ClassLoadingTimeline {
+
+    /**
+     * null means disabled
+     */
+    private static volatile PrintStream output = null;
+
+    /**
+     * classes being loaded by current thread,
+     * the one on top is the trigger of the classes loaded nested
+     */
+    private static final ThreadLocal<Deque<Loading>> LOADING = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private static final Map<String, Long> PHASES = new LinkedHashMap<>();
+
+    private ClassLoadingTimeline() {}
+
+    public static void enable(PrintStream printStream) {
+        output = printStream;
+    }
+
+    public static void disable() {
+        output = null;
+    }
+
+    public static boolean isEnabled() {
+        return null != output;
+    }
+
+    /**
+     * which class cause the loading happen now
+     * @return null if unknown
+     */
+    private static String currentTrigger() {
+        Loading loading = LOADING.get().peek();
+        if(null != loading) {
+            return loading.className;
+        }
+        JvmThread jvmThread = JvmThread.current();
+        if(null != jvmThread && jvmThread.existFrame()) {
+            return jvmThread.currentFrame().getJvmMethod().getJvmClass().getName();
+        }
+        return null;
+    }
+
+    /**
+     * class given start loading by current thread
+     */
+    static void loadStart(String className) {
+        Loading loading = new Loading(className, currentTrigger());
+        LOADING.get().push(loading);
+    }
+
+    /**
+     * the class on top finished loading
+     */
+    static void loadEnd(String source, long readNanos, long parseNanos, long linkNanos) {
+        Deque<Loading> deque = LOADING.get();
+        Loading loading = deque.pop();
+        long exclusiveLinkNanos = linkNanos - loading.nestedNanos;
+        Loading parent = deque.peek();
+        if(null != parent) {
+            parent.nestedNanos += readNanos + parseNanos + linkNanos;
+        }
+        print(
+                "{\"event\":\"load\",\"class\":" + quote(loading.className)
+                        + ",\"source\":" + quote(source)
+                        + ",\"trigger\":" + quote(loading.trigger)
+                        + ",\"readNanos\":" + readNanos
+                        + ",\"parseNanos\":" + parseNanos
+                        + ",\"linkNanos\":" + exclusiveLinkNanos
+                        + "}"
+        );
+    }
+
+    /**
+     * the class on top failed loading
+     */
+    static void loadFailed() {
+        LOADING.get().pop();
+    }
+
+    /**
+     * @param trigger which class cause the initialization
+     * @param clinitNanos time of "&lt;clinit&gt;"
+     * @param success "&lt;clinit&gt;" completes normally or not
+     */
+    static void initialized(String className, String trigger, long clinitNanos, boolean success) {
+        print(
+                "{\"event\":\"initialize\",\"class\":" + quote(className)
+                        + ",\"trigger\":" + quote(trigger)
+                        + ",\"clinitNanos\":" + clinitNanos
+                        + ",\"success\":" + success
+                        + "}"
+        );
+    }
+
+    /**
+     * a phase of start up finished
+     * @param phase name of phase, camel case
+     * @param nanos time of phase
+     */
+    public static void phase(String phase, long nanos) {
+        synchronized (PHASES) {
+            PHASES.put(phase, nanos);
+        }
+    }
+
+    /**
+     * print the phases recorded before main method invoked
+     * @param timeToMainNanos time from jvm start to main method invoked
+     */
+    public static void startup(long timeToMainNanos) {
+        StringBuilder stringBuilder = new StringBuilder("{\"event\":\"startup\"");
+        synchronized (PHASES) {
+            for(Map.Entry<String, Long> entry : PHASES.entrySet()) {
+                stringBuilder.append(',').append(quote(entry.getKey() + "Nanos")).append(':').append(entry.getValue());
+            }
+        }
+        stringBuilder.append(",\"timeToMainNanos\":").append(timeToMainNanos).append('}');
+        print(stringBuilder.toString());
+    }
+
+    private static void print(String line) {
+        PrintStream printStream = output;
+        if(null != printStream) {
+            printStream.println(line);
+        }
+    }
+
+    /**
+     * json string
+     */
+    static String quote(String value) {
+        if(null == value) {
+            return "null";
+        }
+        StringBuilder stringBuilder = new StringBuilder(value.length() + 2).append('"');
+        for(char c : value.toCharArray()) {
+            switch (c) {
+                case '"':
+                    stringBuilder.append("\\\"");
+                    break;
+                case '\\':
+                    stringBuilder.append("\\\\");
+                    break;
+                default:
+                    if(c < 0x20) {
+                        stringBuilder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        stringBuilder.append(c);
+                    }
+            }
+        }
+        return stringBuilder.append('"').toString();
+    }
+
+    private static class Loading {
+
+        private final String className;
+
+        private final String trigger;
+
+        /**
+         * time used by the classes loaded nested
+         */
+        private long nestedNanos;
+
+        Loading(String className, String trigger) {
+            this.className = className;
+            this.trigger = trigger;
+        }
+    }
+}
@@ -0,0 +1,696 @@
+package com.github.anilople.javajvm.heap;
+
+import com.github.anilople.javajvm.cachepool.StringPool;
+import com.github.anilople.javajvm.constants.ArrayTypeCodes;
+import com.github.anilople.javajvm.runtimedataarea.Frame;
+import com.github.anilople.javajvm.runtimedataarea.JvmThread;
+import com.github.anilople.javajvm.runtimedataarea.LocalVariable;
+import com.github.anilople.javajvm.runtimedataarea.LocalVariables;
+import com.github.anilople.javajvm.runtimedataarea.Reference;
+import com.github.anilople.javajvm.runtimedataarea.reference.ArrayReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.BaseTypeArrayReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.BooleanArrayReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.ByteArrayReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.CharArrayReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.ClassObjectReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.DoubleArrayReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.FloatArrayReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.HeapReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.IntArrayReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.LongArrayReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.ObjectArrayReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.ObjectReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.ShortArrayReference;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * a snapshot of the objects reachable from roots,
+ * i.e static fields of classes, frames of threads and strings in {@link StringPool}.
+ * <p>
+ * it can be printed as a class histogram like "jmap -histo",
+ * or written in HPROF format, JAVA PROFILE 1.0.2, for the tools analysing heap dump.
+ * <p>
+ * a java.lang.Class object is dumped as the class it represents,
+ * bytes are estimated like {@link JvmHeap}.
+ */
+public class HeapDump {
+
+    private static final String HPROF_HEADER = "JAVA PROFILE 1.0.2";
+
+    private static final int ID_SIZE = 8;
+
+    // tags of top level records
+    private static final int TAG_STRING = 0x01;
+    private static final int TAG_LOAD_CLASS = 0x02;
+    private static final int TAG_STACK_FRAME = 0x04;
+    private static final int TAG_STACK_TRACE = 0x05;
+    private static final int TAG_HEAP_DUMP_SEGMENT = 0x1C;
+    private static final int TAG_HEAP_DUMP_END = 0x2C;
+
+    // tags of sub records in heap dump segment
+    private static final int TAG_ROOT_UNKNOWN = 0xFF;
+    private static final int TAG_ROOT_JAVA_FRAME = 0x03;
+    private static final int TAG_ROOT_STICKY_CLASS = 0x05;
+    private static final int TAG_CLASS_DUMP = 0x20;
+    private static final int TAG_INSTANCE_DUMP = 0x21;
+    private static final int TAG_OBJECT_ARRAY_DUMP = 0x22;
+    private static final int TAG_PRIMITIVE_ARRAY_DUMP = 0x23;
+
+    /**
+     * basic type of object, primitive ones are same as {@link ArrayTypeCodes}
+     */
+    private static final int TYPE_OBJECT = 2;
+
+    /**
+     * a segment is flushed when it is bigger than this
+     */
+    private static final int SEGMENT_SIZE = 1 << 20;
+
+    /**
+     * serial of the stack trace for allocations, which is not recorded
+     */
+    private static final int UNKNOWN_STACK_TRACE = 1;
+
+    /**
+     * frames of each thread when the snapshot taken, top frame first
+     */
+    private final List<List<FrameRoots>> threads = new ArrayList<>();
+
+    /**
+     * objects and arrays, in the order they are found
+     */
+    private final List<HeapReference> objects = new ArrayList<>();
+
+    /**
+     * classes loaded, and classes of objects
+     */
+    private final Set<JvmClass> jvmClasses = new LinkedHashSet<>();
+
+    private final List<HeapReference> stringPoolRoots;
+
+    /**
+     * ids of objects, and ids of classes, a class shares id with its java.lang.Class
+     */
+    private final Map<Object, Long> ids = new IdentityHashMap<>();
+
+    private long nextId = 0x1000;
+
+    private HeapDump(Collection<JvmClassLoader> jvmClassLoaders, Collection<JvmThread> jvmThreads) {
+        for(JvmThread jvmThread : jvmThreads) {
+            List<FrameRoots> frames = new ArrayList<>();
+            for(Frame frame : jvmThread.dumpFrames()) {
+                frames.add(new FrameRoots(frame));
+            }
+            Collections.reverse(frames);
+            this.threads.add(frames);
+        }
+        this.stringPoolRoots = new ArrayList<>();
+        for(JvmClassLoader jvmClassLoader : jvmClassLoaders) {
+            if(null == jvmClassLoader.getParent()) {
+                this.stringPoolRoots.addAll(jvmClassLoader.getStringPool().strings());
+            }
+            this.jvmClasses.addAll(jvmClassLoader.getLoadedClasses());
+        }
+        this.walk();
+    }
+
+    /**
+     * walk the heap from roots
+     * @param jvmClassLoader classes loaded by it and its ancestors are roots
+     * @param jvmThreads threads whose frames are roots
+     */
+    public static HeapDump of(JvmClassLoader jvmClassLoader, Collection<JvmThread> jvmThreads) {
+        List<JvmClassLoader> jvmClassLoaders = new ArrayList<>();
+        for(JvmClassLoader loader = jvmClassLoader; null != loader; loader = loader.getParent()) {
+            jvmClassLoaders.add(loader);
+        }
+        return new HeapDump(jvmClassLoaders, jvmThreads);
+    }
+
+    private void walk() {
+        final Deque<Reference> stack = new ArrayDeque<>();
+        for(JvmClass jvmClass : new ArrayList<>(jvmClasses)) {
+            pushStaticReferences(stack, jvmClass);
+            addSuperClass(stack, jvmClass);
+        }
+        for(List<FrameRoots> frames : threads) {
+            for(FrameRoots frame : frames) {
+                stack.addAll(frame.references);
+            }
+        }
+        stack.addAll(stringPoolRoots);
+
+        while (!stack.isEmpty()) {
+            final Reference reference = stack.pop();
+            if(!(reference instanceof HeapReference) || ids.containsKey(reference)) {
+                continue;
+            }
+            if(reference instanceof ClassObjectReference) {
+                final JvmClass jvmClass = ((ClassObjectReference) reference).getRepresentedJvmClass();
+                ids.put(reference, idOf(jvmClass));
+                addClass(stack, jvmClass);
+            } else {
+                ids.put(reference, nextId());
+                objects.add((HeapReference) reference);
+                addClass(stack, classOf((HeapReference) reference));
+            }
+            if(reference instanceof ObjectReference) {
+                final ObjectReference objectReference = (ObjectReference) reference;
+                for(int i = 0; i < objectReference.getJvmClass().getReferenceFieldsSize(); i++) {
+                    stack.push(objectReference.getReference(i));
+                }
+            } else if(reference instanceof ObjectArrayReference) {
+                for(Reference element : ((ObjectArrayReference) reference).getArray()) {
+                    stack.push(element);
+                }
+            }
+        }
+    }
+
+    private void addClass(Deque<Reference> stack, JvmClass jvmClass) {
+        if(jvmClasses.add(jvmClass)) {
+            pushStaticReferences(stack, jvmClass);
+            addSuperClass(stack, jvmClass);
+        }
+    }
+
+    /**
+     * super classes are needed by class dump,
+     * they are added when the traversal is running, so their statics are walked
+     */
+    private void addSuperClass(Deque<Reference> stack, JvmClass jvmClass) {
+        if(null != jvmClass.getSuperClass()) {
+            addClass(stack, jvmClass.getSuperClass());
+        }
+    }
+
+    private static void pushStaticReferences(Deque<Reference> stack, JvmClass jvmClass) {
+        if(null != jvmClass.getStaticFieldsValue()) {
+            stack.addAll(jvmClass.getStaticFieldsValue().getReferences());
+        }
+        if(null != jvmClass.getClassObjectReference()) {
+            stack.push(jvmClass.getClassObjectReference());
+        }
+    }
+
+    private long nextId() {
+        final long id = nextId;
+        nextId += ID_SIZE;
+        return id;
+    }
+
+    private long idOf(JvmClass jvmClass) {
+        return ids.computeIfAbsent(jvmClass, key -> nextId());
+    }
+
+    /**
+     * @return 0 for null
+     */
+    private long idOf(Reference reference) {
+        if(Reference.isNull(reference)) {
+            return 0;
+        }
+        if(reference instanceof ClassObjectReference) {
+            return idOf(((ClassObjectReference) reference).getRepresentedJvmClass());
+        }
+        Long id = ids.get(reference);
+        return null == id ? 0 : id;
+    }
+
+    /**
+     * @return class of object, or type of array
+     */
+    private static JvmClass classOf(HeapReference heapReference) {
+        if(heapReference instanceof ArrayReference) {
+            return ((ArrayReference) heapReference).resolveType();
+        } else {
+            return ((ObjectReference) heapReference).getJvmClass();
+        }
+    }
+
+    /**
+     * @return estimated bytes of object or array
+     */
+    private static long sizeOf(HeapReference heapReference) {
+        if(heapReference instanceof BaseTypeArrayReference) {
+            BaseTypeArrayReference array = (BaseTypeArrayReference) heapReference;
+            return JvmHeap.arraySize(array.length(), ArrayTypeCodes.elementSize(ArrayTypeCodes.typeCode2PrimitiveClass(array.getTypeCode())));
+        } else if(heapReference instanceof ArrayReference) {
+            return JvmHeap.arraySize(((ArrayReference) heapReference).length(), JvmHeap.REFERENCE_SIZE);
+        } else {
+            JvmClass jvmClass = ((ObjectReference) heapReference).getJvmClass();
+            return JvmHeap.objectSize(jvmClass.getPrimitiveFieldsSize(), jvmClass.getReferenceFieldsSize());
+        }
+    }
+
+    /**
+     * @return count of objects and arrays walked, java.lang.Class excluded
+     */
+    public int getObjectCount() {
+        return objects.size();
+    }
+
+    /**
+     * @return estimated bytes of objects and arrays walked
+     */
+    public long getTotalBytes() {
+        long total = 0;
+        for(HeapReference heapReference : objects) {
+            total += sizeOf(heapReference);
+        }
+        return total;
+    }
+
+    /**
+     * like "jmap -histo", class with more bytes first
+     * @return lines of histogram
+     */
+    public String histogram() {
+        final Map<JvmClass, long[]> countAndBytes = new IdentityHashMap<>();
+        for(HeapReference heapReference : objects) {
+            long[] entry = countAndBytes.computeIfAbsent(classOf(heapReference), key -> new long[2]);
+            entry[0]++;
+            entry[1] += sizeOf(heapReference);
+        }
+        List<Map.Entry<JvmClass, long[]>> entries = new ArrayList<>(countAndBytes.entrySet());
+        entries.sort(Comparator.comparingLong((Map.Entry<JvmClass, long[]> entry) -> entry.getValue()[1]).reversed());
+
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append(String.format("%5s %12s %12s  %s%n", "num", "#instances", "#bytes", "class name"));
+        long totalCount = 0;
+        long totalBytes = 0;
+        int num = 0;
+        for(Map.Entry<JvmClass, long[]> entry : entries) {
+            num++;
+            totalCount += entry.getValue()[0];
+            totalBytes += entry.getValue()[1];
+            stringBuilder.append(String.format(
+                    "%4d: %12d %12d  %s%n",
+                    num,
+                    entry.getValue()[0],
+                    entry.getValue()[1],
+                    entry.getKey().getJavaLevelClassName()
+            ));
+        }
+        stringBuilder.append(String.format("Total %12d %12d%n", totalCount, totalBytes));
+        return stringBuilder.toString();
+    }
+
+    /**
+     * write the heap dump to file in HPROF format
+     */
+    public void writeHprof(String path) throws IOException {
+        try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(path))) {
+            writeHprof(outputStream);
+        }
+    }
+
+    /**
+     * write the heap dump in HPROF format, JAVA PROFILE 1.0.2.
+     * the output stream is not closed
+     */
+    public void writeHprof(OutputStream outputStream) throws IOException {
+        new HprofWriter(new DataOutputStream(outputStream)).write();
+    }
+
+    private class HprofWriter {
+
+        private final DataOutputStream out;
+
+        private final Map<String, Long> stringIds = new HashMap<>();
+
+        private final Map<JvmClass, Integer> classSerials = new IdentityHashMap<>();
+
+        private ByteArrayOutputStream segmentBuffer = new ByteArrayOutputStream();
+
+        private DataOutputStream segment = new DataOutputStream(segmentBuffer);
+
+        HprofWriter(DataOutputStream out) {
+            this.out = out;
+        }
+
+        void write() throws IOException {
+            out.write(HPROF_HEADER.getBytes(StandardCharsets.US_ASCII));
+            out.writeByte(0);
+            out.writeInt(ID_SIZE);
+            out.writeLong(System.currentTimeMillis());
+
+            for(JvmClass jvmClass : jvmClasses) {
+                writeLoadClass(jvmClass);
+            }
+            writeRecordHeader(TAG_STACK_TRACE, 4 + 4 + 4);
+            out.writeInt(UNKNOWN_STACK_TRACE);
+            out.writeInt(0);
+            out.writeInt(0);
+            writeThreads();
+
+            for(JvmClass jvmClass : jvmClasses) {
+                writeClassDump(jvmClass);
+            }
+            for(HeapReference heapReference : objects) {
+                if(heapReference instanceof ObjectReference) {
+                    writeInstanceDump((ObjectReference) heapReference);
+                } else if(heapReference instanceof ObjectArrayReference) {
+                    writeObjectArrayDump((ObjectArrayReference) heapReference);
+                } else {
+                    writePrimitiveArrayDump((BaseTypeArrayReference) heapReference);
+                }
+                flushSegmentIfFull();
+            }
+            for(HeapReference string : stringPoolRoots) {
+                segment.writeByte(TAG_ROOT_UNKNOWN);
+                writeId(segment, idOf(string));
+            }
+            flushSegment();
+            writeRecordHeader(TAG_HEAP_DUMP_END, 0);
+            out.flush();
+        }
+
+        private void writeRecordHeader(int tag, int length) throws IOException {
+            out.writeByte(tag);
+            // micro seconds since the time in header
+            out.writeInt(0);
+            out.writeInt(length);
+        }
+
+        private void writeId(DataOutputStream dataOutputStream, long id) throws IOException {
+            dataOutputStream.writeLong(id);
+        }
+
+        /**
+         * @return id of utf8 string, written when first used
+         */
+        private long stringId(String string) throws IOException {
+            Long id = stringIds.get(string);
+            if(null != id) {
+                return id;
+            }
+            final long newId = stringIds.size() + 1;
+            final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            writeRecordHeader(TAG_STRING, ID_SIZE + bytes.length);
+            writeId(out, newId);
+            out.write(bytes);
+            stringIds.put(string, newId);
+            return newId;
+        }
+
+        private void writeLoadClass(JvmClass jvmClass) throws IOException {
+            final long nameId = stringId(jvmClass.getName());
+            final int serial = classSerials.size() + 1;
+            classSerials.put(jvmClass, serial);
+            writeRecordHeader(TAG_LOAD_CLASS, 4 + ID_SIZE + 4 + ID_SIZE);
+            out.writeInt(serial);
+            writeId(out, idOf(jvmClass));
+            out.writeInt(UNKNOWN_STACK_TRACE);
+            writeId(out, nameId);
+        }
+
+        /**
+         * a stack trace per thread, the references in frames are roots
+         */
+        private void writeThreads() throws IOException {
+            long frameId = 1;
+            for(int i = 0; i < threads.size(); i++) {
+                final int threadSerial = i + 1;
+                final List<FrameRoots> frames = threads.get(i);
+                final long firstFrameId = frameId;
+                for(FrameRoots frame : frames) {
+                    final JvmMethod jvmMethod = frame.jvmMethod;
+                    final long methodNameId = stringId(jvmMethod.getName());
+                    final long signatureId = stringId(jvmMethod.getDescriptor());
+                    writeRecordHeader(TAG_STACK_FRAME, 4 * ID_SIZE + 4 + 4);
+                    writeId(out, frameId++);
+                    writeId(out, methodNameId);
+                    writeId(out, signatureId);
+                    writeId(out, 0);
+                    out.writeInt(classSerials.getOrDefault(jvmMethod.getJvmClass(), 0));
+                    out.writeInt(jvmMethod.getLineNumber(frame.pc));
+                }
+                writeRecordHeader(TAG_STACK_TRACE, 4 + 4 + 4 + frames.size() * ID_SIZE);
+                out.writeInt(UNKNOWN_STACK_TRACE + threadSerial);
+                out.writeInt(threadSerial);
+                out.writeInt(frames.size());
+                for(long id = firstFrameId; id < frameId; id++) {
+                    writeId(out, id);
+                }
+
+                for(int depth = 0; depth < frames.size(); depth++) {
+                    for(Reference reference : frames.get(depth).references) {
+                        segment.writeByte(TAG_ROOT_JAVA_FRAME);
+                        writeId(segment, idOf(reference));
+                        segment.writeInt(threadSerial);
+                        segment.writeInt(depth);
+                    }
+                }
+            }
+        }
+
+        private void writeClassDump(JvmClass jvmClass) throws IOException {
+            final List<JvmField> staticFields = new ArrayList<>();
+            final List<JvmField> instanceFields = new ArrayList<>();
+            for(JvmField jvmField : jvmClass.getJvmFields()) {
+                if(jvmField.isStatic()) {
+                    staticFields.add(jvmField);
+                } else {
+                    instanceFields.add(jvmField);
+                }
+            }
+            // names of fields are top level records
+            for(JvmField jvmField : jvmClass.getJvmFields()) {
+                stringId(jvmField.getName());
+            }
+
+            segment.writeByte(TAG_ROOT_STICKY_CLASS);
+            writeId(segment, idOf(jvmClass));
+
+            segment.writeByte(TAG_CLASS_DUMP);
+            writeId(segment, idOf(jvmClass));
+            segment.writeInt(UNKNOWN_STACK_TRACE);
+            writeId(segment, null == jvmClass.getSuperClass() ? 0 : idOf(jvmClass.getSuperClass()));
+            // class loader, signers, protection domain, 2 reserved
+            for(int i = 0; i < 5; i++) {
+                writeId(segment, 0);
+            }
+            segment.writeInt(jvmClass.isArrayType() || jvmClass.isPrimitiveType() ?
+                    0 : (int) JvmHeap.objectSize(jvmClass.getPrimitiveFieldsSize(), jvmClass.getReferenceFieldsSize()));
+            // constant pool
+            segment.writeShort(0);
+
+            segment.writeShort(staticFields.size());
+            final LocalVariables staticFieldsValue = jvmClass.getStaticFieldsValue();
+            for(JvmField jvmField : staticFields) {
+                writeId(segment, stringId(jvmField.getName()));
+                final int type = typeOf(jvmField.getDescriptor());
+                segment.writeByte(type);
+                writeStaticValue(staticFieldsValue, jvmField.getStaticFieldOffset(), type);
+            }
+
+            segment.writeShort(instanceFields.size());
+            for(JvmField jvmField : instanceFields) {
+                writeId(segment, stringId(jvmField.getName()));
+                segment.writeByte(typeOf(jvmField.getDescriptor()));
+            }
+            flushSegmentIfFull();
+        }
+
+        private void writeStaticValue(LocalVariables staticFieldsValue, int offset, int type) throws IOException {
+            // null for the classes made by jvm, i.e array classes
+            final LocalVariable localVariable = null == staticFieldsValue ? null : staticFieldsValue.getLocalVariable(offset);
+            if(TYPE_OBJECT == type) {
+                writeId(segment, null == localVariable || null == localVariable.getReference() ? 0 : idOf(localVariable.getReference()));
+                return;
+            }
+            if(ArrayTypeCodes.T_LONG == type || ArrayTypeCodes.T_DOUBLE == type) {
+                segment.writeLong(null == localVariable ? 0 : localVariable.getLongValue());
+            } else {
+                writePrimitive(type, null == localVariable ? 0 : localVariable.getIntValue());
+            }
+        }
+
+        private void writePrimitive(int type, int value) throws IOException {
+            switch (type) {
+                case ArrayTypeCodes.T_BOOLEAN:
+                case ArrayTypeCodes.T_BYTE:
+                    segment.writeByte(value);
+                    break;
+                case ArrayTypeCodes.T_CHAR:
+                case ArrayTypeCodes.T_SHORT:
+                    segment.writeShort(value);
+                    break;
+                default:
+                    segment.writeInt(value);
+            }
+        }
+
+        /**
+         * values of fields, from this class to its ancestors
+         */
+        private void writeInstanceDump(ObjectReference objectReference) throws IOException {
+            final ByteArrayOutputStream valuesBuffer = new ByteArrayOutputStream();
+            final DataOutputStream values = new DataOutputStream(valuesBuffer);
+            for(JvmClass jvmClass = objectReference.getJvmClass(); null != jvmClass; jvmClass = jvmClass.getSuperClass()) {
+                for(JvmField jvmField : jvmClass.getJvmFields()) {
+                    if(jvmField.isStatic()) {
+                        continue;
+                    }
+                    final int offset = jvmField.calculateNonStaticFieldOffset();
+                    switch (typeOf(jvmField.getDescriptor())) {
+                        case TYPE_OBJECT:
+                            writeId(values, idOf(objectReference.getReference(offset)));
+                            break;
+                        case ArrayTypeCodes.T_BOOLEAN:
+                        case ArrayTypeCodes.T_BYTE:
+                            values.writeByte(objectReference.getIntValue(offset));
+                            break;
+                        case ArrayTypeCodes.T_CHAR:
+                        case ArrayTypeCodes.T_SHORT:
+                            values.writeShort(objectReference.getIntValue(offset));
+                            break;
+                        case ArrayTypeCodes.T_LONG:
+                        case ArrayTypeCodes.T_DOUBLE:
+                            values.writeLong(objectReference.getLongValue(offset));
+                            break;
+                        default:
+                            values.writeInt(objectReference.getIntValue(offset));
+                    }
+                }
+            }
+            segment.writeByte(TAG_INSTANCE_DUMP);
+            writeId(segment, idOf(objectReference));
+            segment.writeInt(UNKNOWN_STACK_TRACE);
+            writeId(segment, idOf(objectReference.getJvmClass()));
+            segment.writeInt(valuesBuffer.size());
+            valuesBuffer.writeTo(segment);
+        }
+
+        private void writeObjectArrayDump(ObjectArrayReference array) throws IOException {
+            segment.writeByte(TAG_OBJECT_ARRAY_DUMP);
+            writeId(segment, idOf(array));
+            segment.writeInt(UNKNOWN_STACK_TRACE);
+            segment.writeInt(array.length());
+            writeId(segment, idOf(array.resolveType()));
+            for(Reference element : array.getArray()) {
+                writeId(segment, idOf(element));
+            }
+        }
+
+        private void writePrimitiveArrayDump(BaseTypeArrayReference array) throws IOException {
+            segment.writeByte(TAG_PRIMITIVE_ARRAY_DUMP);
+            writeId(segment, idOf(array));
+            segment.writeInt(UNKNOWN_STACK_TRACE);
+            segment.writeInt(array.length());
+            segment.writeByte(array.getTypeCode());
+            switch (array.getTypeCode()) {
+                case ArrayTypeCodes.T_BOOLEAN:
+                    for(boolean value : ((BooleanArrayReference) array).getArray()) {
+                        segment.writeBoolean(value);
+                    }
+                    break;
+                case ArrayTypeCodes.T_BYTE:
+                    segment.write(((ByteArrayReference) array).getArray());
+                    break;
+                case ArrayTypeCodes.T_CHAR:
+                    for(char value : ((CharArrayReference) array).getArray()) {
+                        segment.writeChar(value);
+                    }
+                    break;
+                case ArrayTypeCodes.T_SHORT:
+                    for(short value : ((ShortArrayReference) array).getArray()) {
+                        segment.writeShort(value);
+                    }
+                    break;
+                case ArrayTypeCodes.T_INT:
+                    for(int value : ((IntArrayReference) array).getArray()) {
+                        segment.writeInt(value);
+                    }
+                    break;
+                case ArrayTypeCodes.T_FLOAT:
+                    for(float value : ((FloatArrayReference) array).getArray()) {
+                        segment.writeFloat(value);
+                    }
+                    break;
+                case ArrayTypeCodes.T_LONG:
+                    for(long value : ((LongArrayReference) array).getArray()) {
+                        segment.writeLong(value);
+                    }
+                    break;
+                case ArrayTypeCodes.T_DOUBLE:
+                    for(double value : ((DoubleArrayReference) array).getArray()) {
+                        segment.writeDouble(value);
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("Unexpected value: " + array.getTypeCode());
+            }
+        }
+
+        private void flushSegmentIfFull() throws IOException {
+            if(segmentBuffer.size() >= SEGMENT_SIZE) {
+                flushSegment();
+            }
+        }
+
+        private void flushSegment() throws IOException {
+            segment.flush();
+            if(segmentBuffer.size() > 0) {
+                writeRecordHeader(TAG_HEAP_DUMP_SEGMENT, segmentBuffer.size());
+                segmentBuffer.writeTo(out);
+            }
+            segmentBuffer = new ByteArrayOutputStream();
+            segment = new DataOutputStream(segmentBuffer);
+        }
+    }
+
+    /**
+     * a frame when the snapshot taken
+     */
+    private static class FrameRoots {
+
+        private final JvmMethod jvmMethod;
+
+        private final int pc;
+
+        /**
+         * in local variables and operand stack
+         */
+        private final List<Reference> references = new ArrayList<>();
+
+        FrameRoots(Frame frame) {
+            this.jvmMethod = frame.getJvmMethod();
+            this.pc = frame.getPc();
+            this.references.addAll(frame.getLocalVariables().getReferences());
+            this.references.addAll(frame.getOperandStacks().getReferences());
+        }
+    }
+
+    /**
+     * @param descriptor field descriptor
+     * @return basic type in HPROF
+     */
+    private static int typeOf(String descriptor) {
+        final char first = descriptor.charAt(0);
+        if('L' == first || '[' == first) {
+            return TYPE_OBJECT;
+        }
+        return ArrayTypeCodes.fromDescriptor(descriptor);
+    }
+}
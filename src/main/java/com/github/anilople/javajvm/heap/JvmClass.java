@@ -1,12 +1,21 @@
 package com.github.anilople.javajvm.heap;
 
 import com.github.anilople.javajvm.classfile.ClassFile;
+import com.github.anilople.javajvm.classfile.attributes.AttributeInfo;
+import com.github.anilople.javajvm.classfile.attributes.BootstrapMethodsAttribute;
+import com.github.anilople.javajvm.classfile.attributes.SourceFileAttribute;
 import com.github.anilople.javajvm.constants.AccessFlags;
 import com.github.anilople.javajvm.constants.SpecialMethods;
+import com.github.anilople.javajvm.runtimedataarea.Frame;
+import com.github.anilople.javajvm.runtimedataarea.JvmThread;
 import com.github.anilople.javajvm.runtimedataarea.LocalVariables;
+import com.github.anilople.javajvm.runtimedataarea.Reference;
+import com.github.anilople.javajvm.runtimedataarea.reference.ClassObjectReference;
 import com.github.anilople.javajvm.utils.ClassNameConverterUtils;
+import com.github.anilople.javajvm.utils.ConstantPoolUtils;
 import com.github.anilople.javajvm.utils.DescriptorUtils;
 import com.github.anilople.javajvm.utils.JvmClassUtils;
+import com.github.anilople.javajvm.utils.HackUtils;
 import com.github.anilople.javajvm.utils.ReflectionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,7 +23,6 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Objects;
 
 /**
  * a class in runtime,
@@ -61,6 +69,85 @@ public class JvmClass {
      */
     private LocalVariables staticFieldsValue;
 
+    /**
+     * slots of primitive values in an object of this class, including super classes,
+     * long and double occupy 2 slots
+     */
+    private int primitiveFieldsSize;
+
+    /**
+     * count of reference fields in an object of this class, including super classes
+     */
+    private int referenceFieldsSize;
+
+    /**
+     * the reference fields of a new object, all are null,
+     * a new object copies it
+     */
+    private Reference[] referenceFieldsTemplate = EMPTY_REFERENCES;
+
+    private static final Reference[] EMPTY_REFERENCES = new Reference[0];
+
+    /**
+     * object of java.lang.Class is special
+     * @see ClassObjectReference
+     */
+    private boolean javaLangClass;
+
+    /**
+     * jvms 5.5 Initialization
+     * the state of "<clinit>", class is initialized lazily,
+     * on its first active use
+     */
+    private volatile InitializationState initializationState = InitializationState.NOT_INITIALIZED;
+
+    /**
+     * jvms 5.5, the thread initializing this class, null if no one
+     */
+    private JvmThread initializationThread;
+
+    /**
+     * the host thread interpreting {@link #initializationThread}
+     */
+    private Thread initializationHostThread;
+
+    /**
+     * how often a thread waiting for the initialization checks the initializing thread is alive
+     */
+    private static final long INITIALIZATION_CHECK_MILLIS = 100;
+
+    /**
+     * jvms 5.5, the initialization lock LC of this class,
+     * other threads wait on it until the initialization completes
+     */
+    private final Object initializationLock = new Object();
+
+    /**
+     * java.lang.Class of this class, created at first use
+     * @see ClassObjectReference#getInstance(JvmClass)
+     */
+    private volatile ClassObjectReference classObjectReference;
+
+    /**
+     * for {@link ClassLoadingTimeline},
+     * when "<clinit>" starts and which class triggers it
+     */
+    private long initializationStartNanos;
+
+    private String initializationTrigger;
+
+    /**
+     * jvms 4.7.10, the SourceFile attribute, null if absent
+     */
+    private String sourceFile;
+
+    /**
+     * jvms 4.7.23, the BootstrapMethods attribute, for invokedynamic
+     */
+    private BootstrapMethodsAttribute.BootstrapMethod[] bootstrapMethods = EMPTY_BOOTSTRAP_METHODS;
+
+    private static final BootstrapMethodsAttribute.BootstrapMethod[] EMPTY_BOOTSTRAP_METHODS = new BootstrapMethodsAttribute.BootstrapMethod[0];
+
     /**
      * just new a instance, not initial it
      * @param jvmClassLoader
@@ -81,11 +168,21 @@ public class JvmClass {
     void initial(ClassFile classFile) {
         this.accessFlags = classFile.getAccessFlags();
         this.name = classFile.getClassName();
+        this.javaLangClass = "java/lang/Class".equals(this.name);
         this.superClassName = classFile.existSuperClass() ? classFile.getSuperClassName() : null;
         this.interfaceNames = classFile.getInterfaceNames();
         this.jvmConstantPool = new JvmConstantPool(this, classFile.getConstantPool());
         this.jvmFields = JvmField.generateJvmFields(this, classFile.getFields());
         this.jvmMethods = JvmMethod.generateJvmMethods(this, classFile.getMethods());
+        for(AttributeInfo attributeInfo : classFile.getAttributes()) {
+            if(attributeInfo instanceof SourceFileAttribute) {
+                this.sourceFile = ConstantPoolUtils.getUtf8(
+                        classFile.getConstantPool(), ((SourceFileAttribute) attributeInfo).getSourceFileIndex()
+                );
+            } else if(attributeInfo instanceof BootstrapMethodsAttribute) {
+                this.bootstrapMethods = ((BootstrapMethodsAttribute) attributeInfo).getBootstrapMethods();
+            }
+        }
 
         // load super class
         if(null != this.superClassName) {
@@ -104,6 +201,39 @@ public class JvmClass {
 
         // static fields value
         this.staticFieldsValue = new LocalVariables(JvmClassUtils.getStaticFieldsSize(this));
+
+        this.layoutFields();
+    }
+
+    /**
+     * decide the offsets of fields, super class's fields are laid out first.
+     * static field's offset is in {@link #getStaticFieldsValue()},
+     * non-static field's offset is in the primitive values or references of an object,
+     * it depends on the type of field.
+     * long and double occupy 2 slots.
+     */
+    private void layoutFields() {
+        int primitiveOffset = null == this.superClass ? 0 : this.superClass.primitiveFieldsSize;
+        int referenceOffset = null == this.superClass ? 0 : this.superClass.referenceFieldsSize;
+        int staticOffset = 0;
+        for(JvmField jvmField : this.jvmFields) {
+            if(jvmField.isStatic()) {
+                jvmField.setOffset(staticOffset);
+                staticOffset += jvmField.getSize();
+            } else if(DescriptorUtils.isBaseType(jvmField.getDescriptor())) {
+                jvmField.setOffset(primitiveOffset);
+                primitiveOffset += jvmField.getSize();
+            } else {
+                jvmField.setOffset(referenceOffset);
+                referenceOffset += 1;
+            }
+        }
+        this.primitiveFieldsSize = primitiveOffset;
+        this.referenceFieldsSize = referenceOffset;
+        if(referenceOffset > 0) {
+            this.referenceFieldsTemplate = new Reference[referenceOffset];
+            Arrays.fill(this.referenceFieldsTemplate, Reference.NULL);
+        }
     }
 
     /**
@@ -122,6 +252,49 @@ public class JvmClass {
         this.superClass = null;
         this.interfaces = new JvmClass[0];
         this.staticFieldsValue = null;
+        // nothing to initialize
+        this.initializationState = InitializationState.INITIALIZED;
+    }
+
+    /**
+     * for the classes made by jvm, i.e the classes of lambdas.
+     * there is no class file and no constant pool,
+     * and nothing to initialize.
+     * fields and methods are given by {@link #defineMembers(JvmField[], JvmMethod[])}
+     * @param jvmClassLoader defining class loader
+     * @param accessFlags access flags of class
+     * @param className name in jvm level
+     * @param superClass super class
+     * @param interfaces interfaces implemented directly
+     */
+    public JvmClass(JvmClassLoader jvmClassLoader, short accessFlags, String className, JvmClass superClass, JvmClass[] interfaces) {
+        this.accessFlags = accessFlags;
+        this.name = className;
+        this.superClassName = superClass.getName();
+        this.interfaceNames = new String[interfaces.length];
+        for(int i = 0; i < interfaces.length; i++) {
+            this.interfaceNames[i] = interfaces[i].getName();
+        }
+        this.jvmConstantPool = null;
+        this.jvmFields = new JvmField[0];
+        this.jvmMethods = new JvmMethod[0];
+        this.loader = jvmClassLoader;
+        this.superClass = superClass;
+        this.interfaces = interfaces;
+        this.staticFieldsValue = new LocalVariables(0);
+        this.initializationState = InitializationState.INITIALIZED;
+    }
+
+    /**
+     * fields and methods of a class made by jvm,
+     * they refer to the class, so they are made after it
+     * @param jvmFields non-static fields
+     * @param jvmMethods methods
+     */
+    public void defineMembers(JvmField[] jvmFields, JvmMethod[] jvmMethods) {
+        this.jvmFields = jvmFields;
+        this.jvmMethods = jvmMethods;
+        this.layoutFields();
     }
 
     /**
@@ -201,6 +374,28 @@ public class JvmClass {
         return nonStaticJvmFieldsFromAncestors;
     }
 
+    public int getPrimitiveFieldsSize() {
+        return primitiveFieldsSize;
+    }
+
+    public int getReferenceFieldsSize() {
+        return referenceFieldsSize;
+    }
+
+    /**
+     * @return reference fields of a new object, all of them are null
+     */
+    public Reference[] newReferenceFields() {
+        return 0 == referenceFieldsSize ? EMPTY_REFERENCES : referenceFieldsTemplate.clone();
+    }
+
+    /**
+     * @return this class is java.lang.Class or not
+     */
+    public boolean isJavaLangClass() {
+        return javaLangClass;
+    }
+
     /**
      *
      * @return now static fields occupy size in this class and its super classes
@@ -288,6 +483,180 @@ public class JvmClass {
         throw new RuntimeException(SpecialMethods.CLINIT + " doesn't exists in class " + this.getName());
     }
 
+    public boolean isInitialized() {
+        return InitializationState.INITIALIZED == this.initializationState;
+    }
+
+    /**
+     * jvms 5.5
+     * A class or interface C may be initialized only as a result of:
+     * new, getstatic, putstatic, invokestatic,
+     * or the initialization of one of its subclasses.
+     * <p>
+     * Initialization don't run in a nested interpreter,
+     * the frames of "<clinit>" are pushed to the thread given,
+     * super class's on the top, so it will be initialized before its subclass.
+     * The caller must execute again after those frames return.
+     * <p>
+     * If this class is being initialized by current thread,
+     * nothing to do, the request is completed.
+     * If it is being initialized by some other thread,
+     * current thread blocks until that initialization completes.
+     * <p>
+     * A class without "<clinit>" is initialized after its super class,
+     * if frames of super class are pushed, it will be marked when the caller executes again.
+     *
+     * @param jvmThread current thread
+     * @return true if some frames of "<clinit>" are pushed
+     * @throws HackUtils.GuestException NoClassDefFoundError if "<clinit>" of this class or its super class completed abruptly before
+     */
+    public boolean initializeIfNecessary(JvmThread jvmThread) {
+        if(InitializationState.INITIALIZED == this.initializationState) {
+            return false;
+        }
+        synchronized (this.initializationLock) {
+            if(!this.acquireInitialization(jvmThread)) {
+                return false;
+            }
+            logger.debug("initialize class {}", this.getName());
+            if(ClassLoadingTimeline.isEnabled()) {
+                this.initializationStartNanos = System.nanoTime();
+                this.initializationTrigger = jvmThread.existFrame() ?
+                        jvmThread.currentFrame().getJvmMethod().getJvmClass().getName() : null;
+            }
+            if(this.existsStaticInitialMethod()) {
+                this.initializationState = InitializationState.BEING_INITIALIZED;
+                this.initializationThread = jvmThread;
+                this.initializationHostThread = Thread.currentThread();
+                jvmThread.pushFrame(new Frame(jvmThread, this.getStaticInitialMethod()));
+            }
+        }
+
+        // interfaces are not initialized with their implementations
+        final boolean superPushed;
+        try {
+            superPushed = this.existsSuperClass() && !this.isInterface()
+                    && this.getSuperClass().initializeIfNecessary(jvmThread);
+        } catch (HackUtils.GuestException e) {
+            // jvms 5.5 step 7, the initialization of super class completes abruptly
+            if(this.existsStaticInitialMethod()) {
+                jvmThread.popFrame();
+            }
+            this.failInitialization();
+            throw e;
+        }
+        if(this.existsStaticInitialMethod()) {
+            return true;
+        }
+        if(!superPushed) {
+            this.completeInitialization();
+        }
+        return superPushed;
+    }
+
+    /**
+     * jvms 5.5 step 2 to 5, with the initialization lock held
+     * @return true if current thread should initialize this class
+     * @throws HackUtils.GuestException NoClassDefFoundError if "<clinit>" of this class completed abruptly before
+     */
+    private boolean acquireInitialization(JvmThread jvmThread) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                switch (this.initializationState) {
+                    case INITIALIZED:
+                        return false;
+                    case ERRONEOUS:
+                        throw new HackUtils.GuestException(
+                                new NoClassDefFoundError("Could not initialize class " + this.getJavaLevelClassName())
+                        );
+                    case BEING_INITIALIZED:
+                        if(jvmThread == this.initializationThread) {
+                            // a recursive request
+                            return false;
+                        }
+                        if(this.isInitializationAbandoned()) {
+                            // nobody completes it, i.e an error of jvm
+                            logger.warn("initialization of class {} is abandoned", this.getName());
+                            this.markErroneous();
+                            break;
+                        }
+                        if(Thread.currentThread() == this.initializationHostThread) {
+                            // the initializing thread is interpreted by a nested loop below
+                            return false;
+                        }
+                        try {
+                            this.initializationLock.wait(INITIALIZATION_CHECK_MILLIS);
+                        } catch (InterruptedException e) {
+                            interrupted = true;
+                        }
+                        break;
+                    default:
+                        return true;
+                }
+            }
+        } finally {
+            if(interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * the host thread interpreting the initializing thread is dead,
+     * or the initializing thread has no frame of "&lt;clinit&gt;" any more
+     */
+    private boolean isInitializationAbandoned() {
+        return !this.initializationHostThread.isAlive() || !this.initializationThread.existFrame();
+    }
+
+    /**
+     * "<clinit>" of this class completed normally
+     */
+    public void completeInitialization() {
+        logger.debug("class {} initialized", this.getName());
+        synchronized (this.initializationLock) {
+            this.initializationState = InitializationState.INITIALIZED;
+            this.initializationThread = null;
+            this.initializationHostThread = null;
+            this.recordInitialization(true);
+            this.initializationLock.notifyAll();
+        }
+    }
+
+    /**
+     * "<clinit>" of this class completed abruptly by throwing some exception
+     */
+    public void failInitialization() {
+        logger.debug("class {} initialize failed", this.getName());
+        synchronized (this.initializationLock) {
+            this.markErroneous();
+        }
+    }
+
+    /**
+     * with the initialization lock held
+     */
+    private void markErroneous() {
+        this.initializationState = InitializationState.ERRONEOUS;
+        this.initializationThread = null;
+        this.initializationHostThread = null;
+        this.recordInitialization(false);
+        this.initializationLock.notifyAll();
+    }
+
+    private void recordInitialization(boolean success) {
+        if(ClassLoadingTimeline.isEnabled() && 0 != this.initializationStartNanos) {
+            ClassLoadingTimeline.initialized(
+                    this.getName(),
+                    this.initializationTrigger,
+                    System.nanoTime() - this.initializationStartNanos,
+                    success
+            );
+            this.initializationTrigger = null;
+        }
+    }
+
     /**
      * When evaluate jvmClass.getName(), get string like
      * com/github/anilople/javajvm/instructions/references/NEWTest
@@ -304,6 +673,27 @@ public class JvmClass {
         return this.getName().equals(JvmClassUtils.getStandardRuntimeClassName(clazz));
     }
 
+    public ClassObjectReference getClassObjectReference() {
+        return classObjectReference;
+    }
+
+    /**
+     * java.lang.Class of a class is unique, so it can be set only once
+     * @throws IllegalStateException if set before
+     */
+    public void setClassObjectReference(ClassObjectReference classObjectReference) {
+        if(null != this.classObjectReference) {
+            throw new IllegalStateException("java.lang.Class of " + this.getName() + " exists already");
+        }
+        this.classObjectReference = classObjectReference;
+    }
+
+    /**
+     * the class of host with the same name,
+     * only for the values passed to host,
+     * a class only a guest class loader can find has not one.
+     * @throws RuntimeException if host has not this class
+     */
     public Class<?> getRealClassInJvm() {
         // maybe "char" etc..
         final String javaClassName = ClassNameConverterUtils.jvm2java(this.getName());
@@ -425,9 +815,9 @@ public class JvmClass {
         // traversal to all ancestors
         for(JvmClass now = this; null != now; now = now.getSuperClass()) {
             JvmClass[] nowInterfaces = now.getInterfaces();
-            // traversal all interfaces of now class
+            // traversal all interfaces of now class, and their super interfaces
             for(JvmClass nowInterface : nowInterfaces) {
-                if(nowInterface.equals(interfaceClass)) {
+                if(nowInterface.equals(interfaceClass) || nowInterface.isImplementInterface(interfaceClass)) {
                     return true;
                 }
             }
@@ -435,6 +825,27 @@ public class JvmClass {
         return false;
     }
 
+    /**
+     * for array class, i.e
+     * [I -> int
+     * [[Ljava/lang/Object; -> [Ljava/lang/Object;
+     * [Ljava/lang/Object; -> java/lang/Object
+     * @return component type, resolved by the class loader of this array class
+     */
+    public JvmClass getComponentClass() {
+        if(!this.isArrayType()) {
+            throw new IllegalStateException(this.getName() + " is not an array class");
+        }
+        final String componentType = DescriptorUtils.getComponentType(this.getName());
+        if(DescriptorUtils.isArrayType(componentType)) {
+            return this.getLoader().loadClass(componentType);
+        } else if(DescriptorUtils.isBaseType(componentType)) {
+            return this.getLoader().loadClass(DescriptorUtils.fieldTypeDescriptor2Class(componentType));
+        } else {
+            return this.getLoader().loadClass(DescriptorUtils.getClassName(componentType));
+        }
+    }
+
     /**
      * wrapper array of this class
      * java.lang.Object -> [Ljava.lang.Object;
@@ -443,9 +854,16 @@ public class JvmClass {
      * @return
      */
     public JvmClass wrapperArray() {
-        Class<?> thisClass = this.getRealClassInJvm();
-        Class<?> arrayClass = ReflectionUtils.wrapperArrayOf(thisClass);
-        return this.getLoader().loadClass(arrayClass);
+        final String arrayClassName;
+        if(this.isPrimitiveType()) {
+            arrayClassName = "[" + DescriptorUtils.primitiveClass2BaseTypeDescriptor(this.getRealClassInJvm());
+        } else if(this.isArrayType()) {
+            arrayClassName = "[" + this.getName();
+        } else {
+            arrayClassName = "[L" + this.getName() + ";";
+        }
+        // defined by the class loader of element type
+        return this.getLoader().loadClass(arrayClassName);
     }
 
     public boolean isPublic() {
@@ -508,27 +926,35 @@ public class JvmClass {
         return ClassNameConverterUtils.jvm2java(jvmLevelClassName);
     }
 
+    /**
+     * @return i.e "Integer.java", null if unknown
+     */
+    public String getSourceFile() {
+        return sourceFile;
+    }
+
+    /**
+     * jvms 5.3
+     * a class is determined by its name and its defining class loader,
+     * and a class loader defines a name only once,
+     * so classes are compared by identity.
+     */
     @Override
     public boolean equals(Object o) {
-        if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        JvmClass jvmClass = (JvmClass) o;
-        if(this.getName().equals(jvmClass.getName())) {
-            // same name? They should be identical
-            throw new IllegalStateException("same type but not same object address, may exist some problems with class loader");
-        } else {
-            return true;
-        }
+        return this == o;
     }
 
     @Override
     public int hashCode() {
-        int result = Objects.hash(accessFlags, getName(), getSuperClassName(), getJvmConstantPool(), getLoader(), getSuperClass(), getStaticFieldsValue());
-        result = 31 * result + Arrays.hashCode(getInterfaceNames());
-        result = 31 * result + Arrays.hashCode(getJvmFields());
-        result = 31 * result + Arrays.hashCode(getJvmMethods());
-        result = 31 * result + Arrays.hashCode(getInterfaces());
-        return result;
+        return System.identityHashCode(this);
+    }
+
+    /**
+     * @param index bootstrap_method_attr_index of an invokedynamic
+     * @return bootstrap method specifier
+     */
+    public BootstrapMethodsAttribute.BootstrapMethod getBootstrapMethod(int index) {
+        return bootstrapMethods[index];
     }
 
     public String getSuperClassName() {
@@ -566,4 +992,32 @@ public class JvmClass {
     public LocalVariables getStaticFieldsValue() {
         return staticFieldsValue;
     }
+
+    public InitializationState getInitializationState() {
+        return initializationState;
+    }
+
+    /**
+     * jvms 5.5
+     * the Class object for C is in one of four situations
+     */
+    public enum InitializationState {
+        /**
+         * This Class object is verified and prepared but not initialized.
+         */
+        NOT_INITIALIZED,
+        /**
+         * This Class object is being initialized by some particular thread.
+         */
+        BEING_INITIALIZED,
+        /**
+         * This Class object is fully initialized and ready for use.
+         */
+        INITIALIZED,
+        /**
+         * This Class object is in an erroneous state, perhaps because initialization
+         * was attempted and failed.
+         */
+        ERRONEOUS
+    }
 }
@@ -1,38 +1,98 @@
 package com.github.anilople.javajvm.heap;
 
-import com.github.anilople.javajvm.JavaJvmApplication;
+import com.github.anilople.javajvm.cachepool.StringPool;
+import com.github.anilople.javajvm.cachepool.WeakIdentityMap;
 import com.github.anilople.javajvm.classfile.ClassFile;
 import com.github.anilople.javajvm.classpath.Classpath;
+import com.github.anilople.javajvm.runtimedataarea.LocalVariables;
+import com.github.anilople.javajvm.runtimedataarea.Reference;
+import com.github.anilople.javajvm.runtimedataarea.ThreadTable;
 import com.github.anilople.javajvm.utils.DescriptorUtils;
+import com.github.anilople.javajvm.utils.JvmClassUtils;
 import com.github.anilople.javajvm.vm.VM;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collection;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
 
 /**
  * class loader
+ * <p>
+ * a bootstrap class loader is a vm, it keeps the string pool, host objects and threads of the vm,
+ * each run of vm creates one by {@link #createBootstrapClassLoader()}.
+ * the single case {@link #getInstance()} is a bootstrap class loader shared in process, i.e by tests.
+ * other class loaders can be created with a parent, and they follow the parent first delegation.
+ * <p>
+ * All the metadata of classes defined by a class loader, i.e constant pools,
+ * java.lang.Class objects, string literals, are only referenced by this class loader
+ * and the classes, so they are reclaimed when the class loader becomes unreachable.
  */
 public class JvmClassLoader {
 
     private static final Logger logger = LoggerFactory.getLogger(JvmClassLoader.class);
 
-    // single instance
-    private static volatile JvmClassLoader INSTANCE = new JvmClassLoader(Classpath.getInstance());
+    // single instance, created when it is used first time
+    private static JvmClassLoader INSTANCE;
+
+    /**
+     * null if this is the bootstrap class loader
+     */
+    private final JvmClassLoader parent;
 
     private Classpath classpath;
 
     /**
-     * memory the class which has been loaded
+     * memory the class which has been loaded,
+     * including the ones defined by ancestors, i.e this class loader is the initiating loader of them
      */
     private final ConcurrentMap<String, JvmClass> classConcurrentMap = new ConcurrentHashMap<>();;
 
+    /**
+     * string literals and interned strings of vm,
+     * null if this is not the bootstrap class loader
+     */
+    private final StringPool stringPool;
+
+    /**
+     * host objects passed to guest, to the guest reference stands for each,
+     * null if this is not the bootstrap class loader
+     */
+    private final WeakIdentityMap<Object, Reference> hostObjects;
+
+    /**
+     * threads of vm,
+     * null if this is not the bootstrap class loader
+     */
+    private final ThreadTable threadTable;
+
 
     private JvmClassLoader(Classpath classpath) {
+        this.parent = null;
         this.classpath = classpath;
+        this.stringPool = new StringPool();
+        this.hostObjects = new WeakIdentityMap<>();
+        this.threadTable = new ThreadTable();
         // initial the vm
+        final long start = System.nanoTime();
         VM.initial(this);
+        ClassLoadingTimeline.phase("vmInitial", System.nanoTime() - start);
+    }
+
+    /**
+     * a class loader delegating to parent first
+     * @param parent must not be null
+     * @param classpath where the classes of this class loader are
+     */
+    public JvmClassLoader(JvmClassLoader parent, Classpath classpath) {
+        this.parent = Objects.requireNonNull(parent, "parent");
+        this.classpath = Objects.requireNonNull(classpath, "classpath");
+        this.stringPool = null;
+        this.hostObjects = null;
+        this.threadTable = null;
     }
 
     /**
@@ -40,33 +100,128 @@ public class JvmClassLoader {
      * @throws
      */
     synchronized public static JvmClassLoader getInstance() {
+        if(null == INSTANCE) {
+            INSTANCE = new JvmClassLoader(Classpath.getInstance());
+        }
         return INSTANCE;
     }
 
+    /**
+     * a new vm, nothing is shared with the vms created before
+     * @return bootstrap class loader of the new vm
+     */
+    public static JvmClassLoader createBootstrapClassLoader() {
+        return new JvmClassLoader(Classpath.getInstance());
+    }
+
+    /**
+     * @return null if this is the bootstrap class loader
+     */
+    public JvmClassLoader getParent() {
+        return parent;
+    }
+
+    /**
+     * java.lang.String is defined by the bootstrap class loader,
+     * so all the class loaders of a vm share the pool of it
+     * @return string pool of vm
+     */
+    public StringPool getStringPool() {
+        return null == parent ? stringPool : parent.getStringPool();
+    }
+
+    /**
+     * a host object passed to guest keeps its identity in a vm,
+     * so all the class loaders of a vm share them, like strings
+     * @return host objects passed to guest of vm
+     * @see com.github.anilople.javajvm.natives.HostBridge
+     */
+    public WeakIdentityMap<Object, Reference> getHostObjects() {
+        return null == parent ? hostObjects : parent.getHostObjects();
+    }
+
+    /**
+     * @return threads of vm
+     */
+    public ThreadTable getThreadTable() {
+        return null == parent ? threadTable : parent.getThreadTable();
+    }
+
+    /**
+     * @return the classes defined by this class loader
+     */
+    public Collection<JvmClass> getLoadedClasses() {
+        return classConcurrentMap.values()
+                .stream()
+                .filter(jvmClass -> this == jvmClass.getLoader())
+                .collect(Collectors.toList());
+    }
+
     /**
      * if a class has been loaded,
      * then simply return
      * @return {@link JvmClass} in cache, if not exist create new one
+     * @throws NoClassDefFoundError if this class loader and its ancestors cannot find the class
      */
     public JvmClass loadClass(String className) {
-        if(!classConcurrentMap.containsKey(className)) {
-            // forbid concurrent problem
-            synchronized (classConcurrentMap) {
-                if(!classConcurrentMap.containsKey(className)) {
-                    // load a new class
-                    logger.debug("load a new class not in cache: {}", className);
-                    if(DescriptorUtils.isArrayType(className)) {
-                        // array class
-                        this.loadArrayClass(className);
-                    } else {
-                        // non-array class
-                        this.loadNonArrayClass(className);
+        JvmClass jvmClass = this.findClass(className);
+        if(null == jvmClass) {
+            throw new NoClassDefFoundError(className);
+        }
+        return jvmClass;
+    }
+
+    /**
+     * parent first,
+     * the array class is defined by the class loader of its element type,
+     * the array class of base type is defined by the bootstrap class loader.
+     * @return null if not found
+     */
+    private JvmClass findClass(String className) {
+        JvmClass jvmClass = classConcurrentMap.get(className);
+        if(null != jvmClass) {
+            return jvmClass;
+        }
+
+        if(DescriptorUtils.isArrayType(className)) {
+            jvmClass = this.findArrayClass(className);
+        } else {
+            if(null != parent) {
+                jvmClass = parent.findClass(className);
+            }
+            if(null == jvmClass) {
+                // forbid concurrent problem
+                synchronized (classConcurrentMap) {
+                    jvmClass = classConcurrentMap.get(className);
+                    if(null == jvmClass) {
+                        // load a new class
+                        logger.debug("load a new class not in cache: {}", className);
+                        jvmClass = this.loadNonArrayClass(className);
                     }
                 }
             }
         }
 
-        return classConcurrentMap.get(className);
+        if(null == jvmClass) {
+            return null;
+        }
+        JvmClass existing = classConcurrentMap.putIfAbsent(className, jvmClass);
+        return null == existing ? jvmClass : existing;
+    }
+
+    private JvmClass findArrayClass(String className) {
+        final String elementDescriptor = className.substring(className.lastIndexOf('[') + 1);
+        if(DescriptorUtils.isBaseType(elementDescriptor)) {
+            return null == parent ? this.loadArrayClass(className) : parent.findClass(className);
+        }
+        // Lxxx;
+        final String elementClassName = elementDescriptor.substring(1, elementDescriptor.length() - 1);
+        JvmClass elementClass = this.findClass(elementClassName);
+        if(null == elementClass) {
+            return null;
+        }
+        final JvmClassLoader definingLoader = elementClass.getLoader();
+        return this == definingLoader ? this.loadArrayClass(className) : definingLoader.findClass(className);
     }
 
     /**
@@ -96,6 +251,9 @@ public class JvmClassLoader {
         if(!clazz.isPrimitive()) {
             throw new IllegalArgumentException(clazz + " is not primitive class");
         }
+        if(null != parent) {
+            return parent.loadPrimitiveClass(clazz);
+        }
         String className = clazz.getName();
 
         classConcurrentMap.computeIfAbsent(
@@ -110,7 +268,7 @@ public class JvmClassLoader {
      * load a non array class
      * class must not exists before
      * @param className
-     * @return
+     * @return null if the class is not in the classpath of this class loader
      * @throws IllegalArgumentException if class given initializes already.
      */
     private JvmClass loadNonArrayClass(String className) {
@@ -118,39 +276,83 @@ public class JvmClassLoader {
             throw new IllegalArgumentException(className + " initial already");
         }
 
-        // loading
-        byte[] bytes = classpath.readClass(className);
-        // define
-        ClassFile.ClassReader classReader = new ClassFile.ClassReader(bytes);
-        ClassFile classFile = ClassFile.parse(classReader);
-
-        // new a instance without initial, Why? forbid the circle in graph
-        JvmClass jvmClass = new JvmClass(this);
-        // add it to cache
-        classConcurrentMap.put(className, jvmClass);
-        // initial it
-        jvmClass.initial(classFile);
-
-        // linking
-        verify(jvmClass);
-        prepare(jvmClass);
-
-        // static initializing
-        if(jvmClass.existsStaticInitialMethod()) {
-            JvmMethod clinit = jvmClass.getStaticInitialMethod();
-            logger.debug("class {}, static init {}", jvmClass.getName(), clinit.getName());
-            JavaJvmApplication.interpret(clinit);
+        final boolean timeline = ClassLoadingTimeline.isEnabled();
+        if(timeline) {
+            ClassLoadingTimeline.loadStart(className);
         }
+        final long readStart = System.nanoTime();
+        try {
+            // loading
+            Classpath.ClassData classData = classpath.readClassData(className);
+            if(null == classData) {
+                if(timeline) {
+                    ClassLoadingTimeline.loadFailed();
+                }
+                return null;
+            }
+            final long parseStart = System.nanoTime();
+            // define
+            ClassFile.ClassReader classReader = new ClassFile.ClassReader(classData.getBytes());
+            ClassFile classFile = ClassFile.parse(classReader);
+            final long linkStart = System.nanoTime();
 
-        return jvmClass;
+            // new a instance without initial, Why? forbid the circle in graph
+            JvmClass jvmClass = new JvmClass(this);
+            // add it to cache
+            classConcurrentMap.put(className, jvmClass);
+            // initial it
+            jvmClass.initial(classFile);
+
+            // linking
+            verify(jvmClass);
+            prepare(jvmClass);
+
+            if(timeline) {
+                final long linkEnd = System.nanoTime();
+                ClassLoadingTimeline.loadEnd(
+                        classData.getSource(),
+                        parseStart - readStart,
+                        linkStart - parseStart,
+                        linkEnd - linkStart
+                );
+            }
+            // static initializing is delayed to the first active use
+            // see JvmClass#initializeIfNecessary
+            return jvmClass;
+        } catch (RuntimeException | Error e) {
+            // do not leave a class half linked
+            classConcurrentMap.remove(className);
+            if(timeline) {
+                ClassLoadingTimeline.loadFailed();
+            }
+            throw e;
+        }
     }
 
     private void verify(JvmClass jvmClass) {
         // to do
     }
 
+    /**
+     * jvms 5.4.2 Preparation
+     * Preparation involves creating the static fields for a class or interface and
+     * initializing such fields to their default values.
+     * @param jvmClass
+     */
     private void prepare(JvmClass jvmClass) {
-        // to do
+        LocalVariables staticFieldsValue = jvmClass.getStaticFieldsValue();
+        int staticFieldOffset = 0;
+        for(JvmField jvmField : JvmClassUtils.getStaticFields(jvmClass)) {
+            if(!DescriptorUtils.isBaseType(jvmField.getDescriptor())) {
+                staticFieldsValue.setReference(staticFieldOffset, Reference.NULL);
+            } else if(2 == jvmField.getSize()) {
+                // long and double, all bits are 0
+                staticFieldsValue.setLongValue(staticFieldOffset, 0L);
+            } else {
+                staticFieldsValue.setIntValue(staticFieldOffset, 0);
+            }
+            staticFieldOffset += jvmField.getSize();
+        }
     }
 
     /**
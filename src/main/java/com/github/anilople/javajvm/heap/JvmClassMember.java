@@ -1,6 +1,5 @@
 package com.github.anilople.javajvm.heap;
 
-import com.github.anilople.javajvm.classfile.attributes.AttributeInfo;
 import com.github.anilople.javajvm.constants.AccessFlags;
 
 import java.util.Arrays;
@@ -19,18 +18,20 @@ public abstract class JvmClassMember {
 
     private String descriptor;
 
-    private AttributeInfo[] attributes;
-
     private JvmClassMember() {
 
     }
 
-    public JvmClassMember(JvmClass jvmClass, short accessFlags, String name, String descriptor, AttributeInfo[] attributes) {
+    /**
+     * attributes are not kept here,
+     * subclass should take what it need from them when linking.
+     * name and descriptor are interned, they repeat a lot between classes.
+     */
+    public JvmClassMember(JvmClass jvmClass, short accessFlags, String name, String descriptor) {
         this.jvmClass = jvmClass;
         this.accessFlags = accessFlags;
-        this.name = name;
-        this.descriptor = descriptor;
-        this.attributes = attributes;
+        this.name = name.intern();
+        this.descriptor = descriptor.intern();
     }
 
     public boolean isPublic() {
@@ -1,15 +1,24 @@
 package com.github.anilople.javajvm.heap;
 
-import com.github.anilople.javajvm.classfile.constantinfo.ConstantDoubleInfo;
-import com.github.anilople.javajvm.classfile.constantinfo.ConstantLongInfo;
-import com.github.anilople.javajvm.classfile.constantinfo.ConstantPoolInfo;
-import com.github.anilople.javajvm.heap.constant.JvmConstant;
-import com.github.anilople.javajvm.heap.constant.JvmConstantUtf8;
+import com.github.anilople.javajvm.classfile.constantinfo.*;
+import com.github.anilople.javajvm.heap.constant.*;
+import com.github.anilople.javajvm.utils.ByteUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 /**
  * run-time constant pool
+ * <p>
+ * entries are materialized lazily, only when they are used by {@link #getJvmConstant(int)},
+ * most of the constants in a class file (descriptors, attribute names, etc)
+ * are never touched at runtime.
+ * <p>
+ * after linking, the constant pool of class file is not referenced,
+ * only a compact form of it is kept here:
+ * the tag, a 32 bits value (index or number) and the raw bytes of utf8 constants.
  */
 public class JvmConstantPool {
 
@@ -17,7 +26,26 @@ public class JvmConstantPool {
 
     private JvmClass jvmClass;
 
-    private JvmConstant[] jvmConstants;
+    /**
+     * the tag of each entry, 0 means no constant in that slot,
+     * i.e index 0 and the slot after a long or double
+     */
+    private byte[] tags;
+
+    /**
+     * for the constant refer to other constants, 2 indexes are packed in 1 int, high 16 bits and low 16 bits.
+     * for int and float, it is the bytes.
+     * for long and double, high bytes at index, low bytes at index + 1.
+     */
+    private int[] values;
+
+    /**
+     * raw bytes of utf8 constants,
+     * released after the constant is materialized
+     */
+    private byte[][] utf8Bytes;
+
+    private AtomicReferenceArray<JvmConstant> jvmConstants;
 
     private JvmConstantPool() {
 
@@ -25,28 +53,178 @@ public class JvmConstantPool {
 
     public JvmConstantPool(JvmClass jvmClass, ConstantPoolInfo[] constantPool) {
         this.jvmClass = jvmClass;
-        jvmConstants = new JvmConstant[constantPool.length];
-
-        // remember that from index 1
-        for(int i = 1; i < jvmConstants.length; i++) {
-            logger.trace("constant pool {} info : {}", i, constantPool[i]);
-            jvmConstants[i] = JvmConstant.generateJvmConstant(jvmClass, constantPool[i]);
-            if(constantPool[i] instanceof ConstantDoubleInfo) {
-                logger.trace("inc i, double constant pool info {}", constantPool[i]);
-                i += 1;
-            } else if(constantPool[i] instanceof ConstantLongInfo) {
-                logger.trace("inc i, long constant pool info {}", constantPool[i]);
-                i += 1;
+        final int length = constantPool.length;
+        this.tags = new byte[length];
+        this.values = new int[length];
+        this.utf8Bytes = new byte[length][];
+        // remember that from index 1, the slot after a long or double is null
+        for (int i = 1; i < length; i++) {
+            if (null != constantPool[i]) {
+                tags[i] = constantPool[i].getTag();
+                link(i, constantPool[i]);
+            }
+        }
+        this.jvmConstants = new AtomicReferenceArray<>(length);
+    }
+
+    private static int pack(int high, int low) {
+        return (high << 16) | (low & 0xFFFF);
+    }
+
+    private int high(int index) {
+        return values[index] >>> 16;
+    }
+
+    private int low(int index) {
+        return values[index] & 0xFFFF;
+    }
+
+    /**
+     * save the content of constant pool info in compact form
+     */
+    private void link(int index, ConstantPoolInfo constantPoolInfo) {
+        switch (constantPoolInfo.getTag()) {
+            case ConstantClassInfo.TAG:
+                values[index] = ((ConstantClassInfo) constantPoolInfo).getNameIndex() & 0xFFFF;
+                break;
+            case ConstantFieldrefInfo.TAG: {
+                ConstantFieldrefInfo info = (ConstantFieldrefInfo) constantPoolInfo;
+                values[index] = pack(info.getClassIndex(), info.getNameAndTypeIndex());
+                break;
+            }
+            case ConstantMethodrefInfo.TAG: {
+                ConstantMethodrefInfo info = (ConstantMethodrefInfo) constantPoolInfo;
+                values[index] = pack(info.getClassIndex(), info.getNameAndTypeIndex());
+                break;
+            }
+            case ConstantInterfaceMethodrefInfo.TAG: {
+                ConstantInterfaceMethodrefInfo info = (ConstantInterfaceMethodrefInfo) constantPoolInfo;
+                values[index] = pack(info.getClassIndex(), info.getNameAndTypeIndex());
+                break;
+            }
+            case ConstantNameAndTypeInfo.TAG: {
+                ConstantNameAndTypeInfo info = (ConstantNameAndTypeInfo) constantPoolInfo;
+                values[index] = pack(info.getNameIndex(), info.getDescriptorIndex());
+                break;
+            }
+            case ConstantStringInfo.TAG:
+                values[index] = ((ConstantStringInfo) constantPoolInfo).getStringIndex() & 0xFFFF;
+                break;
+            case ConstantIntegerInfo.TAG:
+                values[index] = ((ConstantIntegerInfo) constantPoolInfo).getBytes();
+                break;
+            case ConstantFloatInfo.TAG:
+                values[index] = ((ConstantFloatInfo) constantPoolInfo).getBytes();
+                break;
+            case ConstantLongInfo.TAG: {
+                ConstantLongInfo info = (ConstantLongInfo) constantPoolInfo;
+                values[index] = info.getHighBytes();
+                values[index + 1] = info.getLowBytes();
+                break;
             }
+            case ConstantDoubleInfo.TAG: {
+                ConstantDoubleInfo info = (ConstantDoubleInfo) constantPoolInfo;
+                values[index] = info.getHighBytes();
+                values[index + 1] = info.getLowBytes();
+                break;
+            }
+            case ConstantMethodHandleInfo.TAG: {
+                ConstantMethodHandleInfo info = (ConstantMethodHandleInfo) constantPoolInfo;
+                values[index] = pack(info.getReferenceKind(), info.getReferenceIndex());
+                break;
+            }
+            case ConstantMethodTypeInfo.TAG:
+                values[index] = ((ConstantMethodTypeInfo) constantPoolInfo).getDescriptorIndex() & 0xFFFF;
+                break;
+            case ConstantInvokeDynamicInfo.TAG: {
+                ConstantInvokeDynamicInfo info = (ConstantInvokeDynamicInfo) constantPoolInfo;
+                values[index] = pack(info.getBootstrapMethodAttrIndex(), info.getNameAndTypeIndex());
+                break;
+            }
+            case ConstantUtf8Info.TAG:
+                utf8Bytes[index] = ((ConstantUtf8Info) constantPoolInfo).getBytes();
+                break;
+            default:
+                throw new IllegalStateException("Unexpected constant pool tag value: " + constantPoolInfo.getTag());
         }
     }
 
+    /**
+     * create the constant from the compact form
+     */
+    private JvmConstant generateJvmConstant(int index) {
+        switch (tags[index]) {
+            case ConstantClassInfo.TAG:
+                return new JvmConstantClass(jvmClass, values[index]);
+            case ConstantDoubleInfo.TAG:
+                return new JvmConstantDouble(jvmClass, Double.longBitsToDouble(ByteUtils.int2long(values[index], values[index + 1])));
+            case ConstantFieldrefInfo.TAG:
+                return new JvmConstantFieldref(jvmClass, high(index), low(index));
+            case ConstantFloatInfo.TAG:
+                return new JvmConstantFloat(jvmClass, Float.intBitsToFloat(values[index]));
+            case ConstantIntegerInfo.TAG:
+                return new JvmConstantInteger(jvmClass, values[index]);
+            case ConstantInterfaceMethodrefInfo.TAG:
+                return new JvmConstantInterfaceMethodref(jvmClass, high(index), low(index));
+            case ConstantInvokeDynamicInfo.TAG:
+                return new JvmConstantInvokeDynamic(jvmClass, high(index), low(index));
+            case ConstantLongInfo.TAG:
+                return new JvmConstantLong(jvmClass, ByteUtils.int2long(values[index], values[index + 1]));
+            case ConstantMethodHandleInfo.TAG:
+                return new JvmConstantMethodHandle(jvmClass, high(index), low(index));
+            case ConstantMethodrefInfo.TAG:
+                return new JvmConstantMethodref(jvmClass, high(index), low(index));
+            case ConstantMethodTypeInfo.TAG:
+                return new JvmConstantMethodType(jvmClass, values[index]);
+            case ConstantNameAndTypeInfo.TAG:
+                return new JvmConstantNameAndType(jvmClass, high(index), low(index));
+            case ConstantStringInfo.TAG:
+                return new JvmConstantString(jvmClass, values[index]);
+            case ConstantUtf8Info.TAG:
+                return new JvmConstantUtf8(jvmClass, new String(utf8Bytes[index], StandardCharsets.UTF_8));
+            default:
+                throw new IllegalStateException("Unexpected constant pool tag value: " + tags[index]);
+        }
+    }
+
+    /**
+     * @param index index in constant pool
+     * @return tag of the constant, 0 if no constant at index
+     */
+    public byte getTag(int index) {
+        return tags[index];
+    }
+
+    public int size() {
+        return tags.length;
+    }
+
+    /**
+     * create the constant at first use.
+     * if multiple threads race here, the first published one wins,
+     * so every caller will see the same constant object.
+     *
+     * @param index index in constant pool
+     * @return the constant
+     */
     public JvmConstant getJvmConstant(int index) {
-        JvmConstant jvmConstant = jvmConstants[index];
-        if(null != jvmConstant) {
+        JvmConstant jvmConstant = jvmConstants.get(index);
+        if (null != jvmConstant) {
             return jvmConstant;
         }
-        throw new RuntimeException("No constants at index " + index);
+        if (0 == tags[index]) {
+            throw new RuntimeException("No constants at index " + index);
+        }
+        logger.trace("materialize constant pool {}, tag {}", index, tags[index]);
+        JvmConstant created = this.generateJvmConstant(index);
+        if (jvmConstants.compareAndSet(index, null, created)) {
+            if (ConstantUtf8Info.TAG == tags[index]) {
+                // content is in the constant now
+                utf8Bytes[index] = null;
+            }
+            return created;
+        }
+        return jvmConstants.get(index);
     }
 
     /**
@@ -55,8 +233,32 @@ public class JvmConstantPool {
      * @return String content
      */
     public String getUtf8String(int index) {
-        JvmConstant jvmConstant = jvmConstants[index];
-        JvmConstantUtf8 jvmConstantUtf8 = (JvmConstantUtf8) jvmConstant;
+        JvmConstantUtf8 jvmConstantUtf8 = (JvmConstantUtf8) this.getJvmConstant(index);
         return jvmConstantUtf8.toString();
     }
+
+    /**
+     * estimate bytes used by this constant pool
+     * @see Metaspace
+     */
+    long getMetaspaceSize() {
+        long size = Metaspace.arraySize(tags.length, 1)
+                + Metaspace.arraySize(values.length, 4)
+                + Metaspace.arraySize(utf8Bytes.length, Metaspace.REFERENCE_SIZE)
+                + Metaspace.arraySize(jvmConstants.length(), Metaspace.REFERENCE_SIZE);
+        for (int i = 1; i < tags.length; i++) {
+            final byte[] bytes = utf8Bytes[i];
+            if (null != bytes) {
+                size += Metaspace.arraySize(bytes.length, 1);
+            }
+            final JvmConstant jvmConstant = jvmConstants.get(i);
+            if (null != jvmConstant) {
+                size += Metaspace.OBJECT_SIZE;
+                if (jvmConstant instanceof JvmConstantUtf8) {
+                    size += Metaspace.stringSize(jvmConstant.toString());
+                }
+            }
+        }
+        return size;
+    }
 }
@@ -3,23 +3,33 @@ package com.github.anilople.javajvm.heap;
 import com.github.anilople.javajvm.classfile.FieldInfo;
 import com.github.anilople.javajvm.constants.Descriptors;
 import com.github.anilople.javajvm.utils.ConstantPoolUtils;
-import com.github.anilople.javajvm.utils.JvmClassUtils;
-import com.github.anilople.javajvm.utils.JvmFieldUtils;
 
 import java.util.List;
 
 public class JvmField extends JvmClassMember {
 
+    /**
+     * decided when the class is linked
+     * @see JvmClass
+     */
+    private int offset = -1;
+
     public JvmField(JvmClass jvmClass, FieldInfo fieldInfo) {
         super(
                 jvmClass,
                 fieldInfo.getAccessFlags(),
                 ConstantPoolUtils.getUtf8(fieldInfo.getClassFile().getConstantPool(), fieldInfo.getNameIndex()),
-                ConstantPoolUtils.getUtf8(fieldInfo.getClassFile().getConstantPool(), fieldInfo.getDescriptorIndex()),
-                fieldInfo.getAttributes()
+                ConstantPoolUtils.getUtf8(fieldInfo.getClassFile().getConstantPool(), fieldInfo.getDescriptorIndex())
         );
     }
 
+    /**
+     * for the fields made by jvm, without class file
+     */
+    public JvmField(JvmClass jvmClass, short accessFlags, String name, String descriptor) {
+        super(jvmClass, accessFlags, name, descriptor);
+    }
+
     public static JvmField[] generateJvmFields(JvmClass jvmClass, FieldInfo[] fieldInfos) {
         JvmField[] jvmFields = new JvmField[fieldInfos.length];
         for(int i = 0; i < jvmFields.length; i++) {
@@ -69,13 +79,19 @@ public class JvmField extends JvmClassMember {
         }
     }
 
+    void setOffset(int offset) {
+        this.offset = offset;
+    }
+
     /**
-     * suppose this field is not static field
-     * now calculate its offset in all fields (current class and super classes)
-     * @return
+     * suppose this field is not static field,
+     * base type field's offset is in primitive values of object,
+     * others are in references of object
+     * @see com.github.anilople.javajvm.runtimedataarea.reference.ObjectReference
+     * @return offset in an object
      */
     public int calculateNonStaticFieldOffset() {
-        return JvmFieldUtils.calculateNonStaticFieldOffset(this.getJvmClass(), this);
+        return offset;
     }
 
     /**
@@ -83,17 +99,6 @@ public class JvmField extends JvmClassMember {
      * @return this static field's offset in declared class
      */
     public int getStaticFieldOffset() {
-        final JvmClass jvmClass = getJvmClass();
-        int staticOffset = 0;
-        for(JvmField jvmField : jvmClass.getJvmFields()) {
-            if(jvmField.equals(this)) {
-                return staticOffset;
-            } else if(jvmField.isStatic()){
-                staticOffset += jvmField.getSize();
-            } else {
-                // non-static field does not affect the offset
-            }
-        }
-        throw new RuntimeException(this.getName() + " not in " + jvmClass.getName());
+        return offset;
     }
 }
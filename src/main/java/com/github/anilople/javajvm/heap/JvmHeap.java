@@ -0,0 +1,217 @@
+package com.github.anilople.javajvm.heap;
+
+import com.github.anilople.javajvm.runtimedataarea.Reference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * accounting of the objects and arrays in heap.
+ * <p>
+ * objects are host objects, their bytes are estimated at allocation,
+ * with a 16 bytes header, 4 bytes each reference and 8 bytes alignment.
+ * when the host collects an object, its bytes are released through a reference queue.
+ * <p>
+ * -Xmx is the limit of live bytes,
+ * a host collection is tried before an allocation fails.
+ * -Xms is only recorded, host decides the memory really committed.
+ */
+public class JvmHeap {
+
+    private static final Logger logger = LoggerFactory.getLogger(JvmHeap.class);
+
+    /**
+     * how long to wait the reference handler after a host collection
+     */
+    private static final long COLLECTION_WAIT_MILLIS = 100;
+
+    public static final int REFERENCE_SIZE = Metaspace.REFERENCE_SIZE;
+
+    private static volatile long maxBytes = Long.MAX_VALUE;
+
+    private static volatile long initialBytes = 0;
+
+    private static final AtomicLong liveBytes = new AtomicLong();
+
+    private static final AtomicLong allocatedBytes = new AtomicLong();
+
+    /**
+     * keep the phantom references reachable until they are enqueued
+     */
+    private static final Set<Allocation> allocations = ConcurrentHashMap.newKeySet();
+
+    private static final ReferenceQueue<Reference> queue = new ReferenceQueue<>();
+
+    /**
+     * depth of {@link #runWithoutLimit(Supplier)} in current thread
+     */
+    private static final ThreadLocal<int[]> UNLIMITED = ThreadLocal.withInitial(() -> new int[1]);
+
+    private JvmHeap() {}
+
+    /**
+     * -Xmx
+     * @param bytes {@link Long#MAX_VALUE} means no limit
+     */
+    public static void setMaxBytes(long bytes) {
+        if(bytes <= 0) {
+            throw new IllegalArgumentException("max heap size must be positive: " + bytes);
+        }
+        maxBytes = bytes;
+    }
+
+    public static long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * -Xms
+     */
+    public static void setInitialBytes(long bytes) {
+        if(bytes < 0) {
+            throw new IllegalArgumentException("initial heap size must not be negative: " + bytes);
+        }
+        initialBytes = bytes;
+    }
+
+    public static long getInitialBytes() {
+        return initialBytes;
+    }
+
+    /**
+     * @return bytes of the objects not collected by host yet
+     */
+    public static long getLiveBytes() {
+        expungeReclaimed();
+        return liveBytes.get();
+    }
+
+    /**
+     * @return bytes allocated since jvm start, including the ones reclaimed
+     */
+    public static long getAllocatedBytes() {
+        return allocatedBytes.get();
+    }
+
+    /**
+     * @param primitiveSlots 4 bytes each
+     * @param referenceSlots 4 bytes each
+     * @return estimated bytes of an object
+     */
+    public static long objectSize(int primitiveSlots, int referenceSlots) {
+        return Metaspace.arraySize(primitiveSlots + referenceSlots, 4);
+    }
+
+    /**
+     * @return estimated bytes of an array
+     */
+    public static long arraySize(int length, int elementSize) {
+        return Metaspace.arraySize(length, elementSize);
+    }
+
+    /**
+     * account an object or array
+     * @param reference the one allocated
+     * @param size bytes of it
+     * @throws HeapExhaustedException if live bytes will exceed -Xmx after a host collection
+     */
+    public static void allocate(Reference reference, long size) {
+        expungeReclaimed();
+        if(!tryReserve(size)) {
+            collect();
+            if(!tryReserve(size)) {
+                throw new HeapExhaustedException(size, liveBytes.get(), maxBytes);
+            }
+        }
+        allocations.add(new Allocation(reference, size, queue));
+        allocatedBytes.addAndGet(size);
+        if(AllocationProfiler.isEnabled()) {
+            AllocationProfiler.allocated(reference, size);
+        }
+    }
+
+    private static boolean tryReserve(long size) {
+        if(UNLIMITED.get()[0] > 0) {
+            liveBytes.addAndGet(size);
+            return true;
+        }
+        while (true) {
+            final long live = liveBytes.get();
+            final long max = maxBytes;
+            if(size > max - live) {
+                return false;
+            }
+            if(liveBytes.compareAndSet(live, live + size)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * ask host to collect, and release the bytes of objects collected
+     */
+    private static void collect() {
+        logger.debug("heap is full, {} live bytes, try a host collection", liveBytes.get());
+        System.gc();
+        try {
+            for(Object reclaimed = queue.remove(COLLECTION_WAIT_MILLIS); null != reclaimed; reclaimed = queue.poll()) {
+                release((Allocation) reclaimed);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void expungeReclaimed() {
+        for(Object reclaimed = queue.poll(); null != reclaimed; reclaimed = queue.poll()) {
+            release((Allocation) reclaimed);
+        }
+    }
+
+    private static void release(Allocation allocation) {
+        if(allocations.remove(allocation)) {
+            liveBytes.addAndGet(-allocation.size);
+        }
+    }
+
+    /**
+     * allocations in supplier never fail by -Xmx,
+     * i.e the OutOfMemoryError thrown to guest when heap is full
+     */
+    public static <T> T runWithoutLimit(Supplier<T> supplier) {
+        final int[] depth = UNLIMITED.get();
+        depth[0]++;
+        try {
+            return supplier.get();
+        } finally {
+            depth[0]--;
+        }
+    }
+
+    private static class Allocation extends PhantomReference<Reference> {
+
+        private final long size;
+
+        Allocation(Reference reference, long size, ReferenceQueue<Reference> queue) {
+            super(reference, queue);
+            this.size = size;
+        }
+    }
+
+    /**
+     * thrown to host when the heap is full,
+     * instructions translate it to a java.lang.OutOfMemoryError in guest
+     */
+    public static class HeapExhaustedException extends RuntimeException {
+
+        HeapExhaustedException(long size, long live, long max) {
+            super("Java heap space, allocate " + size + " bytes, " + live + " live bytes, max " + max + " bytes");
+        }
+    }
+}
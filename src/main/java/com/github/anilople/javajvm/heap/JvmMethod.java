@@ -3,11 +3,18 @@ package com.github.anilople.javajvm.heap;
 import com.github.anilople.javajvm.classfile.MethodInfo;
 import com.github.anilople.javajvm.classfile.attributes.AttributeInfo;
 import com.github.anilople.javajvm.classfile.attributes.CodeAttribute;
+import com.github.anilople.javajvm.classfile.attributes.LineNumberTableAttribute;
 import com.github.anilople.javajvm.constants.AccessFlags;
 import com.github.anilople.javajvm.heap.constant.JvmConstantClass;
+import com.github.anilople.javajvm.instructions.BytecodeReader;
+import com.github.anilople.javajvm.instructions.Instruction;
+import com.github.anilople.javajvm.natives.NativeMethod;
+import com.github.anilople.javajvm.natives.NativeRegistry;
+import com.github.anilople.javajvm.utils.DescriptorUtils;
 import com.github.anilople.javajvm.utils.PrimitiveTypeUtils;
 
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 public class JvmMethod extends JvmClassMember {
 
@@ -19,17 +26,39 @@ public class JvmMethod extends JvmClassMember {
 
     private ExceptionHandler[] exceptionHandlers;
 
+    /**
+     * start_pc and line_number in pairs,
+     * empty if no LineNumberTable attribute
+     */
+    private int[] lineNumberTable = EMPTY_LINE_NUMBER_TABLE;
+
+    /**
+     * handler in host, bound when the method is invoked first time
+     */
+    private volatile NativeMethod nativeMethod;
+
+    private volatile boolean nativeMethodBound = false;
+
+    /**
+     * instructions decoded, indexed by pc, made when the method is interpreted first time
+     */
+    private volatile AtomicReferenceArray<Instruction> instructions;
+
+    private static final int[] EMPTY_LINE_NUMBER_TABLE = new int[0];
+
+    private static final ExceptionHandler[] EMPTY_EXCEPTION_HANDLERS = new ExceptionHandler[0];
+
     public JvmMethod(JvmClass jvmClass, MethodInfo methodInfo) {
         super(
             jvmClass,
             methodInfo.getAccessFlags(),
             methodInfo.getName(),
-            methodInfo.getDescriptor(),
-            methodInfo.getAttributes()
+            methodInfo.getDescriptor()
         );
 
         // from code attribute, get this method's
         // maxStack, maxLocals, code
+        this.exceptionHandlers = EMPTY_EXCEPTION_HANDLERS;
         for(AttributeInfo attributeInfo : methodInfo.getAttributes()) {
             if(attributeInfo instanceof CodeAttribute) {
                 CodeAttribute codeAttribute = (CodeAttribute) attributeInfo;
@@ -37,8 +66,58 @@ public class JvmMethod extends JvmClassMember {
                 this.maxLocals = codeAttribute.getMaxLocals();
                 this.code = codeAttribute.getCode();
                 this.exceptionHandlers = ExceptionHandler.generateExceptionTables(this, (codeAttribute.getExceptionTable()));
+                for(AttributeInfo codeAttributeInfo : codeAttribute.getAttributes()) {
+                    if(codeAttributeInfo instanceof LineNumberTableAttribute) {
+                        this.lineNumberTable = generateLineNumberTable((LineNumberTableAttribute) codeAttributeInfo);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * for the methods made by jvm, without class file
+     * @param code bytecode, null if it is bound to a handler in host
+     * @param maxStack max depth of operand stack when interpreted
+     * @param nativeMethod handler in host, null if interpreted
+     */
+    public JvmMethod(JvmClass jvmClass, short accessFlags, String name, String descriptor, byte[] code, int maxStack, NativeMethod nativeMethod) {
+        super(jvmClass, accessFlags, name, descriptor);
+        this.maxStack = (short) maxStack;
+        this.maxLocals = (short) (DescriptorUtils.getParameterDescriptorsSize(DescriptorUtils.getParameterDescriptor(descriptor)) + (isStatic() ? 0 : 1));
+        this.code = code;
+        this.exceptionHandlers = EMPTY_EXCEPTION_HANDLERS;
+        this.nativeMethod = nativeMethod;
+        this.nativeMethodBound = true;
+    }
+
+    private static int[] generateLineNumberTable(LineNumberTableAttribute lineNumberTableAttribute) {
+        LineNumberTableAttribute.LineNumberTableEntry[] entries = lineNumberTableAttribute.getLineNumberTable();
+        int[] lineNumberTable = new int[entries.length * 2];
+        for(int i = 0; i < entries.length; i++) {
+            lineNumberTable[2 * i] = PrimitiveTypeUtils.intFormUnsignedShort(entries[i].getStartPc());
+            lineNumberTable[2 * i + 1] = PrimitiveTypeUtils.intFormUnsignedShort(entries[i].getLineNumber());
+        }
+        return lineNumberTable;
+    }
+
+    /**
+     * jvms 4.7.12
+     * the line number in source file of the instruction at pc given
+     * @param pc
+     * @return -1 if unknown
+     */
+    public int getLineNumber(int pc) {
+        int lineNumber = -1;
+        int closestStartPc = -1;
+        for(int i = 0; i < lineNumberTable.length; i += 2) {
+            final int startPc = lineNumberTable[i];
+            if(startPc <= pc && startPc > closestStartPc) {
+                closestStartPc = startPc;
+                lineNumber = lineNumberTable[i + 1];
             }
         }
+        return lineNumber;
     }
 
     /**
@@ -47,6 +126,44 @@ public class JvmMethod extends JvmClassMember {
      * @param methodInfos
      * @return
      */
+    /**
+     * bind the method to a handler in host once,
+     * the same handler is used later
+     * @return null if the method should be interpreted
+     * @see NativeRegistry#bind(JvmMethod)
+     */
+    public NativeMethod getNativeMethod() {
+        if(!nativeMethodBound) {
+            // binding twice in race is harmless
+            nativeMethod = NativeRegistry.bind(this);
+            nativeMethodBound = true;
+        }
+        return nativeMethod;
+    }
+
+    /**
+     * decode the instruction at pc once, the same instruction is used later.
+     * instructions keep only operands, so they are shared by threads
+     * @param pc address of the opcode
+     */
+    public Instruction getInstruction(int pc) {
+        AtomicReferenceArray<Instruction> instructions = this.instructions;
+        if(null == instructions) {
+            // making twice in race is harmless
+            instructions = new AtomicReferenceArray<>(code.length);
+            this.instructions = instructions;
+        }
+        Instruction instruction = instructions.get(pc);
+        if(null == instruction) {
+            BytecodeReader bytecodeReader = new BytecodeReader(code, pc);
+            instruction = Instruction.readInstruction(bytecodeReader);
+            // fetch operands (may fetch nothing)
+            instruction.fetchOperands(bytecodeReader);
+            instructions.set(pc, instruction);
+        }
+        return instruction;
+    }
+
     public static JvmMethod[] generateJvmMethods(JvmClass jvmClass, MethodInfo[] methodInfos) {
         JvmMethod[] jvmMethods = new JvmMethod[methodInfos.length];
         for(int i = 0; i < jvmMethods.length; i++) {
@@ -56,13 +173,15 @@ public class JvmMethod extends JvmClassMember {
     }
 
     /**
-     *
+     * jvms8, 2.10 Exceptions,
+     * a handler matches if the pc is in its range, and the class matches its catch type
      * @param exceptionClass
+     * @param pc pc of the instruction throwing, or invoking the method throwing
      * @return exists exception handler of exception class given in this method or not
      */
-    public boolean existsExceptionHandler(JvmClass exceptionClass) {
+    public boolean existsExceptionHandler(JvmClass exceptionClass, int pc) {
         for(ExceptionHandler exceptionHandler : exceptionHandlers) {
-            if(exceptionHandler.matchExceptionClass(exceptionClass)) {
+            if(exceptionHandler.coversPc(pc) && exceptionHandler.matchExceptionClass(exceptionClass)) {
                 return true;
             }
         }
@@ -70,25 +189,35 @@ public class JvmMethod extends JvmClassMember {
     }
 
     /**
-     *
+     * the first one matched in exception table
      * @param exceptionClass exception class
+     * @param pc pc of the instruction throwing, or invoking the method throwing
      * @throws RuntimeException if there are not exception handler match
      * @return exception handler
      */
-    public ExceptionHandler getExceptionHandler(JvmClass exceptionClass) {
+    public ExceptionHandler getExceptionHandler(JvmClass exceptionClass, int pc) {
         for(ExceptionHandler exceptionHandler : exceptionHandlers) {
-            if(exceptionHandler.matchExceptionClass(exceptionClass)) {
+            if(exceptionHandler.coversPc(pc) && exceptionHandler.matchExceptionClass(exceptionClass)) {
                 return exceptionHandler;
             }
         }
-        throw new RuntimeException("No exception handler for exception " + exceptionClass);
+        throw new RuntimeException("No exception handler for exception " + exceptionClass + " at pc " + pc);
     }
 
     public static class ExceptionHandler {
 
         private JvmMethod jvmMethod;
 
-        private CodeAttribute.ExceptionTableEntry exceptionTableEntry;
+        private int startPc;
+
+        private int endPc;
+
+        private int handlerPc;
+
+        /**
+         * index of class in constant pool, 0 means catch all
+         */
+        private int catchType;
 
         /**
          * construct from raw data
@@ -97,7 +226,10 @@ public class JvmMethod extends JvmClassMember {
          */
         public ExceptionHandler(JvmMethod jvmMethod, CodeAttribute.ExceptionTableEntry exceptionTableEntry) {
             this.jvmMethod = jvmMethod;
-            this.exceptionTableEntry = exceptionTableEntry;
+            this.startPc = PrimitiveTypeUtils.intFormUnsignedShort(exceptionTableEntry.getStartPc());
+            this.endPc = PrimitiveTypeUtils.intFormUnsignedShort(exceptionTableEntry.getEndPc());
+            this.handlerPc = PrimitiveTypeUtils.intFormUnsignedShort(exceptionTableEntry.getHandlerPc());
+            this.catchType = PrimitiveTypeUtils.intFormUnsignedShort(exceptionTableEntry.getCatchType());
         }
 
         /**
@@ -120,6 +252,13 @@ public class JvmMethod extends JvmClassMember {
             return exceptionHandlers;
         }
 
+        /**
+         * start pc is inclusive, end pc is exclusive
+         */
+        public boolean coversPc(int pc) {
+            return startPc <= pc && pc < endPc;
+        }
+
         /**
          *
          * @param exceptionClass
@@ -143,29 +282,28 @@ public class JvmMethod extends JvmClassMember {
          * @see CodeAttribute.ExceptionTableEntry
          */
         public JvmClass resolveCatchType() {
-            short catchTypeIndex = exceptionTableEntry.getCatchType();
-            if(0 == catchTypeIndex) {
+            if(0 == catchType) {
                 // catch all, use to implement finally
                 return null;
             } else {
                 // catch one exception
                 // cache the resolve type here, todo
                 JvmConstantPool jvmConstantPool = jvmMethod.getJvmClass().getJvmConstantPool();
-                JvmConstantClass jvmConstantClass = (JvmConstantClass) jvmConstantPool.getJvmConstant(PrimitiveTypeUtils.intFormUnsignedShort(catchTypeIndex));
+                JvmConstantClass jvmConstantClass = (JvmConstantClass) jvmConstantPool.getJvmConstant(catchType);
                 return jvmConstantClass.resolveJvmClass();
             }
         }
 
         public int getStartPc() {
-            return exceptionTableEntry.getStartPc();
+            return startPc;
         }
 
         public int getEndPc() {
-            return exceptionTableEntry.getEndPc();
+            return endPc;
         }
 
         public int getHandlerPc() {
-            return exceptionTableEntry.getHandlerPc();
+            return handlerPc;
         }
     }
 
@@ -229,4 +367,19 @@ public class JvmMethod extends JvmClassMember {
         // return a clone to forbidden changing code
         return code.clone();
     }
+
+    /**
+     * estimate bytes used by this method
+     * @see Metaspace
+     */
+    long getMetaspaceSize() {
+        long size = Metaspace.OBJECT_SIZE
+                + Metaspace.arraySize(lineNumberTable.length, 4)
+                + Metaspace.arraySize(exceptionHandlers.length, Metaspace.REFERENCE_SIZE)
+                + (long) exceptionHandlers.length * Metaspace.OBJECT_SIZE;
+        if(null != code) {
+            size += Metaspace.arraySize(code.length, 1);
+        }
+        return size;
+    }
 }
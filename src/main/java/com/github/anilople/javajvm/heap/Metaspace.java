@@ -0,0 +1,102 @@
+package com.github.anilople.javajvm.heap;
+
+import com.github.anilople.javajvm.cachepool.StringPool;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * In hotspot, class metadata is saved in metaspace.
+ * Here metadata are host objects, so their bytes can only be estimated,
+ * with 64 bits host and compressed references.
+ */
+public class Metaspace {
+
+    /**
+     * header and some fields of a host object
+     */
+    static final int OBJECT_SIZE = 16;
+
+    static final int REFERENCE_SIZE = 4;
+
+    private Metaspace() {}
+
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+
+    static long arraySize(int length, int elementSize) {
+        return align(OBJECT_SIZE + (long) length * elementSize);
+    }
+
+    static long stringSize(String string) {
+        return align(OBJECT_SIZE + 8) + arraySize(string.length(), 2);
+    }
+
+    /**
+     * @return estimated bytes of the metadata of class given
+     */
+    public static long sizeOf(JvmClass jvmClass) {
+        long size = constantPoolSizeOf(jvmClass) + methodsSizeOf(jvmClass);
+        // JvmClass itself
+        size += align(OBJECT_SIZE + 12 * REFERENCE_SIZE);
+        size += stringSize(jvmClass.getName());
+        // fields
+        size += arraySize(jvmClass.getJvmFields().length, REFERENCE_SIZE);
+        size += (long) jvmClass.getJvmFields().length * align(OBJECT_SIZE + 4 * REFERENCE_SIZE);
+        // static fields value
+        if(null != jvmClass.getStaticFieldsValue()) {
+            int maxLocals = jvmClass.getStaticFieldsValue().getMaxLocals();
+            size += OBJECT_SIZE + arraySize(maxLocals, REFERENCE_SIZE) + (long) maxLocals * align(OBJECT_SIZE + 8);
+        }
+        return size;
+    }
+
+    static long constantPoolSizeOf(JvmClass jvmClass) {
+        return null == jvmClass.getJvmConstantPool() ? 0 : jvmClass.getJvmConstantPool().getMetaspaceSize();
+    }
+
+    static long methodsSizeOf(JvmClass jvmClass) {
+        long size = arraySize(jvmClass.getJvmMethods().length, REFERENCE_SIZE);
+        for(JvmMethod jvmMethod : jvmClass.getJvmMethods()) {
+            size += jvmMethod.getMetaspaceSize();
+        }
+        return size;
+    }
+
+    /**
+     * per-class report of the classes loaded by class loader given,
+     * bigger class first
+     * @param jvmClassLoader
+     * @return lines of report
+     */
+    public static String report(JvmClassLoader jvmClassLoader) {
+        List<JvmClass> jvmClasses = new ArrayList<>(jvmClassLoader.getLoadedClasses());
+        jvmClasses.sort(Comparator.comparingLong(Metaspace::sizeOf).reversed());
+
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append(String.format("%12s %12s %12s  %s%n", "total", "constants", "methods", "class"));
+        long total = 0;
+        for(JvmClass jvmClass : jvmClasses) {
+            long size = sizeOf(jvmClass);
+            total += size;
+            stringBuilder.append(String.format(
+                    "%12d %12d %12d  %s%n",
+                    size,
+                    constantPoolSizeOf(jvmClass),
+                    methodsSizeOf(jvmClass),
+                    jvmClass.getName()
+            ));
+        }
+        stringBuilder.append(String.format("%12d bytes in %d classes%n", total, jvmClasses.size()));
+        StringPool stringPool = jvmClassLoader.getStringPool();
+        stringBuilder.append(String.format(
+                "%12d strings in pool, hit rate %.2f%% of %d lookups%n",
+                stringPool.size(),
+                stringPool.getHitRate() * 100,
+                stringPool.getHits() + stringPool.getMisses()
+        ));
+        return stringBuilder.toString();
+    }
+}
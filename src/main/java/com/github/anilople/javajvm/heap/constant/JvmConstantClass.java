@@ -1,20 +1,25 @@
 package com.github.anilople.javajvm.heap.constant;
 
-import com.github.anilople.javajvm.classfile.constantinfo.ConstantClassInfo;
 import com.github.anilople.javajvm.heap.JvmClass;
-import com.github.anilople.javajvm.utils.ConstantPoolUtils;
 
 public class JvmConstantClass extends JvmConstant {
 
-    private ConstantClassInfo constantClassInfo;
+    private int nameIndex;
+
+    /**
+     * jvms 5.4.3
+     * subsequent attempts to resolve the symbolic reference always succeed trivially
+     * and result in the same entity produced by the initial resolution.
+     */
+    private volatile JvmClass resolvedJvmClass;
 
     private JvmConstantClass() {
 
     }
 
-    public JvmConstantClass(JvmClass jvmClass, ConstantClassInfo constantClassInfo) {
+    public JvmConstantClass(JvmClass jvmClass, int nameIndex) {
         super(jvmClass);
-        this.constantClassInfo = constantClassInfo;
+        this.nameIndex = nameIndex;
     }
 
     /**
@@ -22,10 +27,8 @@ public class JvmConstantClass extends JvmConstant {
      * @return jvm class name represent of this constant
      */
     public String getName() {
-        return ConstantPoolUtils.getUtf8(
-                constantClassInfo.getClassFile().getConstantPool(),
-                constantClassInfo.getNameIndex()
-        );
+        // remember that use "super" not "this"
+        return super.getJvmClass().getJvmConstantPool().getUtf8String(nameIndex);
     }
 
     /**
@@ -36,9 +39,14 @@ public class JvmConstantClass extends JvmConstant {
      * @return What jvm class this constant represent
      */
     public JvmClass resolveJvmClass() {
-        String jvmClassName = this.getName();
-        // remember that use "super" not "this"
-        return super.getJvmClass().getLoader().loadClass(jvmClassName);
+        JvmClass jvmClass = this.resolvedJvmClass;
+        if(null == jvmClass) {
+            String jvmClassName = this.getName();
+            // remember that use "super" not "this"
+            jvmClass = super.getJvmClass().getLoader().loadClass(jvmClassName);
+            this.resolvedJvmClass = jvmClass;
+        }
+        return jvmClass;
     }
 
     /**
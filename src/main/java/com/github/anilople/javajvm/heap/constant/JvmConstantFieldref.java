@@ -1,6 +1,5 @@
 package com.github.anilople.javajvm.heap.constant;
 
-import com.github.anilople.javajvm.classfile.constantinfo.ConstantFieldrefInfo;
 import com.github.anilople.javajvm.heap.JvmClass;
 import com.github.anilople.javajvm.heap.JvmField;
 import com.github.anilople.javajvm.utils.JvmFieldUtils;
@@ -14,22 +13,24 @@ public class JvmConstantFieldref extends JvmConstant {
 
     private static final Logger logger = LoggerFactory.getLogger(JvmConstantFieldref.class);
 
-    private ConstantFieldrefInfo constantFieldrefInfo;
+    private int classIndex;
+
+    private int nameAndTypeIndex;
 
     private JvmConstantFieldref() {
 
     }
 
-    public JvmConstantFieldref(JvmClass jvmClass, ConstantFieldrefInfo constantFieldrefInfo) {
+    public JvmConstantFieldref(JvmClass jvmClass, int classIndex, int nameAndTypeIndex) {
         super(jvmClass);
-        this.constantFieldrefInfo = constantFieldrefInfo;
+        this.classIndex = classIndex;
+        this.nameAndTypeIndex = nameAndTypeIndex;
     }
 
     /**
      * @return which class this field belong to
      */
     public String getClassName() {
-        int classIndex = constantFieldrefInfo.getClassIndex();
         JvmConstantClass jvmConstantClass = (JvmConstantClass) this.getJvmClass().getJvmConstantPool().getJvmConstant(classIndex);
         return jvmConstantClass.getName();
     }
@@ -38,7 +39,6 @@ public class JvmConstantFieldref extends JvmConstant {
      * @return field's name
      */
     public String getFieldName() {
-        int nameAndTypeIndex = constantFieldrefInfo.getNameAndTypeIndex();
         JvmConstantNameAndType jvmConstantNameAndType
                 = (JvmConstantNameAndType) this.getJvmClass().getJvmConstantPool().getJvmConstant(nameAndTypeIndex);
         return jvmConstantNameAndType.getName();
@@ -48,7 +48,6 @@ public class JvmConstantFieldref extends JvmConstant {
      * @return field's type
      */
     public String getFieldDescriptor() {
-        int nameAndTypeIndex = constantFieldrefInfo.getNameAndTypeIndex();
         JvmConstantNameAndType jvmConstantNameAndType
                 = (JvmConstantNameAndType) this.getJvmClass().getJvmConstantPool().getJvmConstant(nameAndTypeIndex);
         return jvmConstantNameAndType.getDescriptor();
@@ -1,24 +1,23 @@
 package com.github.anilople.javajvm.heap.constant;
 
-import com.github.anilople.javajvm.classfile.constantinfo.ConstantFloatInfo;
 import com.github.anilople.javajvm.heap.JvmClass;
 
 public class JvmConstantFloat extends JvmConstant {
 
-    private ConstantFloatInfo constantFloatInfo;
+    private float floatValue;
 
     private JvmConstantFloat() {
 
     }
 
 
-    public JvmConstantFloat(JvmClass jvmClass, ConstantFloatInfo constantFloatInfo) {
+    public JvmConstantFloat(JvmClass jvmClass, float floatValue) {
         super(jvmClass);
-        this.constantFloatInfo = constantFloatInfo;
+        this.floatValue = floatValue;
     }
 
     public float getFloatValue() {
-        return Float.intBitsToFloat(constantFloatInfo.getBytes());
+        return floatValue;
     }
 
 }
@@ -1,19 +1,18 @@
 package com.github.anilople.javajvm.heap.constant;
 
-import com.github.anilople.javajvm.classfile.constantinfo.ConstantIntegerInfo;
 import com.github.anilople.javajvm.heap.JvmClass;
 
 public class JvmConstantInteger extends JvmConstant {
 
-    private ConstantIntegerInfo constantIntegerInfo;
+    private int intValue;
 
     public JvmConstantInteger() {
 
     }
 
-    public JvmConstantInteger(JvmClass jvmClass, ConstantIntegerInfo constantIntegerInfo) {
+    public JvmConstantInteger(JvmClass jvmClass, int intValue) {
         super(jvmClass);
-        this.constantIntegerInfo = constantIntegerInfo;
+        this.intValue = intValue;
     }
 
     /**
@@ -21,7 +20,7 @@ public class JvmConstantInteger extends JvmConstant {
      * @return
      */
     public int getIntValue() {
-        return constantIntegerInfo.getBytes();
+        return intValue;
     }
 
 }
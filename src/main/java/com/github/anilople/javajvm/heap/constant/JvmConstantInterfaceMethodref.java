@@ -1,19 +1,22 @@
 package com.github.anilople.javajvm.heap.constant;
 
-import com.github.anilople.javajvm.classfile.constantinfo.ConstantInterfaceMethodrefInfo;
 import com.github.anilople.javajvm.heap.JvmClass;
+import com.github.anilople.javajvm.heap.JvmMethod;
 
 public class JvmConstantInterfaceMethodref extends JvmConstant {
 
-    private ConstantInterfaceMethodrefInfo constantInterfaceMethodrefInfo;
+    private int classIndex;
+
+    private int nameAndTypeIndex;
 
     private JvmConstantInterfaceMethodref() {
 
     }
 
-    public JvmConstantInterfaceMethodref(JvmClass jvmClass, ConstantInterfaceMethodrefInfo constantInterfaceMethodrefInfo) {
+    public JvmConstantInterfaceMethodref(JvmClass jvmClass, int classIndex, int nameAndTypeIndex) {
         super(jvmClass);
-        this.constantInterfaceMethodrefInfo = constantInterfaceMethodrefInfo;
+        this.classIndex = classIndex;
+        this.nameAndTypeIndex = nameAndTypeIndex;
     }
 
     /**
@@ -21,7 +24,6 @@ public class JvmConstantInterfaceMethodref extends JvmConstant {
      * @return
      */
     public JvmConstantClass resolveJvmConstantClass() {
-        short classIndex = constantInterfaceMethodrefInfo.getClassIndex();
         JvmConstant jvmConstant = this.getJvmClass().getJvmConstantPool().getJvmConstant(classIndex);
         return (JvmConstantClass) jvmConstant;
     }
@@ -31,8 +33,17 @@ public class JvmConstantInterfaceMethodref extends JvmConstant {
      * @return
      */
     public JvmConstantNameAndType resolveJvmConstantNameAndType() {
-        short nameAndTypeIndex = constantInterfaceMethodrefInfo.getNameAndTypeIndex();
         JvmConstant jvmConstant = this.getJvmClass().getJvmConstantPool().getJvmConstant(nameAndTypeIndex);
         return (JvmConstantNameAndType) jvmConstant;
     }
+
+    /**
+     * jvms 5.4.3.4 Interface Method Resolution
+     * @return the method in interface, or in its superinterfaces, null if not found
+     */
+    public JvmMethod resolveJvmMethod() {
+        JvmClass interfaceClass = this.resolveJvmConstantClass().resolveJvmClass();
+        JvmConstantNameAndType jvmConstantNameAndType = this.resolveJvmConstantNameAndType();
+        return interfaceClass.getMethod(jvmConstantNameAndType.getName(), jvmConstantNameAndType.getDescriptor());
+    }
 }
@@ -1,18 +1,31 @@
 package com.github.anilople.javajvm.heap.constant;
 
-import com.github.anilople.javajvm.classfile.constantinfo.ConstantInvokeDynamicInfo;
 import com.github.anilople.javajvm.heap.JvmClass;
 
 public class JvmConstantInvokeDynamic extends JvmConstant {
 
-    private ConstantInvokeDynamicInfo constantInvokeDynamicInfo;
+    /**
+     * index into the bootstrap_methods array of the bootstrap method table
+     */
+    private int bootstrapMethodAttrIndex;
+
+    private int nameAndTypeIndex;
 
     private JvmConstantInvokeDynamic() {
 
     }
 
-    public JvmConstantInvokeDynamic(JvmClass jvmClass, ConstantInvokeDynamicInfo constantInvokeDynamicInfo) {
+    public JvmConstantInvokeDynamic(JvmClass jvmClass, int bootstrapMethodAttrIndex, int nameAndTypeIndex) {
         super(jvmClass);
-        this.constantInvokeDynamicInfo = constantInvokeDynamicInfo;
+        this.bootstrapMethodAttrIndex = bootstrapMethodAttrIndex;
+        this.nameAndTypeIndex = nameAndTypeIndex;
+    }
+
+    public int getBootstrapMethodAttrIndex() {
+        return bootstrapMethodAttrIndex;
+    }
+
+    public int getNameAndTypeIndex() {
+        return nameAndTypeIndex;
     }
 }
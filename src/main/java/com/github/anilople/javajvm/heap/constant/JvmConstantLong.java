@@ -1,30 +1,24 @@
 package com.github.anilople.javajvm.heap.constant;
 
-import com.github.anilople.javajvm.classfile.constantinfo.ConstantLongInfo;
 import com.github.anilople.javajvm.heap.JvmClass;
-import com.github.anilople.javajvm.utils.ByteUtils;
 
 public class JvmConstantLong extends JvmConstant {
 
-    private ConstantLongInfo constantLongInfo;
+    private long longValue;
 
     private JvmConstantLong() {
 
     }
 
-    public JvmConstantLong(JvmClass jvmClass, ConstantLongInfo constantLongInfo) {
+    public JvmConstantLong(JvmClass jvmClass, long longValue) {
         super(jvmClass);
-        this.constantLongInfo = constantLongInfo;
+        this.longValue = longValue;
     }
 
     /**
      * @return long value this constant represents
      */
     public long resolveValue() {
-        long value = ByteUtils.int2long(
-                constantLongInfo.getHighBytes(),
-                constantLongInfo.getLowBytes()
-        );
-        return value;
+        return longValue;
     }
 }
@@ -1,18 +1,130 @@
 package com.github.anilople.javajvm.heap.constant;
 
-import com.github.anilople.javajvm.classfile.constantinfo.ConstantMethodHandleInfo;
 import com.github.anilople.javajvm.heap.JvmClass;
+import com.github.anilople.javajvm.runtimedataarea.reference.HostObjectReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.ObjectReference;
+
+import java.lang.invoke.MethodHandle;
 
 public class JvmConstantMethodHandle extends JvmConstant {
 
-    private ConstantMethodHandleInfo constantMethodHandleInfo;
+    /**
+     * jvms 5.4.3.5, kinds of method handle
+     */
+    public static final int REF_GET_FIELD = 1;
+
+    public static final int REF_GET_STATIC = 2;
+
+    public static final int REF_PUT_FIELD = 3;
+
+    public static final int REF_PUT_STATIC = 4;
+
+    public static final int REF_INVOKE_VIRTUAL = 5;
+
+    public static final int REF_INVOKE_STATIC = 6;
+
+    public static final int REF_INVOKE_SPECIAL = 7;
+
+    public static final int REF_NEW_INVOKE_SPECIAL = 8;
+
+    public static final int REF_INVOKE_INTERFACE = 9;
+
+    /**
+     * 1 to 9, the kind of this method handle
+     */
+    private int referenceKind;
+
+    /**
+     * index of field or method reference
+     */
+    private int referenceIndex;
+
+    /**
+     * the method handle in guest, made at first use
+     */
+    private volatile ObjectReference methodHandle;
 
     private JvmConstantMethodHandle() {
 
     }
 
-    public JvmConstantMethodHandle(JvmClass jvmClass, ConstantMethodHandleInfo constantMethodHandleInfo) {
+    public JvmConstantMethodHandle(JvmClass jvmClass, int referenceKind, int referenceIndex) {
         super(jvmClass);
-        this.constantMethodHandleInfo = constantMethodHandleInfo;
+        this.referenceKind = referenceKind;
+        this.referenceIndex = referenceIndex;
+    }
+
+    public int getReferenceKind() {
+        return referenceKind;
     }
+
+    public int getReferenceIndex() {
+        return referenceIndex;
+    }
+
+    /**
+     * @return the field or method referred
+     */
+    private JvmConstant getReference() {
+        return this.getJvmClass().getJvmConstantPool().getJvmConstant(referenceIndex);
+    }
+
+    /**
+     * @return class of the field or method referred
+     */
+    public String getReferenceClassName() {
+        JvmConstant reference = this.getReference();
+        if(reference instanceof JvmConstantFieldref) {
+            return ((JvmConstantFieldref) reference).getClassName();
+        } else if(reference instanceof JvmConstantMethodref) {
+            return ((JvmConstantMethodref) reference).getClassName();
+        } else {
+            return ((JvmConstantInterfaceMethodref) reference).resolveJvmConstantClass().getName();
+        }
+    }
+
+    /**
+     * @return name of the field or method referred
+     */
+    public String getReferenceName() {
+        JvmConstant reference = this.getReference();
+        if(reference instanceof JvmConstantFieldref) {
+            return ((JvmConstantFieldref) reference).getFieldName();
+        } else if(reference instanceof JvmConstantMethodref) {
+            return ((JvmConstantMethodref) reference).getName();
+        } else {
+            return ((JvmConstantInterfaceMethodref) reference).resolveJvmConstantNameAndType().getName();
+        }
+    }
+
+    /**
+     * @return descriptor of the field or method referred
+     */
+    public String getReferenceDescriptor() {
+        JvmConstant reference = this.getReference();
+        if(reference instanceof JvmConstantFieldref) {
+            return ((JvmConstantFieldref) reference).getFieldDescriptor();
+        } else if(reference instanceof JvmConstantMethodref) {
+            return ((JvmConstantMethodref) reference).getDescriptor();
+        } else {
+            return ((JvmConstantInterfaceMethodref) reference).resolveJvmConstantNameAndType().getDescriptor();
+        }
+    }
+
+    /**
+     * jvms 5.4.3.5
+     * java.lang.invoke in guest cannot run without the natives of hotspot,
+     * so the method handle is an opaque handle of this constant,
+     * it can be passed around, and it goes back to the jvm as this constant.
+     * @return the same method handle for this constant
+     */
+    public ObjectReference resolveMethodHandle() {
+        ObjectReference objectReference = this.methodHandle;
+        if(null == objectReference) {
+            objectReference = new HostObjectReference(this.getJvmClass().getLoader().loadClass(MethodHandle.class), this);
+            this.methodHandle = objectReference;
+        }
+        return objectReference;
+    }
+
 }
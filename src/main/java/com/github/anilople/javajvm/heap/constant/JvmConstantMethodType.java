@@ -1,18 +1,49 @@
 package com.github.anilople.javajvm.heap.constant;
 
-import com.github.anilople.javajvm.classfile.constantinfo.ConstantMethodTypeInfo;
 import com.github.anilople.javajvm.heap.JvmClass;
+import com.github.anilople.javajvm.runtimedataarea.reference.HostObjectReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.ObjectReference;
+
+import java.lang.invoke.MethodType;
 
 public class JvmConstantMethodType extends JvmConstant {
 
-    private ConstantMethodTypeInfo constantMethodTypeInfo;
+    private int descriptorIndex;
+
+    /**
+     * the method type in guest, made at first use
+     */
+    private volatile ObjectReference methodType;
 
     private JvmConstantMethodType() {
 
     }
 
-    public JvmConstantMethodType(JvmClass jvmClass, ConstantMethodTypeInfo constantMethodTypeInfo) {
+    public JvmConstantMethodType(JvmClass jvmClass, int descriptorIndex) {
         super(jvmClass);
-        this.constantMethodTypeInfo = constantMethodTypeInfo;
+        this.descriptorIndex = descriptorIndex;
+    }
+
+    /**
+     * @return method descriptor
+     */
+    public String getDescriptor() {
+        return this.getJvmClass().getJvmConstantPool().getUtf8String(descriptorIndex);
     }
+
+    /**
+     * jvms 5.4.3.5
+     * like {@link JvmConstantMethodHandle#resolveMethodHandle()},
+     * the method type is an opaque handle of this constant
+     * @return the same method type for this constant
+     */
+    public ObjectReference resolveMethodType() {
+        ObjectReference objectReference = this.methodType;
+        if(null == objectReference) {
+            objectReference = new HostObjectReference(this.getJvmClass().getLoader().loadClass(MethodType.class), this);
+            this.methodType = objectReference;
+        }
+        return objectReference;
+    }
+
 }
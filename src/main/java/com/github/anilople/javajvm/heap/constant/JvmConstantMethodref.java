@@ -1,20 +1,30 @@
 package com.github.anilople.javajvm.heap.constant;
 
-import com.github.anilople.javajvm.classfile.constantinfo.ConstantMethodrefInfo;
 import com.github.anilople.javajvm.heap.JvmClass;
 import com.github.anilople.javajvm.heap.JvmMethod;
 
 public class JvmConstantMethodref extends JvmConstant {
 
-    private ConstantMethodrefInfo constantMethodrefInfo;
+    private int classIndex;
+
+    private int nameAndTypeIndex;
 
     private JvmConstantMethodref() {
 
     }
 
-    public JvmConstantMethodref(JvmClass jvmClass, ConstantMethodrefInfo constantMethodrefInfo) {
+    public JvmConstantMethodref(JvmClass jvmClass, int classIndex, int nameAndTypeIndex) {
         super(jvmClass);
-        this.constantMethodrefInfo = constantMethodrefInfo;
+        this.classIndex = classIndex;
+        this.nameAndTypeIndex = nameAndTypeIndex;
+    }
+
+    /**
+     * @return name of class this method belong to
+     */
+    public String getClassName() {
+        JvmConstantClass jvmConstantClass = (JvmConstantClass) this.getJvmClass().getJvmConstantPool().getJvmConstant(classIndex);
+        return jvmConstantClass.getName();
     }
 
     /**
@@ -22,7 +32,6 @@ public class JvmConstantMethodref extends JvmConstant {
      * @return method name
      */
     public String getName() {
-        short nameAndTypeIndex = constantMethodrefInfo.getNameAndTypeIndex();
         JvmConstantNameAndType jvmConstantNameAndType =
                 (JvmConstantNameAndType) this.getJvmClass().getJvmConstantPool().getJvmConstant(nameAndTypeIndex);
         return jvmConstantNameAndType.getName();
@@ -32,7 +41,6 @@ public class JvmConstantMethodref extends JvmConstant {
      * @return method descriptor
      */
     public String getDescriptor() {
-        short nameAndTypeIndex = constantMethodrefInfo.getNameAndTypeIndex();
         JvmConstantNameAndType jvmConstantNameAndType =
                 (JvmConstantNameAndType) this.getJvmClass().getJvmConstantPool().getJvmConstant(nameAndTypeIndex);
         String descriptor = jvmConstantNameAndType.getDescriptor();
@@ -44,13 +52,15 @@ public class JvmConstantMethodref extends JvmConstant {
      */
     public JvmMethod resolveJvmMethod() {
         // get which class this method belong to
-        short classIndex = constantMethodrefInfo.getClassIndex();
         JvmConstantClass jvmConstantClass = (JvmConstantClass) this.getJvmClass().getJvmConstantPool().getJvmConstant(classIndex);
         final String jvmClassName = jvmConstantClass.getName();
         JvmClass jvmClass = this.getJvmClass().getLoader().loadClass(jvmClassName);
+        if(jvmClass.isArrayType()) {
+            // jvms 5.4.3.3, methods of an array class are the ones of java.lang.Object
+            jvmClass = this.getJvmClass().getLoader().loadClass(Object.class);
+        }
 
         // get method's name and type
-        short nameAndTypeIndex = constantMethodrefInfo.getNameAndTypeIndex();
         JvmConstantNameAndType jvmConstantNameAndType =
                 (JvmConstantNameAndType) this.getJvmClass().getJvmConstantPool().getJvmConstant(nameAndTypeIndex);
         String name = jvmConstantNameAndType.getName();
@@ -1,19 +1,21 @@
 package com.github.anilople.javajvm.heap.constant;
 
-import com.github.anilople.javajvm.classfile.constantinfo.ConstantNameAndTypeInfo;
 import com.github.anilople.javajvm.heap.JvmClass;
 
 public class JvmConstantNameAndType extends JvmConstant {
 
-    private ConstantNameAndTypeInfo constantNameAndTypeInfo;
+    private int nameIndex;
+
+    private int descriptorIndex;
 
     private JvmConstantNameAndType() {
 
     }
 
-    public JvmConstantNameAndType(JvmClass jvmClass, ConstantNameAndTypeInfo constantNameAndTypeInfo) {
+    public JvmConstantNameAndType(JvmClass jvmClass, int nameIndex, int descriptorIndex) {
         super(jvmClass);
-        this.constantNameAndTypeInfo = constantNameAndTypeInfo;
+        this.nameIndex = nameIndex;
+        this.descriptorIndex = descriptorIndex;
     }
 
     /**
@@ -22,7 +24,6 @@ public class JvmConstantNameAndType extends JvmConstant {
      */
     public String getName() {
         // name
-        int nameIndex = constantNameAndTypeInfo.getNameIndex();
         String name = this.getJvmClass().getJvmConstantPool().getUtf8String(nameIndex);
         return name;
     }
@@ -32,7 +33,6 @@ public class JvmConstantNameAndType extends JvmConstant {
      * @return
      */
     public String getDescriptor() {
-        int descriptorIndex = constantNameAndTypeInfo.getDescriptorIndex();
         String descriptor = this.getJvmClass().getJvmConstantPool().getUtf8String(descriptorIndex);
         return descriptor;
     }
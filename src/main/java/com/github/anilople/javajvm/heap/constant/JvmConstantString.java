@@ -1,22 +1,58 @@
 package com.github.anilople.javajvm.heap.constant;
 
-import com.github.anilople.javajvm.classfile.constantinfo.ConstantStringInfo;
 import com.github.anilople.javajvm.heap.JvmClass;
+import com.github.anilople.javajvm.runtimedataarea.reference.ObjectReference;
+import com.github.anilople.javajvm.utils.ReferenceUtils;
 
 public class JvmConstantString extends JvmConstant {
 
-    private ConstantStringInfo constantStringInfo;
+    /**
+     * index of utf8 constant
+     */
+    private int stringIndex;
+
+    /**
+     * the string literal, hold by this constant,
+     * so it stays in {@link com.github.anilople.javajvm.cachepool.StringPool}
+     * as long as the class loader is alive
+     */
+    private volatile ObjectReference stringReference;
 
     private JvmConstantString() {
 
     }
 
-    public JvmConstantString(JvmClass jvmClass, ConstantStringInfo constantStringInfo) {
+    public JvmConstantString(JvmClass jvmClass, int stringIndex) {
         super(jvmClass);
-        this.constantStringInfo = constantStringInfo;
+        this.stringIndex = stringIndex;
+    }
+
+    public int getStringIndex() {
+        return stringIndex;
+    }
+
+    /**
+     * @return content of this string
+     */
+    public String getString() {
+        return this.getJvmClass().getJvmConstantPool().getUtf8String(stringIndex);
     }
 
-    public ConstantStringInfo getConstantStringInfo() {
-        return constantStringInfo;
+    /**
+     * jvms 5.1
+     * A string literal is a reference to an instance of class String,
+     * the same instance for the same sequence of code points.
+     * @return the string object
+     */
+    public ObjectReference resolveStringReference() {
+        ObjectReference objectReference = this.stringReference;
+        if(null == objectReference) {
+            objectReference = ReferenceUtils.getStringObjectReference(
+                    this.getJvmClass().getLoader().loadClass(String.class),
+                    this.getString()
+            );
+            this.stringReference = objectReference;
+        }
+        return objectReference;
     }
 }
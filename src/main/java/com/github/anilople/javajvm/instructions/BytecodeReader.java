@@ -2,10 +2,76 @@ package com.github.anilople.javajvm.instructions;
 
 import com.github.anilople.javajvm.classfile.ClassFile;
 
+import java.util.Arrays;
+
+/**
+ * read the code of a method in place,
+ * the code is shared, not copied, it is not changed by the reader.
+ */
 public class BytecodeReader extends ClassFile.ClassReader {
 
+    private final byte[] code;
+
+    /**
+     * address in the code of method, where this reader is
+     */
+    private int pc;
+
     public BytecodeReader(byte[] bytes) {
-        super(bytes);
+        this(bytes, 0);
+    }
+
+    /**
+     * @param code code of a method
+     * @param pc address of the instruction to be read
+     */
+    public BytecodeReader(byte[] code, int pc) {
+        this.code = code;
+        this.pc = pc;
+    }
+
+    @Override
+    public byte[] readBytes(int length) {
+        if (length < 0) {
+            throw new RuntimeException(length + " must >= 0");
+        }
+        byte[] bytes = Arrays.copyOfRange(code, pc, pc + length);
+        pc += length;
+        return bytes;
+    }
+
+    @Override
+    public byte readU1() {
+        return code[pc++];
+    }
+
+    @Override
+    public short readU2() {
+        short value = (short) (((code[pc] & 0xFF) << 8) | (code[pc + 1] & 0xFF));
+        pc += 2;
+        return value;
+    }
+
+    @Override
+    public int readU4() {
+        int value = ((code[pc] & 0xFF) << 24)
+                | ((code[pc + 1] & 0xFF) << 16)
+                | ((code[pc + 2] & 0xFF) << 8)
+                | (code[pc + 3] & 0xFF);
+        pc += 4;
+        return value;
+    }
+
+    /**
+     * tableswitch and lookupswitch have 0-3 bytes of padding,
+     * so the next operand begins at an address that is a multiple of four bytes
+     * from the start of the current method
+     * @return bytes skipped
+     */
+    public int skipPadding() {
+        int padding = (4 - pc % 4) % 4;
+        pc += padding;
+        return padding;
     }
 
 }
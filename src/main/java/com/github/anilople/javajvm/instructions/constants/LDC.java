@@ -1,6 +1,5 @@
 package com.github.anilople.javajvm.instructions.constants;
 
-import com.github.anilople.javajvm.cachepool.StringPool;
 import com.github.anilople.javajvm.heap.JvmClass;
 import com.github.anilople.javajvm.heap.JvmClassLoader;
 import com.github.anilople.javajvm.heap.constant.*;
@@ -50,7 +49,7 @@ import org.slf4j.LoggerFactory;
  */
 public class LDC implements Instruction {
 
-    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private static final Logger logger = LoggerFactory.getLogger(LDC.class);
 
     private byte unsignedByteIndex;
 
@@ -61,8 +60,19 @@ public class LDC implements Instruction {
 
     @Override
     public void execute(Frame frame) {
-        JvmClass currentClass = frame.getJvmMethod().getJvmClass();
         int index = PrimitiveTypeUtils.intFormUnsignedByte(unsignedByteIndex);
+        pushConstant(frame, index);
+        int nextPc = frame.getNextPc() + this.size();
+        frame.setNextPc(nextPc);
+    }
+
+    /**
+     * push item from run-time constant pool, shared with ldc_w
+     * @param frame current frame
+     * @param index index in run-time constant pool of current class
+     */
+    static void pushConstant(Frame frame, int index) {
+        JvmClass currentClass = frame.getJvmMethod().getJvmClass();
         JvmConstant jvmConstant = currentClass.getJvmConstantPool().getJvmConstant(index);
         logger.trace("jvmConstant: {}", jvmConstant);
         if(jvmConstant instanceof JvmConstantInteger) {
@@ -73,19 +83,9 @@ public class LDC implements Instruction {
             frame.getOperandStacks().pushFloatValue(floatValue);
         } else if(jvmConstant instanceof JvmConstantString) {
             // a reference to a string literal
-//            throw new RuntimeException("LDC now cannot support JvmConstantString " + jvmConstant);
             JvmConstantString jvmConstantString = (JvmConstantString) jvmConstant;
-            String utf8 = jvmConstantString.getJvmClass().getJvmConstantPool().getUtf8String(
-                    jvmConstantString.getConstantStringInfo().getStringIndex()
-            );
-            logger.trace("String content = {}", utf8);
-            // get string by tool
-            ObjectReference objectReference = ReferenceUtils.getStringObjectReference(
-                    currentClass.getLoader().loadClass(String.class),
-                    utf8
-            );
+            ObjectReference objectReference = jvmConstantString.resolveStringReference();
             frame.getOperandStacks().pushReference(objectReference);
-//            throw new RuntimeException("LDC now cannot support " + jvmConstant);
         } else if(jvmConstant instanceof JvmConstantClass) {
             JvmConstantClass jvmConstantClass = (JvmConstantClass) jvmConstant;
             JvmClass jvmClass = jvmConstantClass.resolveJvmClass();
@@ -93,15 +93,13 @@ public class LDC implements Instruction {
             frame.getOperandStacks().pushReference(classObjectReference);
         } else if(jvmConstant instanceof JvmConstantMethodType) {
             JvmConstantMethodType jvmConstantMethodType = (JvmConstantMethodType) jvmConstant;
-            throw new RuntimeException("LDC now cannot support " + jvmConstantMethodType);
+            frame.getOperandStacks().pushReference(jvmConstantMethodType.resolveMethodType());
         } else if(jvmConstant instanceof JvmConstantMethodHandle) {
             JvmConstantMethodHandle jvmConstantMethodHandle = (JvmConstantMethodHandle) jvmConstant;
-            throw new RuntimeException("LDC now cannot support " + jvmConstantMethodHandle);
+            frame.getOperandStacks().pushReference(jvmConstantMethodHandle.resolveMethodHandle());
         } else {
             throw new IllegalArgumentException("LDC cannot support " + jvmConstant.toString());
         }
-        int nextPc = frame.getNextPc() + this.size();
-        frame.setNextPc(nextPc);
     }
 
     @Override
@@ -3,7 +3,23 @@ package com.github.anilople.javajvm.instructions.constants;
 import com.github.anilople.javajvm.instructions.BytecodeReader;
 import com.github.anilople.javajvm.instructions.Instruction;
 import com.github.anilople.javajvm.runtimedataarea.Frame;
-
+import com.github.anilople.javajvm.utils.PrimitiveTypeUtils;
+
+/**
+ * Operation
+ * Push item from run-time constant pool (wide index)
+ *
+ * Description
+ * The unsigned indexbyte1 and indexbyte2 are assembled into an
+ * unsigned 16-bit index into the run-time constant pool of the
+ * current class (§2.6), where the value of the index is calculated as
+ * (indexbyte1 << 8) | indexbyte2.
+ *
+ * Notes
+ * The ldc_w instruction is identical to the ldc instruction (§ldc)
+ * except for its wider run-time constant pool index.
+ * @see LDC
+ */
 public class LDC_W implements Instruction {
 
     //    private byte indexbyte1;
@@ -20,13 +36,13 @@ public class LDC_W implements Instruction {
 
     @Override
     public void execute(Frame frame) {
-        throw new RuntimeException("Now cannot support " + this.getClass());
-//        int nextPc = frame.getNextPc() + this.size();
-//        frame.setNextPc(nextPc);
+        LDC.pushConstant(frame, PrimitiveTypeUtils.intFormUnsignedShort(index));
+        int nextPc = frame.getNextPc() + this.size();
+        frame.setNextPc(nextPc);
     }
 
     @Override
     public int size() {
-        return 1;
+        return 3;
     }
 }
@@ -4,23 +4,106 @@ import com.github.anilople.javajvm.instructions.BytecodeReader;
 import com.github.anilople.javajvm.instructions.Instruction;
 import com.github.anilople.javajvm.runtimedataarea.Frame;
 
+import java.util.Arrays;
+
+/**
+ * Operation
+ * Access jump table by key match and jump
+ *
+ * Description
+ * Immediately after the lookupswitch opcode, between zero and three
+ * bytes must act as padding, such that defaultbyte1 begins at an
+ * address that is a multiple of four bytes from the start of the
+ * current method. Immediately after the padding follow a series of
+ * signed 32-bit values: default, npairs, and then npairs pairs of signed
+ * 32-bit values. Each of the npairs pairs consists of an int match and a
+ * signed 32-bit offset. The table match-offset pairs of the lookupswitch
+ * instruction must be sorted in increasing numerical order by match.
+ *
+ * The key must be of type int and is popped from the operand stack.
+ * The key is compared against the match values. If it is equal to one of
+ * them, then a target address is calculated by adding the
+ * corresponding offset to the address of the opcode of this
+ * lookupswitch instruction. If the key does not match any of the match
+ * values, the target address is calculated by adding default to the
+ * address of the opcode of this lookupswitch instruction.
+ *
+ * Notes
+ * The match-offset pairs are sorted to support lookup routines that
+ * are quicker than linear search.
+ * Here matches are searched by binary search,
+ * and dense matches are converted to a jump table as tableswitch when decoded.
+ */
 public class LOOKUPSWITCH implements Instruction {
 
+    /**
+     * matches are dense when at least half of the jump table are not default
+     */
+    private static final int DENSITY = 2;
+
+    private int padding;
+
+    private int defaultOffset;
+
+    private int[] matches;
+
+    private int[] offsets;
+
+    /**
+     * null if matches are sparse
+     */
+    private int[] jumpOffsets;
+
     @Override
     public void fetchOperands(BytecodeReader bytecodeReader) {
-
+        this.padding = bytecodeReader.skipPadding();
+        this.defaultOffset = bytecodeReader.readU4();
+        int npairs = bytecodeReader.readU4();
+        this.matches = new int[npairs];
+        this.offsets = new int[npairs];
+        for(int i = 0; i < npairs; i++) {
+            matches[i] = bytecodeReader.readU4();
+            offsets[i] = bytecodeReader.readU4();
+        }
+        if(npairs > 0) {
+            long range = (long) matches[npairs - 1] - matches[0] + 1;
+            if(range <= (long) npairs * DENSITY) {
+                this.jumpOffsets = new int[(int) range];
+                Arrays.fill(jumpOffsets, defaultOffset);
+                for(int i = 0; i < npairs; i++) {
+                    jumpOffsets[matches[i] - matches[0]] = offsets[i];
+                }
+            }
+        }
     }
 
     @Override
     public void execute(Frame frame) {
-        throw new RuntimeException("Now cannot support " + this.getClass());
-//        int nextPc = frame.getNextPc() + this.size();
-//        frame.setNextPc(nextPc);
+        int key = frame.getOperandStacks().popIntValue();
+
+        int nextPc = frame.getNextPc() + this.branchOffset(key);
+        frame.setNextPc(nextPc);
+    }
+
+    /**
+     * @return matches are converted to a jump table or not
+     */
+    boolean isJumpTable() {
+        return null != jumpOffsets;
+    }
+
+    int branchOffset(int key) {
+        if(null != jumpOffsets) {
+            long index = (long) key - matches[0];
+            return index < 0 || index >= jumpOffsets.length ? defaultOffset : jumpOffsets[(int) index];
+        }
+        int index = Arrays.binarySearch(matches, key);
+        return index < 0 ? defaultOffset : offsets[index];
     }
 
     @Override
     public int size() {
-        return 1;
+        return 1 + padding + 8 + 8 * matches.length;
     }
 
 }
@@ -1,5 +1,6 @@
 package com.github.anilople.javajvm.instructions.control;
 
+import com.github.anilople.javajvm.constants.SpecialMethods;
 import com.github.anilople.javajvm.instructions.BytecodeReader;
 import com.github.anilople.javajvm.instructions.Instruction;
 import com.github.anilople.javajvm.runtimedataarea.Frame;
@@ -37,6 +38,10 @@ public class RETURN implements Instruction {
     public void execute(Frame frame) {
         frame.getJvmThread().popFrame();
         logger.trace("pop frame: {}", frame);
+        if(SpecialMethods.CLINIT.equals(frame.getJvmMethod().getName())) {
+            // class initialization finish
+            frame.getJvmMethod().getJvmClass().completeInitialization();
+        }
         int nextPc = frame.getNextPc() + this.size();
         frame.setNextPc(nextPc);
     }
@@ -4,23 +4,63 @@ import com.github.anilople.javajvm.instructions.BytecodeReader;
 import com.github.anilople.javajvm.instructions.Instruction;
 import com.github.anilople.javajvm.runtimedataarea.Frame;
 
+/**
+ * Operation
+ * Access jump table by index and jump
+ *
+ * Description
+ * Immediately after the tableswitch opcode, between zero and three
+ * bytes must act as padding, such that defaultbyte1 begins at an
+ * address that is a multiple of four bytes from the start of the
+ * current method. Immediately after the padding are bytes constituting
+ * three signed 32-bit values: default, low, and high. Immediately
+ * following are bytes constituting a series of high - low + 1 signed
+ * 32-bit offsets.
+ *
+ * The index must be of type int and is popped from the operand
+ * stack. If index is less than low or index is greater than high, then a
+ * target address is calculated by adding default to the address of the
+ * opcode of this tableswitch instruction. Otherwise, the offset at
+ * position index - low of the jump table is extracted. The target
+ * address is calculated by adding that offset to the address of the
+ * opcode of this tableswitch instruction.
+ */
 public class TABLESWITCH implements Instruction {
 
+    private int padding;
+
+    private int defaultOffset;
+
+    private int low;
+
+    private int high;
+
+    private int[] jumpOffsets;
+
     @Override
     public void fetchOperands(BytecodeReader bytecodeReader) {
-
+        this.padding = bytecodeReader.skipPadding();
+        this.defaultOffset = bytecodeReader.readU4();
+        this.low = bytecodeReader.readU4();
+        this.high = bytecodeReader.readU4();
+        this.jumpOffsets = new int[high - low + 1];
+        for(int i = 0; i < jumpOffsets.length; i++) {
+            jumpOffsets[i] = bytecodeReader.readU4();
+        }
     }
 
     @Override
     public void execute(Frame frame) {
-        throw new RuntimeException("Now cannot support " + this.getClass());
-//        int nextPc = frame.getNextPc() + this.size();
-//        frame.setNextPc(nextPc);
+        int index = frame.getOperandStacks().popIntValue();
+        int branchOffset = index < low || index > high ? defaultOffset : jumpOffsets[index - low];
+
+        int nextPc = frame.getNextPc() + branchOffset;
+        frame.setNextPc(nextPc);
     }
 
     @Override
     public int size() {
-        return 1;
+        return 1 + padding + 12 + 4 * jumpOffsets.length;
     }
 
 }
@@ -6,6 +6,7 @@ import com.github.anilople.javajvm.heap.constant.JvmConstantClass;
 import com.github.anilople.javajvm.instructions.BytecodeReader;
 import com.github.anilople.javajvm.instructions.Instruction;
 import com.github.anilople.javajvm.instructions.references.ANEWARRAY;
+import com.github.anilople.javajvm.instructions.references.ATHROW;
 import com.github.anilople.javajvm.instructions.references.NEWARRAY;
 import com.github.anilople.javajvm.runtimedataarea.Frame;
 import com.github.anilople.javajvm.runtimedataarea.reference.ArrayReference;
@@ -115,7 +116,7 @@ public class MULTIANEWARRAY implements Instruction {
         checkCounts(counts);
 
         // allocate it
-        ArrayReference arrayReference = MULTIANEWARRAY.allocate(jvmConstantClass.resolveJvmClass(), counts);
+        final ArrayReference arrayReference = MULTIANEWARRAY.allocate(jvmConstantClass.resolveJvmClass(), counts);
         // push it to the top of operand stack
         frame.getOperandStacks().pushReference(arrayReference);
 
@@ -2,9 +2,9 @@ package com.github.anilople.javajvm.instructions.loads;
 
 import com.github.anilople.javajvm.instructions.BytecodeReader;
 import com.github.anilople.javajvm.instructions.Instruction;
+import com.github.anilople.javajvm.instructions.references.ATHROW;
 import com.github.anilople.javajvm.runtimedataarea.Frame;
 import com.github.anilople.javajvm.runtimedataarea.Reference;
-import com.github.anilople.javajvm.runtimedataarea.reference.BaseTypeArrayReference;
 import com.github.anilople.javajvm.runtimedataarea.reference.ObjectArrayReference;
 
 /**
@@ -37,11 +37,15 @@ public class AALOAD implements Instruction {
         Reference reference = frame.getOperandStacks().popReference();
         Reference.assertIsNotNull(reference);
         ObjectArrayReference objectArrayReference = (ObjectArrayReference) reference;
-        objectArrayReference.assertIndexIsNotOutOfBounds(index);
 
-        frame.getOperandStacks().pushReference(
-                objectArrayReference.getReference(index)
-        );
+        final Reference element;
+        try {
+            element = objectArrayReference.getReference(index);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            ATHROW.throwArrayIndexOutOfBoundsException(frame, e);
+            return;
+        }
+        frame.getOperandStacks().pushReference(element);
 
         int nextPc = frame.getNextPc() + this.size();
         frame.setNextPc(nextPc);
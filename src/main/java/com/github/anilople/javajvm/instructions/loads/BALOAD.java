@@ -2,9 +2,11 @@ package com.github.anilople.javajvm.instructions.loads;
 
 import com.github.anilople.javajvm.instructions.BytecodeReader;
 import com.github.anilople.javajvm.instructions.Instruction;
+import com.github.anilople.javajvm.instructions.references.ATHROW;
 import com.github.anilople.javajvm.runtimedataarea.Frame;
 import com.github.anilople.javajvm.runtimedataarea.Reference;
-import com.github.anilople.javajvm.runtimedataarea.reference.BaseTypeArrayReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.BooleanArrayReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.ByteArrayReference;
 import com.github.anilople.javajvm.runtimedataarea.reference.NullReference;
 
 /**
@@ -51,17 +53,20 @@ public class BALOAD implements Instruction {
         if(reference instanceof NullReference) {
             throw new NullPointerException();
         }
-        BaseTypeArrayReference baseTypeArrayReference = (BaseTypeArrayReference) reference;
-        baseTypeArrayReference.assertIndexIsNotOutOfBounds(index);
-        if(baseTypeArrayReference.isBooleanType()) {
-            // load boolean
-            boolean booleanValue = baseTypeArrayReference.getBooleanValue(index);
-            frame.getOperandStacks().pushBooleanValue(booleanValue);
-        } else {
-            // load byte
-            // byte sign-extended to an int value
-            byte byteValue = baseTypeArrayReference.getByteValue(index);
-            frame.getOperandStacks().pushByteValue(byteValue);
+        try {
+            if(reference instanceof BooleanArrayReference) {
+                // load boolean
+                boolean booleanValue = ((BooleanArrayReference) reference).getBooleanValue(index);
+                frame.getOperandStacks().pushBooleanValue(booleanValue);
+            } else {
+                // load byte
+                // byte sign-extended to an int value
+                byte byteValue = ((ByteArrayReference) reference).getByteValue(index);
+                frame.getOperandStacks().pushByteValue(byteValue);
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            ATHROW.throwArrayIndexOutOfBoundsException(frame, e);
+            return;
         }
 
         int nextPc = frame.getNextPc() + this.size();
@@ -2,9 +2,10 @@ package com.github.anilople.javajvm.instructions.loads;
 
 import com.github.anilople.javajvm.instructions.BytecodeReader;
 import com.github.anilople.javajvm.instructions.Instruction;
+import com.github.anilople.javajvm.instructions.references.ATHROW;
 import com.github.anilople.javajvm.runtimedataarea.Frame;
 import com.github.anilople.javajvm.runtimedataarea.Reference;
-import com.github.anilople.javajvm.runtimedataarea.reference.BaseTypeArrayReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.CharArrayReference;
 
 /**
  * Operation
@@ -36,10 +37,14 @@ public class CALOAD implements Instruction {
         int index = frame.getOperandStacks().popIntValue();
         Reference reference = frame.getOperandStacks().popReference();
         Reference.assertIsNotNull(reference);
-        BaseTypeArrayReference baseTypeArrayReference = (BaseTypeArrayReference) reference;
-        baseTypeArrayReference.assertIndexIsNotOutOfBounds(index);
 
-        char charValue = baseTypeArrayReference.getCharValue(index);
+        final char charValue;
+        try {
+            charValue = ((CharArrayReference) reference).getCharValue(index);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            ATHROW.throwArrayIndexOutOfBoundsException(frame, e);
+            return;
+        }
         frame.getOperandStacks().pushCharValue(charValue);
 
         int nextPc = frame.getNextPc() + this.size();
@@ -2,10 +2,10 @@ package com.github.anilople.javajvm.instructions.loads;
 
 import com.github.anilople.javajvm.instructions.BytecodeReader;
 import com.github.anilople.javajvm.instructions.Instruction;
+import com.github.anilople.javajvm.instructions.references.ATHROW;
 import com.github.anilople.javajvm.runtimedataarea.Frame;
 import com.github.anilople.javajvm.runtimedataarea.Reference;
-import com.github.anilople.javajvm.runtimedataarea.reference.BaseTypeArrayReference;
-import com.github.anilople.javajvm.runtimedataarea.reference.NullReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.FloatArrayReference;
 
 /**
  * Operation
@@ -28,9 +28,14 @@ public class FALOAD implements Instruction {
         int index = frame.getOperandStacks().popIntValue();
         Reference reference = frame.getOperandStacks().popReference();
         Reference.assertIsNotNull(reference);
-        BaseTypeArrayReference baseTypeArrayReference = (BaseTypeArrayReference) reference;
-        baseTypeArrayReference.assertIndexIsNotOutOfBounds(index);
-        float floatValue = baseTypeArrayReference.getFloatValue(index);
+
+        final float floatValue;
+        try {
+            floatValue = ((FloatArrayReference) reference).getFloatValue(index);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            ATHROW.throwArrayIndexOutOfBoundsException(frame, e);
+            return;
+        }
         frame.getOperandStacks().pushFloatValue(floatValue);
 
         int nextPc = frame.getNextPc() + this.size();
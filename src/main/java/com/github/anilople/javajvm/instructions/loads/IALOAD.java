@@ -2,10 +2,11 @@ package com.github.anilople.javajvm.instructions.loads;
 
 import com.github.anilople.javajvm.instructions.BytecodeReader;
 import com.github.anilople.javajvm.instructions.Instruction;
+import com.github.anilople.javajvm.instructions.references.ATHROW;
 import com.github.anilople.javajvm.runtimedataarea.Frame;
 import com.github.anilople.javajvm.runtimedataarea.Reference;
 import com.github.anilople.javajvm.runtimedataarea.reference.ArrayReference;
-import com.github.anilople.javajvm.runtimedataarea.reference.BaseTypeArrayReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.IntArrayReference;
 
 /**
  * Operation
@@ -42,10 +43,14 @@ public class IALOAD implements Instruction {
         Reference reference = frame.getOperandStacks().popReference();
         Reference.assertIsNotNull(reference);
 
-        BaseTypeArrayReference baseTypeArrayReference = (BaseTypeArrayReference) reference;
-        baseTypeArrayReference.assertIndexIsNotOutOfBounds(index);
-        int value = baseTypeArrayReference.getIntValue(index);
-        frame.getOperandStacks().pushIntValue(value);
+        final int intValue;
+        try {
+            intValue = ((IntArrayReference) reference).getIntValue(index);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            ATHROW.throwArrayIndexOutOfBoundsException(frame, e);
+            return;
+        }
+        frame.getOperandStacks().pushIntValue(intValue);
 
         int nextPc = frame.getNextPc() + this.size();
         frame.setNextPc(nextPc);
@@ -2,10 +2,10 @@ package com.github.anilople.javajvm.instructions.loads;
 
 import com.github.anilople.javajvm.instructions.BytecodeReader;
 import com.github.anilople.javajvm.instructions.Instruction;
+import com.github.anilople.javajvm.instructions.references.ATHROW;
 import com.github.anilople.javajvm.runtimedataarea.Frame;
 import com.github.anilople.javajvm.runtimedataarea.Reference;
-import com.github.anilople.javajvm.runtimedataarea.reference.BaseTypeArrayReference;
-import com.github.anilople.javajvm.runtimedataarea.reference.NullReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.ShortArrayReference;
 
 /**
  * Operation
@@ -28,9 +28,14 @@ public class SALOAD implements Instruction {
         int index = frame.getOperandStacks().popIntValue();
         Reference reference = frame.getOperandStacks().popReference();
         Reference.assertIsNotNull(reference);
-        BaseTypeArrayReference baseTypeArrayReference = (BaseTypeArrayReference) reference;
-        baseTypeArrayReference.assertIndexIsNotOutOfBounds(index);
-        short shortValue = baseTypeArrayReference.getShortValue(index);
+
+        final short shortValue;
+        try {
+            shortValue = ((ShortArrayReference) reference).getShortValue(index);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            ATHROW.throwArrayIndexOutOfBoundsException(frame, e);
+            return;
+        }
         frame.getOperandStacks().pushShortValue(shortValue);
 
         int nextPc = frame.getNextPc() + this.size();
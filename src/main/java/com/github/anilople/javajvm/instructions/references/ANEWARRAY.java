@@ -76,9 +76,8 @@ public class ANEWARRAY implements Instruction {
         if(jvmConstant instanceof JvmConstantClass) {
             JvmConstantClass jvmConstantClass = (JvmConstantClass) jvmConstant;
             logger.trace("className = {}", jvmConstantClass.getName());
-            frame.getOperandStacks().pushReference(
-                    ANEWARRAY.allocate(jvmConstantClass.resolveJvmClass(), count)
-            );
+            final ObjectArrayReference arrayReference = ANEWARRAY.allocate(jvmConstantClass.resolveJvmClass(), count);
+            frame.getOperandStacks().pushReference(arrayReference);
         } else {
             throw new IllegalStateException();
         }
@@ -1,9 +1,15 @@
 package com.github.anilople.javajvm.instructions.references;
 
+import com.github.anilople.javajvm.constants.SpecialMethods;
 import com.github.anilople.javajvm.heap.JvmClass;
+import com.github.anilople.javajvm.heap.JvmClassLoader;
+import com.github.anilople.javajvm.heap.JvmHeap;
 import com.github.anilople.javajvm.heap.JvmMethod;
 import com.github.anilople.javajvm.instructions.BytecodeReader;
 import com.github.anilople.javajvm.instructions.Instruction;
+import com.github.anilople.javajvm.natives.FileDescriptorTable;
+import com.github.anilople.javajvm.natives.ThreadNatives;
+import com.github.anilople.javajvm.natives.ThrowableNatives;
 import com.github.anilople.javajvm.runtimedataarea.Frame;
 import com.github.anilople.javajvm.runtimedataarea.JvmThread;
 import com.github.anilople.javajvm.runtimedataarea.Reference;
@@ -48,10 +54,35 @@ public class ATHROW implements Instruction {
         if(!throwableObjectReference.getJvmClass().isSubClassOf(Throwable.class)) {
             throw new RuntimeException(throwableObjectReference + " is not the subclass of " + Throwable.class);
         }
+        throwException(frame.getJvmThread(), throwableObjectReference);
+    }
+
+    /**
+     * jvms 2.10
+     * search the exception handler from current frame,
+     * pop the frames without a handler matched.
+     * @param jvmThread thread throwing
+     * @param throwableObjectReference exception or error
+     */
+    public static void throwException(JvmThread jvmThread, ObjectReference throwableObjectReference) {
         final JvmClass exceptionClass = throwableObjectReference.getJvmClass();
-        final JvmThread jvmThread = frame.getJvmThread();
-        while(jvmThread.existFrame() && !jvmThread.currentFrame().getJvmMethod().existsExceptionHandler(exceptionClass)) {
+        while(jvmThread.existFrame()
+                && !jvmThread.currentFrame().getJvmMethod().existsExceptionHandler(exceptionClass, jvmThread.currentFrame().getPc())) {
+            final JvmMethod poppedMethod = jvmThread.currentFrame().getJvmMethod();
             jvmThread.popFrame();
+            if(SpecialMethods.CLINIT.equals(poppedMethod.getName())) {
+                // class initialization completes abruptly
+                poppedMethod.getJvmClass().failInitialization();
+                if(!exceptionClass.isSubClassOf(Error.class)) {
+                    // jvms 5.5 step 11, replaced by an ExceptionInInitializerError
+                    final ObjectReference error = makeVmException(
+                            jvmThread, poppedMethod.getJvmClass().getLoader(), ExceptionInInitializerError.class, null
+                    );
+                    error.setReference("exception", throwableObjectReference);
+                    throwException(jvmThread, error);
+                    return;
+                }
+            }
         }
 
         if(jvmThread.existFrame()) {
@@ -59,7 +90,7 @@ public class ATHROW implements Instruction {
             final JvmMethod jvmMethod = currentFrame.getJvmMethod();
             // find it
             logger.debug("find exception handler in method [{}] to handle exception [{}]", jvmMethod, exceptionClass);
-            JvmMethod.ExceptionHandler exceptionHandler = jvmMethod.getExceptionHandler(exceptionClass);
+            JvmMethod.ExceptionHandler exceptionHandler = jvmMethod.getExceptionHandler(exceptionClass, currentFrame.getPc());
             // clear the operand stack
             currentFrame.getOperandStacks().clear();
             // push the exception object reference
@@ -74,6 +105,67 @@ public class ATHROW implements Instruction {
         }
     }
 
+    /**
+     * heap is full when an instruction allocating,
+     * throw a java.lang.OutOfMemoryError in guest.
+     * @param frame the frame allocating
+     * @param e why the allocation fails
+     */
+    public static void throwOutOfMemoryError(Frame frame, JvmHeap.HeapExhaustedException e) {
+        logger.debug("throw OutOfMemoryError to guest", e);
+        throwVmException(frame, OutOfMemoryError.class, "Java heap space");
+    }
+
+    /**
+     * host array checks the index for an array instruction,
+     * throw a java.lang.ArrayIndexOutOfBoundsException in guest.
+     * @param frame the frame accessing array
+     * @param e thrown by host array
+     */
+    public static void throwArrayIndexOutOfBoundsException(Frame frame, ArrayIndexOutOfBoundsException e) {
+        throwVmException(frame, ArrayIndexOutOfBoundsException.class, e.getMessage());
+    }
+
+    /**
+     * throw an exception created by jvm itself to guest.
+     * its "&lt;init&gt;" is not invoked, fields are set directly,
+     * and it is allocated without the limit of heap.
+     * @param frame current frame
+     * @param throwableClass class of exception
+     * @param message detail message, nullable
+     */
+    public static void throwVmException(Frame frame, Class<? extends Throwable> throwableClass, String message) {
+        final JvmThread jvmThread = frame.getJvmThread();
+        final JvmClassLoader jvmClassLoader = frame.getJvmMethod().getJvmClass().getLoader();
+        throwException(jvmThread, makeVmException(jvmThread, jvmClassLoader, throwableClass, message));
+    }
+
+    /**
+     * create an exception in guest like {@link #throwVmException(Frame, Class, String)}, but not throw it
+     * @param jvmThread the thread where it is created, for the backtrace
+     * @param jvmClassLoader loader of the class of exception
+     * @param throwableClass class of exception
+     * @param message detail message, nullable
+     * @return exception in guest
+     */
+    private static ObjectReference makeVmException(
+            JvmThread jvmThread, JvmClassLoader jvmClassLoader, Class<? extends Throwable> throwableClass, String message
+    ) {
+        return JvmHeap.runWithoutLimit(() -> {
+            ObjectReference objectReference = ObjectReference.makeObjectReference(
+                    jvmClassLoader.loadClass(throwableClass)
+            );
+            if(null != message) {
+                objectReference.setReference(
+                        "detailMessage",
+                        ReferenceUtils.getStringObjectReference(jvmClassLoader.loadClass(String.class), message)
+                );
+            }
+            ThrowableNatives.setBacktrace(objectReference, jvmThread.backtrace());
+            return objectReference;
+        });
+    }
+
     /**
      * sometimes jvm cannot find a method to handle the exception,
      * so jvm need to handle this situation,
@@ -81,8 +173,10 @@ public class ATHROW implements Instruction {
      * @param jvmThread
      * @param throwableObjectReference
      */
-    private void handleUncaughtException(JvmThread jvmThread, ObjectReference throwableObjectReference) {
+    private static void handleUncaughtException(JvmThread jvmThread, ObjectReference throwableObjectReference) {
         jvmThread.clearStack();
+        // output of guest comes before the exception
+        FileDescriptorTable.flushAll();
 
         // print exception
         final String detailMessage;
@@ -93,21 +187,15 @@ public class ATHROW implements Instruction {
         } catch (IllegalAccessException e) {
             throw new RuntimeException(e);
         }
-        if(detailMessage.length() > 0) {
-            System.err.println("Exception in thread \"main\" " + throwableObjectReference.getJvmClass().getName() + ": " + detailMessage);
+        final String threadName = ThreadNatives.getName(jvmThread);
+        if(null != detailMessage && detailMessage.length() > 0) {
+            System.err.println("Exception in thread \"" + threadName + "\" " + throwableObjectReference.getJvmClass().getName() + ": " + detailMessage);
         } else {
-            System.err.println("Exception in thread \"main\" " + throwableObjectReference.getJvmClass().getName());
+            System.err.println("Exception in thread \"" + threadName + "\" " + throwableObjectReference.getJvmClass().getName());
         }
 
         // print stack trace
-        final StackTraceElement[] stackTraceElements;
-        try {
-            stackTraceElements = (StackTraceElement[]) ReferenceUtils.reference2Object(
-                    throwableObjectReference.getReference("stackTrace")
-            );
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        }
+        final StackTraceElement[] stackTraceElements = ThrowableNatives.getStackTrace(throwableObjectReference);
 
         for(StackTraceElement stackTraceElement : stackTraceElements) {
             System.err.println("\tat " + stackTraceElement);
@@ -115,6 +203,10 @@ public class ATHROW implements Instruction {
 
         try {
             Object realExceptionObject = ReferenceUtils.reference2Object(throwableObjectReference);
+            ((Throwable) realExceptionObject).setStackTrace(stackTraceElements);
+            if(realExceptionObject instanceof Error) {
+                throw (Error) realExceptionObject;
+            }
             throw (RuntimeException) realExceptionObject;
         } catch (IllegalAccessException e) {
             e.printStackTrace();
@@ -11,6 +11,7 @@ import com.github.anilople.javajvm.runtimedataarea.Reference;
 import com.github.anilople.javajvm.runtimedataarea.reference.ArrayReference;
 import com.github.anilople.javajvm.utils.ByteUtils;
 import com.github.anilople.javajvm.utils.DescriptorUtils;
+import com.github.anilople.javajvm.utils.HackUtils;
 import com.github.anilople.javajvm.utils.JvmClassUtils;
 import com.github.anilople.javajvm.utils.PrimitiveTypeUtils;
 import org.slf4j.Logger;
@@ -70,6 +71,20 @@ public class GETSTATIC implements Instruction {
             throw new IncompatibleClassChangeError();
         }
 
+        // On successful resolution of the field, the class or interface that
+        // declared the resolved field is initialized if that class or interface
+        // has not already been initialized
+        JvmClass declaredClass = JvmClassUtils.getJvmClassStaticFieldBelongTo(jvmField.getJvmClass(), jvmField);
+        try {
+            if(declaredClass.initializeIfNecessary(frame.getJvmThread())) {
+                // execute this instruction again after "<clinit>"
+                return;
+            }
+        } catch (HackUtils.GuestException e) {
+            ATHROW.throwVmException(frame, e.getCause().getClass(), e.getCause().getMessage());
+            return;
+        }
+
         String descriptor = jvmField.getDescriptor();
         logger.debug("descriptor: {}", descriptor);
         if(DescriptorUtils.isBaseType(descriptor)) {
@@ -1,21 +1,109 @@
 package com.github.anilople.javajvm.instructions.references;
 
+import com.github.anilople.javajvm.heap.constant.JvmConstantInvokeDynamic;
+import com.github.anilople.javajvm.heap.constant.JvmConstantNameAndType;
 import com.github.anilople.javajvm.instructions.BytecodeReader;
 import com.github.anilople.javajvm.instructions.Instruction;
+import com.github.anilople.javajvm.natives.Bootstraps;
+import com.github.anilople.javajvm.natives.CallSite;
 import com.github.anilople.javajvm.runtimedataarea.Frame;
+import com.github.anilople.javajvm.runtimedataarea.LocalVariables;
+import com.github.anilople.javajvm.utils.ByteUtils;
+import com.github.anilople.javajvm.utils.DescriptorUtils;
+import com.github.anilople.javajvm.utils.HackUtils;
+import com.github.anilople.javajvm.utils.PrimitiveTypeUtils;
 
+import java.util.List;
+
+/**
+ * invokedynamic
+ * indexbyte1
+ * indexbyte2
+ * 0
+ * 0
+ * <p>
+ * Each specific lexical occurrence of an invokedynamic instruction is
+ * called a dynamic call site.
+ * <p>
+ * The call site specifier is resolved (§5.4.3.6) for this specific dynamic call site
+ * to obtain a reference to a java.lang.invoke.MethodHandle instance
+ * that will serve as the bootstrap method ...
+ * <p>
+ * the instructions of a method are decoded once, so the call site linked is kept in this instruction,
+ * the bootstrap method only runs at the first execution.
+ * @see Bootstraps#link(JvmConstantInvokeDynamic)
+ */
 public class INVOKEDYNAMIC implements Instruction {
 
+    private byte indexByte1;
+
+    private byte indexByte2;
+
+    private volatile List<String> parameterDescriptors;
+
+    private volatile CallSite callSite;
+
+    /**
+     * why linking fails, null if not failed
+     */
+    private volatile HackUtils.GuestException linkageError;
+
     @Override
     public void fetchOperands(BytecodeReader bytecodeReader) {
-
+        this.indexByte1 = bytecodeReader.readU1();
+        this.indexByte2 = bytecodeReader.readU1();
+        // The values of the third and fourth operand bytes must always be zero.
+        bytecodeReader.readU1();
+        bytecodeReader.readU1();
     }
 
     @Override
     public void execute(Frame frame) {
-        throw new RuntimeException("Now cannot support " + this.getClass());
-//        int nextPc = frame.getNextPc() + this.size();
-//        frame.setNextPc(nextPc);
+        try {
+            final CallSite callSite = this.link(frame);
+            LocalVariables localVariables = DescriptorUtils.popArgsByParameterDescriptor(
+                    false,
+                    frame.getOperandStacks(),
+                    parameterDescriptors
+            );
+            callSite.invoke(frame, localVariables);
+        } catch (HackUtils.GuestException e) {
+            ATHROW.throwVmException(frame, e.getCause().getClass(), e.getCause().getMessage());
+            return;
+        }
+        int nextPc = frame.getNextPc() + this.size();
+        frame.setNextPc(nextPc);
+    }
+
+    /**
+     * jvms 6.5 invokedynamic,
+     * if resolution of the call site specifier fails,
+     * subsequent attempts to resolve it always fail with the same error.
+     * @return call site of this instruction
+     */
+    private CallSite link(Frame frame) {
+        CallSite callSite = this.callSite;
+        if(null != callSite) {
+            return callSite;
+        }
+        synchronized (this) {
+            if(null != this.linkageError) {
+                throw this.linkageError;
+            }
+            if(null == this.callSite) {
+                int index = PrimitiveTypeUtils.intFormUnsignedShort(ByteUtils.bytes2short(indexByte1, indexByte2));
+                JvmConstantInvokeDynamic invokeDynamic = (JvmConstantInvokeDynamic) frame.getJvmMethod().getJvmClass().getJvmConstantPool().getJvmConstant(index);
+                JvmConstantNameAndType nameAndType = (JvmConstantNameAndType) invokeDynamic.getJvmClass().getJvmConstantPool().getJvmConstant(invokeDynamic.getNameAndTypeIndex());
+                this.parameterDescriptors = DescriptorUtils.getParameterDescriptor(nameAndType.getDescriptor());
+                try {
+                    this.callSite = Bootstraps.link(invokeDynamic);
+                } catch (HackUtils.GuestException e) {
+                    this.linkageError = e;
+                    throw e;
+                }
+            }
+            return this.callSite;
+        }
     }
 
     @Override
@@ -9,6 +9,7 @@ import com.github.anilople.javajvm.heap.constant.JvmConstantInterfaceMethodref;
 import com.github.anilople.javajvm.heap.constant.JvmConstantNameAndType;
 import com.github.anilople.javajvm.instructions.BytecodeReader;
 import com.github.anilople.javajvm.instructions.Instruction;
+import com.github.anilople.javajvm.natives.NativeMethod;
 import com.github.anilople.javajvm.runtimedataarea.Frame;
 import com.github.anilople.javajvm.runtimedataarea.LocalVariables;
 import com.github.anilople.javajvm.runtimedataarea.Reference;
@@ -96,13 +97,28 @@ public class INVOKEINTERFACE implements Instruction {
         );
 
         final Reference reference = localVariables.getReference(0);
+        // Run-time Exception
+        // Otherwise, if objectref is null, the invokeinterface instruction throws a NullPointerException
         if(Reference.isNull(reference)) {
-            throw new NullPointerException();
+            ATHROW.throwVmException(frame, NullPointerException.class, null);
+            return;
         }
         final ObjectReference objectref = (ObjectReference) reference;
         final JvmMethod jvmMethod = objectref.getJvmClass().getMethod(methodName, methodDescriptor);
-        if(jvmMethod.isNative()) {
-            throw new RuntimeException(this.getClass() + " now cannot support native method " + jvmMethod);
+
+        // use hack skill, i.e CharSequence.charAt on String
+        final NativeMethod nativeMethod = jvmMethod.getNativeMethod();
+        if(null != nativeMethod) {
+            try {
+                nativeMethod.invoke(frame, jvmMethod, localVariables);
+            } catch (HackUtils.GuestException e) {
+                ATHROW.throwVmException(frame, e.getCause().getClass(), e.getCause().getMessage());
+                return;
+            }
+            // early return here
+            int nextPc = frame.getNextPc() + this.size();
+            frame.setNextPc(nextPc);
+            return;
         }
 
         // make a new frame of this method
@@ -1,9 +1,12 @@
 package com.github.anilople.javajvm.instructions.references;
 
 import com.github.anilople.javajvm.heap.JvmMethod;
+import com.github.anilople.javajvm.heap.constant.JvmConstant;
+import com.github.anilople.javajvm.heap.constant.JvmConstantInterfaceMethodref;
 import com.github.anilople.javajvm.heap.constant.JvmConstantMethodref;
 import com.github.anilople.javajvm.instructions.BytecodeReader;
 import com.github.anilople.javajvm.instructions.Instruction;
+import com.github.anilople.javajvm.natives.NativeMethod;
 import com.github.anilople.javajvm.runtimedataarea.Frame;
 import com.github.anilople.javajvm.runtimedataarea.LocalVariables;
 import com.github.anilople.javajvm.runtimedataarea.Reference;
@@ -55,8 +58,11 @@ public class INVOKESPECIAL implements Instruction {
     @Override
     public void execute(Frame frame) {
         int index = PrimitiveTypeUtils.intFormUnsignedShort(ByteUtils.bytes2short(indexByte1, indexByte2));
-        JvmConstantMethodref jvmConstantMethodref = (JvmConstantMethodref) frame.getJvmMethod().getJvmClass().getJvmConstantPool().getJvmConstant(index);
-        JvmMethod jvmMethod = jvmConstantMethodref.resolveJvmMethod();
+        // since class file 52.0, it may be an interface method, i.e a private or default method of interface
+        JvmConstant jvmConstant = frame.getJvmMethod().getJvmClass().getJvmConstantPool().getJvmConstant(index);
+        JvmMethod jvmMethod = jvmConstant instanceof JvmConstantInterfaceMethodref ?
+                ((JvmConstantInterfaceMethodref) jvmConstant).resolveJvmMethod() :
+                ((JvmConstantMethodref) jvmConstant).resolveJvmMethod();
         logger.trace("jvm method: {}", jvmMethod);
 
         // exception
@@ -81,20 +87,30 @@ public class INVOKESPECIAL implements Instruction {
                 parameterDescriptors
         );
 
+        // get object reference which has pop already
+        Reference reference = localVariables.getReference(0);
+        // Run-time Exception
+        // Otherwise, if objectref is null, the invokespecial instruction throws a NullPointerException
+        if(Reference.isNull(reference)) {
+            ATHROW.throwVmException(frame, NullPointerException.class, null);
+            return;
+        }
+
         // use hack skill
-        if(HackUtils.isInHackMethods(jvmMethod)) {
-            HackUtils.hackMethod(frame, jvmMethod, localVariables);
+        final NativeMethod nativeMethod = jvmMethod.getNativeMethod();
+        if(null != nativeMethod) {
+            try {
+                nativeMethod.invoke(frame, jvmMethod, localVariables);
+            } catch (HackUtils.GuestException e) {
+                ATHROW.throwVmException(frame, e.getCause().getClass(), e.getCause().getMessage());
+                return;
+            }
             // early return here
             int nextPc = frame.getNextPc() + this.size();
             frame.setNextPc(nextPc);
             return;
         }
 
-        // get object reference which has pop already
-        Reference reference = localVariables.getReference(0);
-        if(Reference.NULL.equals(reference)) {
-            throw new NullPointerException(INVOKESPECIAL.class.toString());
-        }
         ObjectReference objectReference = (ObjectReference) reference;
         // check object reference, to do
 
@@ -1,9 +1,12 @@
 package com.github.anilople.javajvm.instructions.references;
 
 import com.github.anilople.javajvm.heap.JvmMethod;
+import com.github.anilople.javajvm.heap.constant.JvmConstant;
+import com.github.anilople.javajvm.heap.constant.JvmConstantInterfaceMethodref;
 import com.github.anilople.javajvm.heap.constant.JvmConstantMethodref;
 import com.github.anilople.javajvm.instructions.BytecodeReader;
 import com.github.anilople.javajvm.instructions.Instruction;
+import com.github.anilople.javajvm.natives.NativeMethod;
 import com.github.anilople.javajvm.runtimedataarea.Frame;
 import com.github.anilople.javajvm.runtimedataarea.LocalVariables;
 import com.github.anilople.javajvm.utils.ByteUtils;
@@ -33,9 +36,11 @@ public class INVOKESTATIC implements Instruction {
     public void execute(Frame frame) {
         int index = PrimitiveTypeUtils.intFormUnsignedShort(ByteUtils.bytes2short(indexByte1, indexByte2));
 
-        // ignore interface method
-        JvmConstantMethodref jvmConstantMethodref = (JvmConstantMethodref) frame.getJvmMethod().getJvmClass().getJvmConstantPool().getJvmConstant(index);
-        JvmMethod jvmMethod = jvmConstantMethodref.resolveJvmMethod();
+        // since class file 52.0, it may be an interface method, i.e a static method of interface
+        JvmConstant jvmConstant = frame.getJvmMethod().getJvmClass().getJvmConstantPool().getJvmConstant(index);
+        JvmMethod jvmMethod = jvmConstant instanceof JvmConstantInterfaceMethodref ?
+                ((JvmConstantInterfaceMethodref) jvmConstant).resolveJvmMethod() :
+                ((JvmConstantMethodref) jvmConstant).resolveJvmMethod();
         logger.trace("jvm class: {}, method: {}", jvmMethod.getJvmClass().getName(), jvmMethod);
 
         //
@@ -43,6 +48,19 @@ public class INVOKESTATIC implements Instruction {
             throw new IncompatibleClassChangeError("method is not static");
         }
 
+        // On successful resolution of the method, the class or interface that
+        // declared the resolved method is initialized if that class or interface
+        // has not already been initialized
+        try {
+            if(jvmMethod.getJvmClass().initializeIfNecessary(frame.getJvmThread())) {
+                // execute this instruction again after "<clinit>"
+                return;
+            }
+        } catch (HackUtils.GuestException e) {
+            ATHROW.throwVmException(frame, e.getCause().getClass(), e.getCause().getMessage());
+            return;
+        }
+
 
         String methodDescriptor = jvmMethod.getDescriptor();
         logger.trace("method descriptor: {}", methodDescriptor);
@@ -55,8 +73,14 @@ public class INVOKESTATIC implements Instruction {
         );
 
         // use hack skill
-        if(HackUtils.isInHackMethods(jvmMethod)) {
-            HackUtils.hackMethod(frame, jvmMethod, localVariables);
+        final NativeMethod nativeMethod = jvmMethod.getNativeMethod();
+        if(null != nativeMethod) {
+            try {
+                nativeMethod.invoke(frame, jvmMethod, localVariables);
+            } catch (HackUtils.GuestException e) {
+                ATHROW.throwVmException(frame, e.getCause().getClass(), e.getCause().getMessage());
+                return;
+            }
             // early return here
             int nextPc = frame.getNextPc() + this.size();
             frame.setNextPc(nextPc);
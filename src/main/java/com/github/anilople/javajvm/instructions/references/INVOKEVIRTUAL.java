@@ -5,6 +5,7 @@ import com.github.anilople.javajvm.heap.constant.JvmConstant;
 import com.github.anilople.javajvm.heap.constant.JvmConstantMethodref;
 import com.github.anilople.javajvm.instructions.BytecodeReader;
 import com.github.anilople.javajvm.instructions.Instruction;
+import com.github.anilople.javajvm.natives.NativeMethod;
 import com.github.anilople.javajvm.runtimedataarea.Frame;
 import com.github.anilople.javajvm.runtimedataarea.LocalVariables;
 import com.github.anilople.javajvm.runtimedataarea.Reference;
@@ -80,30 +81,36 @@ public class INVOKEVIRTUAL implements Instruction {
                 parameterDescriptors
         );
 
-        // use hack skill
-        if(HackUtils.isInHackMethods(jvmMethod)) {
-            // hack with System.out
-            HackUtils.hackMethod(frame, jvmMethod, localVariables);
+        // get object reference which has pop already
+        Reference reference = localVariables.getReference(0);
+        // Run-time Exception
+        // Otherwise, if objectref is null, the invokevirtual instruction throws a NullPointerException
+        if(Reference.isNull(reference)) {
+            ATHROW.throwVmException(frame, NullPointerException.class, null);
+            return;
+        }
+
+        // resolve the real jvm method (dispatch based on class),
+        // an array only has the methods of java.lang.Object
+        final JvmMethod jvmMethodResolved = reference instanceof ObjectReference ?
+                ((ObjectReference) reference).getJvmClass().getMethod(jvmMethod.getName(), jvmMethod.getDescriptor())
+                : jvmMethod;
+
+        // use hack skill, i.e String.hashCode overrides Object.hashCode
+        final NativeMethod nativeMethod = jvmMethodResolved.getNativeMethod();
+        if(null != nativeMethod) {
+            try {
+                nativeMethod.invoke(frame, jvmMethodResolved, localVariables);
+            } catch (HackUtils.GuestException e) {
+                ATHROW.throwVmException(frame, e.getCause().getClass(), e.getCause().getMessage());
+                return;
+            }
             // early return here
             int nextPc = frame.getNextPc() + this.size();
             frame.setNextPc(nextPc);
             return;
         }
 
-        // get object reference which has pop already
-        Reference reference = localVariables.getReference(0);
-        Reference.assertIsNotNull(reference);
-
-        // may the reference is array reference, todo
-        ObjectReference objectReference = (ObjectReference) reference;
-        // check the object ref, todo
-
-        // resolve the real jvm method (dispatch based on class)
-        final JvmMethod jvmMethodResolved =
-                objectReference.getJvmClass().getMethod(
-                        jvmMethod.getName(), jvmMethod.getDescriptor()
-                );
-
         // make a new frame of this method
         Frame methodFrame = new Frame(
                 frame.getJvmThread(),
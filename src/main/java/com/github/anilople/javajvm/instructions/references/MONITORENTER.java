@@ -3,7 +3,29 @@ package com.github.anilople.javajvm.instructions.references;
 import com.github.anilople.javajvm.instructions.BytecodeReader;
 import com.github.anilople.javajvm.instructions.Instruction;
 import com.github.anilople.javajvm.runtimedataarea.Frame;
+import com.github.anilople.javajvm.runtimedataarea.Reference;
+import com.github.anilople.javajvm.runtimedataarea.reference.HeapReference;
 
+/**
+ * Operation
+ * Enter monitor for object
+ *
+ * Operand ..., objectref →
+ * Stack ...
+ *
+ * Description
+ * The objectref must be of type reference.
+ * Each object is associated with a monitor. A monitor is locked if and
+ * only if it has an owner. The thread that executes monitorenter
+ * attempts to gain ownership of the monitor associated with
+ * objectref. If the entry count of the monitor is zero, the thread
+ * enters the monitor. If the thread already owns the monitor, it
+ * reenters the monitor, incrementing its entry count. If another
+ * thread already owns the monitor, the thread blocks until the
+ * monitor's entry count is zero, then tries again to gain ownership.
+ *
+ * @see HeapReference#monitorEnter(int)
+ */
 public class MONITORENTER implements Instruction {
 
     @Override
@@ -13,9 +35,17 @@ public class MONITORENTER implements Instruction {
 
     @Override
     public void execute(Frame frame) {
-        throw new RuntimeException("Now cannot support " + this.getClass());
-//        int nextPc = frame.getNextPc() + this.size();
-//        frame.setNextPc(nextPc);
+        Reference objectref = frame.getOperandStacks().popReference();
+        // Run-time Exception
+        // If objectref is null , monitorenter throws a NullPointerException
+        if(Reference.isNull(objectref)) {
+            ATHROW.throwVmException(frame, NullPointerException.class, null);
+            return;
+        }
+        ((HeapReference) objectref).monitorEnter(frame.getJvmThread().getId());
+
+        int nextPc = frame.getNextPc() + this.size();
+        frame.setNextPc(nextPc);
     }
 
     @Override
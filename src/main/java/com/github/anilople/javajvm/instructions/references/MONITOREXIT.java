@@ -3,7 +3,26 @@ package com.github.anilople.javajvm.instructions.references;
 import com.github.anilople.javajvm.instructions.BytecodeReader;
 import com.github.anilople.javajvm.instructions.Instruction;
 import com.github.anilople.javajvm.runtimedataarea.Frame;
+import com.github.anilople.javajvm.runtimedataarea.Reference;
+import com.github.anilople.javajvm.runtimedataarea.reference.HeapReference;
 
+/**
+ * Operation
+ * Exit monitor for object
+ *
+ * Operand ..., objectref →
+ * Stack ...
+ *
+ * Description
+ * The objectref must be of type reference.
+ * The thread that executes monitorexit must be the owner of the
+ * monitor associated with the instance referenced by objectref.
+ * The thread decrements the entry count of the monitor associated
+ * with objectref. If as a result the value of the entry count is zero,
+ * the thread exits the monitor and is no longer its owner.
+ *
+ * @see HeapReference#monitorExit(int)
+ */
 public class MONITOREXIT implements Instruction {
 
     @Override
@@ -13,9 +32,25 @@ public class MONITOREXIT implements Instruction {
 
     @Override
     public void execute(Frame frame) {
-        throw new RuntimeException("Now cannot support " + this.getClass());
-//        int nextPc = frame.getNextPc() + this.size();
-//        frame.setNextPc(nextPc);
+        Reference objectref = frame.getOperandStacks().popReference();
+        // Run-time Exceptions
+        // If objectref is null , monitorexit throws a NullPointerException.
+        if(Reference.isNull(objectref)) {
+            ATHROW.throwVmException(frame, NullPointerException.class, null);
+            return;
+        }
+        // Otherwise, if the thread that executes monitorexit is not the owner
+        // of the monitor associated with the instance referenced by objectref,
+        // monitorexit throws an IllegalMonitorStateException .
+        try {
+            ((HeapReference) objectref).monitorExit(frame.getJvmThread().getId());
+        } catch (IllegalMonitorStateException e) {
+            ATHROW.throwVmException(frame, IllegalMonitorStateException.class, e.getMessage());
+            return;
+        }
+
+        int nextPc = frame.getNextPc() + this.size();
+        frame.setNextPc(nextPc);
     }
 
     @Override
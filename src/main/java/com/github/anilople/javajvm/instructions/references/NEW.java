@@ -8,6 +8,7 @@ import com.github.anilople.javajvm.runtimedataarea.Frame;
 import com.github.anilople.javajvm.runtimedataarea.Reference;
 import com.github.anilople.javajvm.runtimedataarea.reference.ObjectReference;
 import com.github.anilople.javajvm.utils.ByteUtils;
+import com.github.anilople.javajvm.utils.HackUtils;
 import com.github.anilople.javajvm.utils.PrimitiveTypeUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -65,9 +66,21 @@ public class NEW implements Instruction {
             throw new InstantiationError("cannot initial " + targetJvmClass);
         }
 
+        // On successful resolution of the class, it is initialized if it has
+        // not already been initialized
+        try {
+            if(targetJvmClass.initializeIfNecessary(frame.getJvmThread())) {
+                // execute this instruction again after "<clinit>"
+                return;
+            }
+        } catch (HackUtils.GuestException e) {
+            ATHROW.throwVmException(frame, e.getCause().getClass(), e.getCause().getMessage());
+            return;
+        }
+
         // allocate an object without initial
         logger.debug("try to allocate an object: {}", targetJvmClass);
-        ObjectReference objectReference = ObjectReference.makeObjectReference(targetJvmClass);
+        final ObjectReference objectReference = ObjectReference.makeObjectReference(targetJvmClass);
         frame.getOperandStacks().pushReference(objectReference);
 
         int nextPc = frame.getNextPc() + this.size();
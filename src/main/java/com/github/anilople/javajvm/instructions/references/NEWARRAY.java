@@ -59,9 +59,8 @@ public class NEWARRAY implements Instruction {
 
         final JvmClassLoader jvmClassLoader = frame.getJvmMethod().getJvmClass().getLoader();
 
-        frame.getOperandStacks().pushReference(
-                NEWARRAY.allocate(jvmClassLoader, atype, count)
-        );
+        final BaseTypeArrayReference arrayReference = NEWARRAY.allocate(jvmClassLoader, atype, count);
+        frame.getOperandStacks().pushReference(arrayReference);
 
         int nextPc = frame.getNextPc() + this.size();
         frame.setNextPc(nextPc);
@@ -82,7 +81,7 @@ public class NEWARRAY implements Instruction {
      * @return
      */
     public static BaseTypeArrayReference allocate(JvmClassLoader jvmClassLoader, byte typeCode, int count) {
-        return new BaseTypeArrayReference(jvmClassLoader, typeCode, count);
+        return BaseTypeArrayReference.allocate(jvmClassLoader, typeCode, count);
     }
 
     /**
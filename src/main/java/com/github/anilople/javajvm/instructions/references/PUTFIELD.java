@@ -10,7 +10,6 @@ import com.github.anilople.javajvm.instructions.BytecodeReader;
 import com.github.anilople.javajvm.instructions.Instruction;
 import com.github.anilople.javajvm.runtimedataarea.Frame;
 import com.github.anilople.javajvm.runtimedataarea.Reference;
-import com.github.anilople.javajvm.runtimedataarea.reference.ArrayReference;
 import com.github.anilople.javajvm.runtimedataarea.reference.ObjectReference;
 import com.github.anilople.javajvm.utils.ByteUtils;
 import com.github.anilople.javajvm.utils.DescriptorUtils;
@@ -213,7 +212,8 @@ public class PUTFIELD implements Instruction {
 
     private void executePutArrayType(Frame frame, JvmField jvmField) {
         int nonStaticFieldOffset = jvmField.calculateNonStaticFieldOffset();
-        ArrayReference arrayReference = (ArrayReference) frame.getOperandStacks().popReference();
+        // array or null
+        Reference arrayReference = frame.getOperandStacks().popReference();
         Reference reference = frame.getOperandStacks().popReference();
         if(Reference.NULL.equals(reference)) {
             throw new NullPointerException();
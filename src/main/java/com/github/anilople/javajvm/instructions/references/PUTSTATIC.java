@@ -9,10 +9,10 @@ import com.github.anilople.javajvm.instructions.BytecodeReader;
 import com.github.anilople.javajvm.instructions.Instruction;
 import com.github.anilople.javajvm.runtimedataarea.Frame;
 import com.github.anilople.javajvm.runtimedataarea.Reference;
-import com.github.anilople.javajvm.runtimedataarea.reference.ArrayReference;
 import com.github.anilople.javajvm.runtimedataarea.reference.ObjectReference;
 import com.github.anilople.javajvm.utils.ByteUtils;
 import com.github.anilople.javajvm.utils.DescriptorUtils;
+import com.github.anilople.javajvm.utils.HackUtils;
 import com.github.anilople.javajvm.utils.JvmClassUtils;
 import com.github.anilople.javajvm.utils.PrimitiveTypeUtils;
 import org.slf4j.Logger;
@@ -102,6 +102,20 @@ public class PUTSTATIC implements Instruction {
             }
         }
 
+        // On successful resolution of the field, the class or interface that
+        // declared the resolved field is initialized if that class or interface
+        // has not already been initialized
+        JvmClass declaredClass = JvmClassUtils.getJvmClassStaticFieldBelongTo(jvmField.getJvmClass(), jvmField);
+        try {
+            if(declaredClass.initializeIfNecessary(frame.getJvmThread())) {
+                // execute this instruction again after "<clinit>"
+                return;
+            }
+        } catch (HackUtils.GuestException e) {
+            ATHROW.throwVmException(frame, e.getCause().getClass(), e.getCause().getMessage());
+            return;
+        }
+
         String descriptor = jvmField.getDescriptor();
         logger.debug("descriptor: {}", descriptor);
         if(DescriptorUtils.isBaseType(descriptor)) {
@@ -173,7 +187,8 @@ public class PUTSTATIC implements Instruction {
     public static void executePutArrayType(Frame frame, JvmField jvmField) {
         JvmClass fieldBelongClass = JvmClassUtils.getJvmClassStaticFieldBelongTo(jvmField.getJvmClass(), jvmField);
         int staticFieldOffset = JvmClassUtils.calculateStaticFieldOffsetInNowClass(fieldBelongClass, jvmField);
-        ArrayReference arrayReference = (ArrayReference) frame.getOperandStacks().popReference();
+        // array or null
+        Reference arrayReference = frame.getOperandStacks().popReference();
         fieldBelongClass.getStaticFieldsValue().setReference(staticFieldOffset, arrayReference);
     }
 
@@ -1,9 +1,30 @@
 package com.github.anilople.javajvm.instructions.reserved;
 
+import com.github.anilople.javajvm.heap.JvmMethod;
 import com.github.anilople.javajvm.instructions.BytecodeReader;
 import com.github.anilople.javajvm.instructions.Instruction;
+import com.github.anilople.javajvm.instructions.references.ATHROW;
+import com.github.anilople.javajvm.natives.ValueConversions;
 import com.github.anilople.javajvm.runtimedataarea.Frame;
+import com.github.anilople.javajvm.runtimedataarea.JvmThread;
+import com.github.anilople.javajvm.utils.DescriptorUtils;
+import com.github.anilople.javajvm.utils.HackUtils;
 
+/**
+ * jvms 6.2 Reserved Opcodes
+ * Two of the reserved opcodes, numbers 254 (0xfe) and 255 (0xff), have the
+ * mnemonics impdep1 and impdep2, respectively. These instructions are
+ * intended to provide "back doors" or traps to implementation-specific
+ * functionality implemented in software and hardware, respectively.
+ * <p>
+ * In this jvm, impdep1 is the code of the adapter methods made by jvm,
+ * whose descriptor is (from)to.
+ * A method invoked above the adapter returns a value of "from" to it,
+ * then the value is converted to "to" and returned,
+ * i.e an int returned by the implementation of a lambda is boxed for Supplier.get().
+ * Class files must not contain it.
+ * @see ValueConversions#convert(com.github.anilople.javajvm.heap.JvmClassLoader, Object, String, String)
+ */
 public class IMPDEP1 implements Instruction {
 
     @Override
@@ -13,9 +34,22 @@ public class IMPDEP1 implements Instruction {
 
     @Override
     public void execute(Frame frame) {
-        throw new RuntimeException("Now cannot support " + this.getClass());
-//        int nextPc = frame.getNextPc() + this.size();
-//        frame.setNextPc(nextPc);
+        final JvmMethod adapter = frame.getJvmMethod();
+        final String from = DescriptorUtils.getParameterDescriptor(adapter.getDescriptor()).get(0);
+        final String to = DescriptorUtils.getReturnDescriptor(adapter.getDescriptor());
+
+        final Object value = ValueConversions.pop(frame.getOperandStacks(), from);
+        final Object converted;
+        try {
+            converted = ValueConversions.convert(adapter.getJvmClass().getLoader(), value, from, to);
+        } catch (HackUtils.GuestException e) {
+            ATHROW.throwVmException(frame, e.getCause().getClass(), e.getCause().getMessage());
+            return;
+        }
+
+        final JvmThread jvmThread = frame.getJvmThread();
+        jvmThread.popFrame();
+        ValueConversions.push(jvmThread.currentFrame().getOperandStacks(), to, converted);
     }
 
     @Override
@@ -3,9 +3,23 @@ package com.github.anilople.javajvm.instructions.stack;
 import com.github.anilople.javajvm.instructions.BytecodeReader;
 import com.github.anilople.javajvm.instructions.Instruction;
 import com.github.anilople.javajvm.runtimedataarea.Frame;
+import com.github.anilople.javajvm.runtimedataarea.LocalVariable;
+import com.github.anilople.javajvm.runtimedataarea.OperandStacks;
 
+/**
+ * Operation:
+ * Duplicate the top one or two operand stack values
+ * Form 1:
+ * ..., value2, value1 →
+ * ..., value2, value1, value2, value1
+ * where both value1 and value2 are values of a category 1
+ * computational type (§2.11.1).
+ * Form 2:
+ * ..., value →
+ * ..., value, value
+ * where value is a value of a category 2 computational type (§2.11.1).
+ */
 public class DUP2 implements Instruction {
-
     @Override
     public void fetchOperands(BytecodeReader bytecodeReader) {
 
@@ -13,9 +27,24 @@ public class DUP2 implements Instruction {
 
     @Override
     public void execute(Frame frame) {
-        throw new RuntimeException("Now cannot support " + this.getClass());
-//        int nextPc = frame.getNextPc() + this.size();
-//        frame.setNextPc(nextPc);
+        OperandStacks operandStacks = frame.getOperandStacks();
+
+        LocalVariable value1 = operandStacks.pop();
+        if(value1.isCategory2()) {
+            // form 2
+            operandStacks.push(value1);
+            operandStacks.push(value1);
+        } else {
+            // form 1
+            LocalVariable value2 = operandStacks.pop();
+            operandStacks.push(value2);
+            operandStacks.push(value1);
+            operandStacks.push(value2);
+            operandStacks.push(value1);
+        }
+
+        int nextPc = frame.getNextPc() + this.size();
+        frame.setNextPc(nextPc);
     }
 
     @Override
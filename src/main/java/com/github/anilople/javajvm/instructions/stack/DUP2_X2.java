@@ -3,9 +3,37 @@ package com.github.anilople.javajvm.instructions.stack;
 import com.github.anilople.javajvm.instructions.BytecodeReader;
 import com.github.anilople.javajvm.instructions.Instruction;
 import com.github.anilople.javajvm.runtimedataarea.Frame;
+import com.github.anilople.javajvm.runtimedataarea.LocalVariable;
+import com.github.anilople.javajvm.runtimedataarea.OperandStacks;
 
+/**
+ * Operation:
+ * Duplicate the top one or two operand stack values and insert two,
+ * three, or four values down
+ * Form 1:
+ * ..., value4, value3, value2, value1 →
+ * ..., value2, value1, value4, value3, value2, value1
+ * where value1, value2, value3, and value4 are all values of a
+ * category 1 computational type (§2.11.1).
+ * Form 2:
+ * ..., value3, value2, value1 →
+ * ..., value1, value3, value2, value1
+ * where value1 is a value of a category 2 computational type and
+ * value2 and value3 are both values of a category 1 computational
+ * type (§2.11.1).
+ * Form 3:
+ * ..., value3, value2, value1 →
+ * ..., value2, value1, value3, value2, value1
+ * where value1 and value2 are both values of a category 1
+ * computational type and value3 is a value of a category 2
+ * computational type (§2.11.1).
+ * Form 4:
+ * ..., value2, value1 →
+ * ..., value1, value2, value1
+ * where value1 and value2 are both values of a category 2
+ * computational type (§2.11.1).
+ */
 public class DUP2_X2 implements Instruction {
-
     @Override
     public void fetchOperands(BytecodeReader bytecodeReader) {
 
@@ -13,9 +41,45 @@ public class DUP2_X2 implements Instruction {
 
     @Override
     public void execute(Frame frame) {
-        throw new RuntimeException("Now cannot support " + this.getClass());
-//        int nextPc = frame.getNextPc() + this.size();
-//        frame.setNextPc(nextPc);
+        OperandStacks operandStacks = frame.getOperandStacks();
+
+        LocalVariable value1 = operandStacks.pop();
+        LocalVariable value2 = operandStacks.pop();
+        if(value1.isCategory2() && value2.isCategory2()) {
+            // form 4
+            operandStacks.push(value1);
+            operandStacks.push(value2);
+            operandStacks.push(value1);
+        } else if(value1.isCategory2()) {
+            // form 2
+            LocalVariable value3 = operandStacks.pop();
+            operandStacks.push(value1);
+            operandStacks.push(value3);
+            operandStacks.push(value2);
+            operandStacks.push(value1);
+        } else {
+            LocalVariable value3 = operandStacks.pop();
+            if(value3.isCategory2()) {
+                // form 3
+                operandStacks.push(value2);
+                operandStacks.push(value1);
+                operandStacks.push(value3);
+                operandStacks.push(value2);
+                operandStacks.push(value1);
+            } else {
+                // form 1
+                LocalVariable value4 = operandStacks.pop();
+                operandStacks.push(value2);
+                operandStacks.push(value1);
+                operandStacks.push(value4);
+                operandStacks.push(value3);
+                operandStacks.push(value2);
+                operandStacks.push(value1);
+            }
+        }
+
+        int nextPc = frame.getNextPc() + this.size();
+        frame.setNextPc(nextPc);
     }
 
     @Override
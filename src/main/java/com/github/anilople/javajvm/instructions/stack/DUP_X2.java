@@ -7,16 +7,19 @@ import com.github.anilople.javajvm.runtimedataarea.LocalVariable;
 import com.github.anilople.javajvm.runtimedataarea.OperandStacks;
 
 /**
- * Why exist this instruction?
- * the answer is that long or double occupies 2 LocalVariable,
- * when we dup an long or a double, we need to dup 2 LocalVariable
- * <p>
  * Operation:
  * Duplicate the top operand stack value and insert two or three
  * values down
- * Description:
- * Duplicate the top value on the operand stack and insert the
- * duplicated value two or three values down in the operand stack.
+ * Form 1:
+ * ..., value3, value2, value1 →
+ * ..., value1, value3, value2, value1
+ * where value1, value2, and value3 are all values of a category 1
+ * computational type (§2.11.1).
+ * Form 2:
+ * ..., value2, value1 →
+ * ..., value1, value2, value1
+ * where value1 is a value of a category 1 computational type and
+ * value2 is a value of a category 2 computational type (§2.11.1).
  */
 public class DUP_X2 implements Instruction {
     @Override
@@ -28,15 +31,21 @@ public class DUP_X2 implements Instruction {
     public void execute(Frame frame) {
         OperandStacks operandStacks = frame.getOperandStacks();
 
-        // because we have abstract long and double
-        // to an abstracted local variable
-        // so we don't care about what they use 1 or 2 location in jvm specification
         LocalVariable value1 = operandStacks.pop();
         LocalVariable value2 = operandStacks.pop();
-
-        operandStacks.push(value1);
-        operandStacks.push(value2);
-        operandStacks.push(value1);
+        if(value2.isCategory2()) {
+            // form 2
+            operandStacks.push(value1);
+            operandStacks.push(value2);
+            operandStacks.push(value1);
+        } else {
+            // form 1
+            LocalVariable value3 = operandStacks.pop();
+            operandStacks.push(value1);
+            operandStacks.push(value3);
+            operandStacks.push(value2);
+            operandStacks.push(value1);
+        }
 
         int nextPc = frame.getNextPc() + this.size();
         frame.setNextPc(nextPc);
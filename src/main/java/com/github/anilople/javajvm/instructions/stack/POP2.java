@@ -3,16 +3,21 @@ package com.github.anilople.javajvm.instructions.stack;
 import com.github.anilople.javajvm.instructions.BytecodeReader;
 import com.github.anilople.javajvm.instructions.Instruction;
 import com.github.anilople.javajvm.runtimedataarea.Frame;
+import com.github.anilople.javajvm.runtimedataarea.LocalVariable;
+import com.github.anilople.javajvm.runtimedataarea.OperandStacks;
 
 /**
- * pop2 instruction is used to pop the value
- * from operand stack which may occupies
- * 2 consecutive local variables(like long and double)
- * <p>
- * Operation
+ * Operation:
  * Pop the top one or two operand stack values
- * Description:
- * Pop the top one or two values from the operand stack.
+ * Form 1:
+ * ..., value2, value1 →
+ * ...
+ * where each of value1 and value2 is a value of a category 1
+ * computational type (§2.11.1).
+ * Form 2:
+ * ..., value →
+ * ...
+ * where value is a value of a category 2 computational type (§2.11.1).
  */
 public class POP2 implements Instruction {
     @Override
@@ -20,16 +25,16 @@ public class POP2 implements Instruction {
 
     }
 
-    /**
-     * What will happen if the value is long or double?
-     * Don't worry, we implement them by an abstracted
-     * LocalVariable, so just pop 1 LocalVariable
-     *
-     * @param frame
-     */
     @Override
     public void execute(Frame frame) {
-        frame.getOperandStacks().pop();
+        OperandStacks operandStacks = frame.getOperandStacks();
+
+        // a long or double is one LocalVariable
+        LocalVariable value1 = operandStacks.pop();
+        if(!value1.isCategory2()) {
+            operandStacks.pop();
+        }
+
         int nextPc = frame.getNextPc() + this.size();
         frame.setNextPc(nextPc);
     }
@@ -2,6 +2,7 @@ package com.github.anilople.javajvm.instructions.stores;
 
 import com.github.anilople.javajvm.instructions.BytecodeReader;
 import com.github.anilople.javajvm.instructions.Instruction;
+import com.github.anilople.javajvm.instructions.references.ATHROW;
 import com.github.anilople.javajvm.runtimedataarea.Frame;
 import com.github.anilople.javajvm.runtimedataarea.Reference;
 import com.github.anilople.javajvm.runtimedataarea.reference.ArrayReference;
@@ -51,7 +52,6 @@ public class AASTORE implements Instruction {
         Reference reference = frame.getOperandStacks().popReference();
         Reference.assertIsNotNull(reference);
         ObjectArrayReference objectArrayReference = (ObjectArrayReference) reference;
-        objectArrayReference.assertIndexIsNotOutOfBounds(index);
 
         // type check here, jvms8: Page 368
         // null do not need to type check
@@ -70,7 +70,12 @@ public class AASTORE implements Instruction {
         }
 
         // store to array here
-        objectArrayReference.setReference(index, value);
+        try {
+            objectArrayReference.setReference(index, value);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            ATHROW.throwArrayIndexOutOfBoundsException(frame, e);
+            return;
+        }
 
         int nextPc = frame.getNextPc() + this.size();
         frame.setNextPc(nextPc);
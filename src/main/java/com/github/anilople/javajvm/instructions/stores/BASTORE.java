@@ -2,9 +2,11 @@ package com.github.anilople.javajvm.instructions.stores;
 
 import com.github.anilople.javajvm.instructions.BytecodeReader;
 import com.github.anilople.javajvm.instructions.Instruction;
+import com.github.anilople.javajvm.instructions.references.ATHROW;
 import com.github.anilople.javajvm.runtimedataarea.Frame;
 import com.github.anilople.javajvm.runtimedataarea.Reference;
-import com.github.anilople.javajvm.runtimedataarea.reference.BaseTypeArrayReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.BooleanArrayReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.ByteArrayReference;
 import com.github.anilople.javajvm.runtimedataarea.reference.NullReference;
 
 /**
@@ -53,14 +55,17 @@ public class BASTORE implements Instruction {
         if(reference instanceof NullReference) {
             throw new NullPointerException();
         }
-        BaseTypeArrayReference baseTypeArrayReference = (BaseTypeArrayReference) reference;
-        baseTypeArrayReference.assertIndexIsNotOutOfBounds(index);
-        if(baseTypeArrayReference.isBooleanType()) {
-            // store boolean
-            baseTypeArrayReference.setBooleanValue(index, value != 0);
-        } else {
-            // store byte
-            baseTypeArrayReference.setByteValue(index, (byte) value);
+        try {
+            if(reference instanceof BooleanArrayReference) {
+                // store boolean
+                ((BooleanArrayReference) reference).setBooleanValue(index, value != 0);
+            } else {
+                // store byte
+                ((ByteArrayReference) reference).setByteValue(index, (byte) value);
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            ATHROW.throwArrayIndexOutOfBoundsException(frame, e);
+            return;
         }
         int nextPc = frame.getNextPc() + this.size();
         frame.setNextPc(nextPc);
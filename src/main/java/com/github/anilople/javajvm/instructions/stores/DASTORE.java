@@ -2,9 +2,10 @@ package com.github.anilople.javajvm.instructions.stores;
 
 import com.github.anilople.javajvm.instructions.BytecodeReader;
 import com.github.anilople.javajvm.instructions.Instruction;
+import com.github.anilople.javajvm.instructions.references.ATHROW;
 import com.github.anilople.javajvm.runtimedataarea.Frame;
 import com.github.anilople.javajvm.runtimedataarea.Reference;
-import com.github.anilople.javajvm.runtimedataarea.reference.BaseTypeArrayReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.DoubleArrayReference;
 
 /**
  * Operation
@@ -36,9 +37,13 @@ public class DASTORE implements Instruction {
         int index = frame.getOperandStacks().popIntValue();
         Reference reference = frame.getOperandStacks().popReference();
         Reference.assertIsNotNull(reference);
-        BaseTypeArrayReference baseTypeArrayReference = (BaseTypeArrayReference) reference;
-        baseTypeArrayReference.assertIndexIsNotOutOfBounds(index);
-        baseTypeArrayReference.setDoubleValue(index, doubleValue);
+
+        try {
+            ((DoubleArrayReference) reference).setDoubleValue(index, doubleValue);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            ATHROW.throwArrayIndexOutOfBoundsException(frame, e);
+            return;
+        }
 
         int nextPc = frame.getNextPc() + this.size();
         frame.setNextPc(nextPc);
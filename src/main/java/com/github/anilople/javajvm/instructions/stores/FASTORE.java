@@ -2,9 +2,10 @@ package com.github.anilople.javajvm.instructions.stores;
 
 import com.github.anilople.javajvm.instructions.BytecodeReader;
 import com.github.anilople.javajvm.instructions.Instruction;
+import com.github.anilople.javajvm.instructions.references.ATHROW;
 import com.github.anilople.javajvm.runtimedataarea.Frame;
 import com.github.anilople.javajvm.runtimedataarea.Reference;
-import com.github.anilople.javajvm.runtimedataarea.reference.BaseTypeArrayReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.FloatArrayReference;
 
 public class FASTORE implements Instruction {
 
@@ -19,9 +20,13 @@ public class FASTORE implements Instruction {
         int index = frame.getOperandStacks().popIntValue();
         Reference reference = frame.getOperandStacks().popReference();
         Reference.assertIsNotNull(reference);
-        BaseTypeArrayReference baseTypeArrayReference = (BaseTypeArrayReference) reference;
-        baseTypeArrayReference.assertIndexIsNotOutOfBounds(index);
-        baseTypeArrayReference.setFloatValue(index, floatValue);
+
+        try {
+            ((FloatArrayReference) reference).setFloatValue(index, floatValue);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            ATHROW.throwArrayIndexOutOfBoundsException(frame, e);
+            return;
+        }
 
         int nextPc = frame.getNextPc() + this.size();
         frame.setNextPc(nextPc);
@@ -2,9 +2,10 @@ package com.github.anilople.javajvm.instructions.stores;
 
 import com.github.anilople.javajvm.instructions.BytecodeReader;
 import com.github.anilople.javajvm.instructions.Instruction;
+import com.github.anilople.javajvm.instructions.references.ATHROW;
 import com.github.anilople.javajvm.runtimedataarea.Frame;
 import com.github.anilople.javajvm.runtimedataarea.Reference;
-import com.github.anilople.javajvm.runtimedataarea.reference.BaseTypeArrayReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.IntArrayReference;
 
 /**
  * Operation
@@ -37,15 +38,17 @@ public class IASTORE implements Instruction {
 
     @Override
     public void execute(Frame frame) {
-        int value = frame.getOperandStacks().popIntValue();
+        int intValue = frame.getOperandStacks().popIntValue();
         int index = frame.getOperandStacks().popIntValue();
-
         Reference reference = frame.getOperandStacks().popReference();
         Reference.assertIsNotNull(reference);
 
-        BaseTypeArrayReference baseTypeArrayReference = (BaseTypeArrayReference) reference;
-        baseTypeArrayReference.assertIndexIsNotOutOfBounds(index);
-        baseTypeArrayReference.setIntValue(index, value);
+        try {
+            ((IntArrayReference) reference).setIntValue(index, intValue);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            ATHROW.throwArrayIndexOutOfBoundsException(frame, e);
+            return;
+        }
 
         int nextPc = frame.getNextPc() + this.size();
         frame.setNextPc(nextPc);
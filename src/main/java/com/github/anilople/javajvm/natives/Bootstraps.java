@@ -0,0 +1,60 @@
+package com.github.anilople.javajvm.natives;
+
+import com.github.anilople.javajvm.classfile.attributes.BootstrapMethodsAttribute;
+import com.github.anilople.javajvm.heap.JvmClass;
+import com.github.anilople.javajvm.heap.JvmConstantPool;
+import com.github.anilople.javajvm.heap.constant.JvmConstant;
+import com.github.anilople.javajvm.heap.constant.JvmConstantInvokeDynamic;
+import com.github.anilople.javajvm.heap.constant.JvmConstantMethodHandle;
+import com.github.anilople.javajvm.heap.constant.JvmConstantNameAndType;
+import com.github.anilople.javajvm.utils.HackUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * jvms 5.4.3.6 Dynamically-Computed Constant and Call Site Resolution
+ * <p>
+ * the bootstrap method is not invoked in guest,
+ * java.lang.invoke needs the natives of hotspot, i.e MethodHandle.invokeBasic.
+ * the known bootstrap methods are done in host instead,
+ * now only {@link java.lang.invoke.LambdaMetafactory}, which is what javac makes for lambdas and method references.
+ */
+public class Bootstraps {
+
+    private static final Logger logger = LoggerFactory.getLogger(Bootstraps.class);
+
+    private Bootstraps() {
+
+    }
+
+    /**
+     * resolve the call site of an invokedynamic.
+     * it is done once per invokedynamic instruction,
+     * the call site is used by all executions of the instruction.
+     * @param invokeDynamic the constant of invokedynamic
+     * @return call site
+     * @throws HackUtils.GuestException BootstrapMethodError if the bootstrap method is unknown or fails
+     */
+    public static CallSite link(JvmConstantInvokeDynamic invokeDynamic) {
+        final JvmClass caller = invokeDynamic.getJvmClass();
+        final JvmConstantPool jvmConstantPool = caller.getJvmConstantPool();
+        final JvmConstantNameAndType nameAndType = (JvmConstantNameAndType) jvmConstantPool.getJvmConstant(invokeDynamic.getNameAndTypeIndex());
+
+        final BootstrapMethodsAttribute.BootstrapMethod bootstrapMethod = caller.getBootstrapMethod(invokeDynamic.getBootstrapMethodAttrIndex());
+        final JvmConstantMethodHandle methodHandle = (JvmConstantMethodHandle) jvmConstantPool.getJvmConstant(bootstrapMethod.getBootstrapMethodRef());
+        final int[] argumentIndexes = bootstrapMethod.getBootstrapArguments();
+        final JvmConstant[] arguments = new JvmConstant[argumentIndexes.length];
+        for(int i = 0; i < arguments.length; i++) {
+            arguments[i] = jvmConstantPool.getJvmConstant(argumentIndexes[i]);
+        }
+        logger.debug("link call site {}{} of {} by {}.{}", nameAndType.getName(), nameAndType.getDescriptor(), caller.getName(), methodHandle.getReferenceClassName(), methodHandle.getReferenceName());
+
+        if(LambdaMetafactoryIntrinsics.isMetafactory(methodHandle)) {
+            return LambdaMetafactoryIntrinsics.metafactory(caller, nameAndType.getName(), nameAndType.getDescriptor(), methodHandle, arguments);
+        }
+        throw new HackUtils.GuestException(new BootstrapMethodError(
+                "bootstrap method not supported: " + methodHandle.getReferenceClassName() + "." + methodHandle.getReferenceName() + methodHandle.getReferenceDescriptor()
+        ));
+    }
+
+}
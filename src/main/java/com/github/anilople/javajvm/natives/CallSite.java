@@ -0,0 +1,22 @@
+package com.github.anilople.javajvm.natives;
+
+import com.github.anilople.javajvm.runtimedataarea.Frame;
+import com.github.anilople.javajvm.runtimedataarea.LocalVariables;
+import com.github.anilople.javajvm.utils.HackUtils;
+
+/**
+ * the target of an invokedynamic instruction,
+ * linked by the bootstrap method once, then invoked directly
+ * @see Bootstraps#link(com.github.anilople.javajvm.heap.constant.JvmConstantInvokeDynamic)
+ */
+@FunctionalInterface
+public interface CallSite {
+
+    /**
+     * @param frame frame of invokedynamic, result is pushed to its operand stack
+     * @param localVariables args pop from operand stack, by the descriptor of call site
+     * @throws HackUtils.GuestException if an exception should be thrown in guest
+     */
+    void invoke(Frame frame, LocalVariables localVariables);
+
+}
@@ -0,0 +1,207 @@
+package com.github.anilople.javajvm.natives;
+
+import java.io.FileNotFoundException;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * file descriptors of guest, each one is a buffered channel in host.
+ * <p>
+ * guest writes bytes into the buffer, the buffer goes to host
+ * when it is full, when guest flushes, or when the jvm exits.
+ * 0, 1 and 2 are standard input, output and error.
+ * standard error is not buffered,
+ * and standard output is flushed before it, so they are in order.
+ */
+public class FileDescriptorTable {
+
+    public static final int STANDARD_OUTPUT = 1;
+
+    public static final int STANDARD_ERROR = 2;
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private static final Map<Integer, BufferedChannel> CHANNELS = new ConcurrentHashMap<>();
+
+    /**
+     * file descriptors opened by guest start from 3
+     */
+    private static final AtomicInteger NEXT_FILE_DESCRIPTOR = new AtomicInteger(3);
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(FileDescriptorTable::flushAll, "flush-file-descriptors"));
+    }
+
+    /**
+     * @throws IOException if the file descriptor is not open
+     */
+    private static BufferedChannel channel(int fd) throws IOException {
+        final BufferedChannel channel;
+        switch (fd) {
+            case STANDARD_OUTPUT:
+                // the host ones, which may be redirected, i.e by surefire
+                channel = CHANNELS.computeIfAbsent(fd, key -> new BufferedChannel(System.out, false));
+                break;
+            case STANDARD_ERROR:
+                channel = CHANNELS.computeIfAbsent(fd, key -> new BufferedChannel(System.err, true));
+                break;
+            default:
+                channel = CHANNELS.get(fd);
+        }
+        if(null == channel) {
+            throw new IOException("Bad file descriptor " + fd);
+        }
+        return channel;
+    }
+
+    public static void write(int fd, byte[] bytes, int offset, int length) throws IOException {
+        if(STANDARD_ERROR == fd) {
+            flush(STANDARD_OUTPUT);
+        }
+        channel(fd).write(bytes, offset, length);
+    }
+
+    public static void flush(int fd) throws IOException {
+        channel(fd).flush();
+    }
+
+    /**
+     * flush all the file descriptors, errors are ignored
+     */
+    public static void flushAll() {
+        for(BufferedChannel channel : CHANNELS.values()) {
+            try {
+                channel.flush();
+            } catch (IOException e) {
+                // nothing can be done when exiting
+            }
+        }
+    }
+
+    /**
+     * @see java.io.FileOutputStream open0(String, boolean)
+     * @return file descriptor
+     * @throws FileNotFoundException if the file cannot be opened
+     */
+    public static int open(String path, boolean append) throws FileNotFoundException {
+        final FileChannel fileChannel;
+        try {
+            fileChannel = append ?
+                    FileChannel.open(Paths.get(path), StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.APPEND)
+                    : FileChannel.open(Paths.get(path), StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            throw new FileNotFoundException(path + " (" + e.getMessage() + ")");
+        }
+        final int fd = NEXT_FILE_DESCRIPTOR.getAndIncrement();
+        CHANNELS.put(fd, new BufferedChannel(fileChannel, null, false));
+        return fd;
+    }
+
+    /**
+     * standard streams are flushed, but never closed
+     */
+    public static void close(int fd) throws IOException {
+        if(STANDARD_OUTPUT == fd || STANDARD_ERROR == fd) {
+            flush(fd);
+            return;
+        }
+        final BufferedChannel channel = CHANNELS.remove(fd);
+        if(null != channel) {
+            channel.flush();
+            channel.channel.close();
+        }
+    }
+
+    /**
+     * replace the host stream of a standard file descriptor
+     * @return the one replaced, null if it is not used yet
+     */
+    static OutputStream redirect(int fd, OutputStream outputStream) throws IOException {
+        final BufferedChannel previous = CHANNELS.put(fd, new BufferedChannel(outputStream, STANDARD_ERROR == fd));
+        if(null == previous) {
+            return null;
+        }
+        previous.flush();
+        return previous.outputStream;
+    }
+
+    private static class BufferedChannel {
+
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        private final WritableByteChannel channel;
+
+        /**
+         * null if nothing to flush after the channel written
+         */
+        private final Flushable flushable;
+
+        /**
+         * null if it is not a host stream
+         */
+        private final OutputStream outputStream;
+
+        private final boolean autoFlush;
+
+        BufferedChannel(WritableByteChannel channel, Flushable flushable, boolean autoFlush) {
+            this.channel = channel;
+            this.flushable = flushable;
+            this.outputStream = null;
+            this.autoFlush = autoFlush;
+        }
+
+        BufferedChannel(OutputStream outputStream, boolean autoFlush) {
+            this.channel = Channels.newChannel(outputStream);
+            this.flushable = outputStream;
+            this.outputStream = outputStream;
+            this.autoFlush = autoFlush;
+        }
+
+        synchronized void write(byte[] bytes, int offset, int length) throws IOException {
+            if(length > buffer.remaining()) {
+                drain();
+            }
+            if(length > buffer.capacity()) {
+                // too large to buffer
+                final ByteBuffer wrapped = ByteBuffer.wrap(bytes, offset, length);
+                while (wrapped.hasRemaining()) {
+                    channel.write(wrapped);
+                }
+            } else {
+                buffer.put(bytes, offset, length);
+            }
+            if(autoFlush) {
+                flush();
+            }
+        }
+
+        /**
+         * write the buffer to channel
+         */
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        synchronized void flush() throws IOException {
+            drain();
+            if(null != flushable) {
+                flushable.flush();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,353 @@
+package com.github.anilople.javajvm.natives;
+
+import com.github.anilople.javajvm.heap.JvmClassLoader;
+import com.github.anilople.javajvm.heap.JvmMethod;
+import com.github.anilople.javajvm.runtimedataarea.Frame;
+import com.github.anilople.javajvm.runtimedataarea.LocalVariables;
+import com.github.anilople.javajvm.runtimedataarea.Reference;
+import com.github.anilople.javajvm.runtimedataarea.reference.ByteArrayReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.CharArrayReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.ObjectReference;
+import com.github.anilople.javajvm.utils.HackUtils;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+
+/**
+ * java.io.FileOutputStream writes to {@link FileDescriptorTable}.
+ * <p>
+ * temporary: System.initializeSystemClass is not run yet,
+ * so the standard PrintStreams are made without constructors and have no encoders.
+ * until it runs, print, println and write of java.io.PrintStream over a FileOutputStream
+ * format the values in host, encode them with the charset of stream,
+ * and write the bytes to the file descriptor directly, holding the lock of the stream
+ * and flushing as autoFlush asks, like PrintStream does.
+ * other methods of PrintStream, and the ones over other streams, are interpreted.
+ * then only the natives of FileOutputStream are needed.
+ */
+public class FileOutputStreamNatives {
+
+    private static final String FILE_OUTPUT_STREAM = "java/io/FileOutputStream";
+
+    private static final String PRINT_STREAM = "java/io/PrintStream";
+
+    /**
+     * descriptors of print and println formatted in host,
+     * print(Object) and println(Object) are interpreted for toString
+     */
+    private static final String[] PRINT_DESCRIPTORS = {
+            "(Z)V", "(C)V", "(I)V", "(J)V", "(F)V", "(D)V", "([C)V", "(Ljava/lang/String;)V"
+    };
+
+    /**
+     * "fd" of FileOutputStream, a FileDescriptor
+     */
+    static final int FD = 0;
+
+    /**
+     * "fd" of FileDescriptor, an int
+     */
+    static final int FILE_DESCRIPTOR_FD = 0;
+
+    /**
+     * "out" of FilterOutputStream
+     */
+    static final int OUT = 0;
+
+    /**
+     * "autoFlush" of PrintStream, a boolean
+     */
+    static final int AUTO_FLUSH = 0;
+
+    /**
+     * "trouble" of PrintStream, a boolean
+     */
+    static final int TROUBLE = 1;
+
+    static void register() {
+        NativeRegistry.register(FILE_OUTPUT_STREAM, "writeBytes", "([BIIZ)V", FileOutputStreamNatives::writeBytes);
+        NativeRegistry.register(FILE_OUTPUT_STREAM, "write", "(IZ)V", (frame, jvmMethod, localVariables) ->
+                write(fileDescriptorOf(localVariables.getReference(0)), new byte[]{(byte) localVariables.getIntValue(1)}));
+        NativeRegistry.register(FILE_OUTPUT_STREAM, "open0", "(Ljava/lang/String;Z)V", FileOutputStreamNatives::open0);
+        NativeRegistry.register(FILE_OUTPUT_STREAM, "close0", "()V", FileOutputStreamNatives::close0);
+        // empty in OutputStream, FileOutputStream does not override it
+        NativeRegistry.register("java/io/OutputStream", "flush", "()V", FileOutputStreamNatives::flush);
+        // temporary, until System.initializeSystemClass runs
+        for(String descriptor : PRINT_DESCRIPTORS) {
+            NativeRegistry.register(PRINT_STREAM, "print", descriptor, FileOutputStreamNatives::printStream);
+            NativeRegistry.register(PRINT_STREAM, "println", descriptor, FileOutputStreamNatives::printStream);
+        }
+        NativeRegistry.register(PRINT_STREAM, "println", "()V", FileOutputStreamNatives::printStream);
+        NativeRegistry.register(PRINT_STREAM, "write", "(I)V", FileOutputStreamNatives::printStream);
+        NativeRegistry.register(PRINT_STREAM, "write", "([BII)V", FileOutputStreamNatives::printStream);
+        // private, used by print
+        NativeRegistry.register(PRINT_STREAM, "write", "(Ljava/lang/String;)V", FileOutputStreamNatives::printStream);
+        NativeRegistry.register(PRINT_STREAM, "newLine", "()V", FileOutputStreamNatives::printStream);
+        NativeRegistry.register(PRINT_STREAM, "flush", "()V", FileOutputStreamNatives::printStream);
+    }
+
+    /**
+     * make a PrintStream over a FileOutputStream of the file descriptor given,
+     * without running their constructors.
+     * it flushes automatically, as the one made by System.initializeSystemClass
+     * @see java.lang.System initializeSystemClass()
+     * @param fd i.e {@link FileDescriptorTable#STANDARD_OUTPUT}
+     * @return PrintStream in guest
+     */
+    public static ObjectReference standardStream(JvmClassLoader jvmClassLoader, int fd) {
+        final ObjectReference fileDescriptor = ObjectReference.makeObjectReference(jvmClassLoader.loadClass(FileDescriptor.class));
+        fileDescriptor.setIntValue(FILE_DESCRIPTOR_FD, fd);
+        final ObjectReference fileOutputStream = ObjectReference.makeObjectReference(jvmClassLoader.loadClass(FileOutputStream.class));
+        fileOutputStream.setReference(FD, fileDescriptor);
+        fileOutputStream.setReference("closeLock", ObjectReference.makeObjectReference(jvmClassLoader.loadClass(Object.class)));
+        final ObjectReference printStream = ObjectReference.makeObjectReference(jvmClassLoader.loadClass(PrintStream.class));
+        printStream.setReference(OUT, fileOutputStream);
+        printStream.setBooleanValue(AUTO_FLUSH, true);
+        return printStream;
+    }
+
+    /**
+     * @param reference a FileOutputStream
+     * @return -1 if it is closed
+     */
+    private static int fileDescriptorOf(Reference reference) {
+        final Reference fileDescriptor = ((ObjectReference) nonNull(reference)).getReference(FD);
+        if(Reference.isNull(fileDescriptor)) {
+            return -1;
+        }
+        return ((ObjectReference) fileDescriptor).getIntValue(FILE_DESCRIPTOR_FD);
+    }
+
+    /**
+     * @throws HackUtils.GuestException NullPointerException if null
+     */
+    private static Reference nonNull(Reference reference) {
+        if(Reference.isNull(reference)) {
+            throw new HackUtils.GuestException(new NullPointerException());
+        }
+        return reference;
+    }
+
+    /**
+     * @throws HackUtils.GuestException IOException if failed
+     */
+    private static void write(int fd, byte[] bytes) {
+        try {
+            FileDescriptorTable.write(fd, bytes, 0, bytes.length);
+        } catch (IOException e) {
+            throw new HackUtils.GuestException(e);
+        }
+    }
+
+    /**
+     * @see java.io.FileOutputStream writeBytes(byte[], int, int, boolean)
+     */
+    private static void writeBytes(Frame frame, JvmMethod jvmMethod, LocalVariables localVariables) {
+        final int fd = fileDescriptorOf(localVariables.getReference(0));
+        final byte[] bytes = ((ByteArrayReference) nonNull(localVariables.getReference(1))).getArray();
+        final int offset = localVariables.getIntValue(2);
+        final int length = localVariables.getIntValue(3);
+        if(offset < 0 || length < 0 || offset > bytes.length - length) {
+            throw new HackUtils.GuestException(new IndexOutOfBoundsException());
+        }
+        try {
+            FileDescriptorTable.write(fd, bytes, offset, length);
+        } catch (IOException e) {
+            throw new HackUtils.GuestException(e);
+        }
+    }
+
+    /**
+     * @see java.io.FileOutputStream open0(String, boolean)
+     */
+    private static void open0(Frame frame, JvmMethod jvmMethod, LocalVariables localVariables) {
+        final ObjectReference fileOutputStream = (ObjectReference) localVariables.getReference(0);
+        final String path = StringIntrinsics.toHost((ObjectReference) nonNull(localVariables.getReference(1)));
+        final boolean append = localVariables.getBooleanValue(2);
+        final int fd;
+        try {
+            fd = FileDescriptorTable.open(path, append);
+        } catch (IOException e) {
+            throw new HackUtils.GuestException(e);
+        }
+        ((ObjectReference) fileOutputStream.getReference(FD)).setIntValue(FILE_DESCRIPTOR_FD, fd);
+    }
+
+    /**
+     * @see java.io.FileOutputStream close0()
+     */
+    private static void close0(Frame frame, JvmMethod jvmMethod, LocalVariables localVariables) {
+        final int fd = fileDescriptorOf(localVariables.getReference(0));
+        try {
+            FileDescriptorTable.close(fd);
+        } catch (IOException e) {
+            throw new HackUtils.GuestException(e);
+        }
+    }
+
+    /**
+     * @see java.io.OutputStream flush()
+     */
+    private static void flush(Frame frame, JvmMethod jvmMethod, LocalVariables localVariables) {
+        final ObjectReference outputStream = (ObjectReference) nonNull(localVariables.getReference(0));
+        if(!outputStream.getJvmClass().isSameName(FileOutputStream.class)
+                && !outputStream.getJvmClass().isSubClassOf(FileOutputStream.class)) {
+            return;
+        }
+        try {
+            FileDescriptorTable.flush(fileDescriptorOf(outputStream));
+        } catch (IOException e) {
+            throw new HackUtils.GuestException(e);
+        }
+    }
+
+    /**
+     * the methods of java.io.PrintStream registered.
+     * PrintStream never throws IOException, it sets "trouble" instead,
+     * so checkError() reports the failure.
+     */
+    private static void printStream(Frame frame, JvmMethod jvmMethod, LocalVariables localVariables) {
+        final String name = jvmMethod.getName();
+        final String descriptor = jvmMethod.getDescriptor();
+        final ObjectReference printStream = (ObjectReference) nonNull(localVariables.getReference(0));
+        final Reference out = printStream.getReference(OUT);
+        // subclass of FileOutputStream may override write
+        if(out instanceof ObjectReference && ((ObjectReference) out).getJvmClass().getName().equals(FILE_OUTPUT_STREAM)) {
+            final int fd = fileDescriptorOf(out);
+            final int threadId = frame.getJvmThread().getId();
+            // synchronized (this) in PrintStream
+            printStream.monitorEnter(threadId);
+            try {
+                if(!"flush".equals(name)) {
+                    final byte[] bytes = encode(name, descriptor, localVariables, charsetOf(printStream));
+                    FileDescriptorTable.write(fd, bytes, 0, bytes.length);
+                    if(!printStream.getBooleanValue(AUTO_FLUSH) || !flushes(name, descriptor, bytes)) {
+                        return;
+                    }
+                }
+                FileDescriptorTable.flush(fd);
+            } catch (IOException e) {
+                printStream.setBooleanValue(TROUBLE, true);
+            } finally {
+                printStream.monitorExit(threadId);
+            }
+            return;
+        }
+        frame.getJvmThread().pushFrame(new Frame(frame.getJvmThread(), jvmMethod, localVariables));
+    }
+
+    /**
+     * when autoFlush is set, PrintStream flushes after println, newLine and write(byte[], int, int),
+     * and after the others writing a newline
+     * @param bytes written
+     */
+    private static boolean flushes(String name, String descriptor, byte[] bytes) {
+        if("println".equals(name) || "newLine".equals(name) || "([BII)V".equals(descriptor)) {
+            return true;
+        }
+        for(byte b : bytes) {
+            if('\n' == b) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * the charset of "charOut", an OutputStreamWriter.
+     * the standard streams are made without constructor, they have no "charOut"
+     * @return default charset if there is not one, or host does not support it
+     */
+    private static Charset charsetOf(ObjectReference printStream) {
+        Reference reference = printStream.getReference("charOut");
+        for(String fieldName : new String[]{"se", "cs", "name"}) {
+            if(Reference.isNull(reference)) {
+                return Charset.defaultCharset();
+            }
+            reference = ((ObjectReference) reference).getReference(fieldName);
+        }
+        if(Reference.isNull(reference)) {
+            return Charset.defaultCharset();
+        }
+        final String charsetName = StringIntrinsics.toHost((ObjectReference) reference);
+        return Charset.isSupported(charsetName) ? Charset.forName(charsetName) : Charset.defaultCharset();
+    }
+
+    /**
+     * @return bytes printed by the method
+     */
+    private static byte[] encode(String name, String descriptor, LocalVariables localVariables, Charset charset) {
+        switch (name) {
+            case "print":
+                return format(descriptor, localVariables).getBytes(charset);
+            case "println": {
+                final String text = "()V".equals(descriptor) ? "" : format(descriptor, localVariables);
+                return (text + System.lineSeparator()).getBytes(charset);
+            }
+            case "write":
+                return write(descriptor, localVariables, charset);
+            case "newLine":
+                return System.lineSeparator().getBytes(charset);
+            default:
+                throw new IllegalStateException(name + descriptor + " of PrintStream is not registered");
+        }
+    }
+
+    /**
+     * the value of print or println
+     */
+    private static String format(String descriptor, LocalVariables localVariables) {
+        switch (descriptor) {
+            case "(Z)V":
+                return String.valueOf(localVariables.getBooleanValue(1));
+            case "(C)V":
+                return String.valueOf(localVariables.getCharValue(1));
+            case "(I)V":
+                return String.valueOf(localVariables.getIntValue(1));
+            case "(J)V":
+                return String.valueOf(localVariables.getLongValue(1));
+            case "(F)V":
+                return String.valueOf(localVariables.getFloatValue(1));
+            case "(D)V":
+                return String.valueOf(localVariables.getDoubleValue(1));
+            case "([C)V":
+                return new String(((CharArrayReference) nonNull(localVariables.getReference(1))).getArray());
+            case "(Ljava/lang/String;)V": {
+                final Reference string = localVariables.getReference(1);
+                return Reference.isNull(string) ? "null" : StringIntrinsics.toHost((ObjectReference) string);
+            }
+            default:
+                throw new IllegalStateException(descriptor + " of print is not registered");
+        }
+    }
+
+    /**
+     * write(int) writes a byte, not the number
+     */
+    private static byte[] write(String descriptor, LocalVariables localVariables, Charset charset) {
+        switch (descriptor) {
+            case "(I)V":
+                return new byte[]{(byte) localVariables.getIntValue(1)};
+            case "([BII)V": {
+                final byte[] bytes = ((ByteArrayReference) nonNull(localVariables.getReference(1))).getArray();
+                final int offset = localVariables.getIntValue(2);
+                final int length = localVariables.getIntValue(3);
+                if(offset < 0 || length < 0 || offset > bytes.length - length) {
+                    throw new HackUtils.GuestException(new IndexOutOfBoundsException());
+                }
+                final byte[] copy = new byte[length];
+                System.arraycopy(bytes, offset, copy, 0, length);
+                return copy;
+            }
+            case "(Ljava/lang/String;)V":
+                // private, used by print
+                return format(descriptor, localVariables).getBytes(charset);
+            default:
+                throw new IllegalStateException(descriptor + " of write is not registered");
+        }
+    }
+
+}
@@ -0,0 +1,182 @@
+package com.github.anilople.javajvm.natives;
+
+import com.github.anilople.javajvm.cachepool.WeakIdentityMap;
+import com.github.anilople.javajvm.heap.JvmClass;
+import com.github.anilople.javajvm.heap.JvmClassLoader;
+import com.github.anilople.javajvm.runtimedataarea.Reference;
+import com.github.anilople.javajvm.runtimedataarea.reference.BaseTypeArrayReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.ClassObjectReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.HostObjectReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.ObjectArrayReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.ObjectReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.StringReference;
+import com.github.anilople.javajvm.utils.ReferenceUtils;
+
+/**
+ * pass arguments and return values of native methods between host and guest,
+ * without copying object graphs.
+ * <ul>
+ *     <li>String is {@link StringReference} in guest, both sides share the host String</li>
+ *     <li>boxed primitives are passed by value</li>
+ *     <li>java.lang.Class is the one represented by {@link ClassObjectReference}</li>
+ *     <li>primitive arrays share the host array, changes are seen by both sides</li>
+ *     <li>other host objects become {@link HostObjectReference}, and go back as the same object</li>
+ *     <li>other guest objects are copied, the host never sees a guest reference</li>
+ * </ul>
+ * a host object crossed before gets the same guest reference again in the same vm,
+ * as long as the guest reference is reachable.
+ * @see JvmClassLoader#getHostObjects()
+ */
+public class HostBridge {
+
+    /**
+     * offset of "value", the only primitive field of boxed primitives
+     */
+    private static final int BOXED_VALUE = 0;
+
+    /**
+     * @param reference guest value
+     * @param type parameter type in host
+     * @return host value
+     */
+    public static Object toHost(Reference reference, Class<?> type) {
+        if(Reference.isNull(reference)) {
+            return null;
+        }
+        if(reference instanceof HostObjectReference) {
+            return ((HostObjectReference) reference).getHostObject();
+        }
+        if(reference instanceof ClassObjectReference) {
+            return ClassObjectReference.getRealClassInJvm((ClassObjectReference) reference);
+        }
+        if(reference instanceof BaseTypeArrayReference) {
+            return ((BaseTypeArrayReference) reference).getArray();
+        }
+        if(reference instanceof ObjectReference) {
+            final Object value = unbox((ObjectReference) reference);
+            if(null != value) {
+                return value;
+            }
+        }
+        // the host wants to read it, so copy it
+        try {
+            return ReferenceUtils.reference2Object(reference);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @return value of String or boxed primitive, null for other objects
+     */
+    static Object unbox(ObjectReference objectReference) {
+        switch (objectReference.getJvmClass().getName()) {
+            case StringIntrinsics.STRING:
+                return StringIntrinsics.toHost(objectReference);
+            case "java/lang/Boolean":
+                return objectReference.getBooleanValue(BOXED_VALUE);
+            case "java/lang/Byte":
+                return objectReference.getByteValue(BOXED_VALUE);
+            case "java/lang/Character":
+                return objectReference.getCharValue(BOXED_VALUE);
+            case "java/lang/Short":
+                return objectReference.getShortValue(BOXED_VALUE);
+            case "java/lang/Integer":
+                return objectReference.getIntValue(BOXED_VALUE);
+            case "java/lang/Float":
+                return objectReference.getFloatValue(BOXED_VALUE);
+            case "java/lang/Long":
+                return objectReference.getLongValue(BOXED_VALUE);
+            case "java/lang/Double":
+                return objectReference.getDoubleValue(BOXED_VALUE);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * @param jvmClassLoader loader of the native method
+     * @param object host value
+     * @return guest value
+     */
+    public static Reference toGuest(JvmClassLoader jvmClassLoader, Object object) {
+        if(null == object) {
+            return Reference.NULL;
+        }
+        if(object instanceof String) {
+            return new StringReference(jvmClassLoader.loadClass(String.class), (String) object);
+        }
+        if(object instanceof Class) {
+            return ClassObjectReference.getInstance(jvmClassLoader.loadClass((Class<?>) object));
+        }
+        final ObjectReference boxed = box(jvmClassLoader, object);
+        if(null != boxed) {
+            return boxed;
+        }
+
+        final WeakIdentityMap<Object, Reference> guests = jvmClassLoader.getHostObjects();
+        final Reference existing = guests.get(object);
+        if(null != existing) {
+            return existing;
+        }
+        final Class<?> clazz = object.getClass();
+        final Reference reference;
+        if(clazz.isArray() && clazz.getComponentType().isPrimitive()) {
+            reference = BaseTypeArrayReference.wrap(jvmClassLoader, object);
+        } else if(clazz.isArray()) {
+            // elements are passed one by one
+            final Object[] objects = (Object[]) object;
+            final ObjectArrayReference objectArrayReference = new ObjectArrayReference(
+                    jvmClassLoader.loadClass(clazz.getComponentType()), objects.length
+            );
+            for(int i = 0; i < objects.length; i++) {
+                objectArrayReference.setReference(i, toGuest(jvmClassLoader, objects[i]));
+            }
+            reference = objectArrayReference;
+        } else {
+            reference = new HostObjectReference(jvmClassLoader.loadClass(clazz), object);
+        }
+        return guests.putIfAbsent(object, reference);
+    }
+
+    /**
+     * @return null if the object is not a boxed primitive
+     */
+    static ObjectReference box(JvmClassLoader jvmClassLoader, Object object) {
+        if(!(object instanceof Boolean || object instanceof Character
+                || object instanceof Byte || object instanceof Short || object instanceof Integer
+                || object instanceof Float || object instanceof Long || object instanceof Double)) {
+            // BigInteger, AtomicInteger etc..
+            return null;
+        }
+        final JvmClass jvmClass = jvmClassLoader.loadClass(object.getClass());
+        final ObjectReference objectReference;
+        if(object instanceof Boolean) {
+            objectReference = ObjectReference.makeObjectReference(jvmClass);
+            objectReference.setBooleanValue(BOXED_VALUE, (Boolean) object);
+        } else if(object instanceof Character) {
+            objectReference = ObjectReference.makeObjectReference(jvmClass);
+            objectReference.setCharValue(BOXED_VALUE, (Character) object);
+        } else if(object instanceof Byte) {
+            objectReference = ObjectReference.makeObjectReference(jvmClass);
+            objectReference.setByteValue(BOXED_VALUE, (Byte) object);
+        } else if(object instanceof Short) {
+            objectReference = ObjectReference.makeObjectReference(jvmClass);
+            objectReference.setShortValue(BOXED_VALUE, (Short) object);
+        } else if(object instanceof Integer) {
+            objectReference = ObjectReference.makeObjectReference(jvmClass);
+            objectReference.setIntValue(BOXED_VALUE, (Integer) object);
+        } else if(object instanceof Float) {
+            objectReference = ObjectReference.makeObjectReference(jvmClass);
+            objectReference.setFloatValue(BOXED_VALUE, (Float) object);
+        } else if(object instanceof Long) {
+            objectReference = ObjectReference.makeObjectReference(jvmClass);
+            objectReference.setLongValue(BOXED_VALUE, (Long) object);
+        } else {
+            objectReference = ObjectReference.makeObjectReference(jvmClass);
+            objectReference.setDoubleValue(BOXED_VALUE, (Double) object);
+        }
+        return objectReference;
+    }
+
+}
@@ -0,0 +1,385 @@
+package com.github.anilople.javajvm.natives;
+
+import com.github.anilople.javajvm.constants.AccessFlags;
+import com.github.anilople.javajvm.heap.JvmClass;
+import com.github.anilople.javajvm.heap.JvmClassLoader;
+import com.github.anilople.javajvm.heap.JvmField;
+import com.github.anilople.javajvm.heap.JvmHeap;
+import com.github.anilople.javajvm.heap.JvmMethod;
+import com.github.anilople.javajvm.heap.constant.JvmConstant;
+import com.github.anilople.javajvm.heap.constant.JvmConstantClass;
+import com.github.anilople.javajvm.heap.constant.JvmConstantInteger;
+import com.github.anilople.javajvm.heap.constant.JvmConstantMethodHandle;
+import com.github.anilople.javajvm.heap.constant.JvmConstantMethodType;
+import com.github.anilople.javajvm.runtimedataarea.Frame;
+import com.github.anilople.javajvm.runtimedataarea.JvmThread;
+import com.github.anilople.javajvm.runtimedataarea.LocalVariables;
+import com.github.anilople.javajvm.runtimedataarea.Reference;
+import com.github.anilople.javajvm.runtimedataarea.reference.ObjectReference;
+import com.github.anilople.javajvm.utils.DescriptorUtils;
+import com.github.anilople.javajvm.utils.HackUtils;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * java.lang.invoke.LambdaMetafactory in host.
+ * <p>
+ * hotspot spins an inner class for each lambda, whose method invokes the implementation.
+ * here the class of lambda is made by jvm directly, without class file:
+ * <ul>
+ *     <li>the captured args are its final fields, "arg$1", "arg$2" ...</li>
+ *     <li>the method of functional interface, and the bridges, are bound to a handler in host,
+ *     it invokes the implementation with the captured args and its own args</li>
+ *     <li>if the value returned by the implementation should be converted,
+ *     i.e boxed, an adapter frame is pushed under the implementation to convert it</li>
+ * </ul>
+ * a lambda captures nothing is a constant, like hotspot.
+ */
+public class LambdaMetafactoryIntrinsics {
+
+    private static final String LAMBDA_METAFACTORY = "java/lang/invoke/LambdaMetafactory";
+
+    private static final String METAFACTORY = "metafactory";
+
+    private static final String ALT_METAFACTORY = "altMetafactory";
+
+    /**
+     * flags of altMetafactory
+     * @see java.lang.invoke.LambdaMetafactory#FLAG_SERIALIZABLE
+     */
+    private static final int FLAG_SERIALIZABLE = 1;
+
+    private static final int FLAG_MARKERS = 2;
+
+    private static final int FLAG_BRIDGES = 4;
+
+    /**
+     * impdep1
+     * @see com.github.anilople.javajvm.instructions.reserved.IMPDEP1
+     */
+    private static final byte[] ADAPTER_CODE = {(byte) 0xfe};
+
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+
+    /**
+     * @param bootstrapMethod bootstrap method of an invokedynamic
+     * @return it is the metafactory or altMetafactory of LambdaMetafactory
+     */
+    static boolean isMetafactory(JvmConstantMethodHandle bootstrapMethod) {
+        return JvmConstantMethodHandle.REF_INVOKE_STATIC == bootstrapMethod.getReferenceKind()
+                && LAMBDA_METAFACTORY.equals(bootstrapMethod.getReferenceClassName())
+                && (METAFACTORY.equals(bootstrapMethod.getReferenceName()) || ALT_METAFACTORY.equals(bootstrapMethod.getReferenceName()));
+    }
+
+    /**
+     * @see java.lang.invoke.LambdaMetafactory#metafactory
+     * @see java.lang.invoke.LambdaMetafactory#altMetafactory
+     * @param caller class of the invokedynamic
+     * @param invokedName name of the method of functional interface
+     * @param invokedType descriptor of call site, captured args to the functional interface
+     * @param bootstrapMethod metafactory or altMetafactory
+     * @param arguments static arguments of bootstrap method
+     * @return the call site makes lambdas
+     * @throws HackUtils.GuestException BootstrapMethodError if it cannot be linked
+     */
+    static CallSite metafactory(JvmClass caller, String invokedName, String invokedType, JvmConstantMethodHandle bootstrapMethod, JvmConstant[] arguments) {
+        final JvmClassLoader jvmClassLoader = caller.getLoader();
+        final String samDescriptor = ((JvmConstantMethodType) arguments[0]).getDescriptor();
+        final JvmConstantMethodHandle implementation = (JvmConstantMethodHandle) arguments[1];
+
+        final Set<JvmClass> interfaces = new LinkedHashSet<>();
+        interfaces.add(jvmClassLoader.loadClass(DescriptorUtils.getClassName(DescriptorUtils.getReturnDescriptor(invokedType))));
+        final Set<String> descriptors = new LinkedHashSet<>();
+        descriptors.add(samDescriptor);
+        if(ALT_METAFACTORY.equals(bootstrapMethod.getReferenceName())) {
+            final int flags = ((JvmConstantInteger) arguments[3]).getIntValue();
+            int index = 4;
+            if(0 != (flags & FLAG_MARKERS)) {
+                final int count = ((JvmConstantInteger) arguments[index++]).getIntValue();
+                for(int i = 0; i < count; i++) {
+                    interfaces.add(((JvmConstantClass) arguments[index++]).resolveJvmClass());
+                }
+            }
+            if(0 != (flags & FLAG_BRIDGES)) {
+                final int count = ((JvmConstantInteger) arguments[index++]).getIntValue();
+                for(int i = 0; i < count; i++) {
+                    descriptors.add(((JvmConstantMethodType) arguments[index++]).getDescriptor());
+                }
+            }
+            if(0 != (flags & FLAG_SERIALIZABLE)) {
+                // writeReplace is not made, it cannot be serialized really
+                interfaces.add(jvmClassLoader.loadClass(Serializable.class));
+            }
+        }
+
+        final Implementation target = new Implementation(jvmClassLoader, implementation);
+        final List<String> capturedDescriptors = DescriptorUtils.getParameterDescriptor(invokedType);
+        if(capturedDescriptors.size() + DescriptorUtils.getParameterDescriptor(samDescriptor).size() != target.arity()) {
+            throw new HackUtils.GuestException(new BootstrapMethodError(
+                    "arity of " + target + " does not match " + invokedType + " and " + samDescriptor
+            ));
+        }
+
+        final JvmClass lambdaClass = new JvmClass(
+                jvmClassLoader,
+                (short) (AccessFlags.ClassFlags.ACC_FINAL | AccessFlags.ClassFlags.ACC_SYNTHETIC),
+                caller.getName() + "$$Lambda$" + COUNTER.incrementAndGet(),
+                jvmClassLoader.loadClass(Object.class),
+                interfaces.toArray(new JvmClass[0])
+        );
+        final JvmField[] fields = new JvmField[capturedDescriptors.size()];
+        for(int i = 0; i < fields.length; i++) {
+            fields[i] = new JvmField(
+                    lambdaClass,
+                    (short) (AccessFlags.FieldFlags.ACC_PRIVATE | AccessFlags.FieldFlags.ACC_FINAL),
+                    "arg$" + (i + 1),
+                    capturedDescriptors.get(i)
+            );
+        }
+        final List<JvmMethod> methods = new ArrayList<>();
+        for(String descriptor : descriptors) {
+            final String returnDescriptor = DescriptorUtils.getReturnDescriptor(descriptor);
+            final JvmMethod adapter;
+            if(target.isConstructor() || ValueConversions.isIdentity(target.getReturnDescriptor(), returnDescriptor)) {
+                adapter = null;
+            } else {
+                adapter = new JvmMethod(
+                        lambdaClass,
+                        (short) (AccessFlags.MethodFlags.ACC_PRIVATE | AccessFlags.MethodFlags.ACC_STATIC | AccessFlags.MethodFlags.ACC_SYNTHETIC),
+                        "adapter$" + methods.size(),
+                        "(" + target.getReturnDescriptor() + ")" + returnDescriptor,
+                        ADAPTER_CODE,
+                        2,
+                        null
+                );
+                methods.add(adapter);
+            }
+            methods.add(new JvmMethod(
+                    lambdaClass,
+                    AccessFlags.MethodFlags.ACC_PUBLIC,
+                    invokedName,
+                    descriptor,
+                    null,
+                    0,
+                    (frame, jvmMethod, localVariables) -> invoke(target, fields, adapter, frame, jvmMethod, localVariables)
+            ));
+        }
+        lambdaClass.defineMembers(fields, methods.toArray(new JvmMethod[0]));
+
+        if(0 == fields.length) {
+            final ObjectReference lambda = ObjectReference.makeObjectReference(lambdaClass);
+            return (frame, localVariables) -> frame.getOperandStacks().pushReference(lambda);
+        }
+        return (frame, localVariables) -> {
+            final ObjectReference lambda = ObjectReference.makeObjectReference(lambdaClass);
+            int index = 0;
+            for(JvmField field : fields) {
+                ValueConversions.setField(lambda, field, ValueConversions.get(localVariables, index, field.getDescriptor()));
+                index += field.getSize();
+            }
+            frame.getOperandStacks().pushReference(lambda);
+        };
+    }
+
+    /**
+     * the method of functional interface, or a bridge of it, is invoked
+     * @param fields captured args
+     * @param adapter converts the value returned, null if no need
+     */
+    private static void invoke(Implementation target, JvmField[] fields, JvmMethod adapter, Frame frame, JvmMethod jvmMethod, LocalVariables localVariables) {
+        final JvmClassLoader jvmClassLoader = jvmMethod.getJvmClass().getLoader();
+        final ObjectReference lambda = (ObjectReference) localVariables.getReference(0);
+
+        // captured args, then args of this method
+        final List<Object> values = new ArrayList<>();
+        final List<String> descriptors = new ArrayList<>();
+        for(JvmField field : fields) {
+            values.add(ValueConversions.getField(lambda, field));
+            descriptors.add(field.getDescriptor());
+        }
+        int index = 1;
+        for(String parameterDescriptor : DescriptorUtils.getParameterDescriptor(jvmMethod.getDescriptor())) {
+            values.add(ValueConversions.get(localVariables, index, parameterDescriptor));
+            descriptors.add(parameterDescriptor);
+            index += DescriptorUtils.getFieldDescriptorSize(parameterDescriptor);
+        }
+
+        // the receiver
+        final List<String> parameterDescriptors = target.getParameterDescriptors();
+        final LocalVariables args = new LocalVariables(
+                DescriptorUtils.getParameterDescriptorsSize(parameterDescriptors) + (target.hasReceiver() || target.isConstructor() ? 1 : 0)
+        );
+        int first = 0;
+        index = 0;
+        final JvmMethod method;
+        final ObjectReference receiver;
+        if(target.isConstructor()) {
+            receiver = ObjectReference.makeObjectReference(target.getJvmClass());
+            args.setReference(index++, receiver);
+            method = target.getJvmMethod();
+        } else if(target.hasReceiver()) {
+            final Reference reference = (Reference) values.get(first++);
+            if(Reference.isNull(reference)) {
+                throw new HackUtils.GuestException(new NullPointerException());
+            }
+            receiver = (ObjectReference) reference;
+            args.setReference(index++, receiver);
+            method = target.dispatch(receiver);
+        } else {
+            receiver = null;
+            method = target.getJvmMethod();
+        }
+        for(int i = 0; i < parameterDescriptors.size(); i++) {
+            final String parameterDescriptor = parameterDescriptors.get(i);
+            final Object value = ValueConversions.convert(jvmClassLoader, values.get(first + i), descriptors.get(first + i), parameterDescriptor);
+            ValueConversions.set(args, index, parameterDescriptor, value);
+            index += DescriptorUtils.getFieldDescriptorSize(parameterDescriptor);
+        }
+
+        final JvmThread jvmThread = frame.getJvmThread();
+        if(target.isConstructor() && !"V".equals(DescriptorUtils.getReturnDescriptor(jvmMethod.getDescriptor()))) {
+            // "<init>" returns nothing, the new object is the result
+            frame.getOperandStacks().pushReference(receiver);
+        }
+        Frame resultFrame = frame;
+        if(null != adapter) {
+            resultFrame = new Frame(jvmThread, adapter, new LocalVariables(0));
+            jvmThread.pushFrame(resultFrame);
+        }
+        try {
+            invoke(resultFrame, method, args, target.isStatic() || target.isConstructor());
+        } catch (HackUtils.GuestException | JvmHeap.HeapExhaustedException e) {
+            if(null != adapter && jvmThread.currentFrame() == resultFrame) {
+                jvmThread.popFrame();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @param frame result is returned to it
+     * @param initialize initialize the class of method before it is invoked
+     */
+    private static void invoke(Frame frame, JvmMethod jvmMethod, LocalVariables localVariables, boolean initialize) {
+        final NativeMethod nativeMethod = jvmMethod.getNativeMethod();
+        if(null != nativeMethod) {
+            nativeMethod.invoke(frame, jvmMethod, localVariables);
+            return;
+        }
+        if(jvmMethod.isAbstract()) {
+            throw new HackUtils.GuestException(new AbstractMethodError(jvmMethod.getJvmClass().getJavaLevelClassName() + "." + jvmMethod.getName()));
+        }
+        if(jvmMethod.isNative()) {
+            throw new HackUtils.GuestException(new UnsatisfiedLinkError(jvmMethod.getJvmClass().getJavaLevelClassName() + "." + jvmMethod.getName()));
+        }
+        final JvmThread jvmThread = frame.getJvmThread();
+        jvmThread.pushFrame(new Frame(jvmThread, jvmMethod, localVariables));
+        if(initialize) {
+            // "<clinit>" is above, it runs first
+            jvmMethod.getJvmClass().initializeIfNecessary(jvmThread);
+        }
+    }
+
+    /**
+     * the method handle of implementation, resolved when linking
+     */
+    private static class Implementation {
+
+        private final int referenceKind;
+
+        private final JvmClass jvmClass;
+
+        private final JvmMethod jvmMethod;
+
+        private final List<String> parameterDescriptors;
+
+        private final String returnDescriptor;
+
+        Implementation(JvmClassLoader jvmClassLoader, JvmConstantMethodHandle methodHandle) {
+            this.referenceKind = methodHandle.getReferenceKind();
+            if(referenceKind < JvmConstantMethodHandle.REF_INVOKE_VIRTUAL) {
+                throw new HackUtils.GuestException(new BootstrapMethodError("field is not a lambda implementation: " + methodHandle.getReferenceName()));
+            }
+            final JvmClass referenceClass = jvmClassLoader.loadClass(methodHandle.getReferenceClassName());
+            this.jvmClass = referenceClass;
+            final String name = methodHandle.getReferenceName();
+            final String descriptor = methodHandle.getReferenceDescriptor();
+            // jvms 5.4.3.3, methods of an array class are the ones of java.lang.Object
+            final JvmClass declaringClass = referenceClass.isArrayType() ? jvmClassLoader.loadClass(Object.class) : referenceClass;
+            this.jvmMethod = declaringClass.getMethod(name, descriptor);
+            if(null == this.jvmMethod) {
+                throw new HackUtils.GuestException(new BootstrapMethodError(
+                        new NoSuchMethodError(referenceClass.getJavaLevelClassName() + "." + name + descriptor).toString()
+                ));
+            }
+            this.parameterDescriptors = DescriptorUtils.getParameterDescriptor(descriptor);
+            this.returnDescriptor = isConstructor() ?
+                    "L" + referenceClass.getName() + ";" :
+                    DescriptorUtils.getReturnDescriptor(descriptor);
+        }
+
+        boolean isStatic() {
+            return JvmConstantMethodHandle.REF_INVOKE_STATIC == referenceKind;
+        }
+
+        boolean isConstructor() {
+            return JvmConstantMethodHandle.REF_NEW_INVOKE_SPECIAL == referenceKind;
+        }
+
+        /**
+         * the first arg is the receiver of method
+         */
+        boolean hasReceiver() {
+            return !isStatic() && !isConstructor();
+        }
+
+        /**
+         * @return count of args, including the receiver
+         */
+        int arity() {
+            return parameterDescriptors.size() + (hasReceiver() ? 1 : 0);
+        }
+
+        /**
+         * invokevirtual and invokeinterface select the method by the class of receiver,
+         * invokespecial does not
+         */
+        JvmMethod dispatch(ObjectReference receiver) {
+            if(JvmConstantMethodHandle.REF_INVOKE_SPECIAL == referenceKind || receiver.getJvmClass().isArrayType()) {
+                return jvmMethod;
+            }
+            final JvmMethod selected = receiver.getJvmClass().getMethod(jvmMethod.getName(), jvmMethod.getDescriptor());
+            return null == selected ? jvmMethod : selected;
+        }
+
+        JvmClass getJvmClass() {
+            return jvmClass;
+        }
+
+        JvmMethod getJvmMethod() {
+            return jvmMethod;
+        }
+
+        List<String> getParameterDescriptors() {
+            return parameterDescriptors;
+        }
+
+        /**
+         * for a constructor, it is the class
+         */
+        String getReturnDescriptor() {
+            return returnDescriptor;
+        }
+
+        @Override
+        public String toString() {
+            return jvmClass.getName() + "." + jvmMethod.getName() + jvmMethod.getDescriptor();
+        }
+    }
+
+}
@@ -0,0 +1,150 @@
+package com.github.anilople.javajvm.natives;
+
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleToLongFunction;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongToIntFunction;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * pure functions of java.lang.Math, java.lang.StrictMath,
+ * and bit twiddling in Integer, Long, Float and Double.
+ * they are run as host operations on the arguments,
+ * no frame, no boxing.
+ */
+class MathIntrinsics {
+
+    private static final String MATH = "java/lang/Math";
+
+    private static final String STRICT_MATH = "java/lang/StrictMath";
+
+    private static final String INTEGER = "java/lang/Integer";
+
+    private static final String LONG = "java/lang/Long";
+
+    static void register() {
+        // Math delegates to StrictMath for some of them, the results are same
+        doubleUnary(MATH, "sqrt", Math::sqrt);
+        doubleUnary(MATH, "sin", Math::sin);
+        doubleUnary(MATH, "cos", Math::cos);
+        doubleUnary(MATH, "exp", Math::exp);
+        doubleUnary(MATH, "log", Math::log);
+        doubleBinary(MATH, "pow", Math::pow);
+        registerAbsMinMax(MATH);
+
+        doubleUnary(STRICT_MATH, "sqrt", StrictMath::sqrt);
+        doubleUnary(STRICT_MATH, "sin", StrictMath::sin);
+        doubleUnary(STRICT_MATH, "cos", StrictMath::cos);
+        doubleUnary(STRICT_MATH, "tan", StrictMath::tan);
+        doubleUnary(STRICT_MATH, "exp", StrictMath::exp);
+        doubleUnary(STRICT_MATH, "log", StrictMath::log);
+        doubleUnary(STRICT_MATH, "log10", StrictMath::log10);
+        doubleUnary(STRICT_MATH, "cbrt", StrictMath::cbrt);
+        doubleUnary(STRICT_MATH, "floor", StrictMath::floor);
+        doubleUnary(STRICT_MATH, "ceil", StrictMath::ceil);
+        doubleBinary(STRICT_MATH, "pow", StrictMath::pow);
+        doubleBinary(STRICT_MATH, "atan2", StrictMath::atan2);
+        doubleBinary(STRICT_MATH, "hypot", StrictMath::hypot);
+        registerAbsMinMax(STRICT_MATH);
+
+        NativeRegistry.register(INTEGER, "bitCount", "(I)I", intUnary(Integer::bitCount));
+        NativeRegistry.register(INTEGER, "numberOfLeadingZeros", "(I)I", intUnary(Integer::numberOfLeadingZeros));
+        NativeRegistry.register(INTEGER, "numberOfTrailingZeros", "(I)I", intUnary(Integer::numberOfTrailingZeros));
+        NativeRegistry.register(INTEGER, "reverse", "(I)I", intUnary(Integer::reverse));
+        NativeRegistry.register(INTEGER, "reverseBytes", "(I)I", intUnary(Integer::reverseBytes));
+        NativeRegistry.register(INTEGER, "rotateLeft", "(II)I", intBinary(Integer::rotateLeft));
+        NativeRegistry.register(INTEGER, "rotateRight", "(II)I", intBinary(Integer::rotateRight));
+
+        NativeRegistry.register(LONG, "bitCount", "(J)I", longToInt(Long::bitCount));
+        NativeRegistry.register(LONG, "numberOfLeadingZeros", "(J)I", longToInt(Long::numberOfLeadingZeros));
+        NativeRegistry.register(LONG, "numberOfTrailingZeros", "(J)I", longToInt(Long::numberOfTrailingZeros));
+        NativeRegistry.register(LONG, "reverse", "(J)J", longUnary(Long::reverse));
+        NativeRegistry.register(LONG, "reverseBytes", "(J)J", longUnary(Long::reverseBytes));
+        // the distance is an int
+        NativeRegistry.register(LONG, "rotateLeft", "(JI)J", (frame, jvmMethod, localVariables) -> frame.getOperandStacks()
+                .pushLongValue(Long.rotateLeft(localVariables.getLongValue(0), localVariables.getIntValue(2))));
+        NativeRegistry.register(LONG, "rotateRight", "(JI)J", (frame, jvmMethod, localVariables) -> frame.getOperandStacks()
+                .pushLongValue(Long.rotateRight(localVariables.getLongValue(0), localVariables.getIntValue(2))));
+
+        NativeRegistry.register("java/lang/Float", "floatToRawIntBits", "(F)I", (frame, jvmMethod, localVariables) -> frame.getOperandStacks()
+                .pushIntValue(Float.floatToRawIntBits(localVariables.getFloatValue(0))));
+        NativeRegistry.register("java/lang/Double", "doubleToRawLongBits", "(D)J", doubleToLong(Double::doubleToRawLongBits));
+        NativeRegistry.register("java/lang/Double", "longBitsToDouble", "(J)D", longToDouble(Double::longBitsToDouble));
+    }
+
+    /**
+     * abs, min and max of int, long, float and double
+     */
+    private static void registerAbsMinMax(String className) {
+        NativeRegistry.register(className, "abs", "(I)I", intUnary(Math::abs));
+        NativeRegistry.register(className, "abs", "(J)J", longUnary(Math::abs));
+        NativeRegistry.register(className, "abs", "(F)F", (frame, jvmMethod, localVariables) -> frame.getOperandStacks()
+                .pushFloatValue(Math.abs(localVariables.getFloatValue(0))));
+        doubleUnary(className, "abs", Math::abs);
+
+        NativeRegistry.register(className, "min", "(II)I", intBinary(Math::min));
+        NativeRegistry.register(className, "min", "(JJ)J", longBinary(Math::min));
+        NativeRegistry.register(className, "min", "(FF)F", (frame, jvmMethod, localVariables) -> frame.getOperandStacks()
+                .pushFloatValue(Math.min(localVariables.getFloatValue(0), localVariables.getFloatValue(1))));
+        doubleBinary(className, "min", Math::min);
+
+        NativeRegistry.register(className, "max", "(II)I", intBinary(Math::max));
+        NativeRegistry.register(className, "max", "(JJ)J", longBinary(Math::max));
+        NativeRegistry.register(className, "max", "(FF)F", (frame, jvmMethod, localVariables) -> frame.getOperandStacks()
+                .pushFloatValue(Math.max(localVariables.getFloatValue(0), localVariables.getFloatValue(1))));
+        doubleBinary(className, "max", Math::max);
+    }
+
+    private static void doubleUnary(String className, String name, DoubleUnaryOperator operator) {
+        NativeRegistry.register(className, name, "(D)D", (frame, jvmMethod, localVariables) -> frame.getOperandStacks()
+                .pushDoubleValue(operator.applyAsDouble(localVariables.getDoubleValue(0))));
+    }
+
+    /**
+     * a double takes 2 slots in local variables
+     */
+    private static void doubleBinary(String className, String name, DoubleBinaryOperator operator) {
+        NativeRegistry.register(className, name, "(DD)D", (frame, jvmMethod, localVariables) -> frame.getOperandStacks()
+                .pushDoubleValue(operator.applyAsDouble(localVariables.getDoubleValue(0), localVariables.getDoubleValue(2))));
+    }
+
+    private static NativeMethod intUnary(IntUnaryOperator operator) {
+        return (frame, jvmMethod, localVariables) -> frame.getOperandStacks()
+                .pushIntValue(operator.applyAsInt(localVariables.getIntValue(0)));
+    }
+
+    private static NativeMethod intBinary(IntBinaryOperator operator) {
+        return (frame, jvmMethod, localVariables) -> frame.getOperandStacks()
+                .pushIntValue(operator.applyAsInt(localVariables.getIntValue(0), localVariables.getIntValue(1)));
+    }
+
+    private static NativeMethod longUnary(LongUnaryOperator operator) {
+        return (frame, jvmMethod, localVariables) -> frame.getOperandStacks()
+                .pushLongValue(operator.applyAsLong(localVariables.getLongValue(0)));
+    }
+
+    private static NativeMethod longBinary(LongBinaryOperator operator) {
+        return (frame, jvmMethod, localVariables) -> frame.getOperandStacks()
+                .pushLongValue(operator.applyAsLong(localVariables.getLongValue(0), localVariables.getLongValue(2)));
+    }
+
+    private static NativeMethod longToInt(LongToIntFunction function) {
+        return (frame, jvmMethod, localVariables) -> frame.getOperandStacks()
+                .pushIntValue(function.applyAsInt(localVariables.getLongValue(0)));
+    }
+
+    private static NativeMethod doubleToLong(DoubleToLongFunction function) {
+        return (frame, jvmMethod, localVariables) -> frame.getOperandStacks()
+                .pushLongValue(function.applyAsLong(localVariables.getDoubleValue(0)));
+    }
+
+    private static NativeMethod longToDouble(LongToDoubleFunction function) {
+        return (frame, jvmMethod, localVariables) -> frame.getOperandStacks()
+                .pushDoubleValue(function.applyAsDouble(localVariables.getLongValue(0)));
+    }
+
+}
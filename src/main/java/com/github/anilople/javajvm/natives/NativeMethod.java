@@ -0,0 +1,23 @@
+package com.github.anilople.javajvm.natives;
+
+import com.github.anilople.javajvm.heap.JvmMethod;
+import com.github.anilople.javajvm.runtimedataarea.Frame;
+import com.github.anilople.javajvm.runtimedataarea.LocalVariables;
+import com.github.anilople.javajvm.utils.HackUtils;
+
+/**
+ * implementation in host of a native method, or a method hacked.
+ * it is bound to the method once, then invoked directly
+ */
+@FunctionalInterface
+public interface NativeMethod {
+
+    /**
+     * @param frame frame invokes the method, result is pushed to its operand stack
+     * @param jvmMethod the method bound
+     * @param localVariables args pop from operand stack
+     * @throws HackUtils.GuestException if an exception should be thrown in guest
+     */
+    void invoke(Frame frame, JvmMethod jvmMethod, LocalVariables localVariables);
+
+}
@@ -0,0 +1,99 @@
+package com.github.anilople.javajvm.natives;
+
+import com.github.anilople.javajvm.heap.JvmMethod;
+import com.github.anilople.javajvm.utils.HackUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * handlers of native methods and methods hacked,
+ * keyed by class name, method name and descriptor.
+ * <p>
+ * a method is bound once, when it is invoked first time,
+ * the binding is kept in {@link JvmMethod}, so the invocation later
+ * does not look up anything.
+ */
+public class NativeRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(NativeRegistry.class);
+
+    /**
+     * i.e "java/lang/System.nanoTime()J"
+     */
+    private static final Map<String, NativeMethod> METHODS = new ConcurrentHashMap<>();
+
+    /**
+     * handlers for all the methods in class
+     */
+    private static final Map<String, NativeMethod> CLASSES = new ConcurrentHashMap<>();
+
+    static {
+        register("java/lang/System", "arraycopy", "(Ljava/lang/Object;ILjava/lang/Object;II)V", HackUtils::hackSystemArrayCopy);
+        register("java/lang/System", "identityHashCode", "(Ljava/lang/Object;)I", HackUtils::hackIdentityHashCode);
+        register("java/lang/System", "nanoTime", "()J",
+                (frame, jvmMethod, localVariables) -> frame.getOperandStacks().pushLongValue(System.nanoTime()));
+        register("java/lang/System", "currentTimeMillis", "()J",
+                (frame, jvmMethod, localVariables) -> frame.getOperandStacks().pushLongValue(System.currentTimeMillis()));
+        register("java/lang/Object", "hashCode", "()I", HackUtils::hackObjectHashCode);
+        register("java/lang/Object", "getClass", "()Ljava/lang/Class;", HackUtils::hackObjectGetClass);
+        register("java/lang/Object", "clone", "()Ljava/lang/Object;", HackUtils::hackObjectClone);
+        register("java/lang/Class", "getComponentType", "()Ljava/lang/Class;", HackUtils::hackClassGetComponentType);
+
+        StringIntrinsics.register();
+        MathIntrinsics.register();
+        FileOutputStreamNatives.register();
+        ThrowableNatives.register();
+        ThreadNatives.register();
+    }
+
+    /**
+     * @param className internal form, i.e java/lang/System
+     */
+    public static void register(String className, String name, String descriptor, NativeMethod nativeMethod) {
+        METHODS.put(key(className, name, descriptor), nativeMethod);
+    }
+
+    /**
+     * all the methods in class given are hacked by the same handler
+     * @param className internal form, i.e java/io/PrintStream
+     */
+    public static void registerClass(String className, NativeMethod nativeMethod) {
+        CLASSES.put(className, nativeMethod);
+    }
+
+    /**
+     * find the handler of method.
+     * registered handler first, then intrinsic in java.util.Arrays,
+     * then the host method for native method
+     * @param jvmMethod method in runtime
+     * @return null if the method should be interpreted
+     */
+    public static NativeMethod bind(JvmMethod jvmMethod) {
+        final String className = jvmMethod.getJvmClass().getName();
+        NativeMethod nativeMethod = METHODS.get(key(className, jvmMethod.getName(), jvmMethod.getDescriptor()));
+        if(null == nativeMethod) {
+            nativeMethod = CLASSES.get(className);
+        }
+        if(null == nativeMethod) {
+            nativeMethod = HackUtils.bindArraysIntrinsic(jvmMethod);
+        }
+        if(null == nativeMethod && jvmMethod.isNative()) {
+            // default action: hack all native method
+            logger.debug("bind host method for class {} 's native method: {} {}",
+                    className,
+                    jvmMethod.getName(),
+                    jvmMethod.getDescriptor()
+            );
+            nativeMethod = HackUtils.bindHostMethod(jvmMethod);
+        }
+        return nativeMethod;
+    }
+
+    private static String key(String className, String name, String descriptor) {
+        return className + "." + name + descriptor;
+    }
+
+}
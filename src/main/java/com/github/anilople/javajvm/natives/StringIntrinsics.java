@@ -0,0 +1,408 @@
+package com.github.anilople.javajvm.natives;
+
+import com.github.anilople.javajvm.heap.JvmClass;
+import com.github.anilople.javajvm.heap.JvmClassLoader;
+import com.github.anilople.javajvm.heap.JvmMethod;
+import com.github.anilople.javajvm.runtimedataarea.Frame;
+import com.github.anilople.javajvm.runtimedataarea.LocalVariables;
+import com.github.anilople.javajvm.runtimedataarea.Reference;
+import com.github.anilople.javajvm.runtimedataarea.reference.CharArrayReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.ObjectReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.StringReference;
+import com.github.anilople.javajvm.utils.HackUtils;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * intrinsics of java.lang.String and java.lang.AbstractStringBuilder,
+ * they run on the char[] in guest object directly,
+ * or the host String of {@link StringReference}, without making its char[].
+ * <p>
+ * the layout of jdk8 is assumed, same as
+ * {@link com.github.anilople.javajvm.utils.ReferenceUtils#getStringObjectReference(JvmClass, String)},
+ * String: "value" is the only reference field, "hash" the only primitive field.
+ * AbstractStringBuilder: "value" is the only reference field, "count" the only primitive field.
+ */
+class StringIntrinsics {
+
+    static final String STRING = "java/lang/String";
+
+    static final String ABSTRACT_STRING_BUILDER = "java/lang/AbstractStringBuilder";
+
+    static final String STRING_BUILDER = "java/lang/StringBuilder";
+
+    /**
+     * offset of "value" in String and AbstractStringBuilder
+     */
+    static final int VALUE = 0;
+
+    /**
+     * offset of "hash" in String
+     */
+    static final int HASH = 0;
+
+    /**
+     * offset of "count" in AbstractStringBuilder
+     */
+    static final int COUNT = 0;
+
+    private static final char[] NULL_CHARS = "null".toCharArray();
+
+    static void register() {
+        NativeRegistry.register(STRING, "length", "()I", StringIntrinsics::length);
+        NativeRegistry.register(STRING, "charAt", "(I)C", StringIntrinsics::charAt);
+        NativeRegistry.register(STRING, "equals", "(Ljava/lang/Object;)Z", StringIntrinsics::equals);
+        NativeRegistry.register(STRING, "hashCode", "()I", StringIntrinsics::hashCode);
+        NativeRegistry.register(STRING, "indexOf", "(I)I", StringIntrinsics::indexOfChar);
+        NativeRegistry.register(STRING, "indexOf", "(II)I", StringIntrinsics::indexOfChar);
+        NativeRegistry.register(STRING, "indexOf", "(Ljava/lang/String;)I", StringIntrinsics::indexOfString);
+        NativeRegistry.register(STRING, "indexOf", "(Ljava/lang/String;I)I", StringIntrinsics::indexOfString);
+        NativeRegistry.register(STRING, "compareTo", "(Ljava/lang/String;)I", StringIntrinsics::compareTo);
+        NativeRegistry.register(STRING, "<init>", "([CII)V", StringIntrinsics::newString);
+        NativeRegistry.register(STRING, "intern", "()Ljava/lang/String;", StringIntrinsics::intern);
+
+        // StringBuffer is not here, its methods are synchronized
+        for(String builder : Arrays.asList(ABSTRACT_STRING_BUILDER, STRING_BUILDER)) {
+            final String returnDescriptor = "L" + builder + ";";
+            NativeRegistry.register(builder, "append", "(C)" + returnDescriptor, StringIntrinsics::appendChar);
+            NativeRegistry.register(builder, "append", "(I)" + returnDescriptor, StringIntrinsics::appendInt);
+            NativeRegistry.register(builder, "append", "(Ljava/lang/String;)" + returnDescriptor, StringIntrinsics::appendString);
+        }
+        NativeRegistry.register(STRING_BUILDER, "toString", "()Ljava/lang/String;", StringIntrinsics::builderToString);
+    }
+
+    /**
+     * @return chars of String or AbstractStringBuilder
+     */
+    static char[] value(ObjectReference objectReference) {
+        return ((CharArrayReference) objectReference.getReference(VALUE)).getArray();
+    }
+
+    /**
+     * @return chars of String, not copied
+     */
+    static CharSequence chars(ObjectReference string) {
+        if(string instanceof StringReference) {
+            return ((StringReference) string).getString();
+        }
+        return CharBuffer.wrap(value(string));
+    }
+
+    /**
+     * @return same content in host
+     */
+    static String toHost(ObjectReference string) {
+        if(string instanceof StringReference) {
+            return ((StringReference) string).getString();
+        }
+        return new String(value(string));
+    }
+
+    /**
+     * @throws HackUtils.GuestException NullPointerException if null
+     */
+    private static Reference nonNull(Reference reference) {
+        if(Reference.isNull(reference)) {
+            throw new HackUtils.GuestException(new NullPointerException());
+        }
+        return reference;
+    }
+
+    /**
+     * @see String#length()
+     */
+    static void length(Frame frame, JvmMethod jvmMethod, LocalVariables localVariables) {
+        ObjectReference self = (ObjectReference) localVariables.getReference(0);
+        frame.getOperandStacks().pushIntValue(chars(self).length());
+    }
+
+    /**
+     * @see String#charAt(int)
+     */
+    static void charAt(Frame frame, JvmMethod jvmMethod, LocalVariables localVariables) {
+        ObjectReference self = (ObjectReference) localVariables.getReference(0);
+        int index = localVariables.getIntValue(1);
+        CharSequence chars = chars(self);
+        if(index < 0 || index >= chars.length()) {
+            throw new HackUtils.GuestException(new StringIndexOutOfBoundsException(index));
+        }
+        frame.getOperandStacks().pushCharValue(chars.charAt(index));
+    }
+
+    /**
+     * @see String#equals(Object)
+     */
+    static void equals(Frame frame, JvmMethod jvmMethod, LocalVariables localVariables) {
+        ObjectReference self = (ObjectReference) localVariables.getReference(0);
+        Reference other = localVariables.getReference(1);
+        final boolean equal;
+        if(self == other) {
+            equal = true;
+        } else if(other instanceof ObjectReference && isString(((ObjectReference) other).getJvmClass(), self.getJvmClass())) {
+            equal = contentEquals(chars(self), chars((ObjectReference) other));
+        } else {
+            equal = false;
+        }
+        frame.getOperandStacks().pushBooleanValue(equal);
+    }
+
+    private static boolean contentEquals(CharSequence chars, CharSequence other) {
+        if(chars instanceof String && other instanceof String) {
+            return chars.equals(other);
+        }
+        final int length = chars.length();
+        if(length != other.length()) {
+            return false;
+        }
+        for(int i = 0; i < length; i++) {
+            if(chars.charAt(i) != other.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * String is final, so no subclass
+     */
+    private static boolean isString(JvmClass jvmClass, JvmClass stringClass) {
+        return jvmClass == stringClass || jvmClass.getName().equals(STRING);
+    }
+
+    /**
+     * the hash is cached in "hash" of String, same as jdk
+     * @see String#hashCode()
+     */
+    static void hashCode(Frame frame, JvmMethod jvmMethod, LocalVariables localVariables) {
+        ObjectReference self = (ObjectReference) localVariables.getReference(0);
+        int hash = self.getIntValue(HASH);
+        if(0 == hash) {
+            if(self instanceof StringReference) {
+                hash = ((StringReference) self).getString().hashCode();
+            } else {
+                for(char c : value(self)) {
+                    hash = 31 * hash + c;
+                }
+            }
+            self.setIntValue(HASH, hash);
+        }
+        frame.getOperandStacks().pushIntValue(hash);
+    }
+
+    /**
+     * the pool is shared by all the class loaders of vm, like string literals
+     * @see String#intern()
+     */
+    static void intern(Frame frame, JvmMethod jvmMethod, LocalVariables localVariables) {
+        ObjectReference self = (ObjectReference) localVariables.getReference(0);
+        ObjectReference interned = jvmMethod.getJvmClass().getLoader().getStringPool().intern(toHost(self), string -> self);
+        frame.getOperandStacks().pushReference(interned);
+    }
+
+    /**
+     * indexOf(int) and indexOf(int, int)
+     * @see String#indexOf(int, int)
+     */
+    static void indexOfChar(Frame frame, JvmMethod jvmMethod, LocalVariables localVariables) {
+        ObjectReference self = (ObjectReference) localVariables.getReference(0);
+        int ch = localVariables.getIntValue(1);
+        int fromIndex = "(II)I".equals(jvmMethod.getDescriptor()) ? localVariables.getIntValue(2) : 0;
+        final int index = self instanceof StringReference ?
+                ((StringReference) self).getString().indexOf(ch, fromIndex)
+                : indexOf(value(self), ch, fromIndex);
+        frame.getOperandStacks().pushIntValue(index);
+    }
+
+    static int indexOf(char[] value, int ch, int fromIndex) {
+        final int max = value.length;
+        if(fromIndex < 0) {
+            fromIndex = 0;
+        } else if(fromIndex >= max) {
+            return -1;
+        }
+        if(ch < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+            for(int i = fromIndex; i < max; i++) {
+                if(value[i] == ch) {
+                    return i;
+                }
+            }
+        } else if(Character.isValidCodePoint(ch)) {
+            // a surrogate pair
+            final char high = Character.highSurrogate(ch);
+            final char low = Character.lowSurrogate(ch);
+            for(int i = fromIndex; i < max - 1; i++) {
+                if(value[i] == high && value[i + 1] == low) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * indexOf(String) and indexOf(String, int)
+     * @see String#indexOf(String, int)
+     */
+    static void indexOfString(Frame frame, JvmMethod jvmMethod, LocalVariables localVariables) {
+        ObjectReference self = (ObjectReference) localVariables.getReference(0);
+        ObjectReference target = (ObjectReference) nonNull(localVariables.getReference(1));
+        int fromIndex = "(Ljava/lang/String;I)I".equals(jvmMethod.getDescriptor()) ? localVariables.getIntValue(2) : 0;
+        final CharSequence source = chars(self);
+        final CharSequence chars = chars(target);
+        final int index = source instanceof String && chars instanceof String ?
+                ((String) source).indexOf((String) chars, fromIndex)
+                : indexOf(source, chars, fromIndex);
+        frame.getOperandStacks().pushIntValue(index);
+    }
+
+    static int indexOf(CharSequence source, CharSequence target, int fromIndex) {
+        final int sourceLength = source.length();
+        final int targetLength = target.length();
+        if(fromIndex >= sourceLength) {
+            return targetLength == 0 ? sourceLength : -1;
+        }
+        if(fromIndex < 0) {
+            fromIndex = 0;
+        }
+        if(targetLength == 0) {
+            return fromIndex;
+        }
+        final int max = sourceLength - targetLength;
+        for(int i = fromIndex; i <= max; i++) {
+            int j = 0;
+            while (j < targetLength && source.charAt(i + j) == target.charAt(j)) {
+                j++;
+            }
+            if(j == targetLength) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @see String#compareTo(String)
+     */
+    static void compareTo(Frame frame, JvmMethod jvmMethod, LocalVariables localVariables) {
+        CharSequence chars = chars((ObjectReference) localVariables.getReference(0));
+        CharSequence other = chars((ObjectReference) nonNull(localVariables.getReference(1)));
+        if(chars instanceof String && other instanceof String) {
+            frame.getOperandStacks().pushIntValue(((String) chars).compareTo((String) other));
+            return;
+        }
+        final int limit = Math.min(chars.length(), other.length());
+        int result = chars.length() - other.length();
+        for(int i = 0; i < limit; i++) {
+            if(chars.charAt(i) != other.charAt(i)) {
+                result = chars.charAt(i) - other.charAt(i);
+                break;
+            }
+        }
+        frame.getOperandStacks().pushIntValue(result);
+    }
+
+    /**
+     * copy the range of chars given
+     * @see String#String(char[], int, int)
+     */
+    static void newString(Frame frame, JvmMethod jvmMethod, LocalVariables localVariables) {
+        ObjectReference self = (ObjectReference) localVariables.getReference(0);
+        char[] value = ((CharArrayReference) nonNull(localVariables.getReference(1))).getArray();
+        int offset = localVariables.getIntValue(2);
+        int count = localVariables.getIntValue(3);
+        if(offset < 0) {
+            throw new HackUtils.GuestException(new StringIndexOutOfBoundsException(offset));
+        }
+        if(count < 0) {
+            throw new HackUtils.GuestException(new StringIndexOutOfBoundsException(count));
+        }
+        if(offset > value.length - count) {
+            throw new HackUtils.GuestException(new StringIndexOutOfBoundsException(offset + count));
+        }
+        final JvmClassLoader jvmClassLoader = jvmMethod.getJvmClass().getLoader();
+        self.setReference(VALUE, new CharArrayReference(jvmClassLoader, Arrays.copyOfRange(value, offset, offset + count)));
+    }
+
+    /**
+     * @see StringBuilder#append(char)
+     */
+    static void appendChar(Frame frame, JvmMethod jvmMethod, LocalVariables localVariables) {
+        ObjectReference self = (ObjectReference) localVariables.getReference(0);
+        char c = localVariables.getCharValue(1);
+        int count = self.getIntValue(COUNT);
+        char[] value = ensureCapacity(jvmMethod, self, count + 1);
+        value[count] = c;
+        self.setIntValue(COUNT, count + 1);
+        frame.getOperandStacks().pushReference(self);
+    }
+
+    /**
+     * @see StringBuilder#append(int)
+     */
+    static void appendInt(Frame frame, JvmMethod jvmMethod, LocalVariables localVariables) {
+        ObjectReference self = (ObjectReference) localVariables.getReference(0);
+        append(jvmMethod, self, Integer.toString(localVariables.getIntValue(1)).toCharArray());
+        frame.getOperandStacks().pushReference(self);
+    }
+
+    /**
+     * @see StringBuilder#append(String)
+     */
+    static void appendString(Frame frame, JvmMethod jvmMethod, LocalVariables localVariables) {
+        ObjectReference self = (ObjectReference) localVariables.getReference(0);
+        Reference string = localVariables.getReference(1);
+        if(string instanceof StringReference) {
+            final String host = ((StringReference) string).getString();
+            int count = self.getIntValue(COUNT);
+            char[] value = ensureCapacity(jvmMethod, self, count + host.length());
+            host.getChars(0, host.length(), value, count);
+            self.setIntValue(COUNT, count + host.length());
+        } else {
+            append(jvmMethod, self, Reference.isNull(string) ? NULL_CHARS : value((ObjectReference) string));
+        }
+        frame.getOperandStacks().pushReference(self);
+    }
+
+    private static void append(JvmMethod jvmMethod, ObjectReference self, char[] chars) {
+        int count = self.getIntValue(COUNT);
+        char[] value = ensureCapacity(jvmMethod, self, count + chars.length);
+        System.arraycopy(chars, 0, value, count, chars.length);
+        self.setIntValue(COUNT, count + chars.length);
+    }
+
+    /**
+     * grow like jdk, (length * 2) + 2 at least
+     * @return the chars can hold the capacity given
+     * @see StringBuilder#ensureCapacity(int)
+     */
+    private static char[] ensureCapacity(JvmMethod jvmMethod, ObjectReference self, int minimumCapacity) {
+        char[] value = value(self);
+        if(minimumCapacity <= value.length) {
+            return value;
+        }
+        if(minimumCapacity < 0) {
+            // overflow
+            throw new HackUtils.GuestException(new OutOfMemoryError());
+        }
+        int newCapacity = (value.length << 1) + 2;
+        if(newCapacity < minimumCapacity || newCapacity < 0) {
+            newCapacity = minimumCapacity;
+        }
+        char[] newValue = Arrays.copyOf(value, newCapacity);
+        self.setReference(VALUE, new CharArrayReference(jvmMethod.getJvmClass().getLoader(), newValue));
+        return newValue;
+    }
+
+    /**
+     * a new String backed by host, chars are copied
+     * @see StringBuilder#toString()
+     */
+    static void builderToString(Frame frame, JvmMethod jvmMethod, LocalVariables localVariables) {
+        ObjectReference self = (ObjectReference) localVariables.getReference(0);
+        final JvmClassLoader jvmClassLoader = jvmMethod.getJvmClass().getLoader();
+        final String string = new String(value(self), 0, self.getIntValue(COUNT));
+        frame.getOperandStacks().pushReference(new StringReference(jvmClassLoader.loadClass(String.class), string));
+    }
+
+}
@@ -0,0 +1,371 @@
+package com.github.anilople.javajvm.natives;
+
+import com.github.anilople.javajvm.JavaJvmApplication;
+import com.github.anilople.javajvm.heap.JvmClass;
+import com.github.anilople.javajvm.heap.JvmClassLoader;
+import com.github.anilople.javajvm.heap.JvmMethod;
+import com.github.anilople.javajvm.runtimedataarea.Frame;
+import com.github.anilople.javajvm.runtimedataarea.JvmThread;
+import com.github.anilople.javajvm.runtimedataarea.LocalVariables;
+import com.github.anilople.javajvm.runtimedataarea.Reference;
+import com.github.anilople.javajvm.runtimedataarea.ThreadTable;
+import com.github.anilople.javajvm.runtimedataarea.reference.HeapReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.ObjectReference;
+import com.github.anilople.javajvm.utils.HackUtils;
+import com.github.anilople.javajvm.utils.ReferenceUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * natives of java.lang.Thread, and Object.wait/notify.
+ * <p>
+ * a guest thread started runs on its own host thread,
+ * it interprets run() of the java.lang.Thread, then exit(), as hotspot does.
+ * like "eetop" of hotspot, "eetop" of java.lang.Thread is the id of {@link JvmThread} bound to it,
+ * 0 if it is not started or terminated.
+ * <p>
+ * the java.lang.Thread of the main thread is made on demand, field by field,
+ * its constructor is not run.
+ */
+public class ThreadNatives {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThreadNatives.class);
+
+    private static final String THREAD = "java/lang/Thread";
+
+    private static final String OBJECT = "java/lang/Object";
+
+    private static final String ACCESS_CONTROLLER = "java/security/AccessController";
+
+    /**
+     * JVMTI_THREAD_STATE_ALIVE | JVMTI_THREAD_STATE_RUNNABLE
+     * @see sun.misc.VM#toThreadState(int)
+     */
+    private static final int RUNNABLE = 0x0001 | 0x0004;
+
+    /**
+     * JVMTI_THREAD_STATE_TERMINATED
+     */
+    private static final int TERMINATED = 0x0002;
+
+    static void register() {
+        NativeRegistry.register(THREAD, "currentThread", "()Ljava/lang/Thread;", (frame, jvmMethod, localVariables) ->
+                frame.getOperandStacks().pushReference(currentThread(frame.getJvmThread(), jvmMethod.getJvmClass().getLoader())));
+        NativeRegistry.register(THREAD, "yield", "()V", (frame, jvmMethod, localVariables) -> Thread.yield());
+        NativeRegistry.register(THREAD, "sleep", "(J)V", ThreadNatives::sleep);
+        NativeRegistry.register(THREAD, "start0", "()V", ThreadNatives::start0);
+        NativeRegistry.register(THREAD, "isAlive", "()Z", (frame, jvmMethod, localVariables) ->
+                frame.getOperandStacks().pushBooleanValue(null != jvmThreadOf((ObjectReference) localVariables.getReference(0))));
+        NativeRegistry.register(THREAD, "isInterrupted", "(Z)Z", ThreadNatives::isInterrupted);
+        NativeRegistry.register(THREAD, "interrupt0", "()V", (frame, jvmMethod, localVariables) -> {
+            final Thread hostThread = hostThreadOf((ObjectReference) localVariables.getReference(0));
+            if(null != hostThread) {
+                hostThread.interrupt();
+            }
+        });
+        NativeRegistry.register(THREAD, "holdsLock", "(Ljava/lang/Object;)Z", (frame, jvmMethod, localVariables) -> {
+            final Reference reference = localVariables.getReference(0);
+            if(Reference.isNull(reference)) {
+                throw new HackUtils.GuestException(new NullPointerException());
+            }
+            frame.getOperandStacks().pushBooleanValue(((HeapReference) reference).isLockedBy(frame.getJvmThread().getId()));
+        });
+        NativeRegistry.register(THREAD, "setPriority0", "(I)V", (frame, jvmMethod, localVariables) -> {
+            final Thread hostThread = hostThreadOf((ObjectReference) localVariables.getReference(0));
+            if(null != hostThread) {
+                hostThread.setPriority(localVariables.getIntValue(1));
+            }
+        });
+        NativeRegistry.register(THREAD, "setNativeName", "(Ljava/lang/String;)V", (frame, jvmMethod, localVariables) -> {
+            final Thread hostThread = hostThreadOf((ObjectReference) localVariables.getReference(0));
+            if(null != hostThread) {
+                hostThread.setName((String) HostBridge.unbox((ObjectReference) localVariables.getReference(1)));
+            }
+        });
+
+        NativeRegistry.register(OBJECT, "wait", "(J)V", ThreadNatives::await);
+        NativeRegistry.register(OBJECT, "notify", "()V", (frame, jvmMethod, localVariables) ->
+                signal(frame, localVariables, false));
+        NativeRegistry.register(OBJECT, "notifyAll", "()V", (frame, jvmMethod, localVariables) ->
+                signal(frame, localVariables, true));
+
+        // no privileged frames, and all the classes are in the null protection domain,
+        // as hotspot returns for the code of bootstrap class loader
+        NativeRegistry.register(ACCESS_CONTROLLER, "getStackAccessControlContext", "()Ljava/security/AccessControlContext;",
+                (frame, jvmMethod, localVariables) -> frame.getOperandStacks().pushReference(Reference.NULL));
+        NativeRegistry.register(ACCESS_CONTROLLER, "getInheritedAccessControlContext", "()Ljava/security/AccessControlContext;",
+                (frame, jvmMethod, localVariables) -> frame.getOperandStacks().pushReference(Reference.NULL));
+    }
+
+    /**
+     * @see Thread#currentThread()
+     */
+    private static ObjectReference currentThread(JvmThread jvmThread, JvmClassLoader jvmClassLoader) {
+        ObjectReference thread = jvmThread.getThreadObject();
+        if(null == thread) {
+            thread = makeMainThread(jvmThread, jvmClassLoader);
+        }
+        return thread;
+    }
+
+    /**
+     * @see Thread#sleep(long)
+     */
+    private static void sleep(Frame frame, JvmMethod jvmMethod, LocalVariables localVariables) {
+        final long millis = localVariables.getLongValue(0);
+        if(millis < 0) {
+            throw new HackUtils.GuestException(new IllegalArgumentException("timeout value is negative"));
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new HackUtils.GuestException(new InterruptedException("sleep interrupted"));
+        }
+    }
+
+    /**
+     * bind a new {@link JvmThread} to the java.lang.Thread, and run it in a new host thread
+     * @see Thread start0()
+     */
+    private static void start0(Frame frame, JvmMethod jvmMethod, LocalVariables localVariables) {
+        final ObjectReference thread = (ObjectReference) localVariables.getReference(0);
+        final JvmThread jvmThread = new JvmThread();
+        final JvmMethod run = thread.getJvmClass().getMethod("run", "()V");
+        final LocalVariables runLocalVariables = new LocalVariables(1);
+        runLocalVariables.setReference(0, thread);
+        jvmThread.pushFrame(new Frame(jvmThread, run, runLocalVariables));
+
+        final Thread hostThread = new Thread(() -> run(jvmThread), getName(thread));
+        hostThread.setDaemon(getBooleanField(thread, "daemon"));
+        jvmThread.setHostThread(hostThread);
+        bind(jvmThread, thread);
+        logger.debug("start thread {} in {}", jvmThread.getId(), hostThread);
+        hostThread.start();
+    }
+
+    /**
+     * the body of a host thread
+     */
+    private static void run(JvmThread jvmThread) {
+        try {
+            JavaJvmApplication.loop(jvmThread);
+        } catch (Throwable throwable) {
+            // an uncaught exception of guest is printed already
+            logger.debug("thread {} completes abruptly", jvmThread.getId(), throwable);
+        } finally {
+            exit(jvmThread);
+        }
+    }
+
+    /**
+     * run Thread.exit(), so it is removed from its thread group,
+     * then the threads joining it are notified.
+     * @see Thread exit()
+     */
+    private static void exit(JvmThread jvmThread) {
+        final ObjectReference thread = jvmThread.getThreadObject();
+        final JvmClass threadClass = thread.getJvmClass().getLoader().loadClass(Thread.class);
+        final LocalVariables exitLocalVariables = new LocalVariables(1);
+        exitLocalVariables.setReference(0, thread);
+        jvmThread.clearStack();
+        jvmThread.pushFrame(new Frame(jvmThread, threadClass.getMethod("exit", "()V"), exitLocalVariables));
+        try {
+            JavaJvmApplication.loop(jvmThread);
+        } catch (Throwable throwable) {
+            logger.debug("exit of thread {} completes abruptly", jvmThread.getId(), throwable);
+        }
+
+        terminate(jvmThread);
+    }
+
+    /**
+     * the thread terminates, the threads joining it are notified
+     */
+    private static void terminate(JvmThread jvmThread) {
+        final ObjectReference thread = jvmThread.getThreadObject();
+        final int id = jvmThread.getId();
+        thread.monitorEnter(id);
+        try {
+            setIntField(thread, "threadStatus", TERMINATED);
+            setLongField(thread, "eetop", 0);
+            threadTable(thread).remove(jvmThread);
+            thread.monitorNotify(id, true);
+        } finally {
+            thread.monitorExit(id);
+        }
+    }
+
+    /**
+     * the thread not started by guest completes, i.e the one runs main method,
+     * so vm does not keep it any more
+     * @param jvmThread nothing to do if it is not bound to a java.lang.Thread
+     */
+    public static void unbind(JvmThread jvmThread) {
+        if(null != jvmThread.getThreadObject() && 0 != getLongField(jvmThread.getThreadObject(), "eetop")) {
+            terminate(jvmThread);
+        }
+    }
+
+    /**
+     * @see Thread isInterrupted(boolean)
+     */
+    private static void isInterrupted(Frame frame, JvmMethod jvmMethod, LocalVariables localVariables) {
+        final Thread hostThread = hostThreadOf((ObjectReference) localVariables.getReference(0));
+        final boolean clearInterrupted = localVariables.getBooleanValue(1);
+        final boolean interrupted;
+        if(null == hostThread) {
+            interrupted = false;
+        } else if(clearInterrupted && Thread.currentThread() == hostThread) {
+            interrupted = Thread.interrupted();
+        } else {
+            interrupted = hostThread.isInterrupted();
+        }
+        frame.getOperandStacks().pushBooleanValue(interrupted);
+    }
+
+    /**
+     * @see Object#wait(long)
+     */
+    private static void await(Frame frame, JvmMethod jvmMethod, LocalVariables localVariables) {
+        final HeapReference object = (HeapReference) localVariables.getReference(0);
+        final long millis = localVariables.getLongValue(1);
+        if(millis < 0) {
+            throw new HackUtils.GuestException(new IllegalArgumentException("timeout value is negative"));
+        }
+        try {
+            object.monitorWait(frame.getJvmThread().getId(), millis);
+        } catch (IllegalMonitorStateException | InterruptedException e) {
+            throw new HackUtils.GuestException(e);
+        }
+    }
+
+    /**
+     * @see Object#notify()
+     * @see Object#notifyAll()
+     */
+    private static void signal(Frame frame, LocalVariables localVariables, boolean all) {
+        final HeapReference object = (HeapReference) localVariables.getReference(0);
+        try {
+            object.monitorNotify(frame.getJvmThread().getId(), all);
+        } catch (IllegalMonitorStateException e) {
+            throw new HackUtils.GuestException(e);
+        }
+    }
+
+    /**
+     * the thread not started by guest, i.e the one runs main method.
+     * it is in thread group "main", whose parent is "system"
+     */
+    private static ObjectReference makeMainThread(JvmThread jvmThread, JvmClassLoader jvmClassLoader) {
+        final ObjectReference thread = ObjectReference.makeObjectReference(jvmClassLoader.loadClass(Thread.class));
+        thread.setReference("name", ReferenceUtils.getStringObjectReference(jvmClassLoader.loadClass(String.class), "main"));
+        thread.setReference("group", jvmClassLoader.getThreadTable().getMainThreadGroup(() -> makeMainThreadGroup(jvmClassLoader)));
+        thread.setReference("blockerLock", ObjectReference.makeObjectReference(jvmClassLoader.loadClass(Object.class)));
+        setIntField(thread, "priority", Thread.NORM_PRIORITY);
+        jvmThread.setHostThread(Thread.currentThread());
+        bind(jvmThread, thread);
+        return thread;
+    }
+
+    private static ObjectReference makeMainThreadGroup(JvmClassLoader jvmClassLoader) {
+        final JvmClass threadGroupClass = jvmClassLoader.loadClass(ThreadGroup.class);
+        final JvmClass stringClass = jvmClassLoader.loadClass(String.class);
+        final ObjectReference system = ObjectReference.makeObjectReference(threadGroupClass);
+        system.setReference("name", ReferenceUtils.getStringObjectReference(stringClass, "system"));
+        setIntField(system, "maxPriority", Thread.MAX_PRIORITY);
+        final ObjectReference main = ObjectReference.makeObjectReference(threadGroupClass);
+        main.setReference("parent", system);
+        main.setReference("name", ReferenceUtils.getStringObjectReference(stringClass, "main"));
+        setIntField(main, "maxPriority", Thread.MAX_PRIORITY);
+        return main;
+    }
+
+    private static void bind(JvmThread jvmThread, ObjectReference thread) {
+        jvmThread.setThreadObject(thread);
+        setIntField(thread, "threadStatus", RUNNABLE);
+        setLongField(thread, "eetop", jvmThread.getId());
+        threadTable(thread).add(jvmThread);
+    }
+
+    /**
+     * @return null if it is not alive
+     */
+    private static JvmThread jvmThreadOf(ObjectReference thread) {
+        final long eetop = getLongField(thread, "eetop");
+        return 0 == eetop ? null : threadTable(thread).get(eetop);
+    }
+
+    /**
+     * @return null if it is not alive
+     */
+    private static Thread hostThreadOf(ObjectReference thread) {
+        final JvmThread jvmThread = jvmThreadOf(thread);
+        return null == jvmThread ? null : jvmThread.getHostThread();
+    }
+
+    /**
+     * @return name of the java.lang.Thread, "main" if there is not one
+     */
+    public static String getName(JvmThread jvmThread) {
+        final ObjectReference thread = jvmThread.getThreadObject();
+        return null == thread ? "main" : getName(thread);
+    }
+
+    private static String getName(ObjectReference thread) {
+        final Reference name = thread.getReference("name");
+        return Reference.isNull(name) ? null : (String) HostBridge.unbox((ObjectReference) name);
+    }
+
+    private static ThreadTable threadTable(ObjectReference thread) {
+        return thread.getJvmClass().getLoader().getThreadTable();
+    }
+
+    /**
+     * jvms 5.7, the vm exits when all the threads not daemon terminate.
+     * the caller should not be one of them
+     * @param jvmClassLoader a class loader of vm
+     */
+    public static void joinNonDaemonThreads(JvmClassLoader jvmClassLoader) {
+        final ThreadTable threadTable = jvmClassLoader.getThreadTable();
+        while (true) {
+            final List<Thread> hostThreads = new ArrayList<>();
+            for(JvmThread jvmThread : threadTable.getThreads()) {
+                final Thread hostThread = jvmThread.getHostThread();
+                if(null != hostThread && Thread.currentThread() != hostThread && !hostThread.isDaemon() && hostThread.isAlive()) {
+                    hostThreads.add(hostThread);
+                }
+            }
+            if(hostThreads.isEmpty()) {
+                return;
+            }
+            for(Thread hostThread : hostThreads) {
+                try {
+                    hostThread.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private static boolean getBooleanField(ObjectReference objectReference, String name) {
+        return (Boolean) ValueConversions.getField(objectReference, objectReference.getJvmClass().getJvmFieldByNameIncludeAncestors(name));
+    }
+
+    private static long getLongField(ObjectReference objectReference, String name) {
+        return (Long) ValueConversions.getField(objectReference, objectReference.getJvmClass().getJvmFieldByNameIncludeAncestors(name));
+    }
+
+    private static void setIntField(ObjectReference objectReference, String name, int value) {
+        ValueConversions.setField(objectReference, objectReference.getJvmClass().getJvmFieldByNameIncludeAncestors(name), value);
+    }
+
+    private static void setLongField(ObjectReference objectReference, String name, long value) {
+        ValueConversions.setField(objectReference, objectReference.getJvmClass().getJvmFieldByNameIncludeAncestors(name), value);
+    }
+
+}
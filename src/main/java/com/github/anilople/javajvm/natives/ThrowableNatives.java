@@ -0,0 +1,119 @@
+package com.github.anilople.javajvm.natives;
+
+import com.github.anilople.javajvm.heap.JvmClass;
+import com.github.anilople.javajvm.heap.JvmMethod;
+import com.github.anilople.javajvm.runtimedataarea.Backtrace;
+import com.github.anilople.javajvm.runtimedataarea.Frame;
+import com.github.anilople.javajvm.runtimedataarea.LocalVariables;
+import com.github.anilople.javajvm.runtimedataarea.Reference;
+import com.github.anilople.javajvm.runtimedataarea.reference.HostObjectReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.ObjectReference;
+import com.github.anilople.javajvm.utils.HackUtils;
+import com.github.anilople.javajvm.utils.ReferenceUtils;
+
+/**
+ * stack trace of java.lang.Throwable is captured lazily.
+ * <p>
+ * fillInStackTrace only keeps a {@link Backtrace} in "backtrace",
+ * StackTraceElements are made when getStackTrace or printStackTrace asks for them,
+ * by getStackTraceDepth and getStackTraceElement, as hotspot does.
+ * so an exception never printed costs little.
+ */
+public class ThrowableNatives {
+
+    private static final String THROWABLE = "java/lang/Throwable";
+
+    static void register() {
+        NativeRegistry.register(THROWABLE, "fillInStackTrace", "(I)Ljava/lang/Throwable;", ThrowableNatives::fillInStackTrace);
+        NativeRegistry.register(THROWABLE, "getStackTraceDepth", "()I", (frame, jvmMethod, localVariables) -> {
+            final Backtrace backtrace = backtraceOf((ObjectReference) localVariables.getReference(0));
+            frame.getOperandStacks().pushIntValue(null == backtrace ? 0 : backtrace.depth());
+        });
+        NativeRegistry.register(THROWABLE, "getStackTraceElement", "(I)Ljava/lang/StackTraceElement;", ThrowableNatives::getStackTraceElement);
+    }
+
+    /**
+     * @see java.lang.Throwable fillInStackTrace(int)
+     */
+    private static void fillInStackTrace(Frame frame, JvmMethod jvmMethod, LocalVariables localVariables) {
+        final ObjectReference throwable = (ObjectReference) localVariables.getReference(0);
+        final Backtrace backtrace = frame.getJvmThread().backtrace();
+        // like hotspot, the frames of fillInStackTrace and the constructors of this throwable are not in trace
+        final JvmClass throwableClass = throwable.getJvmClass();
+        int skip = 0;
+        while (skip < backtrace.depth() && "fillInStackTrace".equals(backtrace.getMethod(skip).getName())) {
+            skip++;
+        }
+        while (skip < backtrace.depth() && "<init>".equals(backtrace.getMethod(skip).getName())) {
+            final JvmClass declaringClass = backtrace.getMethod(skip).getJvmClass();
+            if(!throwableClass.equals(declaringClass) && !throwableClass.isSubClassOf(declaringClass)) {
+                break;
+            }
+            skip++;
+        }
+        setBacktrace(throwable, backtrace.skip(skip));
+        frame.getOperandStacks().pushReference(throwable);
+    }
+
+    /**
+     * @see java.lang.Throwable getStackTraceElement(int)
+     */
+    private static void getStackTraceElement(Frame frame, JvmMethod jvmMethod, LocalVariables localVariables) {
+        final Backtrace backtrace = backtraceOf((ObjectReference) localVariables.getReference(0));
+        final int index = localVariables.getIntValue(1);
+        if(null == backtrace || index < 0 || index >= backtrace.depth()) {
+            throw new HackUtils.GuestException(new IndexOutOfBoundsException());
+        }
+        final Reference stackTraceElement;
+        try {
+            stackTraceElement = ReferenceUtils.object2Reference(jvmMethod.getJvmClass().getLoader(), backtrace.getStackTraceElement(index));
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+        frame.getOperandStacks().pushReference(stackTraceElement);
+    }
+
+    /**
+     * the stack trace will be made from the backtrace when it is asked.
+     * it is for the exceptions created by jvm too, whose constructors are not run.
+     * @param throwable a java.lang.Throwable
+     */
+    public static void setBacktrace(ObjectReference throwable, Backtrace backtrace) {
+        final JvmClass objectClass = throwable.getJvmClass().getLoader().loadClass(Object.class);
+        throwable.setReference("backtrace", new HostObjectReference(objectClass, backtrace));
+        throwable.setReference("stackTrace", throwable.getReference("UNASSIGNED_STACK"));
+    }
+
+    /**
+     * @return null if there is no backtrace
+     */
+    private static Backtrace backtraceOf(ObjectReference throwable) {
+        final Reference backtrace = throwable.getReference("backtrace");
+        if(backtrace instanceof HostObjectReference && ((HostObjectReference) backtrace).getHostObject() instanceof Backtrace) {
+            return (Backtrace) ((HostObjectReference) backtrace).getHostObject();
+        }
+        return null;
+    }
+
+    /**
+     * stack trace in host, for the jvm printing an uncaught exception
+     * @see java.lang.Throwable getOurStackTrace()
+     * @param throwable a java.lang.Throwable
+     */
+    public static StackTraceElement[] getStackTrace(ObjectReference throwable) {
+        final Reference stackTrace = throwable.getReference("stackTrace");
+        final Backtrace backtrace = backtraceOf(throwable);
+        if(null != backtrace && (Reference.isNull(stackTrace) || stackTrace == throwable.getReference("UNASSIGNED_STACK"))) {
+            return backtrace.getStackTrace();
+        }
+        if(Reference.isNull(stackTrace)) {
+            return new StackTraceElement[0];
+        }
+        try {
+            return (StackTraceElement[]) ReferenceUtils.reference2Object(stackTrace);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+}
@@ -0,0 +1,325 @@
+package com.github.anilople.javajvm.natives;
+
+import com.github.anilople.javajvm.constants.Descriptors;
+import com.github.anilople.javajvm.heap.JvmClassLoader;
+import com.github.anilople.javajvm.heap.JvmField;
+import com.github.anilople.javajvm.runtimedataarea.LocalVariables;
+import com.github.anilople.javajvm.runtimedataarea.OperandStacks;
+import com.github.anilople.javajvm.runtimedataarea.Reference;
+import com.github.anilople.javajvm.runtimedataarea.reference.ObjectReference;
+import com.github.anilople.javajvm.utils.DescriptorUtils;
+import com.github.anilople.javajvm.utils.HackUtils;
+
+/**
+ * values typed by field descriptors, moved between operand stacks, local variables and fields,
+ * and converted as method handles do, i.e boxing, unboxing and primitive widening.
+ * <p>
+ * in host, a value of base type is its wrapper, i.e Integer for "I", Character for "C",
+ * others are {@link Reference}. void is null.
+ */
+public class ValueConversions {
+
+    private ValueConversions() {
+
+    }
+
+    public static Object pop(OperandStacks operandStacks, String descriptor) {
+        switch (descriptor) {
+            case Descriptors.BaseType.BOOLEAN:
+                return operandStacks.popBooleanValue();
+            case Descriptors.BaseType.BYTE:
+                return operandStacks.popByteValue();
+            case Descriptors.BaseType.CHAR:
+                return operandStacks.popCharValue();
+            case Descriptors.BaseType.SHORT:
+                return operandStacks.popShortValue();
+            case Descriptors.BaseType.INT:
+                return operandStacks.popIntValue();
+            case Descriptors.BaseType.FLOAT:
+                return operandStacks.popFloatValue();
+            case Descriptors.BaseType.LONG:
+                return operandStacks.popLongValue();
+            case Descriptors.BaseType.DOUBLE:
+                return operandStacks.popDoubleValue();
+            case "V":
+                return null;
+            default:
+                return operandStacks.popReference();
+        }
+    }
+
+    public static void push(OperandStacks operandStacks, String descriptor, Object value) {
+        switch (descriptor) {
+            case Descriptors.BaseType.BOOLEAN:
+                operandStacks.pushBooleanValue((Boolean) value);
+                break;
+            case Descriptors.BaseType.BYTE:
+                operandStacks.pushByteValue((Byte) value);
+                break;
+            case Descriptors.BaseType.CHAR:
+                operandStacks.pushCharValue((Character) value);
+                break;
+            case Descriptors.BaseType.SHORT:
+                operandStacks.pushShortValue((Short) value);
+                break;
+            case Descriptors.BaseType.INT:
+                operandStacks.pushIntValue((Integer) value);
+                break;
+            case Descriptors.BaseType.FLOAT:
+                operandStacks.pushFloatValue((Float) value);
+                break;
+            case Descriptors.BaseType.LONG:
+                operandStacks.pushLongValue((Long) value);
+                break;
+            case Descriptors.BaseType.DOUBLE:
+                operandStacks.pushDoubleValue((Double) value);
+                break;
+            case "V":
+                break;
+            default:
+                operandStacks.pushReference((Reference) value);
+        }
+    }
+
+    public static Object get(LocalVariables localVariables, int index, String descriptor) {
+        switch (descriptor) {
+            case Descriptors.BaseType.BOOLEAN:
+                return localVariables.getBooleanValue(index);
+            case Descriptors.BaseType.BYTE:
+                return localVariables.getByteValue(index);
+            case Descriptors.BaseType.CHAR:
+                return localVariables.getCharValue(index);
+            case Descriptors.BaseType.SHORT:
+                return localVariables.getShortValue(index);
+            case Descriptors.BaseType.INT:
+                return localVariables.getIntValue(index);
+            case Descriptors.BaseType.FLOAT:
+                return localVariables.getFloatValue(index);
+            case Descriptors.BaseType.LONG:
+                return localVariables.getLongValue(index);
+            case Descriptors.BaseType.DOUBLE:
+                return localVariables.getDoubleValue(index);
+            default:
+                return localVariables.getReference(index);
+        }
+    }
+
+    public static void set(LocalVariables localVariables, int index, String descriptor, Object value) {
+        switch (descriptor) {
+            case Descriptors.BaseType.BOOLEAN:
+                localVariables.setBooleanValue(index, (Boolean) value);
+                break;
+            case Descriptors.BaseType.BYTE:
+                localVariables.setByteValue(index, (Byte) value);
+                break;
+            case Descriptors.BaseType.CHAR:
+                localVariables.setCharValue(index, (Character) value);
+                break;
+            case Descriptors.BaseType.SHORT:
+                localVariables.setShortValue(index, (Short) value);
+                break;
+            case Descriptors.BaseType.INT:
+                localVariables.setIntValue(index, (Integer) value);
+                break;
+            case Descriptors.BaseType.FLOAT:
+                localVariables.setFloatValue(index, (Float) value);
+                break;
+            case Descriptors.BaseType.LONG:
+                localVariables.setLongValue(index, (Long) value);
+                break;
+            case Descriptors.BaseType.DOUBLE:
+                localVariables.setDoubleValue(index, (Double) value);
+                break;
+            default:
+                localVariables.setReference(index, (Reference) value);
+        }
+    }
+
+    /**
+     * @param jvmField a non-static field
+     */
+    public static Object getField(ObjectReference objectReference, JvmField jvmField) {
+        final int offset = jvmField.calculateNonStaticFieldOffset();
+        switch (jvmField.getDescriptor()) {
+            case Descriptors.BaseType.BOOLEAN:
+                return objectReference.getBooleanValue(offset);
+            case Descriptors.BaseType.BYTE:
+                return objectReference.getByteValue(offset);
+            case Descriptors.BaseType.CHAR:
+                return objectReference.getCharValue(offset);
+            case Descriptors.BaseType.SHORT:
+                return objectReference.getShortValue(offset);
+            case Descriptors.BaseType.INT:
+                return objectReference.getIntValue(offset);
+            case Descriptors.BaseType.FLOAT:
+                return objectReference.getFloatValue(offset);
+            case Descriptors.BaseType.LONG:
+                return objectReference.getLongValue(offset);
+            case Descriptors.BaseType.DOUBLE:
+                return objectReference.getDoubleValue(offset);
+            default:
+                return objectReference.getReference(offset);
+        }
+    }
+
+    /**
+     * @param jvmField a non-static field
+     */
+    public static void setField(ObjectReference objectReference, JvmField jvmField, Object value) {
+        final int offset = jvmField.calculateNonStaticFieldOffset();
+        switch (jvmField.getDescriptor()) {
+            case Descriptors.BaseType.BOOLEAN:
+                objectReference.setBooleanValue(offset, (Boolean) value);
+                break;
+            case Descriptors.BaseType.BYTE:
+                objectReference.setByteValue(offset, (Byte) value);
+                break;
+            case Descriptors.BaseType.CHAR:
+                objectReference.setCharValue(offset, (Character) value);
+                break;
+            case Descriptors.BaseType.SHORT:
+                objectReference.setShortValue(offset, (Short) value);
+                break;
+            case Descriptors.BaseType.INT:
+                objectReference.setIntValue(offset, (Integer) value);
+                break;
+            case Descriptors.BaseType.FLOAT:
+                objectReference.setFloatValue(offset, (Float) value);
+                break;
+            case Descriptors.BaseType.LONG:
+                objectReference.setLongValue(offset, (Long) value);
+                break;
+            case Descriptors.BaseType.DOUBLE:
+                objectReference.setDoubleValue(offset, (Double) value);
+                break;
+            default:
+                objectReference.setReference(offset, (Reference) value);
+        }
+    }
+
+    /**
+     * a value of "from" can be used as "to" without conversion,
+     * i.e the same base type, or both are references.
+     * boolean, byte, char and short are int on operand stack.
+     */
+    public static boolean isIdentity(String from, String to) {
+        return computationalType(from).equals(computationalType(to));
+    }
+
+    private static String computationalType(String descriptor) {
+        switch (descriptor) {
+            case Descriptors.BaseType.BOOLEAN:
+            case Descriptors.BaseType.BYTE:
+            case Descriptors.BaseType.CHAR:
+            case Descriptors.BaseType.SHORT:
+            case Descriptors.BaseType.INT:
+                return Descriptors.BaseType.INT;
+            case Descriptors.BaseType.FLOAT:
+            case Descriptors.BaseType.LONG:
+            case Descriptors.BaseType.DOUBLE:
+            case "V":
+                return descriptor;
+            default:
+                return "L";
+        }
+    }
+
+    /**
+     * conversions of {@link java.lang.invoke.LambdaMetafactory}:
+     * a primitive is widened or boxed, a reference is unboxed then widened,
+     * a reference to a reference is not checked,
+     * and anything to void is dropped.
+     * @param jvmClassLoader loads the wrappers when boxing
+     * @param value value of "from"
+     * @param from descriptor of value
+     * @param to descriptor of result
+     * @return value of "to"
+     * @throws HackUtils.GuestException NullPointerException when unboxing null,
+     * ClassCastException when unboxing something not a wrapper
+     */
+    public static Object convert(JvmClassLoader jvmClassLoader, Object value, String from, String to) {
+        if("V".equals(to)) {
+            return null;
+        }
+        final boolean fromBaseType = DescriptorUtils.isBaseType(from);
+        final boolean toBaseType = DescriptorUtils.isBaseType(to);
+        if(!fromBaseType && !toBaseType) {
+            return value;
+        }
+        if(fromBaseType && toBaseType) {
+            return widen(value, to);
+        }
+        if(fromBaseType) {
+            // box, to the wrapper wanted if there is one
+            final String unwrapped = unwrap(to);
+            return HostBridge.box(jvmClassLoader, null == unwrapped ? value : widen(value, unwrapped));
+        }
+        // unbox
+        if(Reference.isNull((Reference) value)) {
+            throw new HackUtils.GuestException(new NullPointerException());
+        }
+        final Object unboxed = HostBridge.unbox((ObjectReference) value);
+        if(null == unboxed || unboxed instanceof String) {
+            throw new HackUtils.GuestException(new ClassCastException(
+                    ((ObjectReference) value).getJvmClass().getJavaLevelClassName() + " cannot be unboxed to " + to
+            ));
+        }
+        return widen(unboxed, to);
+    }
+
+    /**
+     * @return base type of a wrapper, null if it is not a wrapper
+     */
+    private static String unwrap(String descriptor) {
+        switch (descriptor) {
+            case "Ljava/lang/Boolean;":
+                return Descriptors.BaseType.BOOLEAN;
+            case "Ljava/lang/Byte;":
+                return Descriptors.BaseType.BYTE;
+            case "Ljava/lang/Character;":
+                return Descriptors.BaseType.CHAR;
+            case "Ljava/lang/Short;":
+                return Descriptors.BaseType.SHORT;
+            case "Ljava/lang/Integer;":
+                return Descriptors.BaseType.INT;
+            case "Ljava/lang/Float;":
+                return Descriptors.BaseType.FLOAT;
+            case "Ljava/lang/Long;":
+                return Descriptors.BaseType.LONG;
+            case "Ljava/lang/Double;":
+                return Descriptors.BaseType.DOUBLE;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * jls 5.1.2, widening primitive conversion.
+     * narrowing is not checked, the compiler does not make it
+     */
+    private static Object widen(Object value, String to) {
+        if(value instanceof Boolean) {
+            return value;
+        }
+        final Number number = value instanceof Character ? Integer.valueOf((Character) value) : (Number) value;
+        switch (to) {
+            case Descriptors.BaseType.BYTE:
+                return number.byteValue();
+            case Descriptors.BaseType.CHAR:
+                return (char) number.intValue();
+            case Descriptors.BaseType.SHORT:
+                return number.shortValue();
+            case Descriptors.BaseType.INT:
+                return number.intValue();
+            case Descriptors.BaseType.FLOAT:
+                return number.floatValue();
+            case Descriptors.BaseType.LONG:
+                return number.longValue();
+            case Descriptors.BaseType.DOUBLE:
+                return number.doubleValue();
+            default:
+                throw new IllegalArgumentException(value + " cannot be widened to " + to);
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.github.anilople.javajvm.runtimedataarea;
+
+import com.github.anilople.javajvm.heap.JvmMethod;
+
+/**
+ * methods and pcs of frames in a jvm stack, the top frame first.
+ * it is what {@link Throwable} keeps in "backtrace",
+ * {@link StackTraceElement}s are made from it only when they are asked.
+ */
+public class Backtrace {
+
+    private final JvmMethod[] methods;
+
+    private final int[] pcs;
+
+    Backtrace(JvmMethod[] methods, int[] pcs) {
+        this.methods = methods;
+        this.pcs = pcs;
+    }
+
+    public int depth() {
+        return methods.length;
+    }
+
+    public JvmMethod getMethod(int index) {
+        return methods[index];
+    }
+
+    /**
+     * the frames above index are dropped
+     * @param count how many top frames to drop
+     */
+    public Backtrace skip(int count) {
+        final int depth = methods.length - count;
+        final JvmMethod[] skippedMethods = new JvmMethod[depth];
+        final int[] skippedPcs = new int[depth];
+        System.arraycopy(methods, count, skippedMethods, 0, depth);
+        System.arraycopy(pcs, count, skippedPcs, 0, depth);
+        return new Backtrace(skippedMethods, skippedPcs);
+    }
+
+    /**
+     * file name and line number are resolved from SourceFile and LineNumberTable
+     * @throws IndexOutOfBoundsException if index is out of depth
+     */
+    public StackTraceElement getStackTraceElement(int index) {
+        final JvmMethod jvmMethod = methods[index];
+        return new StackTraceElement(
+                jvmMethod.getJvmClass().getJavaLevelClassName(),
+                jvmMethod.getName(),
+                jvmMethod.getJvmClass().getSourceFile(),
+                // -2 for native method
+                jvmMethod.isNative() ? -2 : jvmMethod.getLineNumber(pcs[index])
+        );
+    }
+
+    public StackTraceElement[] getStackTrace() {
+        final StackTraceElement[] stackTraceElements = new StackTraceElement[methods.length];
+        for(int i = 0; i < stackTraceElements.length; i++) {
+            stackTraceElements[i] = getStackTraceElement(i);
+        }
+        return stackTraceElements;
+    }
+
+}
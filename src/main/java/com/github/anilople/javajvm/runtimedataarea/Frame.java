@@ -1,13 +1,11 @@
 package com.github.anilople.javajvm.runtimedataarea;
 
 import com.github.anilople.javajvm.heap.JvmMethod;
-import com.github.anilople.javajvm.instructions.BytecodeReader;
 import com.github.anilople.javajvm.instructions.Instruction;
+import com.github.anilople.javajvm.runtimedataarea.reference.HeapReference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Arrays;
-
 /**
  * A frame is used to store data and partial results, as well as to perform dynamic
  * linking, return values for methods, and dispatch exceptions.
@@ -30,6 +28,17 @@ public class Frame {
      */
     private int nextPc;
 
+    /**
+     * pc of the instruction read last,
+     * i.e the one executing, or invoking the method in the frame above
+     */
+    private int pc;
+
+    /**
+     * the object locked by a synchronized method, null if not synchronized
+     */
+    private HeapReference lock;
+
     private Frame() {
     }
 
@@ -79,22 +88,17 @@ public class Frame {
     }
 
     /**
-     * read next instruction started by pc register
+     * read next instruction started by pc register,
+     * an instruction is decoded once per method
      * @return
      */
     public Instruction readNextInstruction() {
-        // method -> method's code
-        byte[] bytecode = this.getJvmMethod().getCode();
-
         int pc = this.getNextPc();
-        BytecodeReader bytecodeReader = new BytecodeReader(Arrays.copyOfRange(bytecode, pc, bytecode.length));
+        this.pc = pc;
 
-        Instruction instruction = Instruction.readInstruction(bytecodeReader);
+        Instruction instruction = this.getJvmMethod().getInstruction(pc);
         logger.debug("read instruction: {}", instruction);
 
-        // fetch operands (may fetch nothing)
-        instruction.fetchOperands(bytecodeReader);
-
         return instruction;
     }
 
@@ -121,4 +125,16 @@ public class Frame {
     public void setNextPc(int nextPc) {
         this.nextPc = nextPc;
     }
+
+    public int getPc() {
+        return pc;
+    }
+
+    public HeapReference getLock() {
+        return lock;
+    }
+
+    public void setLock(HeapReference lock) {
+        this.lock = lock;
+    }
 }
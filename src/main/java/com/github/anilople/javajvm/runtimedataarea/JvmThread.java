@@ -1,12 +1,21 @@
 package com.github.anilople.javajvm.runtimedataarea;
 
+import com.github.anilople.javajvm.heap.JvmMethod;
+import com.github.anilople.javajvm.runtimedataarea.reference.ClassObjectReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.HeapReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.ObjectReference;
+
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Stack;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Per-thread data areas are created when a thread is
  * created and destroyed when the thread exits.
+ * <p>
+ * a guest thread is interpreted by one host thread,
+ * the java.lang.Thread in guest is bound to it.
  */
 public class JvmThread {
 
@@ -38,23 +47,85 @@ public class JvmThread {
      */
     private Stack<Frame> stack;
 
+    /**
+     * the thread interpreted by current host thread
+     */
+    private static final ThreadLocal<JvmThread> CURRENT = new ThreadLocal<>();
+
+    private static final AtomicInteger IDS = new AtomicInteger();
+
+    /**
+     * positive, the owner of locks
+     */
+    private final int id;
+
+    /**
+     * java.lang.Thread in guest, made when it is asked for the main thread
+     */
+    private volatile ObjectReference threadObject;
+
+    /**
+     * the host thread interpreting this thread, null if it is not started by guest
+     */
+    private volatile Thread hostThread;
+
     public JvmThread() {
         this.maxStackSize = 1024;
         this.stack = new Stack<>();
+        this.id = IDS.incrementAndGet();
     }
 
+    /**
+     * jvms8, 2.11.10 Synchronization,
+     * a synchronized method enters the monitor before it is invoked
+     */
     public void pushFrame(Frame frame) {
         if (stack.size() >= maxStackSize) {
             throw new RuntimeException("java.lang.StackOverflowError");
         }
+        final JvmMethod jvmMethod = frame.getJvmMethod();
+        if(jvmMethod.isSynchronized()) {
+            final HeapReference lock = jvmMethod.isStatic() ?
+                    ClassObjectReference.getInstance(jvmMethod.getJvmClass()) :
+                    (HeapReference) frame.getLocalVariables().getReference(0);
+            lock.monitorEnter(id);
+            frame.setLock(lock);
+        }
         stack.push(frame);
     }
 
+    /**
+     * the monitor entered by a synchronized method is exited,
+     * whether it completes normally or abruptly
+     */
     public void popFrame() {
         if (stack.size() <= 0) {
             throw new RuntimeException("jvm stack is empty!");
         }
-        stack.pop();
+        final Frame frame = stack.pop();
+        if(null != frame.getLock()) {
+            frame.getLock().monitorExit(id);
+        }
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public ObjectReference getThreadObject() {
+        return threadObject;
+    }
+
+    public void setThreadObject(ObjectReference threadObject) {
+        this.threadObject = threadObject;
+    }
+
+    public Thread getHostThread() {
+        return hostThread;
+    }
+
+    public void setHostThread(Thread hostThread) {
+        this.hostThread = hostThread;
     }
 
     public Frame currentFrame() {
@@ -83,4 +154,45 @@ public class JvmThread {
     public List<Frame> dumpFrames() {
         return new ArrayList<>(stack);
     }
+
+    /**
+     * only methods and pcs are copied
+     * @return frames in stack, the top frame first
+     */
+    public Backtrace backtrace() {
+        final int depth = stack.size();
+        final JvmMethod[] methods = new JvmMethod[depth];
+        final int[] pcs = new int[depth];
+        for(int i = 0; i < depth; i++) {
+            final Frame frame = stack.get(depth - 1 - i);
+            methods[i] = frame.getJvmMethod();
+            pcs[i] = frame.getPc();
+        }
+        return new Backtrace(methods, pcs);
+    }
+
+    /**
+     * mark the thread interpreted by current host thread
+     * @return previous one, for {@link #exit(JvmThread)}
+     */
+    public static JvmThread enter(JvmThread jvmThread) {
+        JvmThread previous = CURRENT.get();
+        CURRENT.set(jvmThread);
+        return previous;
+    }
+
+    public static void exit(JvmThread previous) {
+        if(null == previous) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * @return the thread interpreted by current host thread, null if none
+     */
+    public static JvmThread current() {
+        return CURRENT.get();
+    }
 }
@@ -4,10 +4,21 @@ package com.github.anilople.javajvm.runtimedataarea;
  * A single local variable can hold a value of type boolean , byte , char , short , int ,
  * float , reference , or returnAddress . A pair of local variables can hold a value
  * of type long or double
+ * <p>
+ * in this jvm, a long or double is held by one LocalVariable of 64 bits,
+ * it is category 2, and still counts as 2 in local variables and operand stack.
  */
 public class LocalVariable {
 
-    private int intValue;
+    /**
+     * a value of 32 bits is the low bits
+     */
+    private long value;
+
+    /**
+     * long or double
+     */
+    private boolean category2;
 
     private Reference reference;
 
@@ -17,62 +28,83 @@ public class LocalVariable {
     @Override
     public String toString() {
         return this.getClass().getName() + "{" +
-                "intValue=" + intValue +
+                "value=" + value +
+                ", category2=" + category2 +
                 ", reference=" + reference +
                 '}';
     }
 
     public boolean getBooleanValue() {
-        return 0 != intValue;
+        return 0 != (int) value;
     }
 
     public LocalVariable setBooleanValue(boolean booleanValue) {
-        this.intValue = booleanValue ? 1 : 0;
+        this.value = booleanValue ? 1 : 0;
         return this;
     }
 
     public byte getByteValue() {
-        return (byte) intValue;
+        return (byte) value;
     }
 
     public LocalVariable setByteValue(byte byteValue) {
-        this.intValue = byteValue;
+        this.value = byteValue;
         return this;
     }
 
     public char getCharValue() {
-        return (char) intValue;
+        return (char) value;
     }
 
     public LocalVariable setCharValue(char charValue) {
-        this.intValue = charValue;
+        this.value = charValue;
         return this;
     }
 
     public short getShortValue() {
-        return (short) intValue;
+        return (short) value;
     }
 
     public LocalVariable setShortValue(short shortValue) {
-        this.intValue = shortValue;
+        this.value = shortValue;
         return this;
     }
 
     public int getIntValue() {
-        return intValue;
+        return (int) value;
     }
 
     public LocalVariable setIntValue(int intValue) {
-        this.intValue = intValue;
+        this.value = intValue;
         return this;
     }
 
     public float getFloatValue() {
-        return Float.intBitsToFloat(intValue);
+        return Float.intBitsToFloat((int) value);
     }
 
     public LocalVariable setFloatValue(float floatValue) {
-        this.intValue = Float.floatToRawIntBits(floatValue);
+        this.value = Float.floatToRawIntBits(floatValue);
+        return this;
+    }
+
+    public long getLongValue() {
+        return value;
+    }
+
+    public LocalVariable setLongValue(long longValue) {
+        this.value = longValue;
+        this.category2 = true;
+        return this;
+    }
+
+    public double getDoubleValue() {
+        return Double.longBitsToDouble(value);
+    }
+
+    public LocalVariable setDoubleValue(double doubleValue) {
+        this.value = Double.doubleToRawLongBits(doubleValue);
+        this.category2 = true;
         return this;
     }
 
@@ -86,12 +118,20 @@ public class LocalVariable {
     }
 
     public int getReturnAddress() {
-        return intValue;
+        return (int) value;
     }
 
     public LocalVariable setReturnAddress(int returnAddress) {
-        this.intValue = returnAddress;
+        this.value = returnAddress;
         return this;
     }
 
+    /**
+     * jvms 2.11.1, long and double are of category 2 computational types
+     * @return it counts as 2 slots
+     */
+    public boolean isCategory2() {
+        return category2;
+    }
+
 }
@@ -1,7 +1,6 @@
 package com.github.anilople.javajvm.runtimedataarea;
 
-import com.github.anilople.javajvm.utils.ByteUtils;
-
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -18,6 +17,8 @@ import java.util.List;
  * variables with indices n and n+1; however, the local variable at index n+1 cannot
  * be loaded from. It can be stored into. However, doing so invalidates the contents
  * of local variable n.
+ * <p>
+ * here a long or double is one {@link LocalVariable} at index n, and index n+1 is empty.
  */
 public class LocalVariables {
 
@@ -79,6 +80,26 @@ public class LocalVariables {
         return maxLocals;
     }
 
+    /**
+     * @return the slot, null if nothing stored in it yet
+     */
+    public LocalVariable getLocalVariable(int index) {
+        return localVariables.get(index);
+    }
+
+    /**
+     * @return the references in slots, null references excluded
+     */
+    public List<Reference> getReferences() {
+        List<Reference> references = new ArrayList<>();
+        for(LocalVariable localVariable : localVariables) {
+            if(null != localVariable && null != localVariable.getReference() && !Reference.isNull(localVariable.getReference())) {
+                references.add(localVariable.getReference());
+            }
+        }
+        return references;
+    }
+
     public boolean getBooleanValue(int index) {
         return localVariables.get(index).getBooleanValue();
     }
@@ -112,14 +133,11 @@ public class LocalVariables {
     }
 
     public long getLongValue(int index) {
-        int value0 = localVariables.get(index).getIntValue();
-        int value1 = localVariables.get(index + 1).getIntValue();
-        return ByteUtils.int2long(value0, value1);
+        return localVariables.get(index).getLongValue();
     }
 
     public double getDoubleValue(int index) {
-        long longValue = this.getLongValue(index);
-        return Double.longBitsToDouble(longValue);
+        return localVariables.get(index).getDoubleValue();
     }
 
     public void setBooleanValue(int index, boolean booleanValue) {
@@ -155,16 +173,13 @@ public class LocalVariables {
     }
 
     public void setLongValue(int index, long longValue) {
-        // high bytes
-        int value0 = (int) (longValue >> 32);
-        int value1 = (int) (longValue);
-        localVariables.set(index, new LocalVariable().setIntValue(value0));
-        localVariables.set(index + 1, new LocalVariable().setIntValue(value1));
+        localVariables.set(index, new LocalVariable().setLongValue(longValue));
+        localVariables.set(index + 1, null);
     }
 
     public void setDoubleValue(int index, double doubleValue) {
-        long longValue = Double.doubleToLongBits(doubleValue);
-        this.setLongValue(index, longValue);
+        localVariables.set(index, new LocalVariable().setDoubleValue(doubleValue));
+        localVariables.set(index + 1, null);
     }
 
 }
@@ -0,0 +1,162 @@
+package com.github.anilople.javajvm.runtimedataarea;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * inflated lock of an object, made when a thin lock is contended.
+ * <p>
+ * jvms8, 2.11.10 Synchronization,
+ * a monitor is owned by at most one thread,
+ * the owner can enter it again, and it is released when exited as many times.
+ * the owner is a guest thread, so the host thread entered it is not remembered,
+ * a thin lock can be inflated by other thread on behalf of its owner.
+ * <p>
+ * jls 17.2, the wait set is here too, so an object waited on is always inflated.
+ */
+public class Monitor {
+
+    /**
+     * id of owner thread, 0 if not owned
+     */
+    private int owner;
+
+    private int count;
+
+    /**
+     * threads in Object.wait, the first one is notified first
+     */
+    private final Deque<Waiter> waitSet = new ArrayDeque<>();
+
+    /**
+     * @param owner id of the thread owns the thin lock inflated
+     * @param count how many times the owner entered
+     */
+    public Monitor(int owner, int count) {
+        this.owner = owner;
+        this.count = count;
+    }
+
+    /**
+     * wait until no other thread owns it
+     */
+    public synchronized void enter(int threadId) {
+        boolean interrupted = false;
+        while (0 != owner && threadId != owner) {
+            try {
+                this.wait();
+            } catch (InterruptedException e) {
+                // monitorenter is not interruptible
+                interrupted = true;
+            }
+        }
+        owner = threadId;
+        count++;
+        if(interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @throws IllegalMonitorStateException if thread given is not the owner
+     */
+    public synchronized void exit(int threadId) {
+        if(threadId != owner) {
+            throw new IllegalMonitorStateException("current thread is not owner");
+        }
+        count--;
+        if(0 == count) {
+            owner = 0;
+            this.notifyAll();
+        }
+    }
+
+    public synchronized boolean isOwnedBy(int threadId) {
+        return threadId == owner;
+    }
+
+    /**
+     * jls 17.2.1 Wait.
+     * release the monitor totally, wait until notified, timeout or interrupted,
+     * then enter it again as many times as before.
+     * @param millis 0 means no timeout
+     * @throws IllegalMonitorStateException if thread given is not the owner
+     * @throws InterruptedException if the host thread is interrupted when waiting
+     */
+    public synchronized void await(int threadId, long millis) throws InterruptedException {
+        if(threadId != owner) {
+            throw new IllegalMonitorStateException("current thread is not owner");
+        }
+        final int entered = count;
+        final Waiter waiter = new Waiter();
+        waitSet.addLast(waiter);
+        owner = 0;
+        count = 0;
+        this.notifyAll();
+
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        InterruptedException interrupted = null;
+        while (!waiter.notified) {
+            try {
+                if(0 == millis) {
+                    this.wait();
+                } else {
+                    final long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                    if(remaining <= 0) {
+                        break;
+                    }
+                    this.wait(remaining);
+                }
+            } catch (InterruptedException e) {
+                interrupted = e;
+                break;
+            }
+        }
+        waitSet.remove(waiter);
+
+        boolean reinterrupt = false;
+        while (0 != owner) {
+            try {
+                this.wait();
+            } catch (InterruptedException e) {
+                // interrupted after it is notified, keep the status
+                reinterrupt = true;
+            }
+        }
+        owner = threadId;
+        count = entered;
+        if(null != interrupted) {
+            throw interrupted;
+        }
+        if(reinterrupt) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * jls 17.2.2 Notification
+     * @param all notify all the waiters, or the first one
+     * @throws IllegalMonitorStateException if thread given is not the owner
+     */
+    public synchronized void signal(int threadId, boolean all) {
+        if(threadId != owner) {
+            throw new IllegalMonitorStateException("current thread is not owner");
+        }
+        boolean notified = false;
+        while (!waitSet.isEmpty() && (all || !notified)) {
+            waitSet.pollFirst().notified = true;
+            notified = true;
+        }
+        if(notified) {
+            // waiters and the threads entering share the host lock
+            this.notifyAll();
+        }
+    }
+
+    private static class Waiter {
+
+        private boolean notified;
+
+    }
+}
@@ -1,150 +1,161 @@
 package com.github.anilople.javajvm.runtimedataarea;
 
-import com.github.anilople.javajvm.utils.ByteUtils;
-
-import java.util.Stack;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Each frame (§2.6) contains a last-in-first-out (LIFO) stack known as its operand
  * stack. The maximum depth of the operand stack of a frame is determined at
  * compile-time and is supplied along with the code for the method associated with
  * the frame (§4.7.3).
+ * <p>
+ * a long or double is one {@link LocalVariable} in stack,
+ * but it counts as 2 in depth, as jvms 2.6.2 says.
  */
 public class OperandStacks {
 
     private int maxStack;
 
-    private Stack<LocalVariable> operandStack;
+    /**
+     * top is the last one. not a Stack, it is used by one thread, no need to synchronize
+     */
+    private List<LocalVariable> operandStack;
+
+    /**
+     * values of category 2 count as 2
+     */
+    private int depth;
 
     private OperandStacks() {
     }
 
     public OperandStacks(int maxStack) {
         this.maxStack = maxStack;
-        operandStack = new Stack<>();
+        operandStack = new ArrayList<>(maxStack);
     }
 
     @Override
     public String toString() {
         return "OperandStacks{" +
                 "maxStack=" + maxStack +
+                ", depth=" + depth +
                 ", operandStack=" + operandStack +
                 '}';
     }
 
     public void clear() {
         operandStack.clear();
+        depth = 0;
+    }
+
+    /**
+     * @return depth of stack, a long or double counts as 2
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return the references in stack, null references excluded
+     */
+    public List<Reference> getReferences() {
+        List<Reference> references = new ArrayList<>();
+        for(LocalVariable localVariable : operandStack) {
+            if(null != localVariable.getReference() && !Reference.isNull(localVariable.getReference())) {
+                references.add(localVariable.getReference());
+            }
+        }
+        return references;
     }
 
     public void push(LocalVariable localVariable) {
-        operandStack.push(localVariable);
+        operandStack.add(localVariable);
+        depth += localVariable.isCategory2() ? 2 : 1;
     }
 
     public LocalVariable pop() {
-        return operandStack.pop();
+        LocalVariable localVariable = operandStack.remove(operandStack.size() - 1);
+        depth -= localVariable.isCategory2() ? 2 : 1;
+        return localVariable;
     }
 
     public boolean popBooleanValue() {
-        return operandStack.pop().getBooleanValue();
+        return this.pop().getBooleanValue();
     }
 
     public byte popByteValue() {
-        return operandStack.pop().getByteValue();
+        return this.pop().getByteValue();
     }
 
     public char popCharValue() {
-        return operandStack.pop().getCharValue();
+        return this.pop().getCharValue();
     }
 
     public short popShortValue() {
-        return operandStack.pop().getShortValue();
+        return this.pop().getShortValue();
     }
 
     public int popIntValue() {
-        return operandStack.pop().getIntValue();
+        return this.pop().getIntValue();
     }
 
     public float popFloatValue() {
-        return operandStack.pop().getFloatValue();
+        return this.pop().getFloatValue();
     }
 
     public Reference popReference() {
-        return operandStack.pop().getReference();
+        return this.pop().getReference();
     }
 
     public int popReturnAddress() {
-        return operandStack.pop().getReturnAddress();
+        return this.pop().getReturnAddress();
     }
 
     public long popLongValue() {
-        LocalVariable localVariable2 = operandStack.pop();
-        LocalVariable localVariable1 = operandStack.pop();
-        // pop high bytes
-        int intValue2 = localVariable2.getIntValue();
-        // pop low bytes
-        int intValue1 = localVariable1.getIntValue();
-        return ByteUtils.int2long(intValue2, intValue1);
+        return this.pop().getLongValue();
     }
 
     public double popDoubleValue() {
-        return Double.longBitsToDouble(
-                this.popLongValue()
-        );
+        return this.pop().getDoubleValue();
     }
 
-
     public void pushBooleanValue(boolean booleanValue) {
-        operandStack.push(new LocalVariable().setBooleanValue(booleanValue));
+        this.push(new LocalVariable().setBooleanValue(booleanValue));
     }
 
     public void pushByteValue(byte byteValue) {
-        operandStack.push(new LocalVariable().setByteValue(byteValue));
+        this.push(new LocalVariable().setByteValue(byteValue));
     }
 
     public void pushCharValue(char charValue) {
-        operandStack.push(new LocalVariable().setCharValue(charValue));
+        this.push(new LocalVariable().setCharValue(charValue));
     }
 
     public void pushShortValue(short shortValue) {
-        operandStack.push(new LocalVariable().setShortValue(shortValue));
+        this.push(new LocalVariable().setShortValue(shortValue));
     }
 
     public void pushIntValue(int intValue) {
-        operandStack.push(new LocalVariable().setIntValue(intValue));
+        this.push(new LocalVariable().setIntValue(intValue));
     }
 
     public void pushFloatValue(float floatValue) {
-        operandStack.push(new LocalVariable().setFloatValue(floatValue));
+        this.push(new LocalVariable().setFloatValue(floatValue));
     }
 
     public void pushReference(Reference reference) {
-        operandStack.push(new LocalVariable().setReference(reference));
+        this.push(new LocalVariable().setReference(reference));
     }
 
     public void pushReturnAddress(int returnAddress) {
-        operandStack.push(new LocalVariable().setReturnAddress(returnAddress));
+        this.push(new LocalVariable().setReturnAddress(returnAddress));
     }
 
-    /**
-     * a long value occupies 2 local variables
-     * push low bytes first
-     * then push high bytes
-     *
-     * @param longValue
-     */
     public void pushLongValue(long longValue) {
-        // low bytes
-        int intValue1 = (int) (longValue);
-        // high bytes
-        int intValue2 = (int) (longValue >> 32);
-
-        this.pushIntValue(intValue1);
-        this.pushIntValue(intValue2);
+        this.push(new LocalVariable().setLongValue(longValue));
     }
 
     public void pushDoubleValue(double doubleValue) {
-        this.pushLongValue(
-                Double.doubleToLongBits(doubleValue)
-        );
+        this.push(new LocalVariable().setDoubleValue(doubleValue));
     }
 }
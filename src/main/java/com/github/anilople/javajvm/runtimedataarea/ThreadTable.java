@@ -0,0 +1,66 @@
+package com.github.anilople.javajvm.runtimedataarea;
+
+import com.github.anilople.javajvm.runtimedataarea.reference.ObjectReference;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * threads of a vm bound to a java.lang.Thread and not terminated,
+ * and the "main" thread group of vm.
+ * it is kept by the bootstrap class loader,
+ * so it is reclaimed with the vm.
+ * @see com.github.anilople.javajvm.natives.ThreadNatives
+ */
+public class ThreadTable {
+
+    /**
+     * by id of {@link JvmThread}
+     */
+    private final Map<Long, JvmThread> threads = new ConcurrentHashMap<>();
+
+    private volatile ObjectReference mainThreadGroup;
+
+    public void add(JvmThread jvmThread) {
+        threads.put((long) jvmThread.getId(), jvmThread);
+    }
+
+    public void remove(JvmThread jvmThread) {
+        threads.remove((long) jvmThread.getId());
+    }
+
+    /**
+     * @return null if there is not a thread alive with the id
+     */
+    public JvmThread get(long id) {
+        return threads.get(id);
+    }
+
+    /**
+     * @return a snapshot of threads alive
+     */
+    public List<JvmThread> getThreads() {
+        return new ArrayList<>(threads.values());
+    }
+
+    /**
+     * @param factory makes the thread group if there is not one
+     * @return "main" thread group of vm
+     */
+    public ObjectReference getMainThreadGroup(Supplier<ObjectReference> factory) {
+        ObjectReference threadGroup = this.mainThreadGroup;
+        if(null != threadGroup) {
+            return threadGroup;
+        }
+        synchronized (this) {
+            if(null == this.mainThreadGroup) {
+                this.mainThreadGroup = factory.get();
+            }
+            return this.mainThreadGroup;
+        }
+    }
+
+}
@@ -2,14 +2,14 @@ package com.github.anilople.javajvm.runtimedataarea.reference;
 
 import com.github.anilople.javajvm.heap.JvmClass;
 import com.github.anilople.javajvm.heap.JvmClassLoader;
-import com.github.anilople.javajvm.runtimedataarea.Reference;
+import com.github.anilople.javajvm.heap.JvmHeap;
 import com.github.anilople.javajvm.utils.ReflectionUtils;
 
 /**
  * array reference
  *
  */
-public abstract class ArrayReference implements Reference {
+public abstract class ArrayReference extends HeapReference {
 
     /**
      * array exists component,
@@ -22,9 +22,25 @@ public abstract class ArrayReference implements Reference {
      */
     private final int count;
 
-    public ArrayReference(JvmClass componentType, int count) {
+    /**
+     * the bytes are accounted before the elements allocated
+     * @param elementSize bytes of each element
+     * @throws JvmHeap.HeapExhaustedException if heap is full
+     */
+    public ArrayReference(JvmClass componentType, int count, int elementSize) {
+        this(componentType, count, elementSize, true);
+    }
+
+    /**
+     * @param accounted false if the bytes are accounted by the owner already,
+     *                  i.e chars of {@link StringReference}
+     */
+    ArrayReference(JvmClass componentType, int count, int elementSize, boolean accounted) {
         this.componentType = componentType;
         this.count = count;
+        if(accounted) {
+            JvmHeap.allocate(this, JvmHeap.arraySize(count, elementSize));
+        }
     }
 
     /**
@@ -34,12 +50,6 @@ public abstract class ArrayReference implements Reference {
         return count;
     }
 
-    public void assertIndexIsNotOutOfBounds(int index) {
-        if(index < 0 || index >= count) {
-            throw new ArrayIndexOutOfBoundsException("" + index);
-        }
-    }
-
     public JvmClass getComponentType() {
         return componentType;
     }
@@ -0,0 +1,50 @@
+package com.github.anilople.javajvm.runtimedataarea.reference;
+
+import com.github.anilople.javajvm.constants.ArrayTypeCodes;
+import com.github.anilople.javajvm.heap.JvmClassLoader;
+
+import java.util.Arrays;
+
+/**
+ * boolean[]
+ */
+public final class BooleanArrayReference extends BaseTypeArrayReference {
+
+    private final boolean[] booleans;
+
+    public BooleanArrayReference(JvmClassLoader jvmClassLoader, int count) {
+        super(jvmClassLoader, boolean.class, count);
+        this.booleans = new boolean[count];
+    }
+
+    /**
+     * the array given is used directly, not copied
+     */
+    public BooleanArrayReference(JvmClassLoader jvmClassLoader, boolean[] booleans) {
+        super(jvmClassLoader, boolean.class, booleans.length);
+        this.booleans = booleans;
+    }
+
+    @Override
+    public byte getTypeCode() {
+        return ArrayTypeCodes.T_BOOLEAN;
+    }
+
+    @Override
+    public boolean[] getArray() {
+        return booleans;
+    }
+
+    public boolean getBooleanValue(int index) {
+        return booleans[index];
+    }
+
+    public void setBooleanValue(int index, boolean booleanValue) {
+        booleans[index] = booleanValue;
+    }
+
+    @Override
+    public String toString() {
+        return "BooleanArrayReference{" + Arrays.toString(booleans) + "}";
+    }
+}
@@ -0,0 +1,50 @@
+package com.github.anilople.javajvm.runtimedataarea.reference;
+
+import com.github.anilople.javajvm.constants.ArrayTypeCodes;
+import com.github.anilople.javajvm.heap.JvmClassLoader;
+
+import java.util.Arrays;
+
+/**
+ * byte[]
+ */
+public final class ByteArrayReference extends BaseTypeArrayReference {
+
+    private final byte[] bytes;
+
+    public ByteArrayReference(JvmClassLoader jvmClassLoader, int count) {
+        super(jvmClassLoader, byte.class, count);
+        this.bytes = new byte[count];
+    }
+
+    /**
+     * the array given is used directly, not copied
+     */
+    public ByteArrayReference(JvmClassLoader jvmClassLoader, byte[] bytes) {
+        super(jvmClassLoader, byte.class, bytes.length);
+        this.bytes = bytes;
+    }
+
+    @Override
+    public byte getTypeCode() {
+        return ArrayTypeCodes.T_BYTE;
+    }
+
+    @Override
+    public byte[] getArray() {
+        return bytes;
+    }
+
+    public byte getByteValue(int index) {
+        return bytes[index];
+    }
+
+    public void setByteValue(int index, byte byteValue) {
+        bytes[index] = byteValue;
+    }
+
+    @Override
+    public String toString() {
+        return "ByteArrayReference{" + Arrays.toString(bytes) + "}";
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.anilople.javajvm.runtimedataarea.reference;
+
+import com.github.anilople.javajvm.constants.ArrayTypeCodes;
+import com.github.anilople.javajvm.heap.JvmClassLoader;
+
+import java.util.Arrays;
+
+/**
+ * char[]
+ */
+public final class CharArrayReference extends BaseTypeArrayReference {
+
+    private final char[] chars;
+
+    public CharArrayReference(JvmClassLoader jvmClassLoader, int count) {
+        super(jvmClassLoader, char.class, count);
+        this.chars = new char[count];
+    }
+
+    /**
+     * the array given is used directly, not copied
+     */
+    public CharArrayReference(JvmClassLoader jvmClassLoader, char[] chars) {
+        this(jvmClassLoader, chars, true);
+    }
+
+    /**
+     * @param accounted false if the bytes are accounted by the owner already
+     */
+    CharArrayReference(JvmClassLoader jvmClassLoader, char[] chars, boolean accounted) {
+        super(jvmClassLoader, char.class, chars.length, accounted);
+        this.chars = chars;
+    }
+
+    @Override
+    public byte getTypeCode() {
+        return ArrayTypeCodes.T_CHAR;
+    }
+
+    @Override
+    public char[] getArray() {
+        return chars;
+    }
+
+    public char getCharValue(int index) {
+        return chars[index];
+    }
+
+    public void setCharValue(int index, char charValue) {
+        chars[index] = charValue;
+    }
+
+    @Override
+    public String toString() {
+        return "CharArrayReference{" + Arrays.toString(chars) + "}";
+    }
+}
@@ -1,14 +1,11 @@
 package com.github.anilople.javajvm.runtimedataarea.reference;
 
 import com.github.anilople.javajvm.heap.JvmClass;
-import com.github.anilople.javajvm.heap.JvmClassLoader;
 import com.github.anilople.javajvm.runtimedataarea.Reference;
 import com.github.anilople.javajvm.utils.ReferenceUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * represents
@@ -23,11 +20,11 @@ public class ClassObjectReference extends ObjectReference {
     private static final Logger logger = LoggerFactory.getLogger(ClassObjectReference.class);
 
     /**
-     * memory class
+     * which class this java.lang.Class represents,
+     * the class holds this object too,
+     * so they are reclaimed together with their class loader
      */
-    private static final Map<Class<?>, ClassObjectReference> class2ClassObjectReference = new ConcurrentHashMap<>();
-
-    private static final Map<ClassObjectReference, Class<?>> classObjectReference2Class = new ConcurrentHashMap<>();
+    private final JvmClass representedJvmClass;
 
     /**
      * Remember that new java.lang.Class() is forbidden,
@@ -39,6 +36,7 @@ public class ClassObjectReference extends ObjectReference {
     private ClassObjectReference(JvmClass jvmClass) {
         // this object reference's type is java.lang.Class
         super(jvmClass.getLoader().loadClass(Class.class));
+        this.representedJvmClass = jvmClass;
 
         final String javaLevelClassName = jvmClass.getJavaLevelClassName();
 
@@ -58,30 +56,36 @@ public class ClassObjectReference extends ObjectReference {
      * @return self-define ClassObjectReference
      */
     public static ClassObjectReference getInstance(JvmClass jvmClass) {
-        // which java.lang.Class<?> this JvmClass should be
-        final Class<?> clazz = jvmClass.getRealClassInJvm();
-        if(!class2ClassObjectReference.containsKey(clazz)) {
-            logger.debug("{} not exists, now try to add it.", clazz);
-            final JvmClass clazzJvmClass = jvmClass.getLoader().loadClass(clazz);
-            ClassObjectReference classObjectReference = new ClassObjectReference(clazzJvmClass);
-            class2ClassObjectReference.put(clazz, classObjectReference);
-            classObjectReference2Class.put(classObjectReference, clazz);
+        ClassObjectReference classObjectReference = jvmClass.getClassObjectReference();
+        if(null != classObjectReference) {
+            return classObjectReference;
+        }
+        synchronized (jvmClass) {
+            if(null == jvmClass.getClassObjectReference()) {
+                logger.debug("java.lang.Class of {} not exists, now try to add it.", jvmClass.getName());
+                jvmClass.setClassObjectReference(new ClassObjectReference(jvmClass));
+            }
         }
-        return class2ClassObjectReference.get(clazz);
+        return jvmClass.getClassObjectReference();
     }
 
     /**
      * sometimes we want to know, if give a {@code ClassObjectReference},
      * which {@code Class<?>} it represents?
      * this method will tell you.
+     * only for the values passed to host, see {@link JvmClass#getRealClassInJvm()}
      * @param classObjectReference
      * @return
      */
     public static Class<?> getRealClassInJvm(ClassObjectReference classObjectReference) {
-        if(!classObjectReference2Class.containsKey(classObjectReference)) {
-            throw new RuntimeException(classObjectReference + " not exist");
-        }
-        return classObjectReference2Class.get(classObjectReference);
+        return classObjectReference.representedJvmClass.getRealClassInJvm();
+    }
+
+    /**
+     * @return the class represented by this java.lang.Class
+     */
+    public JvmClass getRepresentedJvmClass() {
+        return representedJvmClass;
     }
 
     /**
@@ -89,21 +93,14 @@ public class ClassObjectReference extends ObjectReference {
      * @return
      */
     public Reference getComponentType() {
-        // must use this way to get java.lang.Class
-        Class<?> clazz = getRealClassInJvm(this);
-        Class<?> componentType = clazz.getComponentType();
-        if(null == componentType) {
+        if(!this.representedJvmClass.isArrayType()) {
             return Reference.NULL;
-        } else {
-            JvmClassLoader jvmClassLoader = this.getJvmClass().getLoader();
-            JvmClass componentTypeJvmClass = jvmClassLoader.loadClass(componentType);
-            return getInstance(componentTypeJvmClass);
         }
+        return getInstance(this.representedJvmClass.getComponentClass());
     }
 
     @Override
     public String toString() {
-        Class<?> clazz = classObjectReference2Class.get(this);
-        return "ClassObjectReference{" + clazz + "}";
+        return "ClassObjectReference{" + representedJvmClass.getJavaLevelClassName() + "}";
     }
 }
@@ -0,0 +1,50 @@
+package com.github.anilople.javajvm.runtimedataarea.reference;
+
+import com.github.anilople.javajvm.constants.ArrayTypeCodes;
+import com.github.anilople.javajvm.heap.JvmClassLoader;
+
+import java.util.Arrays;
+
+/**
+ * double[]
+ */
+public final class DoubleArrayReference extends BaseTypeArrayReference {
+
+    private final double[] doubles;
+
+    public DoubleArrayReference(JvmClassLoader jvmClassLoader, int count) {
+        super(jvmClassLoader, double.class, count);
+        this.doubles = new double[count];
+    }
+
+    /**
+     * the array given is used directly, not copied
+     */
+    public DoubleArrayReference(JvmClassLoader jvmClassLoader, double[] doubles) {
+        super(jvmClassLoader, double.class, doubles.length);
+        this.doubles = doubles;
+    }
+
+    @Override
+    public byte getTypeCode() {
+        return ArrayTypeCodes.T_DOUBLE;
+    }
+
+    @Override
+    public double[] getArray() {
+        return doubles;
+    }
+
+    public double getDoubleValue(int index) {
+        return doubles[index];
+    }
+
+    public void setDoubleValue(int index, double doubleValue) {
+        doubles[index] = doubleValue;
+    }
+
+    @Override
+    public String toString() {
+        return "DoubleArrayReference{" + Arrays.toString(doubles) + "}";
+    }
+}
@@ -0,0 +1,50 @@
+package com.github.anilople.javajvm.runtimedataarea.reference;
+
+import com.github.anilople.javajvm.constants.ArrayTypeCodes;
+import com.github.anilople.javajvm.heap.JvmClassLoader;
+
+import java.util.Arrays;
+
+/**
+ * float[]
+ */
+public final class FloatArrayReference extends BaseTypeArrayReference {
+
+    private final float[] floats;
+
+    public FloatArrayReference(JvmClassLoader jvmClassLoader, int count) {
+        super(jvmClassLoader, float.class, count);
+        this.floats = new float[count];
+    }
+
+    /**
+     * the array given is used directly, not copied
+     */
+    public FloatArrayReference(JvmClassLoader jvmClassLoader, float[] floats) {
+        super(jvmClassLoader, float.class, floats.length);
+        this.floats = floats;
+    }
+
+    @Override
+    public byte getTypeCode() {
+        return ArrayTypeCodes.T_FLOAT;
+    }
+
+    @Override
+    public float[] getArray() {
+        return floats;
+    }
+
+    public float getFloatValue(int index) {
+        return floats[index];
+    }
+
+    public void setFloatValue(int index, float floatValue) {
+        floats[index] = floatValue;
+    }
+
+    @Override
+    public String toString() {
+        return "FloatArrayReference{" + Arrays.toString(floats) + "}";
+    }
+}
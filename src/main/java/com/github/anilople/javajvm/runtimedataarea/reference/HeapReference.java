@@ -0,0 +1,199 @@
+package com.github.anilople.javajvm.runtimedataarea.reference;
+
+import com.github.anilople.javajvm.runtimedataarea.Monitor;
+import com.github.anilople.javajvm.runtimedataarea.Reference;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * object or array in heap, with a header word.
+ * <p>
+ * the header word keeps the identity hash code and a lock,
+ * <pre>
+ *  63 62            32 31           10 9          2 1     0
+ * | 0 | identity hash |  owner thread | recursions | state |
+ * </pre>
+ * identity hash is assigned lazily, 0 means not assigned.
+ * <p>
+ * a thin lock is entered or exited by a CAS on the header word,
+ * recursions is how many times the owner entered it again.
+ * when another thread wants it, or recursions overflow,
+ * it is inflated to a {@link Monitor} which never deflates.
+ */
+public abstract class HeapReference implements Reference {
+
+    private static final long STATE_MASK = 0b11L;
+
+    private static final long UNLOCKED = 0;
+
+    private static final long THIN = 1;
+
+    private static final long INFLATED = 2;
+
+    private static final int RECURSIONS_SHIFT = 2;
+
+    private static final long MAX_RECURSIONS = 0xFF;
+
+    private static final int OWNER_SHIFT = 10;
+
+    private static final int MAX_OWNER = (1 << 22) - 1;
+
+    private static final int HASH_SHIFT = 32;
+
+    private static final long LOCK_MASK = (1L << HASH_SHIFT) - 1;
+
+    private static final AtomicLongFieldUpdater<HeapReference> HEADER =
+            AtomicLongFieldUpdater.newUpdater(HeapReference.class, "header");
+
+    private volatile long header;
+
+    /**
+     * only read when the state in header is inflated
+     */
+    private volatile Monitor monitor;
+
+    /**
+     * @return identity hash code, same in the life of object
+     * @see System#identityHashCode(Object)
+     */
+    public int identityHashCode() {
+        while (true) {
+            final long word = header;
+            final int hash = (int) (word >>> HASH_SHIFT);
+            if(0 != hash) {
+                return hash;
+            }
+            int newHash;
+            do {
+                newHash = ThreadLocalRandom.current().nextInt() & Integer.MAX_VALUE;
+            } while (0 == newHash);
+            if(HEADER.compareAndSet(this, word, (word & LOCK_MASK) | ((long) newHash << HASH_SHIFT))) {
+                return newHash;
+            }
+        }
+    }
+
+    /**
+     * jvms8, monitorenter.
+     * block until the thread owns the lock
+     * @param threadId id of guest thread, positive
+     */
+    public void monitorEnter(int threadId) {
+        while (true) {
+            final long word = header;
+            final long state = word & STATE_MASK;
+            if(UNLOCKED == state && threadId <= MAX_OWNER) {
+                if(HEADER.compareAndSet(this, word, word | THIN | ((long) threadId << OWNER_SHIFT))) {
+                    return;
+                }
+            } else if(THIN == state && owner(word) == threadId && recursions(word) < MAX_RECURSIONS) {
+                if(HEADER.compareAndSet(this, word, word + (1L << RECURSIONS_SHIFT))) {
+                    return;
+                }
+            } else if(INFLATED == state) {
+                monitor.enter(threadId);
+                return;
+            } else {
+                inflate();
+            }
+        }
+    }
+
+    /**
+     * jvms8, monitorexit
+     * @param threadId id of guest thread
+     * @throws IllegalMonitorStateException if the thread is not the owner
+     */
+    public void monitorExit(int threadId) {
+        while (true) {
+            final long word = header;
+            final long state = word & STATE_MASK;
+            if(THIN == state && owner(word) == threadId) {
+                final long newWord = 0 == recursions(word) ? word & ~LOCK_MASK : word - (1L << RECURSIONS_SHIFT);
+                if(HEADER.compareAndSet(this, word, newWord)) {
+                    return;
+                }
+            } else if(INFLATED == state) {
+                monitor.exit(threadId);
+                return;
+            } else {
+                throw new IllegalMonitorStateException("current thread is not owner");
+            }
+        }
+    }
+
+    /**
+     * Object.wait, the lock is inflated to have a wait set
+     * @param millis 0 means no timeout
+     * @throws IllegalMonitorStateException if the thread is not the owner
+     * @throws InterruptedException if the host thread is interrupted when waiting
+     */
+    public void monitorWait(int threadId, long millis) throws InterruptedException {
+        if(!isLockedBy(threadId)) {
+            throw new IllegalMonitorStateException("current thread is not owner");
+        }
+        inflate();
+        monitor.await(threadId, millis);
+    }
+
+    /**
+     * Object.notify and Object.notifyAll.
+     * nobody waits on a thin lock, so it is not inflated
+     * @param all notify all the waiters, or one of them
+     * @throws IllegalMonitorStateException if the thread is not the owner
+     */
+    public void monitorNotify(int threadId, boolean all) {
+        if(!isLockedBy(threadId)) {
+            throw new IllegalMonitorStateException("current thread is not owner");
+        }
+        if(INFLATED == (header & STATE_MASK)) {
+            monitor.signal(threadId, all);
+        }
+    }
+
+    /**
+     * @return the thread owns the lock or not
+     */
+    public boolean isLockedBy(int threadId) {
+        final long word = header;
+        final long state = word & STATE_MASK;
+        if(THIN == state) {
+            return owner(word) == threadId;
+        } else if(INFLATED == state) {
+            return monitor.isOwnedBy(threadId);
+        }
+        return false;
+    }
+
+    /**
+     * replace the thin lock by a monitor, owned by the same thread.
+     * only here uses a host lock, so inflations do not race
+     */
+    private synchronized void inflate() {
+        while (true) {
+            final long word = header;
+            final long state = word & STATE_MASK;
+            if(INFLATED == state) {
+                return;
+            }
+            if(THIN == state) {
+                monitor = new Monitor(owner(word), (int) recursions(word) + 1);
+            } else {
+                monitor = new Monitor(0, 0);
+            }
+            // monitor is published before the state
+            if(HEADER.compareAndSet(this, word, (word & ~LOCK_MASK) | INFLATED)) {
+                return;
+            }
+        }
+    }
+
+    private static int owner(long word) {
+        return (int) ((word & LOCK_MASK) >>> OWNER_SHIFT);
+    }
+
+    private static long recursions(long word) {
+        return (word >>> RECURSIONS_SHIFT) & MAX_RECURSIONS;
+    }
+}
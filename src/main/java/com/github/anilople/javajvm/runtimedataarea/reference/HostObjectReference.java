@@ -0,0 +1,35 @@
+package com.github.anilople.javajvm.runtimedataarea.reference;
+
+import com.github.anilople.javajvm.heap.JvmClass;
+
+/**
+ * an opaque handle in guest, stands for an object in host
+ * returned by a native method.
+ * its fields are not copied from the host object,
+ * it only goes back to host as the same object.
+ */
+public class HostObjectReference extends ObjectReference {
+
+    private final Object hostObject;
+
+    /**
+     * @param jvmClass class of host object in guest
+     * @param hostObject object in host
+     */
+    public HostObjectReference(JvmClass jvmClass, Object hostObject) {
+        super(jvmClass);
+        this.hostObject = hostObject;
+    }
+
+    public Object getHostObject() {
+        return hostObject;
+    }
+
+    @Override
+    public String toString() {
+        return "HostObjectReference{" +
+                "jvmClass=" + getJvmClass() +
+                ", hostObject=" + hostObject.getClass().getName() +
+                '}';
+    }
+}
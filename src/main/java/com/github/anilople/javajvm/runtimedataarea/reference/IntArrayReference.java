@@ -0,0 +1,50 @@
+package com.github.anilople.javajvm.runtimedataarea.reference;
+
+import com.github.anilople.javajvm.constants.ArrayTypeCodes;
+import com.github.anilople.javajvm.heap.JvmClassLoader;
+
+import java.util.Arrays;
+
+/**
+ * int[]
+ */
+public final class IntArrayReference extends BaseTypeArrayReference {
+
+    private final int[] ints;
+
+    public IntArrayReference(JvmClassLoader jvmClassLoader, int count) {
+        super(jvmClassLoader, int.class, count);
+        this.ints = new int[count];
+    }
+
+    /**
+     * the array given is used directly, not copied
+     */
+    public IntArrayReference(JvmClassLoader jvmClassLoader, int[] ints) {
+        super(jvmClassLoader, int.class, ints.length);
+        this.ints = ints;
+    }
+
+    @Override
+    public byte getTypeCode() {
+        return ArrayTypeCodes.T_INT;
+    }
+
+    @Override
+    public int[] getArray() {
+        return ints;
+    }
+
+    public int getIntValue(int index) {
+        return ints[index];
+    }
+
+    public void setIntValue(int index, int intValue) {
+        ints[index] = intValue;
+    }
+
+    @Override
+    public String toString() {
+        return "IntArrayReference{" + Arrays.toString(ints) + "}";
+    }
+}
@@ -0,0 +1,50 @@
+package com.github.anilople.javajvm.runtimedataarea.reference;
+
+import com.github.anilople.javajvm.constants.ArrayTypeCodes;
+import com.github.anilople.javajvm.heap.JvmClassLoader;
+
+import java.util.Arrays;
+
+/**
+ * long[]
+ */
+public final class LongArrayReference extends BaseTypeArrayReference {
+
+    private final long[] longs;
+
+    public LongArrayReference(JvmClassLoader jvmClassLoader, int count) {
+        super(jvmClassLoader, long.class, count);
+        this.longs = new long[count];
+    }
+
+    /**
+     * the array given is used directly, not copied
+     */
+    public LongArrayReference(JvmClassLoader jvmClassLoader, long[] longs) {
+        super(jvmClassLoader, long.class, longs.length);
+        this.longs = longs;
+    }
+
+    @Override
+    public byte getTypeCode() {
+        return ArrayTypeCodes.T_LONG;
+    }
+
+    @Override
+    public long[] getArray() {
+        return longs;
+    }
+
+    public long getLongValue(int index) {
+        return longs[index];
+    }
+
+    public void setLongValue(int index, long longValue) {
+        longs[index] = longValue;
+    }
+
+    @Override
+    public String toString() {
+        return "LongArrayReference{" + Arrays.toString(longs) + "}";
+    }
+}
@@ -1,6 +1,7 @@
 package com.github.anilople.javajvm.runtimedataarea.reference;
 
 import com.github.anilople.javajvm.heap.JvmClass;
+import com.github.anilople.javajvm.heap.JvmHeap;
 import com.github.anilople.javajvm.runtimedataarea.Reference;
 
 import java.util.Arrays;
@@ -14,7 +15,7 @@ public class ObjectArrayReference extends ArrayReference {
 
 
     public ObjectArrayReference(JvmClass componentType, int count) {
-        super(componentType, count);
+        super(componentType, count, JvmHeap.REFERENCE_SIZE);
         references = new Reference[count];
         Arrays.fill(references, Reference.NULL);
     }
@@ -34,4 +35,11 @@ public class ObjectArrayReference extends ArrayReference {
     public Reference getReference(int index) {
         return references[index];
     }
+
+    /**
+     * @return the host array keeps the elements, not a copy
+     */
+    public Reference[] getArray() {
+        return references;
+    }
 }
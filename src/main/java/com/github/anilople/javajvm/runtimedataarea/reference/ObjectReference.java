@@ -2,70 +2,137 @@ package com.github.anilople.javajvm.runtimedataarea.reference;
 
 import com.github.anilople.javajvm.heap.JvmClass;
 import com.github.anilople.javajvm.heap.JvmField;
-import com.github.anilople.javajvm.runtimedataarea.LocalVariables;
+import com.github.anilople.javajvm.heap.JvmHeap;
 import com.github.anilople.javajvm.runtimedataarea.Reference;
-import com.github.anilople.javajvm.utils.DescriptorUtils;
+import com.github.anilople.javajvm.utils.ByteUtils;
 
-import java.util.List;
 
-import static com.github.anilople.javajvm.constants.Descriptors.BaseType.*;
-import static com.github.anilople.javajvm.constants.Descriptors.BaseType.BOOLEAN;
+/**
+ * an object in heap.
+ * <p>
+ * the header is the class of object, and the header word in {@link HeapReference},
+ * the fields are saved in 2 arrays, the offsets are decided by the layout of class,
+ * base type values are in {@link #primitives}, long and double occupy 2 slots,
+ * others are in {@link #references}.
+ * @see JvmField#calculateNonStaticFieldOffset()
+ */
+public class ObjectReference extends HeapReference {
 
-public class ObjectReference extends LocalVariables implements Reference {
+    private final JvmClass jvmClass;
 
-    private JvmClass jvmClass;
+    private final int[] primitives;
+
+    private final Reference[] references;
+
+    private static final int[] EMPTY_PRIMITIVES = new int[0];
 
     /**
      * Initialize an object reference,
      * The default value of type,
      * jls8, 4.12.5 Initial Values of Variables, Page 87
+     * all bits of primitive values are 0, references are null.
+     * the cost only depends on the size of object
      * @param jvmClass object ref's class
+     * @throws JvmHeap.HeapExhaustedException if heap is full
      */
     ObjectReference(JvmClass jvmClass) {
-        // an Object in run-time exist own fields (non static fields)
-        super(jvmClass.getNonStaticFieldsSize());
+        this(jvmClass, 0);
+    }
+
+    /**
+     * @param extraBytes bytes held by the object besides its fields, accounted with it,
+     *                   i.e chars of {@link StringReference}
+     * @throws JvmHeap.HeapExhaustedException if heap is full
+     */
+    ObjectReference(JvmClass jvmClass, long extraBytes) {
         this.jvmClass = jvmClass;
+        final int primitiveFieldsSize = jvmClass.getPrimitiveFieldsSize();
+        JvmHeap.allocate(this, JvmHeap.objectSize(primitiveFieldsSize, jvmClass.getReferenceFieldsSize()) + extraBytes);
+        this.primitives = 0 == primitiveFieldsSize ? EMPTY_PRIMITIVES : new int[primitiveFieldsSize];
+        this.references = jvmClass.newReferenceFields();
+    }
 
-        // initial fields with default value
-        List<JvmField> jvmFields = jvmClass.getNonStaticJvmFieldsFromAncestorsInOrder();
-        int fieldOffset = 0;
-        for(JvmField jvmField : jvmFields) {
-            // initial default value of this field
-            String descriptor = jvmField.getDescriptor();
-            if(DescriptorUtils.isBaseType(descriptor)) {
-                switch (descriptor) {
-                    case BYTE:
-                        this.setByteValue(fieldOffset, (byte) 0);
-                        break;
-                    case CHAR:
-                        this.setCharValue(fieldOffset, '\u0000');
-                        break;
-                    case DOUBLE:
-                        this.setDoubleValue(fieldOffset, 0.0d);
-                        break;
-                    case FLOAT:
-                        this.setFloatValue(fieldOffset, 0.0f);
-                        break;
-                    case INT:
-                        this.setIntValue(fieldOffset, 0);
-                        break;
-                    case LONG:
-                        this.setLongValue(fieldOffset, 0L);
-                        break;
-                    case SHORT:
-                        this.setShortValue(fieldOffset, (short) 0);
-                        break;
-                    case BOOLEAN:
-                        this.setBooleanValue(fieldOffset, false);
-                        break;
-                }
-            } else {
-                this.setReference(fieldOffset, Reference.NULL);
-            }
+    public boolean getBooleanValue(int offset) {
+        return 0 != primitives[offset];
+    }
 
-            // add the offset
-            fieldOffset += jvmField.getSize();
-        }
+    public byte getByteValue(int offset) {
+        return (byte) primitives[offset];
+    }
+
+    public char getCharValue(int offset) {
+        return (char) primitives[offset];
+    }
+
+    public short getShortValue(int offset) {
+        return (short) primitives[offset];
+    }
+
+    public int getIntValue(int offset) {
+        return primitives[offset];
+    }
+
+    public float getFloatValue(int offset) {
+        return Float.intBitsToFloat(primitives[offset]);
+    }
+
+    public long getLongValue(int offset) {
+        return ByteUtils.int2long(primitives[offset], primitives[offset + 1]);
+    }
+
+    public double getDoubleValue(int offset) {
+        return Double.longBitsToDouble(this.getLongValue(offset));
+    }
+
+    public Reference getReference(int offset) {
+        return references[offset];
+    }
+
+    public void setBooleanValue(int offset, boolean booleanValue) {
+        primitives[offset] = booleanValue ? 1 : 0;
+    }
+
+    public void setByteValue(int offset, byte byteValue) {
+        primitives[offset] = byteValue;
+    }
+
+    public void setCharValue(int offset, char charValue) {
+        primitives[offset] = charValue;
+    }
+
+    public void setShortValue(int offset, short shortValue) {
+        primitives[offset] = shortValue;
+    }
+
+    public void setIntValue(int offset, int intValue) {
+        primitives[offset] = intValue;
+    }
+
+    public void setFloatValue(int offset, float floatValue) {
+        primitives[offset] = Float.floatToRawIntBits(floatValue);
+    }
+
+    public void setLongValue(int offset, long longValue) {
+        // high bytes first
+        primitives[offset] = (int) (longValue >> 32);
+        primitives[offset + 1] = (int) longValue;
+    }
+
+    public void setDoubleValue(int offset, double doubleValue) {
+        this.setLongValue(offset, Double.doubleToRawLongBits(doubleValue));
+    }
+
+    public void setReference(int offset, Reference reference) {
+        references[offset] = reference;
+    }
+
+    /**
+     * shallow copy, the fields of object given are copied to this one
+     * @param objectReference same class as this one
+     */
+    public void copyFieldsFrom(ObjectReference objectReference) {
+        System.arraycopy(objectReference.primitives, 0, this.primitives, 0, this.primitives.length);
+        System.arraycopy(objectReference.references, 0, this.references, 0, this.references.length);
     }
 
     /**
@@ -77,7 +144,7 @@ public class ObjectReference extends LocalVariables implements Reference {
      * @return
      */
     public static ObjectReference makeObjectReference(JvmClass jvmClass) {
-        if(jvmClass.isSameName(java.lang.Class.class)) {
+        if(jvmClass.isJavaLangClass()) {
             return ClassObjectReference.getInstance(jvmClass);
         } else {
             return new ObjectReference(jvmClass);
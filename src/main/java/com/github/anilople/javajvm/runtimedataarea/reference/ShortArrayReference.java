@@ -0,0 +1,50 @@
+package com.github.anilople.javajvm.runtimedataarea.reference;
+
+import com.github.anilople.javajvm.constants.ArrayTypeCodes;
+import com.github.anilople.javajvm.heap.JvmClassLoader;
+
+import java.util.Arrays;
+
+/**
+ * short[]
+ */
+public final class ShortArrayReference extends BaseTypeArrayReference {
+
+    private final short[] shorts;
+
+    public ShortArrayReference(JvmClassLoader jvmClassLoader, int count) {
+        super(jvmClassLoader, short.class, count);
+        this.shorts = new short[count];
+    }
+
+    /**
+     * the array given is used directly, not copied
+     */
+    public ShortArrayReference(JvmClassLoader jvmClassLoader, short[] shorts) {
+        super(jvmClassLoader, short.class, shorts.length);
+        this.shorts = shorts;
+    }
+
+    @Override
+    public byte getTypeCode() {
+        return ArrayTypeCodes.T_SHORT;
+    }
+
+    @Override
+    public short[] getArray() {
+        return shorts;
+    }
+
+    public short getShortValue(int index) {
+        return shorts[index];
+    }
+
+    public void setShortValue(int index, short shortValue) {
+        shorts[index] = shortValue;
+    }
+
+    @Override
+    public String toString() {
+        return "ShortArrayReference{" + Arrays.toString(shorts) + "}";
+    }
+}
@@ -0,0 +1,82 @@
+package com.github.anilople.javajvm.runtimedataarea.reference;
+
+import com.github.anilople.javajvm.heap.JvmClass;
+import com.github.anilople.javajvm.heap.JvmHeap;
+import com.github.anilople.javajvm.runtimedataarea.Reference;
+
+/**
+ * a java.lang.String in guest, backed by an immutable String in host.
+ * <p>
+ * the intrinsics of String and the natives read the host String directly,
+ * it goes to host without copy.
+ * "value", the char[] of String, is made only when guest code reads it,
+ * i.e a method of String not intrinsified.
+ * on a host with compact strings (jdk9+), a latin-1 string takes 1 byte per char.
+ * the chars are accounted with the String once, "value" made later is not accounted again.
+ */
+public class StringReference extends ObjectReference {
+
+    /**
+     * offset of "value" in String of jdk8
+     */
+    private static final int VALUE = 0;
+
+    private final String string;
+
+    private volatile boolean materialized;
+
+    /**
+     * @param stringClass java.lang.String
+     * @param string content
+     * @throws JvmHeap.HeapExhaustedException if heap is full
+     */
+    public StringReference(JvmClass stringClass, String string) {
+        super(stringClass, JvmHeap.arraySize(string.length(), Character.BYTES));
+        this.string = string;
+    }
+
+    /**
+     * @return the string in host
+     */
+    public String getString() {
+        return string;
+    }
+
+    @Override
+    public Reference getReference(int offset) {
+        if(VALUE == offset && !materialized) {
+            materialize();
+        }
+        return super.getReference(offset);
+    }
+
+    @Override
+    public void setReference(int offset, Reference reference) {
+        if(VALUE == offset) {
+            // String is immutable, if reflection changes it, the host string is not changed
+            materialized = true;
+        }
+        super.setReference(offset, reference);
+    }
+
+    /**
+     * @return "value" is made or not
+     */
+    public boolean isMaterialized() {
+        return materialized;
+    }
+
+    private synchronized void materialize() {
+        if(!materialized) {
+            super.setReference(VALUE, new CharArrayReference(getJvmClass().getLoader(), string.toCharArray(), false));
+            materialized = true;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "StringReference{" +
+                "string='" + string + '\'' +
+                '}';
+    }
+}
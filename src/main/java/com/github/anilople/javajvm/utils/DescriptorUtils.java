@@ -4,14 +4,13 @@ import com.github.anilople.javajvm.constants.Descriptors;
 import com.github.anilople.javajvm.runtimedataarea.LocalVariables;
 import com.github.anilople.javajvm.runtimedataarea.OperandStacks;
 import com.github.anilople.javajvm.runtimedataarea.Reference;
-import com.github.anilople.javajvm.runtimedataarea.reference.ArrayReference;
 import com.github.anilople.javajvm.runtimedataarea.reference.ObjectReference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.ListIterator;
 
 /**
  * some tools for descriptor
@@ -377,12 +376,12 @@ public class DescriptorUtils {
                 new LocalVariables(parameterDescriptorsSize)
                 ;
 
-        // reverse parameter descriptors list for pop value
-        Collections.reverse(parameterDescriptors);
-
-        // start index
-        int localVariableIndex = 0;
-        for(String parameterDescriptor : parameterDescriptors) {
+        // values are popped from the last parameter,
+        // and set from the end of local variables,
+        // so a long or double keeps the order of its 2 slots
+        int localVariableIndex = existsObjectReference ? parameterDescriptorsSize + 1 : parameterDescriptorsSize;
+        for(ListIterator<String> iterator = parameterDescriptors.listIterator(parameterDescriptors.size()); iterator.hasPrevious(); ) {
+            final String parameterDescriptor = iterator.previous();
             logger.trace("one parameterDescriptor: {}", parameterDescriptor);
             if(DescriptorUtils.isBaseType(parameterDescriptor)) {
                 switch (parameterDescriptor) {
@@ -391,33 +390,32 @@ public class DescriptorUtils {
                     case Descriptors.BaseType.CHAR:
                     case Descriptors.BaseType.SHORT:
                     case Descriptors.BaseType.INT:
+                        localVariableIndex -= 1;
                         int intValue = operandStacks.popIntValue();
                         localVariables.setIntValue(localVariableIndex, intValue);
                         break;
                     case Descriptors.BaseType.FLOAT:
+                        localVariableIndex -= 1;
                         float floatValue = operandStacks.popFloatValue();
                         localVariables.setFloatValue(localVariableIndex, floatValue);
                         break;
                     case Descriptors.BaseType.LONG:
+                        localVariableIndex -= 2;
                         long longValue = operandStacks.popLongValue();
                         localVariables.setLongValue(localVariableIndex, longValue);
-                        localVariableIndex += 1;
                         break;
                     case Descriptors.BaseType.DOUBLE:
+                        localVariableIndex -= 2;
                         double doubleValue = operandStacks.popDoubleValue();
                         localVariables.setDoubleValue(localVariableIndex, doubleValue);
-                        localVariableIndex += 1;
+                        break;
+                    default:
+                        throw new IllegalStateException("Unexpected value: " + parameterDescriptor);
                 }
-                localVariableIndex += 1;
-            } else if(DescriptorUtils.isObjectType(parameterDescriptor)) {
+            } else if(DescriptorUtils.isObjectType(parameterDescriptor) || DescriptorUtils.isArrayType(parameterDescriptor)) {
+                localVariableIndex -= 1;
                 Reference reference = operandStacks.popReference();
                 localVariables.setReference(localVariableIndex, reference);
-                localVariableIndex += 1;
-            } else if(DescriptorUtils.isArrayType(parameterDescriptor)) {
-                ArrayReference arrayReference = (ArrayReference) operandStacks.popReference();
-                localVariables.setReference(localVariableIndex, arrayReference);
-                localVariableIndex += 1;
-//                throw new RuntimeException(parameterDescriptor + " array type not support now.");
             } else {
                 throw new RuntimeException("What descriptor is " + parameterDescriptor);
             }
@@ -426,13 +424,9 @@ public class DescriptorUtils {
         // maybe pop object reference
         if(existsObjectReference) {
             Reference reference = operandStacks.popReference();
-            localVariables.setReference(localVariableIndex, reference);
-            localVariableIndex += 1;
+            localVariables.setReference(0, reference);
         }
 
-        // now in local variables, [..., arg2, arg1, {objectref}]
-        // so we need to reverse it
-        localVariables.reverse();
         return localVariables;
     }
 
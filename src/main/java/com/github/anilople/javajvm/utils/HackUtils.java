@@ -3,19 +3,22 @@ package com.github.anilople.javajvm.utils;
 import com.github.anilople.javajvm.heap.JvmClass;
 import com.github.anilople.javajvm.heap.JvmClassLoader;
 import com.github.anilople.javajvm.heap.JvmMethod;
+import com.github.anilople.javajvm.natives.HostBridge;
+import com.github.anilople.javajvm.natives.NativeMethod;
+import com.github.anilople.javajvm.natives.NativeRegistry;
 import com.github.anilople.javajvm.runtimedataarea.*;
 import com.github.anilople.javajvm.runtimedataarea.reference.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.PrintStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
 
-import static com.github.anilople.javajvm.constants.Descriptors.BaseType.*;
-
 /**
  * Sometimes for convenience,
  * we use a direct way to implement the function
@@ -24,229 +27,158 @@ public class HackUtils {
 
     private static final Logger logger = LoggerFactory.getLogger(HackUtils.class);
 
+    /**
+     * static methods in java.util.Arrays run on the backing host arrays directly
+     */
+    private static final List<String> ARRAYS_INTRINSIC_NAMES = Arrays.asList(
+            "fill", "equals", "copyOf", "copyOfRange", "sort"
+    );
+
     /**
      * We know that all native methods must be hacked.
      * But there are still some methods not native should be hacked too.
      * Like System.out.Println()...
-     * So for the non-native method, this judgement is necessary
      * @param jvmMethod
      * @return should hack jvm method given or not
+     * @see NativeRegistry#bind(JvmMethod)
      */
     public static boolean isInHackMethods(JvmMethod jvmMethod) {
-        if(jvmMethod.isNative()) {
-            logger.debug("Hack judgement for class {} 's native method: {} {}",
-                    jvmMethod.getJvmClass().getName(),
-                    jvmMethod.getName(),
-                    jvmMethod.getDescriptor()
-            );
-        }
-        if(jvmMethod.getJvmClass().isSameName(PrintStream.class)) {
-            // System.out.* should be hacked
-            return true;
-        }
-
-        // default action: hack all native method
-        return jvmMethod.isNative();
+        return null != jvmMethod.getNativeMethod();
     }
 
     /**
-     * hack a native method
+     * hack a native method by the handler bound to it
      * @param frame frame in jvm stack
      * @param jvmMethod the method be hacked
      * @param localVariables args pop from operand stack
-     * @return
+     * @throws GuestException if an exception should be thrown in guest
      */
     public static void hackMethod(Frame frame, JvmMethod jvmMethod, LocalVariables localVariables) {
-        final JvmClass jvmClass = jvmMethod.getJvmClass();
-        if(jvmClass.isSameName(PrintStream.class)) {
-            // System.out
-            hackSystemOut(jvmMethod, localVariables);
-        } else if(jvmClass.isSameName(System.class) && jvmMethod.getName().equals("arraycopy")) {
-            hackSystemArrayCopy(localVariables);
-        } else if(jvmClass.isSameName(Throwable.class)
-                && jvmMethod.getName().equals("fillInStackTrace")
-                && jvmMethod.getDescriptor().equals("(I)Ljava/lang/Throwable;")) {
-            hackThrowableFillInStackTrace0(frame.getJvmThread(), jvmMethod, localVariables);
-        } else if(jvmClass.isSameName(Class.class) && jvmMethod.getName().equals("getComponentType")) {
-            hackClassGetComponentType(frame, localVariables);
-        } else {
-            // default action: hack all native method
-            try {
-                 hackAllNativeMethod(frame, jvmMethod, localVariables);
-            } catch (IllegalAccessException | NoSuchMethodException | InvocationTargetException e) {
-                throw new RuntimeException(
-                        "hack method " +
-                                jvmClass.getName() + "." + jvmMethod.getName() +
-                                " fail",
-                        e
-                );
-            }
+        final NativeMethod nativeMethod = jvmMethod.getNativeMethod();
+        if(null == nativeMethod) {
+            throw new IllegalStateException(jvmMethod.getName() + jvmMethod.getDescriptor() + " is not hacked");
         }
+        nativeMethod.invoke(frame, jvmMethod, localVariables);
     }
 
-    private static void hackThrowableFillInStackTrace0(JvmThread jvmThread, JvmMethod jvmMethod, LocalVariables localVariables) {
-        // get "this"
-        ObjectReference thisObjectReference = (ObjectReference) localVariables.getReference(0);
-
-        // we don't care about the rest of parameters
-
-        // "UNASSIGNED_STACK" in Throwable will be changed by this method
-        List<Frame> frames = jvmThread.dumpFrames();
-        logger.trace("frames: {}", frames);
-        StackTraceElement[] stackTraceElements = new StackTraceElement[frames.size()];
-        Collections.reverse(frames);
-        // remove some frames, todo
-        for(int i = 0; i < frames.size(); i++) {
-            Frame frame = frames.get(i);
-            // Frame -> StackTraceElement
-            // resolve the fileName and lineNumber, todo
-            StackTraceElement stackTraceElement = new StackTraceElement(
-                    frame.getJvmMethod().getJvmClass().getName(),
-                    frame.getJvmMethod().getName(),
-                    null,
-                    -1
-            );
-            stackTraceElements[i] = stackTraceElement;
-        }
-        // change "stackTrace" in "this"
-        final Reference stackTraceReference;
+    /**
+     * @see java.lang.System arraycopy method
+     * @param localVariables
+     */
+    public static void hackSystemArrayCopy(Frame frame, JvmMethod jvmMethod, LocalVariables localVariables) {
+        Reference srcReference = localVariables.getReference(0);
+        int srcPos = localVariables.getIntValue(1);
+        Reference destReference = localVariables.getReference(2);
+        int destPos = localVariables.getIntValue(3);
+        int length = localVariables.getIntValue(4);
         try {
-            stackTraceReference = ReferenceUtils.object2Reference(jvmMethod.getJvmClass().getLoader(), stackTraceElements);
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
+            ReferenceUtils.arrayCopy(srcReference, srcPos, destReference, destPos, length);
+        } catch (NullPointerException | ArrayStoreException | IndexOutOfBoundsException e) {
+            throw new GuestException(e);
         }
-        thisObjectReference.setReference("UNASSIGNED_STACK", stackTraceReference);
+    }
 
-        // push null to operand stack
-        jvmThread.currentFrame().getOperandStacks().pushReference(Reference.NULL);
+    /**
+     * the hash code kept in the header of object,
+     * 0 for null
+     * @see java.lang.System identityHashCode
+     */
+    public static void hackIdentityHashCode(Frame frame, JvmMethod jvmMethod, LocalVariables localVariables) {
+        Reference reference = localVariables.getReference(0);
+        int hashCode = Reference.isNull(reference) ? 0 : ((HeapReference) reference).identityHashCode();
+        frame.getOperandStacks().pushIntValue(hashCode);
     }
 
     /**
-     * Hack the method in class System.out, i.e PrintStream
-     * @see java.io.PrintStream;
-     * @param jvmMethod method in runtime
-     * @param localVariables variables pop from operand stack by method's parameter descriptors
+     * the hash code kept in the header of object,
+     * the receiver cannot be null
+     * @see java.lang.Object hashCode
      */
-    public static void hackSystemOut(JvmMethod jvmMethod, LocalVariables localVariables) {
-        // the method must belong to class PrintStream
-        if(!jvmMethod.getJvmClass().isSameName(PrintStream.class)) {
-            return;
-        }
-        List<String> parameterDescriptors = DescriptorUtils.getParameterDescriptor(jvmMethod.getDescriptor());
-        final String methodName = jvmMethod.getName();
-        switch (methodName) {
-            case "print":
-                hackSystemOutPrint(localVariables, parameterDescriptors.get(0));
-                break;
-            case "println":
-                if(parameterDescriptors.size() > 0) {
-                    hackSystemOutPrint(localVariables, parameterDescriptors.get(0));
-                }
-                System.out.println();
-                break;
-            default:
-                throw new IllegalStateException("Unexpected value: " + methodName);
+    public static void hackObjectHashCode(Frame frame, JvmMethod jvmMethod, LocalVariables localVariables) {
+        Reference reference = localVariables.getReference(0);
+        if(Reference.isNull(reference)) {
+            throw new GuestException(new NullPointerException());
         }
+        frame.getOperandStacks().pushIntValue(((HeapReference) reference).identityHashCode());
     }
 
     /**
-     * Hack the method "print" in PrintStream
-     * @see java.io.PrintStream;
-     * @param localVariables variables pop from operand stack by method's parameter descriptors
-     * @param parameterDescriptor method's parameter descriptor, just 1
+     * @param jvmMethod method in runtime
+     * @return handler runs the host method in java.util.Arrays,
+     * if all the parameters are primitive or one dimension primitive array,
+     * and return nothing, primitive value or one dimension primitive array.
+     * null if the method is not intrinsic
      */
-    private static void hackSystemOutPrint(LocalVariables localVariables, String parameterDescriptor) {
-        switch (parameterDescriptor) {
-            case BYTE: {
-                byte value = localVariables.getByteValue(1);
-                System.out.print(value);
-                break;
-            }
-            case CHAR: {
-                char value = localVariables.getCharValue(1);
-                System.out.print(value);
-                break;
-            }
-            case DOUBLE: {
-                double value = localVariables.getDoubleValue(1);
-                System.out.print(value);
-                break;
-            }
-            case FLOAT: {
-                float value = localVariables.getFloatValue(1);
-                System.out.print(value);
-                break;
-            }
-            case INT: {
-                int value = localVariables.getIntValue(1);
-                System.out.print(value);
-                break;
-            }
-            case LONG: {
-                long value = localVariables.getLongValue(1);
-                System.out.print(value);
-                break;
-            }
-            case SHORT: {
-                short value = localVariables.getShortValue(1);
-                System.out.print(value);
-                break;
-            }
-            case BOOLEAN: {
-                boolean value = localVariables.getBooleanValue(1);
-                System.out.print(value);
-                break;
-            }
-            case "Ljava/lang/String;": {
-                Reference reference = localVariables.getReference(1);
-                if(reference instanceof NullReference) {
-                    System.out.print("null");
-                } else {
-                    // string reference
-                    ObjectReference objectReference = (ObjectReference) reference;
-                    // get the char array
-                    BaseTypeArrayReference baseTypeArrayReference = (BaseTypeArrayReference) objectReference.getReference(0);
-                    char[] chars = new char[baseTypeArrayReference.length()];
-                    // copy
-                    for(int i = 0; i < baseTypeArrayReference.length(); i++) {
-                        chars[i] = baseTypeArrayReference.getCharValue(i);
-                    }
-                    // copy finished
-                    System.out.print(chars);
-                }
-                break;
-            }
-            case "Ljava/lang/Object;": {
-                Reference reference = localVariables.getReference(1);
-                if(reference instanceof NullReference) {
-                    System.out.print("null");
-                } else {
-                    // object reference, may be array!!!
-                    try {
-                        Object object = ReferenceUtils.reference2Object(reference);
-                        System.out.print(object);
-                    } catch (IllegalAccessException e) {
-                        throw new RuntimeException(e);
-                    }
-                }
+    public static NativeMethod bindArraysIntrinsic(JvmMethod jvmMethod) {
+        if(!jvmMethod.isStatic()
+                || !ARRAYS_INTRINSIC_NAMES.contains(jvmMethod.getName())
+                || !jvmMethod.getJvmClass().isSameName(Arrays.class)) {
+            return null;
+        }
+        Class<?>[] parameterTypes = DescriptorUtils.methodDescriptor2ParameterTypes(jvmMethod.getDescriptor());
+        for(Class<?> parameterType : parameterTypes) {
+            if(!parameterType.isPrimitive() && !isPrimitiveArray(parameterType)) {
+                return null;
             }
-                break;
-            default:
-                throw new IllegalStateException("Unexpected value: " + parameterDescriptor);
         }
+        final Method method;
+        try {
+            method = Arrays.class.getMethod(jvmMethod.getName(), parameterTypes);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+        final Class<?> returnType = method.getReturnType();
+        if(!returnType.isPrimitive() && !isPrimitiveArray(returnType)) {
+            return null;
+        }
+        logger.debug("intrinsic java.util.Arrays.{}{}", jvmMethod.getName(), jvmMethod.getDescriptor());
+        return (frame, boundMethod, localVariables) -> hackArraysIntrinsic(frame, method, boundMethod, localVariables);
+    }
+
+    private static boolean isPrimitiveArray(Class<?> clazz) {
+        return clazz.isArray() && clazz.getComponentType().isPrimitive();
     }
 
     /**
-     * @see java.lang.System arraycopy method
-     * @param localVariables
+     * run java.util.Arrays's method on the backing host arrays,
+     * so no copy between guest and host
+     * @see java.util.Arrays
      */
-    private static void hackSystemArrayCopy(LocalVariables localVariables) {
-        ArrayReference srcArrayReference = (ArrayReference) localVariables.getReference(0);
-        int srcPos = localVariables.getIntValue(1);
-        ArrayReference destArrayReference = (ArrayReference) localVariables.getReference(2);
-        int destPos = localVariables.getIntValue(3);
-        int length = localVariables.getIntValue(4);
-        ReferenceUtils.arrayCopy(srcArrayReference, srcPos, destArrayReference, destPos, length);
+    private static void hackArraysIntrinsic(Frame frame, Method method, JvmMethod jvmMethod, LocalVariables localVariables) {
+        final Class<?>[] parameterTypes = method.getParameterTypes();
+        Object[] parameterObjects = new Object[parameterTypes.length];
+        int parameterOffset = 0;
+        for(int i = 0; i < parameterObjects.length; i++) {
+            if(parameterTypes[i].isPrimitive()) {
+                parameterObjects[i] = ReferenceUtils.getLocalVariableByClassType(localVariables, parameterOffset, parameterTypes[i]);
+            } else {
+                Reference reference = localVariables.getReference(parameterOffset);
+                parameterObjects[i] = Reference.isNull(reference) ? null : ((BaseTypeArrayReference) reference).getArray();
+            }
+            parameterOffset += ReflectionUtils.getClassSize(parameterTypes[i]);
+        }
+
+        final Object returnObject;
+        try {
+            returnObject = method.invoke(null, parameterObjects);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        } catch (InvocationTargetException e) {
+            // i.e ArrayIndexOutOfBoundsException, NegativeArraySizeException
+            throw new GuestException(e.getCause());
+        }
+
+        final Class<?> returnType = method.getReturnType();
+        if(void.class.equals(returnType)) {
+            return;
+        }
+        if(returnType.isPrimitive()) {
+            pushPrimitiveValueByType(frame.getOperandStacks(), returnObject, returnType);
+        } else {
+            // a new array, no need to copy it again
+            JvmClassLoader jvmClassLoader = jvmMethod.getJvmClass().getLoader();
+            frame.getOperandStacks().pushReference(BaseTypeArrayReference.wrap(jvmClassLoader, returnObject));
+        }
     }
 
     /**
@@ -255,7 +187,7 @@ public class HackUtils {
      * @param localVariables
      * @see java.lang.Class getComponentType
      */
-    private static void hackClassGetComponentType(Frame frame, LocalVariables localVariables) {
+    public static void hackClassGetComponentType(Frame frame, JvmMethod jvmMethod, LocalVariables localVariables) {
         // get "this", reference of java.lang.Class
         Reference reference = localVariables.getReference(0);
         if(Reference.isNull(reference)) {
@@ -278,61 +210,128 @@ public class HackUtils {
      * hack the native method
      * i.e when our JVM wants to invoke a native method,
      * we intercept the invocation,
-     * then hack it.
-     * invoke the method by reflection to get the result
-     * @param frame
-     * @param jvmMethod
-     * @param localVariables
-     * @throws NoSuchMethodException
-     * @throws InvocationTargetException
-     * @throws IllegalAccessException
+     * then invoke the host method of same name to get the result.
+     * the host method is found once, and adapted to a method handle
+     * takes all the arguments in an Object[]
+     * @param jvmMethod native method
+     * @return handler invokes the host method
      */
-    public static void hackAllNativeMethod(
-            Frame frame, JvmMethod jvmMethod, LocalVariables localVariables
-    ) throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+    public static NativeMethod bindHostMethod(JvmMethod jvmMethod) {
         assertNativeMethod(jvmMethod);
         final JvmClass jvmClass = jvmMethod.getJvmClass();
         final JvmClassLoader jvmClassLoader = jvmClass.getLoader();
         final String methodName = jvmMethod.getName();
-        final Class<?> clazz = jvmClass.getRealClassInJvm();
         // parse type of parameters
-        Class<?>[] parameterTypes = DescriptorUtils.methodDescriptor2ParameterTypes(jvmMethod.getDescriptor());
-        // find the method
-        final Method method = clazz.getDeclaredMethod(methodName, parameterTypes);
-        method.setAccessible(true);
-
-        int parameterOffset = jvmMethod.isStatic() ? 0 : 1;
-        // parameters pass to method when invoke
-        Object[] parameterObjects = new Object[parameterTypes.length];
-        for(int i = 0; i < parameterObjects.length; i++) {
-            parameterObjects[i] = ReferenceUtils.getLocalVariableByClassType(localVariables, parameterOffset, parameterTypes[i]);
-            parameterOffset += ReflectionUtils.getClassSize(parameterTypes[i]);
+        final Class<?>[] parameterTypes = DescriptorUtils.methodDescriptor2ParameterTypes(jvmMethod.getDescriptor());
+        final boolean isStatic = jvmMethod.isStatic();
+        final int arity = parameterTypes.length + (isStatic ? 0 : 1);
+        final MethodHandle methodHandle;
+        final Class<?> returnType;
+        final Class<?> clazz;
+        try {
+            clazz = jvmClass.getRealClassInJvm();
+            // find the method
+            final Method method = clazz.getDeclaredMethod(methodName, parameterTypes);
+            method.setAccessible(true);
+            returnType = method.getReturnType();
+            methodHandle = MethodHandles.lookup().unreflect(method)
+                    .asType(MethodType.genericMethodType(arity))
+                    .asSpreader(Object[].class, arity);
+        } catch (NoSuchMethodException | IllegalAccessException | RuntimeException e) {
+            final RuntimeException exception = new RuntimeException(
+                    "hack method " + jvmClass.getName() + "." + methodName + " fail", e
+            );
+            return (frame, boundMethod, localVariables) -> {
+                throw exception;
+            };
         }
 
-        // the result of invocation
-        Object returnObject = null;
-        if(jvmMethod.isStatic()) {
-            returnObject = method.invoke(null, parameterObjects);
+        return (frame, boundMethod, localVariables) -> {
+            // parameters pass to method when invoke, "this" first if not static
+            final Object[] parameterObjects = new Object[arity];
+            int parameterOffset = 0;
+            int index = 0;
+            if(!isStatic) {
+                parameterObjects[index++] = HostBridge.toHost(localVariables.getReference(0), clazz);
+                parameterOffset = 1;
+            }
+            for(Class<?> parameterType : parameterTypes) {
+                parameterObjects[index++] = parameterType.isPrimitive() ?
+                        ReferenceUtils.getLocalVariableByClassType(localVariables, parameterOffset, parameterType)
+                        : HostBridge.toHost(localVariables.getReference(parameterOffset), parameterType);
+                parameterOffset += ReflectionUtils.getClassSize(parameterType);
+            }
+
+            // the result of invocation
+            final Object returnObject;
+            try {
+                returnObject = (Object) methodHandle.invokeExact(parameterObjects);
+            } catch (Throwable throwable) {
+                throw new RuntimeException("hack method " + jvmClass.getName() + "." + methodName + " fail", throwable);
+            }
+
+            if(!void.class.equals(returnType)) {
+                // exists return value
+                if(returnType.isPrimitive()) {
+                    // int, boolean, double etc..
+                    pushPrimitiveValueByType(frame.getOperandStacks(), returnObject, returnType);
+                } else {
+                    // String, Object, String[][] etc..
+                    frame.getOperandStacks().pushReference(HostBridge.toGuest(jvmClassLoader, returnObject));
+                }
+            }
+        };
+    }
+
+    /**
+     * jvms 2.7, an array is cloned by a shallow copy of its elements,
+     * other objects are cloned by a shallow copy of their fields,
+     * if their class implements java.lang.Cloneable
+     * @see java.lang.Object clone
+     */
+    public static void hackObjectClone(Frame frame, JvmMethod jvmMethod, LocalVariables localVariables) {
+        Reference reference = localVariables.getReference(0);
+        if(!(reference instanceof ArrayReference)) {
+            final ObjectReference objectReference = (ObjectReference) reference;
+            final JvmClass jvmClass = objectReference.getJvmClass();
+            if(!jvmClass.isImplementInterface(jvmClass.getLoader().loadClass(Cloneable.class))) {
+                throw new GuestException(new CloneNotSupportedException(jvmClass.getJavaLevelClassName()));
+            }
+            final ObjectReference copy = ObjectReference.makeObjectReference(jvmClass);
+            copy.copyFieldsFrom(objectReference);
+            frame.getOperandStacks().pushReference(copy);
+            return;
+        }
+        final ArrayReference arrayReference = (ArrayReference) reference;
+        final ArrayReference copy;
+        if(arrayReference instanceof BaseTypeArrayReference) {
+            copy = BaseTypeArrayReference.allocate(
+                    jvmMethod.getJvmClass().getLoader(),
+                    ((BaseTypeArrayReference) arrayReference).getTypeCode(),
+                    arrayReference.length()
+            );
         } else {
-            // non static method, so we must pass this pointer
-            Reference reference = localVariables.getReference(0);
-            Object thisObject = ReferenceUtils.reference2Object(reference);
-            returnObject = method.invoke(thisObject, parameterObjects);
+            copy = new ObjectArrayReference(arrayReference.getComponentType(), arrayReference.length());
         }
+        ReferenceUtils.arrayCopy(arrayReference, 0, copy, 0, arrayReference.length());
+        frame.getOperandStacks().pushReference(copy);
+    }
 
-        final Class<?> returnType = method.getReturnType();
-        if(!void.class.equals(returnType)) {
-            // exists return value
-            if(returnType.isPrimitive()) {
-                // int, boolean, double etc..
-                pushPrimitiveValueByType(frame.getOperandStacks(), returnObject, returnType);
-            } else {
-                // String, Object, String[][] etc..
-                Reference returnReference = ReferenceUtils.object2Reference(jvmClassLoader, returnObject);
-                // push the result
-                frame.getOperandStacks().pushReference(returnReference);
-            }
+    /**
+     * @see java.lang.Object getClass
+     */
+    public static void hackObjectGetClass(Frame frame, JvmMethod jvmMethod, LocalVariables localVariables) {
+        Reference reference = localVariables.getReference(0);
+        if(Reference.isNull(reference)) {
+            throw new GuestException(new NullPointerException());
         }
+        final JvmClass jvmClass;
+        if(reference instanceof ArrayReference) {
+            jvmClass = ((ArrayReference) reference).resolveType();
+        } else {
+            jvmClass = ((ObjectReference) reference).getJvmClass();
+        }
+        frame.getOperandStacks().pushReference(ClassObjectReference.getInstance(jvmClass));
     }
 
     /**
@@ -376,4 +375,15 @@ public class HackUtils {
         }
     }
 
+    /**
+     * a hacked method fails like the guest one,
+     * invoke instructions throw the cause to guest
+     */
+    public static class GuestException extends RuntimeException {
+
+        public GuestException(Throwable cause) {
+            super(cause);
+        }
+    }
+
 }
@@ -135,7 +135,9 @@ public class JvmClassUtils {
     }
 
     /**
-     * get a method from class(include super classes) whether it is static or not
+     * get a method from class(include super classes) whether it is static or not.
+     * jvms 5.4.3.3, if it is not in super classes,
+     * a default method of super interfaces is chosen
      * @param jvmClass
      * @param name
      * @param descriptor
@@ -149,6 +151,35 @@ public class JvmClassUtils {
                 }
             }
         }
+        for(JvmClass nowClass = jvmClass; null != nowClass; nowClass = nowClass.getSuperClass()) {
+            JvmMethod defaultMethod = getDefaultMethod(nowClass.getInterfaces(), name, descriptor);
+            if(null != defaultMethod) {
+                return defaultMethod;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * the sub interface is searched before its super interfaces,
+     * the first one is chosen, the maximally-specific check is skipped
+     * @return null if there is no such non-abstract instance method
+     */
+    private static JvmMethod getDefaultMethod(JvmClass[] interfaces, String name, String descriptor) {
+        for(JvmClass interfaceClass : interfaces) {
+            for(JvmMethod jvmMethod : interfaceClass.getJvmMethods()) {
+                if(jvmMethod.getName().equals(name) && jvmMethod.getDescriptor().equals(descriptor)
+                        && !jvmMethod.isAbstract() && !jvmMethod.isStatic()) {
+                    return jvmMethod;
+                }
+            }
+        }
+        for(JvmClass interfaceClass : interfaces) {
+            JvmMethod defaultMethod = getDefaultMethod(interfaceClass.getInterfaces(), name, descriptor);
+            if(null != defaultMethod) {
+                return defaultMethod;
+            }
+        }
         return null;
     }
 
@@ -329,14 +360,27 @@ public class JvmClassUtils {
 
         logger.trace("{} type cast to {} ?", S.getName(), T.getName());
 
-        if(S.isOrdinary()) {
+        if(S.equals(T)) {
+            // also for the same primitive type of array components
+            return true;
+        }
+
+        // check array first, access flags of array class are all set, so it looks like an interface
+        if(S.isArrayType()) {
+            if(T.isArrayType()) {
+                JvmClass subS = S.getComponentClass();
+                JvmClass subT = T.getComponentClass();
+                if(subS.isPrimitiveType() || subT.isPrimitiveType()) {
+                    // must be the same primitive type
+                    return false;
+                }
+                return JvmClassUtils.typeCast(subS, subT);
+            }
             if(T.isClassType()) {
-                // S <= T
-                return S.equals(T) || S.isInheritFrom(T);
+                return T.isSameName(Object.class);
             }
             if(T.isInterface()) {
-                // S must implement interface T
-                return S.isImplementInterface(T);
+                return T.isSameName(Cloneable.class) || T.isSameName(Serializable.class);
             }
         } else if(S.isInterface()) {
             if(T.isClassType()) {
@@ -345,17 +389,14 @@ public class JvmClassUtils {
             if(T.isInterface()) {
                 return S.equals(T) || S.isInheritFrom(T);
             }
-        } else if(S.isArrayType()) {
+        } else if(S.isOrdinary()) {
             if(T.isClassType()) {
-                return T.isSameName(Object.class);
+                // S <= T
+                return S.equals(T) || S.isInheritFrom(T);
             }
             if(T.isInterface()) {
-                return T.isSameName(Cloneable.class) || T.isSameName(Serializable.class);
-            }
-            if(T.isArrayType()) {
-                JvmClass subS = S.getLoader().loadClass(DescriptorUtils.getComponentType(S.getName()));
-                JvmClass subT = T.getLoader().loadClass(DescriptorUtils.getComponentType(T.getName()));
-                return JvmClassUtils.typeCast(subS, subT);
+                // S must implement interface T
+                return S.isImplementInterface(T);
             }
         }
 
@@ -1,9 +1,8 @@
 package com.github.anilople.javajvm.utils;
 
-import com.github.anilople.javajvm.cachepool.StringPool;
-import com.github.anilople.javajvm.constants.ArrayTypeCodes;
 import com.github.anilople.javajvm.heap.JvmClass;
 import com.github.anilople.javajvm.heap.JvmClassLoader;
+import com.github.anilople.javajvm.heap.JvmField;
 import com.github.anilople.javajvm.runtimedataarea.LocalVariables;
 import com.github.anilople.javajvm.runtimedataarea.Reference;
 import com.github.anilople.javajvm.runtimedataarea.reference.*;
@@ -37,16 +36,8 @@ public class ReferenceUtils {
         if(!stringClass.isSameName(String.class)) {
             throw new RuntimeException(stringClass.getName() + " is not " + String.class);
         }
-        // exists in pool or not
-        if(!StringPool.exists(utf8)) {
-            ObjectReference objectReference = ObjectReference.makeObjectReference(stringClass);
-            BaseTypeArrayReference charArrayReference = new BaseTypeArrayReference(stringClass.getLoader(), utf8.toCharArray());
-            // use hack skill to generate string
-            objectReference.setReference(0, charArrayReference);
-            StringPool.add(utf8, objectReference);
-        }
-        // get string from pool
-        return StringPool.get(utf8);
+        // chars are made when they are read
+        return stringClass.getLoader().getStringPool().intern(utf8, string -> new StringReference(stringClass, string));
     }
 
 
@@ -103,6 +94,8 @@ public class ReferenceUtils {
     ) throws IllegalAccessException {
         if(object instanceof java.lang.Class) {
             return classObject2ClassObjectReference(jvmClassLoader, (Class<?>) object);
+        } else if(object instanceof String) {
+            return new StringReference(jvmClassLoader.loadClass(String.class), (String) object);
         } else {
             return object2ObjectReference(new HashMap<>(), jvmClassLoader, object);
         }
@@ -151,19 +144,15 @@ public class ReferenceUtils {
 
         // converter the non-static fields
         List<Field> nonStaticFields = ReflectionUtils.getNonStaticFieldsFromAncestor(clazz);
-        int nonStaticFieldCurrentOffset = 0;
         for(Field nonStaticField : nonStaticFields) {
+            final int offset = nonStaticFieldOffset(jvmClassLoader, nonStaticField);
             if(nonStaticField.getType().isPrimitive()) {
-                setPrimitiveFieldValue2SelfJvm(objectReference, nonStaticFieldCurrentOffset, object, nonStaticField);
+                setPrimitiveFieldValue2SelfJvm(objectReference, offset, object, nonStaticField);
             } else {
-                setObjectFieldValue2SelfJvm(
-                        cache,
-                        objectReference, nonStaticFieldCurrentOffset,
-                        jvmClassLoader,
-                        object, nonStaticField
-                );
+                nonStaticField.setAccessible(true);
+                Reference reference = object2Reference(cache, jvmClassLoader, nonStaticField.get(object));
+                objectReference.setReference(offset, reference);
             }
-            nonStaticFieldCurrentOffset += ReflectionUtils.getFieldSize(nonStaticField);
         }
 
         return objectReference;
@@ -210,27 +199,7 @@ public class ReferenceUtils {
      * @return self-define array reference
      */
     static BaseTypeArrayReference singleDimensionPrimitiveArray2ArrayReference(JvmClassLoader jvmClassLoader, Object primitiveArrayObject) {
-        // get component type
-        final Class<?> type = primitiveArrayObject.getClass().getComponentType();
-        if(type.equals(boolean.class)) {
-            return new BaseTypeArrayReference(jvmClassLoader, (boolean[]) primitiveArrayObject);
-        } else if(type.equals(byte.class)) {
-            return new BaseTypeArrayReference(jvmClassLoader, (byte[]) primitiveArrayObject);
-        } else if(type.equals(short.class)) {
-            return new BaseTypeArrayReference(jvmClassLoader, (short[]) primitiveArrayObject);
-        } else if(type.equals(char.class)) {
-            return new BaseTypeArrayReference(jvmClassLoader, (char[]) primitiveArrayObject);
-        } else if(type.equals(int.class)) {
-            return new BaseTypeArrayReference(jvmClassLoader, (int[]) primitiveArrayObject);
-        } else if(type.equals(float.class)) {
-            return new BaseTypeArrayReference(jvmClassLoader, (float[]) primitiveArrayObject);
-        } else if(type.equals(long.class)) {
-            return new BaseTypeArrayReference(jvmClassLoader, (long[]) primitiveArrayObject);
-        } else if(type.equals(double.class)) {
-            return new BaseTypeArrayReference(jvmClassLoader, (double[]) primitiveArrayObject);
-        } else {
-            throw new IllegalArgumentException("Cannot set type " + type);
-        }
+        return BaseTypeArrayReference.wrap(jvmClassLoader, primitiveArrayObject);
     }
 
     /**
@@ -262,6 +231,52 @@ public class ReferenceUtils {
         return objectArrayReference;
     }
 
+    /**
+     * offset of a non-static field in {@link ObjectReference},
+     * found by the class declares it, because a field may be hidden by a field with same name in sub class
+     * @param field non-static field
+     * @return offset of primitive values or references
+     */
+    private static int nonStaticFieldOffset(JvmClassLoader jvmClassLoader, Field field) {
+        final JvmClass declaringClass = jvmClassLoader.loadClass(field.getDeclaringClass());
+        for(JvmField jvmField : declaringClass.getJvmFields()) {
+            if(!jvmField.isStatic() && jvmField.getName().equals(field.getName())) {
+                return jvmField.calculateNonStaticFieldOffset();
+            }
+        }
+        throw new IllegalStateException(field + " not in " + declaringClass.getName());
+    }
+
+    /**
+     * set the field's value to the object reference
+     * @param objectReference object in self jvm
+     * @param offset offset of the field in object
+     * @param field must be primitive type
+     */
+    static void setPrimitiveFieldValue2SelfJvm(ObjectReference objectReference, int offset, Object object, Field field) throws IllegalAccessException {
+        field.setAccessible(true);
+        final Class<?> type = field.getType();
+        if(type.equals(boolean.class)) {
+            objectReference.setBooleanValue(offset, field.getBoolean(object));
+        } else if(type.equals(byte.class)) {
+            objectReference.setByteValue(offset, field.getByte(object));
+        } else if(type.equals(short.class)) {
+            objectReference.setShortValue(offset, field.getShort(object));
+        } else if(type.equals(char.class)) {
+            objectReference.setCharValue(offset, field.getChar(object));
+        } else if(type.equals(int.class)) {
+            objectReference.setIntValue(offset, field.getInt(object));
+        } else if(type.equals(float.class)) {
+            objectReference.setFloatValue(offset, field.getFloat(object));
+        } else if(type.equals(long.class)) {
+            objectReference.setLongValue(offset, field.getLong(object));
+        } else if(type.equals(double.class)) {
+            objectReference.setDoubleValue(offset, field.getDouble(object));
+        } else {
+            throw new IllegalArgumentException("Cannot set type " + type);
+        }
+    }
+
     /**
      * set the field's value to position offset
      * long and double will occupy 2 locations
@@ -450,6 +465,10 @@ public class ReferenceUtils {
         if(objectReference instanceof ClassObjectReference) {
             return ClassObjectReference.getRealClassInJvm((ClassObjectReference) objectReference);
         }
+        if(objectReference instanceof StringReference) {
+            // immutable, share it
+            return ((StringReference) objectReference).getString();
+        }
 
         // check cache
         if(cache.containsKey(objectReference)) {
@@ -495,16 +514,14 @@ public class ReferenceUtils {
 
         List<Field> fields = ReflectionUtils.getNonStaticFieldsFromAncestor(clazz);
 
-        int realOffset = 0;
         // change object's fields value
-        for(int i = 0; i < fields.size(); i++) {
-            Field field = fields.get(i);
+        for(Field field : fields) {
+            final int offset = nonStaticFieldOffset(jvmClassLoader, field);
             if(field.getType().isPrimitive()) {
-                setPrimitiveFieldValue2Object(object, field, objectReference, realOffset);
+                setPrimitiveFieldValue2Object(object, field, objectReference, offset);
             } else {
-                setReference2ObjectField(cache, object, field, jvmClassLoader, objectReference, realOffset);
+                setReference2ObjectField(cache, object, field, jvmClassLoader, objectReference, offset);
             }
-            realOffset += ReflectionUtils.getFieldSize(field);
         }
     }
 
@@ -530,29 +547,19 @@ public class ReferenceUtils {
 
         List<Field> fields = ReflectionUtils.getNonStaticFieldsFromAncestor(clazz);
         // private transient Object backtrace;
-        // cannot get by reflection in jdk 8
-        // we handle it manually
-        Reference backtrace = objectReference.getReference(0);
-        if(Reference.isNull(backtrace)) {
-            // the default value in object is null, so we do nothing
-        } else {
-            // cannot set field "backtrace"'s value by reflection
-            // so throw an exception here
-            throw new IllegalAccessException("Cannot change backtrace in " + Throwable.class + ", " + backtrace);
-        }
+        // cannot get by reflection in jdk 8,
+        // it is the Backtrace of jvm, which means nothing to host, so it is not copied.
+        // the stack trace in host can be set by Throwable.setStackTrace
 
-        // skip private transient Object backtrace;
-        // from offset 1 not 0
-        int realOffset = 1;
+        // "backtrace" is not in the fields got by reflection
         // change object's fields value
-        for(int i = 0; i < fields.size(); i++) {
-            Field field = fields.get(i);
+        for(Field field : fields) {
+            final int offset = nonStaticFieldOffset(jvmClassLoader, field);
             if(field.getType().isPrimitive()) {
-                setPrimitiveFieldValue2Object(object, field, objectReference, realOffset);
+                setPrimitiveFieldValue2Object(object, field, objectReference, offset);
             } else {
-                setReference2ObjectField(cache, object, field, jvmClassLoader, objectReference, realOffset);
+                setReference2ObjectField(cache, object, field, jvmClassLoader, objectReference, offset);
             }
-            realOffset += ReflectionUtils.getFieldSize(field);
         }
     }
 
@@ -624,60 +631,12 @@ public class ReferenceUtils {
      * @return
      */
     static Object baseTypeArrayReference2Object(BaseTypeArrayReference baseTypeArrayReference) {
+        final Object array = baseTypeArrayReference.getArray();
         final int length = baseTypeArrayReference.length();
-        final byte typeCode = baseTypeArrayReference.getTypeCode();
-        switch (typeCode) {
-            case ArrayTypeCodes.T_BOOLEAN:
-                boolean[] booleans = new boolean[length];
-                for(int i = 0; i < length; i++) {
-                    booleans[i] = baseTypeArrayReference.getBooleanValue(i);
-                }
-                return booleans;
-            case ArrayTypeCodes.T_BYTE:
-                byte[] bytes = new byte[length];
-                for(int i = 0; i < length; i++) {
-                    bytes[i] = baseTypeArrayReference.getByteValue(i);
-                }
-                return bytes;
-            case ArrayTypeCodes.T_CHAR:
-                char[] chars = new char[length];
-                for(int i = 0; i < length; i++) {
-                    chars[i] = baseTypeArrayReference.getCharValue(i);
-                }
-                return chars;
-            case ArrayTypeCodes.T_DOUBLE:
-                double[] doubles = new double[length];
-                for(int i = 0; i < length; i++) {
-                    doubles[i] = baseTypeArrayReference.getDoubleValue(i);
-                }
-                return doubles;
-            case ArrayTypeCodes.T_FLOAT:
-                float[] floats = new float[length];
-                for(int i = 0; i < length; i++) {
-                    floats[i] = baseTypeArrayReference.getFloatValue(i);
-                }
-                return floats;
-            case ArrayTypeCodes.T_INT:
-                int[] ints = new int[length];
-                for(int i = 0; i < length; i++) {
-                    ints[i] = baseTypeArrayReference.getIntValue(i);
-                }
-                return ints;
-            case ArrayTypeCodes.T_LONG:
-                long[] longs = new long[length];
-                for(int i = 0; i < length; i++) {
-                    longs[i] = baseTypeArrayReference.getLongValue(i);
-                }
-                return longs;
-            case ArrayTypeCodes.T_SHORT:
-                short[] shorts = new short[length];
-                for(int i = 0; i < length; i++) {
-                    shorts[i] = baseTypeArrayReference.getShortValue(i);
-                }
-                return shorts;
-            default:
-                throw new IllegalStateException("Unexpected value: " + typeCode);
-        }
+        // a copy, host cannot change the array in guest
+        final Object copy = Array.newInstance(array.getClass().getComponentType(), length);
+        System.arraycopy(array, 0, copy, 0, length);
+        return copy;
     }
 
     /**
@@ -766,23 +725,34 @@ public class ReferenceUtils {
     }
 
     /**
-     * emulator "arraycopy" in System
+     * emulator "arraycopy" in System,
+     * elements are copied by host {@link System#arraycopy(Object, int, Object, int, int)} on the backing arrays,
+     * so overlapping copy in the same array is right.
      * @see java.lang.System#arraycopy(Object, int, Object, int, int)
+     * @throws NullPointerException if src or dest is null
+     * @throws ArrayStoreException if type mismatch, or an element cannot be stored into dest
+     * @throws ArrayIndexOutOfBoundsException if copy out of the bounds of arrays
      */
     public static void arrayCopy(
-            ArrayReference src, int srcPos,
-            ArrayReference dest, int destPos,
+            Reference src, int srcPos,
+            Reference dest, int destPos,
             int length
     ) {
-        if(!src.getClass().equals(dest.getClass())) {
-            throw new IllegalArgumentException(src + " type not same as " + dest);
+        if(Reference.isNull(src) || Reference.isNull(dest)) {
+            throw new NullPointerException();
         }
-        if(src instanceof BaseTypeArrayReference) {
+        if(!(src instanceof ArrayReference)) {
+            throw new ArrayStoreException("arraycopy: source type " + src + " is not an array");
+        }
+        if(!(dest instanceof ArrayReference)) {
+            throw new ArrayStoreException("arraycopy: destination type " + dest + " is not an array");
+        }
+        if(src instanceof BaseTypeArrayReference && dest instanceof BaseTypeArrayReference) {
             arrayCopy((BaseTypeArrayReference) src, srcPos, (BaseTypeArrayReference) dest, destPos, length);
-        } else if(src instanceof ObjectArrayReference) {
+        } else if(src instanceof ObjectArrayReference && dest instanceof ObjectArrayReference) {
             arrayCopy((ObjectArrayReference) src, srcPos, (ObjectArrayReference) dest, destPos, length);
         } else {
-            throw new IllegalStateException("Wrong type " + src);
+            throw new ArrayStoreException("arraycopy: type mismatch: can not copy " + src + " into " + dest);
         }
     }
 
@@ -795,64 +765,56 @@ public class ReferenceUtils {
             int length
     ) {
         if(src.getTypeCode() != dest.getTypeCode()) {
-            throw new IllegalArgumentException("type code not same");
-        }
-        for(int i = 0; i < length; i++) {
-            arrayCopyPrimitiveOne(src, srcPos + i, dest, destPos + i);
+            throw new ArrayStoreException("arraycopy: type mismatch: can not copy " + src + " into " + dest);
         }
+        System.arraycopy(src.getArray(), srcPos, dest.getArray(), destPos, length);
     }
 
     /**
-     * array copy of Object Array
+     * array copy of Object Array.
+     * if the component type of src can be cast to the one of dest, copy them in bulk,
+     * otherwise every element is checked before it is stored,
+     * the elements before the one cannot be stored are copied.
      */
     private static void arrayCopy(
             ObjectArrayReference src, int srcPos,
             ObjectArrayReference dest, int destPos,
             int length) {
+        final Reference[] srcReferences = src.getArray();
+        final Reference[] destReferences = dest.getArray();
+        final JvmClass destComponentType = dest.getComponentType();
+        if(src == dest || JvmClassUtils.typeCast(src.getComponentType(), destComponentType)) {
+            System.arraycopy(srcReferences, srcPos, destReferences, destPos, length);
+            return;
+        }
+        if(srcPos < 0 || destPos < 0 || length < 0
+                || srcPos > srcReferences.length - length
+                || destPos > destReferences.length - length) {
+            throw new ArrayIndexOutOfBoundsException(
+                    "arraycopy: last source index " + (srcPos + length) + " out of bounds for length " + srcReferences.length
+                            + ", or last destination index " + (destPos + length) + " out of bounds for length " + destReferences.length
+            );
+        }
         for(int i = 0; i < length; i++) {
-            Reference temp = src.getReference(srcPos + i);
-            dest.setReference(destPos + i, temp);
+            final Reference element = srcReferences[srcPos + i];
+            if(!Reference.isNull(element) && !JvmClassUtils.typeCast(classOf(element), destComponentType)) {
+                throw new ArrayStoreException(
+                        "arraycopy: element type " + classOf(element).getName() + " cannot be stored to " + destComponentType.getName()
+                );
+            }
+            destReferences[destPos + i] = element;
         }
     }
 
     /**
-     * just copy 1 primitive element in array
+     * @param reference not null
+     * @return class of object or array
      */
-    private static void arrayCopyPrimitiveOne(
-            BaseTypeArrayReference src, int srcIndex,
-            BaseTypeArrayReference dest, int destIndex
-    ) {
-        if(src.getTypeCode() != dest.getTypeCode()) {
-            throw new IllegalArgumentException("type code not same");
-        }
-        final byte typeCode = src.getTypeCode();
-        switch (typeCode) {
-            case ArrayTypeCodes.T_BOOLEAN:
-                dest.setBooleanValue(destIndex, src.getBooleanValue(srcIndex));
-                break;
-            case ArrayTypeCodes.T_BYTE:
-                dest.setByteValue(destIndex, src.getByteValue(srcIndex));
-                break;
-            case ArrayTypeCodes.T_CHAR:
-                dest.setCharValue(destIndex, src.getCharValue(srcIndex));
-                break;
-            case ArrayTypeCodes.T_DOUBLE:
-                dest.setDoubleValue(destIndex, src.getDoubleValue(srcIndex));
-                break;
-            case ArrayTypeCodes.T_FLOAT:
-                dest.setFloatValue(destIndex, src.getFloatValue(srcIndex));
-                break;
-            case ArrayTypeCodes.T_INT:
-                dest.setIntValue(destIndex, src.getIntValue(srcIndex));
-                break;
-            case ArrayTypeCodes.T_LONG:
-                dest.setLongValue(destIndex, src.getLongValue(srcIndex));
-                break;
-            case ArrayTypeCodes.T_SHORT:
-                dest.setShortValue(destIndex, src.getShortValue(srcIndex));
-                break;
-            default:
-                throw new IllegalStateException("Unexpected value: " + typeCode);
+    private static JvmClass classOf(Reference reference) {
+        if(reference instanceof ArrayReference) {
+            return ((ArrayReference) reference).resolveType();
+        } else {
+            return ((ObjectReference) reference).getJvmClass();
         }
     }
 }
@@ -1,10 +1,13 @@
 package com.github.anilople.javajvm.vm;
 
+import com.github.anilople.javajvm.JavaJvmApplication;
 import com.github.anilople.javajvm.heap.JvmClass;
 import com.github.anilople.javajvm.heap.JvmClassLoader;
 import com.github.anilople.javajvm.heap.JvmField;
+import com.github.anilople.javajvm.natives.FileDescriptorTable;
+import com.github.anilople.javajvm.natives.FileOutputStreamNatives;
+import com.github.anilople.javajvm.runtimedataarea.JvmThread;
 import com.github.anilople.javajvm.runtimedataarea.Reference;
-import com.github.anilople.javajvm.runtimedataarea.reference.ObjectReference;
 import com.github.anilople.javajvm.utils.ReferenceUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,10 +38,29 @@ public class VM {
         }
 
         JvmClass vm = jvmClassLoader.loadClass(sun.misc.VM.class);
+        // its "<clinit>" will reset savedProps, so run it first
+        JvmThread jvmThread = new JvmThread();
+        if(vm.initializeIfNecessary(jvmThread)) {
+            JavaJvmApplication.loop(jvmThread);
+        }
         // private static final Properties savedProps;
         JvmField savedProps = vm.getJvmFieldByNameIncludeAncestors("savedProps");
         int staticFieldOffset = savedProps.getStaticFieldOffset();
         vm.getStaticFieldsValue().setReference(staticFieldOffset, propertiesReference);
+
+        // System.initializeSystemClass is not run,
+        // System.out and System.err write to file descriptors directly
+        JvmClass system = jvmClassLoader.loadClass(System.class);
+        if(system.initializeIfNecessary(jvmThread)) {
+            JavaJvmApplication.loop(jvmThread);
+        }
+        setStaticReference(system, "out", FileOutputStreamNatives.standardStream(jvmClassLoader, FileDescriptorTable.STANDARD_OUTPUT));
+        setStaticReference(system, "err", FileOutputStreamNatives.standardStream(jvmClassLoader, FileDescriptorTable.STANDARD_ERROR));
+    }
+
+    private static void setStaticReference(JvmClass jvmClass, String fieldName, Reference reference) {
+        JvmField jvmField = jvmClass.getJvmFieldByNameIncludeAncestors(fieldName);
+        jvmClass.getStaticFieldsValue().setReference(jvmField.getStaticFieldOffset(), reference);
     }
 
 }
@@ -0,0 +1,86 @@
+package com.github.anilople.javajvm.cachepool;
+
+import com.github.anilople.javajvm.heap.JvmClass;
+import com.github.anilople.javajvm.helper.JvmClassLoaderFactory;
+import com.github.anilople.javajvm.helper.JvmThreadFactory;
+import com.github.anilople.javajvm.helper.JvmThreadRunner;
+import com.github.anilople.javajvm.instructions.control.IRETURN;
+import com.github.anilople.javajvm.runtimedataarea.reference.ObjectReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.StringReference;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StringPoolTest {
+
+    private final JvmClass stringClass = JvmClassLoaderFactory.getInstance().loadClass(String.class);
+
+    @Test
+    void metrics() {
+        final StringPool stringPool = new StringPool();
+        assertEquals(0, stringPool.getHitRate());
+        final ObjectReference first = stringPool.intern("metrics", string -> new StringReference(stringClass, string));
+        final ObjectReference second = stringPool.intern("metrics", string -> new StringReference(stringClass, string));
+        assertSame(first, second);
+        assertSame(first, stringPool.get("metrics"));
+        assertEquals(1, stringPool.size());
+        assertEquals(1, stringPool.getHits());
+        assertEquals(1, stringPool.getMisses());
+        assertEquals(0.5, stringPool.getHitRate());
+    }
+
+    @Test
+    void unreachableStringIsReclaimed() throws InterruptedException {
+        final StringPool stringPool = new StringPool();
+        stringPool.intern("weak", string -> new StringReference(stringClass, string));
+        for(int i = 0; i < 100 && 0 != stringPool.size(); i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertEquals(0, stringPool.size());
+        assertNull(stringPool.get("weak"));
+    }
+
+    private static int literal() {
+        String built = new StringBuilder("intern").append(" me").toString();
+        return built == "intern me" ? 1 : 0;
+    }
+
+    private static int interned() {
+        String built = new StringBuilder("intern").append(" me").toString();
+        return built.intern() == "intern me" ? 1 : 0;
+    }
+
+    private static int internedFirst() {
+        String built = new StringBuilder("interned").append(" first").toString();
+        String interned = built.intern();
+        return built == interned ? 1 : 0;
+    }
+
+    private static void interns() {
+        int literal = literal();
+        int interned = interned();
+        int internedFirst = internedFirst();
+    }
+
+    @Test
+    void internInGuest() {
+        final JvmThreadRunner jvmThreadRunner = new JvmThreadRunner(
+                JvmThreadFactory.createFromStaticMethod(this.getClass(), "interns", "()V")
+        );
+        final List<Integer> results = new ArrayList<>();
+        jvmThreadRunner.addBeforeInstructionExecutionListener(IRETURN.class, thread -> {
+            if(thread.currentFrame().getJvmMethod().getJvmClass().isSameName(StringPoolTest.class)) {
+                int value = thread.currentFrame().getOperandStacks().popIntValue();
+                results.add(value);
+                thread.currentFrame().getOperandStacks().pushIntValue(value);
+            }
+        });
+        jvmThreadRunner.run();
+        assertEquals(Arrays.asList(0, 1, 1), results);
+    }
+}
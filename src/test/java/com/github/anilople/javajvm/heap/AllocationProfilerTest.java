@@ -0,0 +1,85 @@
+package com.github.anilople.javajvm.heap;
+
+import com.github.anilople.javajvm.helper.JvmThreadFactory;
+import com.github.anilople.javajvm.helper.JvmThreadRunner;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AllocationProfilerTest {
+
+    private static void allocate() {
+        for(int i = 0; i < 3; i++) {
+            int[] ints = new int[10];
+        }
+        Object object = new Object();
+    }
+
+    @BeforeEach
+    void setUp() {
+        AllocationProfiler.reset();
+        AllocationProfiler.enable();
+    }
+
+    @AfterEach
+    void tearDown() {
+        AllocationProfiler.disable();
+        AllocationProfiler.reset();
+    }
+
+    private static List<String> linesOfSite(String report, String className) {
+        return Arrays.stream(report.split(System.lineSeparator()))
+                .filter(line -> line.contains(" " + className + " "))
+                .filter(line -> line.contains(AllocationProfilerTest.class.getName().replace('.', '/') + ".allocate()V:"))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void allocationsAreAggregatedPerSite() {
+        new JvmThreadRunner(
+                JvmThreadFactory.createFromStaticMethod(this.getClass(), "allocate", "()V")
+        ).run();
+
+        final String report = AllocationProfiler.report();
+
+        List<String> ints = linesOfSite(report, "int[]");
+        assertEquals(1, ints.size(), report);
+        String[] columns = ints.get(0).trim().split("\\s+");
+        // 3 arrays, 16 + 4 * 10 bytes each
+        assertEquals("168", columns[0]);
+        assertEquals("3", columns[1]);
+        // line number resolved
+        assertFalse(ints.get(0).contains("allocate()V:-1"), report);
+
+        List<String> objects = linesOfSite(report, "java.lang.Object");
+        assertEquals(1, objects.size(), report);
+        assertEquals("1", objects.get(0).trim().split("\\s+")[1]);
+    }
+
+    @Test
+    void recordsKeptUntilReset() {
+        new JvmThreadRunner(
+                JvmThreadFactory.createFromStaticMethod(this.getClass(), "allocate", "()V")
+        ).run();
+        final String report = AllocationProfiler.report();
+        assertFalse(linesOfSite(report, "int[]").isEmpty());
+        assertEquals(report, AllocationProfiler.report());
+        AllocationProfiler.reset();
+        assertTrue(linesOfSite(AllocationProfiler.report(), "int[]").isEmpty());
+    }
+
+    @Test
+    void nothingRecordedWhenDisabled() {
+        AllocationProfiler.disable();
+        new JvmThreadRunner(
+                JvmThreadFactory.createFromStaticMethod(this.getClass(), "allocate", "()V")
+        ).run();
+        assertTrue(linesOfSite(AllocationProfiler.report(), "int[]").isEmpty());
+    }
+}
@@ -0,0 +1,63 @@
+package com.github.anilople.javajvm.heap;
+
+import com.github.anilople.javajvm.helper.JvmClassLoaderFactory;
+import com.github.anilople.javajvm.helper.JvmThreadFactory;
+import com.github.anilople.javajvm.helper.JvmThreadRunner;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+class ClassLoadingTimelineTest {
+
+    private final JvmClassLoader jvmClassLoader = JvmClassLoaderFactory.getInstance();
+
+    static class Loaded implements Runnable {
+        @Override
+        public void run() {}
+    }
+
+    static class Initialized {
+        static int value = 1;
+    }
+
+    static void initialize() {
+        int value = Initialized.value;
+    }
+
+    @Test
+    void quote() {
+        Assertions.assertEquals("null", ClassLoadingTimeline.quote(null));
+        Assertions.assertEquals("\"a\\\\b\\\"c\\u000a\"", ClassLoadingTimeline.quote("a\\b\"c\n"));
+    }
+
+    @Test
+    void loadAndInitialize() {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        ClassLoadingTimeline.enable(new PrintStream(byteArrayOutputStream, true));
+        try {
+            jvmClassLoader.loadClass(Loaded.class);
+            new JvmThreadRunner(
+                    JvmThreadFactory.createFromStaticMethod(this.getClass(), "initialize", "()V")
+            ).run();
+        } finally {
+            ClassLoadingTimeline.disable();
+        }
+
+        String timeline = byteArrayOutputStream.toString();
+        String loaded = runtimeName(Loaded.class);
+        Assertions.assertTrue(timeline.contains("{\"event\":\"load\",\"class\":\"" + loaded + "\",\"source\":\""), timeline);
+        String initialized = runtimeName(Initialized.class);
+        Assertions.assertTrue(
+                timeline.contains("{\"event\":\"initialize\",\"class\":\"" + initialized
+                        + "\",\"trigger\":\"" + runtimeName(this.getClass()) + "\""),
+                timeline
+        );
+    }
+
+    private static String runtimeName(Class<?> clazz) {
+        return clazz.getName().replace('.', '/');
+    }
+
+}
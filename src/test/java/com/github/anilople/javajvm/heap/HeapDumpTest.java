@@ -0,0 +1,282 @@
+package com.github.anilople.javajvm.heap;
+
+import com.github.anilople.javajvm.helper.JvmClassLoaderFactory;
+import com.github.anilople.javajvm.helper.JvmThreadFactory;
+import com.github.anilople.javajvm.helper.JvmThreadRunner;
+import com.github.anilople.javajvm.instructions.control.IRETURN;
+import com.github.anilople.javajvm.runtimedataarea.JvmThread;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeapDumpTest {
+
+    static class Node {
+        Node next;
+        int value;
+        long big;
+    }
+
+    private static Node head;
+
+    private static int holdArray() {
+        int[] local = new int[]{1, 2, 3};
+        return local.length;
+    }
+
+    private static void buildList() {
+        head = null;
+        for(int i = 0; i < 5; i++) {
+            Node node = new Node();
+            node.value = i;
+            node.big = i * 10_000_000_000L;
+            node.next = head;
+            head = node;
+        }
+        int length = holdArray();
+    }
+
+    private static HeapDump dumpWhenHoldingArray() {
+        final JvmThread jvmThread = JvmThreadFactory.createFromStaticMethod(HeapDumpTest.class, "buildList", "()V");
+        final JvmThreadRunner jvmThreadRunner = new JvmThreadRunner(jvmThread);
+        final AtomicReference<HeapDump> heapDump = new AtomicReference<>();
+        jvmThreadRunner.addBeforeInstructionExecutionListener(IRETURN.class, thread -> {
+            if("holdArray".equals(thread.currentFrame().getJvmMethod().getName())) {
+                heapDump.set(HeapDump.of(JvmClassLoaderFactory.getInstance(), Arrays.asList(thread)));
+            }
+        });
+        jvmThreadRunner.run();
+        return heapDump.get();
+    }
+
+    @Test
+    void histogram() {
+        final String histogram = dumpWhenHoldingArray().histogram();
+        final String line = Arrays.stream(histogram.split(System.lineSeparator()))
+                .filter(text -> text.endsWith(" " + Node.class.getName()))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError(histogram));
+        String[] columns = line.trim().split("\\s+");
+        assertEquals("5", columns[1]);
+        // 3 primitive slots and 1 reference
+        assertEquals(String.valueOf(5 * JvmHeap.objectSize(3, 1)), columns[2]);
+    }
+
+    @Test
+    void hprof() throws IOException {
+        final HeapDump heapDump = dumpWhenHoldingArray();
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        heapDump.writeHprof(outputStream);
+
+        final Hprof hprof = Hprof.parse(outputStream.toByteArray());
+        final long nodeClassId = hprof.classIds.get(Node.class.getName().replace('.', '/'));
+        assertEquals(5, hprof.instanceCounts.getOrDefault(nodeClassId, 0).intValue());
+        assertEquals(heapDump.getObjectCount(), hprof.objectIds.size());
+        // every reference in instances refers to a dumped object or class
+        for(long id : hprof.referencedIds) {
+            assertTrue(hprof.objectIds.contains(id) || hprof.classIds.containsValue(id), "dangling id " + id);
+        }
+        // local int[] in frame of holdArray
+        assertTrue(hprof.frameRootCount > 0);
+    }
+
+    /**
+     * reads the records needed by tests, and checks the lengths of records
+     */
+    private static class Hprof {
+
+        private final Map<Long, String> strings = new HashMap<>();
+
+        private final Map<String, Long> classIds = new HashMap<>();
+
+        private final Map<Long, Integer> instanceCounts = new HashMap<>();
+
+        private final Set<Long> objectIds = new HashSet<>();
+
+        private final Set<Long> referencedIds = new HashSet<>();
+
+        /**
+         * types of instance fields per class
+         */
+        private final Map<Long, int[]> fieldTypes = new HashMap<>();
+
+        private final Map<Long, Long> superIds = new HashMap<>();
+
+        private int frameRootCount = 0;
+
+        static Hprof parse(byte[] bytes) throws IOException {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            byte[] header = new byte["JAVA PROFILE 1.0.2".length()];
+            in.readFully(header);
+            assertEquals("JAVA PROFILE 1.0.2", new String(header, StandardCharsets.US_ASCII));
+            assertEquals(0, in.readByte());
+            assertEquals(8, in.readInt());
+            in.readLong();
+
+            Hprof hprof = new Hprof();
+            boolean end = false;
+            ByteArrayOutputStream heapDump = new ByteArrayOutputStream();
+            while (!end) {
+                int tag = in.readUnsignedByte();
+                in.readInt();
+                int length = in.readInt();
+                byte[] body = new byte[length];
+                in.readFully(body);
+                DataInputStream record = new DataInputStream(new ByteArrayInputStream(body));
+                switch (tag) {
+                    case 0x01:
+                        hprof.strings.put(record.readLong(), new String(body, 8, length - 8, StandardCharsets.UTF_8));
+                        break;
+                    case 0x02:
+                        record.readInt();
+                        long classId = record.readLong();
+                        record.readInt();
+                        hprof.classIds.put(hprof.strings.get(record.readLong()), classId);
+                        break;
+                    case 0x1C:
+                        heapDump.write(body);
+                        break;
+                    case 0x2C:
+                        end = true;
+                        break;
+                    default:
+                        // stack frames and traces
+                }
+            }
+            assertEquals(-1, in.read());
+            hprof.parseHeapDump(heapDump.toByteArray());
+            return hprof;
+        }
+
+        private void parseHeapDump(byte[] bytes) throws IOException {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            Map<Long, byte[]> instanceValues = new HashMap<>();
+            Map<Long, Long> instanceClasses = new HashMap<>();
+            while (in.available() > 0) {
+                int tag = in.readUnsignedByte();
+                switch (tag) {
+                    case 0xFF:
+                    case 0x05:
+                        in.readLong();
+                        break;
+                    case 0x03:
+                        in.readLong();
+                        in.readInt();
+                        in.readInt();
+                        frameRootCount++;
+                        break;
+                    case 0x20: {
+                        long classId = in.readLong();
+                        in.readInt();
+                        superIds.put(classId, in.readLong());
+                        for(int i = 0; i < 5; i++) {
+                            in.readLong();
+                        }
+                        in.readInt();
+                        assertEquals(0, in.readUnsignedShort());
+                        int staticCount = in.readUnsignedShort();
+                        for(int i = 0; i < staticCount; i++) {
+                            in.readLong();
+                            int type = in.readUnsignedByte();
+                            skipValue(in, type);
+                        }
+                        int instanceCount = in.readUnsignedShort();
+                        int[] types = new int[instanceCount];
+                        for(int i = 0; i < instanceCount; i++) {
+                            in.readLong();
+                            types[i] = in.readUnsignedByte();
+                        }
+                        fieldTypes.put(classId, types);
+                        break;
+                    }
+                    case 0x21: {
+                        long id = in.readLong();
+                        in.readInt();
+                        long classId = in.readLong();
+                        byte[] values = new byte[in.readInt()];
+                        in.readFully(values);
+                        objectIds.add(id);
+                        instanceCounts.merge(classId, 1, Integer::sum);
+                        instanceValues.put(id, values);
+                        instanceClasses.put(id, classId);
+                        break;
+                    }
+                    case 0x22: {
+                        objectIds.add(in.readLong());
+                        in.readInt();
+                        int length = in.readInt();
+                        referencedIds.add(in.readLong());
+                        for(int i = 0; i < length; i++) {
+                            long element = in.readLong();
+                            if(0 != element) {
+                                referencedIds.add(element);
+                            }
+                        }
+                        break;
+                    }
+                    case 0x23: {
+                        objectIds.add(in.readLong());
+                        in.readInt();
+                        int length = in.readInt();
+                        int type = in.readUnsignedByte();
+                        for(int i = 0; i < length; i++) {
+                            skipValue(in, type);
+                        }
+                        break;
+                    }
+                    default:
+                        fail("unknown sub record " + tag);
+                }
+            }
+            // values of instances match the fields of classes
+            for(Map.Entry<Long, byte[]> entry : instanceValues.entrySet()) {
+                DataInputStream values = new DataInputStream(new ByteArrayInputStream(entry.getValue()));
+                for(long classId = instanceClasses.get(entry.getKey()); 0 != classId; classId = superIds.get(classId)) {
+                    for(int type : fieldTypes.get(classId)) {
+                        if(2 == type) {
+                            long id = values.readLong();
+                            if(0 != id) {
+                                referencedIds.add(id);
+                            }
+                        } else {
+                            skipValue(values, type);
+                        }
+                    }
+                }
+                assertEquals(0, values.available());
+            }
+        }
+
+        private static void skipValue(DataInputStream in, int type) throws IOException {
+            switch (type) {
+                case 4:
+                case 8:
+                    in.readByte();
+                    break;
+                case 5:
+                case 9:
+                    in.readShort();
+                    break;
+                case 2:
+                case 7:
+                case 11:
+                    in.readLong();
+                    break;
+                default:
+                    in.readInt();
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.github.anilople.javajvm.heap;
+
+import com.github.anilople.javajvm.classpath.Classpath;
+import com.github.anilople.javajvm.helper.JvmClassLoaderFactory;
+import com.github.anilople.javajvm.helper.JvmThreadRunner;
+import com.github.anilople.javajvm.runtimedataarea.Frame;
+import com.github.anilople.javajvm.runtimedataarea.JvmThread;
+import com.github.anilople.javajvm.runtimedataarea.reference.ArrayReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.ClassObjectReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.ObjectReference;
+import com.github.anilople.javajvm.utils.ReferenceUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+class JvmClassLoaderTest {
+
+    private final JvmClassLoader bootstrap = JvmClassLoaderFactory.getInstance();
+
+    @TempDir
+    Path pluginDirectory;
+
+    /**
+     * compile a class outside the classpath of bootstrap class loader
+     */
+    private Classpath compilePlugin() throws IOException {
+        JavaCompiler javaCompiler = ToolProvider.getSystemJavaCompiler();
+        Assumptions.assumeTrue(null != javaCompiler, "need a compiler");
+        Path source = pluginDirectory.resolve("plugin").resolve("Plugin.java");
+        Files.createDirectories(source.getParent());
+        Files.write(source, ("package plugin; public class Plugin {"
+                + " static String name = \"plugin\"; static Class<?> mirror; static Object array;"
+                + " static void mirrorAndArray() { mirror = Plugin.class; array = new Plugin[1]; }"
+                + " }").getBytes(StandardCharsets.UTF_8));
+        Assertions.assertEquals(0, javaCompiler.run(null, null, null, source.toString()));
+        return Classpath.of(pluginDirectory.toString());
+    }
+
+    @Test
+    void stringPoolPerVm() {
+        final String string = "pooled in one vm";
+        // the pool keeps it as long as it is reachable
+        final ObjectReference pooled = ReferenceUtils.getStringObjectReference(bootstrap.loadClass(String.class), string);
+        JvmClassLoader other = JvmClassLoader.createBootstrapClassLoader();
+        Assertions.assertNotSame(bootstrap.getStringPool(), other.getStringPool());
+        Assertions.assertSame(pooled, bootstrap.getStringPool().get(string));
+        Assertions.assertNull(other.getStringPool().get(string));
+    }
+
+    @Test
+    void delegation() throws IOException {
+        JvmClassLoader jvmClassLoader = new JvmClassLoader(bootstrap, compilePlugin());
+
+        JvmClass plugin = jvmClassLoader.loadClass("plugin/Plugin");
+        Assertions.assertSame(jvmClassLoader, plugin.getLoader());
+        Assertions.assertSame(bootstrap.loadClass(Object.class), plugin.getSuperClass());
+        Assertions.assertSame(bootstrap, jvmClassLoader.loadClass(String.class).getLoader());
+        // strings are pooled per vm, not per class loader
+        Assertions.assertSame(bootstrap.getStringPool(), jvmClassLoader.getStringPool());
+
+        // array class is defined by the class loader of its element
+        Assertions.assertSame(jvmClassLoader, jvmClassLoader.loadClass("[[Lplugin/Plugin;").getLoader());
+        Assertions.assertSame(bootstrap, jvmClassLoader.loadClass("[I").getLoader());
+        Assertions.assertSame(bootstrap, jvmClassLoader.loadClass(int.class).getLoader());
+
+        Assertions.assertTrue(jvmClassLoader.getLoadedClasses().contains(plugin));
+        Assertions.assertFalse(bootstrap.getLoadedClasses().contains(plugin));
+        Assertions.assertThrows(NoClassDefFoundError.class, () -> bootstrap.loadClass("plugin/Plugin"));
+    }
+
+    /**
+     * host cannot find the plugin class, so its java.lang.Class and array class come from guest only
+     */
+    @Test
+    void mirrorAndArrayOfPluginClass() throws IOException {
+        JvmClassLoader jvmClassLoader = new JvmClassLoader(bootstrap, compilePlugin());
+        JvmClass plugin = jvmClassLoader.loadClass("plugin/Plugin");
+
+        JvmThread jvmThread = new JvmThread();
+        jvmThread.pushFrame(new Frame(jvmThread, plugin.getMethod("mirrorAndArray", "()V")));
+        new JvmThreadRunner(jvmThread).run();
+
+        // static fields: name, mirror, array
+        ClassObjectReference mirror = (ClassObjectReference) plugin.getStaticFieldsValue().getReference(1);
+        Assertions.assertSame(plugin, mirror.getRepresentedJvmClass());
+        Assertions.assertSame(mirror, ClassObjectReference.getInstance(plugin));
+
+        ArrayReference array = (ArrayReference) plugin.getStaticFieldsValue().getReference(2);
+        JvmClass arrayClass = array.resolveType();
+        Assertions.assertEquals("[Lplugin/Plugin;", arrayClass.getName());
+        Assertions.assertSame(jvmClassLoader, arrayClass.getLoader());
+        Assertions.assertSame(arrayClass, plugin.wrapperArray());
+        Assertions.assertSame(mirror, ClassObjectReference.getInstance(arrayClass).getComponentType());
+    }
+
+    @Test
+    void unreachableClassLoaderIsReclaimed() throws IOException, InterruptedException {
+        JvmClassLoader jvmClassLoader = new JvmClassLoader(bootstrap, compilePlugin());
+        jvmClassLoader.loadClass("plugin/Plugin");
+        WeakReference<JvmClassLoader> weakReference = new WeakReference<>(jvmClassLoader);
+        jvmClassLoader = null;
+
+        for (int i = 0; i < 10 && null != weakReference.get(); i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assertions.assertNull(weakReference.get());
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.github.anilople.javajvm.heap;
+
+import com.github.anilople.javajvm.constants.ConstantPoolTags;
+import com.github.anilople.javajvm.helper.JvmClassLoaderFactory;
+import com.github.anilople.javajvm.heap.constant.JvmConstant;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class JvmConstantPoolTest {
+
+    private final JvmClassLoader jvmClassLoader = JvmClassLoaderFactory.getInstance();
+
+    private static final String CONSTANT = "lazy constant";
+
+    static String constant() {
+        return CONSTANT;
+    }
+
+    @Test
+    void sameConstantWhenGetAgain() {
+        JvmConstantPool jvmConstantPool = jvmClassLoader.loadClass(JvmConstantPoolTest.class).getJvmConstantPool();
+        for (int i = 1; i < jvmConstantPool.size(); i++) {
+            if (0 == jvmConstantPool.getTag(i)) {
+                continue;
+            }
+            JvmConstant jvmConstant = jvmConstantPool.getJvmConstant(i);
+            Assertions.assertSame(jvmConstant, jvmConstantPool.getJvmConstant(i));
+        }
+    }
+
+    @Test
+    void noConstantAfterLongOrDouble() {
+        JvmConstantPool jvmConstantPool = jvmClassLoader.loadClass(Long.class).getJvmConstantPool();
+        boolean found = false;
+        for (int i = 1; i < jvmConstantPool.size(); i++) {
+            if (ConstantPoolTags.CONSTANT_Long == jvmConstantPool.getTag(i)) {
+                found = true;
+                final int emptyIndex = i + 1;
+                Assertions.assertEquals(0, jvmConstantPool.getTag(emptyIndex));
+                Assertions.assertThrows(RuntimeException.class, () -> jvmConstantPool.getJvmConstant(emptyIndex));
+            }
+        }
+        Assertions.assertTrue(found);
+    }
+
+    @Test
+    void noConstantAtZero() {
+        JvmConstantPool jvmConstantPool = jvmClassLoader.loadClass(JvmConstantPoolTest.class).getJvmConstantPool();
+        Assertions.assertThrows(RuntimeException.class, () -> jvmConstantPool.getJvmConstant(0));
+    }
+
+}
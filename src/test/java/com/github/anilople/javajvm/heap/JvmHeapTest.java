@@ -0,0 +1,129 @@
+package com.github.anilople.javajvm.heap;
+
+import com.github.anilople.javajvm.helper.JvmClassLoaderFactory;
+import com.github.anilople.javajvm.helper.JvmThreadFactory;
+import com.github.anilople.javajvm.helper.JvmThreadRunner;
+import com.github.anilople.javajvm.instructions.control.IRETURN;
+import com.github.anilople.javajvm.runtimedataarea.JvmThread;
+import com.github.anilople.javajvm.runtimedataarea.reference.ByteArrayReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.IntArrayReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.LongArrayReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.ObjectArrayReference;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JvmHeapTest {
+
+    private final JvmClassLoader jvmClassLoader = JvmClassLoaderFactory.getInstance();
+
+    @Test
+    void arrayBytesAreAccounted() {
+        final long allocated = JvmHeap.getAllocatedBytes();
+        new LongArrayReference(jvmClassLoader, 100);
+        assertEquals(16 + 8 * 100, JvmHeap.getAllocatedBytes() - allocated);
+
+        final long allocatedAgain = JvmHeap.getAllocatedBytes();
+        new ObjectArrayReference(jvmClassLoader.loadClass(Object.class), 3);
+        // aligned to 8 bytes
+        assertEquals(32, JvmHeap.getAllocatedBytes() - allocatedAgain);
+    }
+
+    @Test
+    void bytesAreReleasedWhenCollected() throws InterruptedException {
+        final long live = JvmHeap.getLiveBytes();
+        new ByteArrayReference(jvmClassLoader, 1 << 20);
+        for(int i = 0; i < 50 && JvmHeap.getLiveBytes() >= live + (1 << 20); i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertTrue(JvmHeap.getLiveBytes() < live + (1 << 20));
+    }
+
+    @Test
+    void allocationFailsWhenHeapIsFull() {
+        JvmHeap.setMaxBytes(JvmHeap.getLiveBytes() + 1024);
+        try {
+            assertThrows(
+                    JvmHeap.HeapExhaustedException.class,
+                    () -> new IntArrayReference(jvmClassLoader, 1024)
+            );
+            // allowed when the OutOfMemoryError is being thrown
+            JvmHeap.runWithoutLimit(() -> new IntArrayReference(jvmClassLoader, 1024));
+        } finally {
+            JvmHeap.setMaxBytes(Long.MAX_VALUE);
+        }
+    }
+
+    private static int allocateTooMuch() {
+        try {
+            long[] longs = new long[1 << 20];
+            return longs.length;
+        } catch (OutOfMemoryError e) {
+            return -1;
+        }
+    }
+
+    private static void outOfMemory() {
+        int result = allocateTooMuch();
+    }
+
+    @Test
+    void guestCatchesOutOfMemoryError() {
+        final JvmThread jvmThread = JvmThreadFactory.createFromStaticMethod(this.getClass(), "outOfMemory", "()V");
+        final JvmThreadRunner jvmThreadRunner = new JvmThreadRunner(jvmThread);
+        final AtomicInteger result = new AtomicInteger();
+        jvmThreadRunner.addBeforeInstructionExecutionListener(IRETURN.class, thread -> {
+            if("allocateTooMuch".equals(thread.currentFrame().getJvmMethod().getName())) {
+                int value = thread.currentFrame().getOperandStacks().popIntValue();
+                result.set(value);
+                thread.currentFrame().getOperandStacks().pushIntValue(value);
+            }
+        });
+
+        JvmHeap.setMaxBytes(JvmHeap.getLiveBytes() + (1 << 20));
+        try {
+            jvmThreadRunner.run();
+        } finally {
+            JvmHeap.setMaxBytes(Long.MAX_VALUE);
+        }
+        assertEquals(-1, result.get());
+    }
+
+    private static int loadStringConstant() {
+        try {
+            // the string is allocated when the constant is resolved
+            return "a string constant only in JvmHeapTest".length();
+        } catch (OutOfMemoryError e) {
+            return -1;
+        }
+    }
+
+    private static void outOfMemoryOfStringConstant() {
+        int result = loadStringConstant();
+    }
+
+    @Test
+    void guestCatchesOutOfMemoryErrorOfStringConstant() {
+        final JvmThread jvmThread = JvmThreadFactory.createFromStaticMethod(this.getClass(), "outOfMemoryOfStringConstant", "()V");
+        final JvmThreadRunner jvmThreadRunner = new JvmThreadRunner(jvmThread);
+        final AtomicInteger result = new AtomicInteger();
+        jvmThreadRunner.addBeforeInstructionExecutionListener(IRETURN.class, thread -> {
+            if("loadStringConstant".equals(thread.currentFrame().getJvmMethod().getName())) {
+                int value = thread.currentFrame().getOperandStacks().popIntValue();
+                result.set(value);
+                thread.currentFrame().getOperandStacks().pushIntValue(value);
+            }
+        });
+
+        JvmHeap.setMaxBytes(1);
+        try {
+            jvmThreadRunner.run();
+        } finally {
+            JvmHeap.setMaxBytes(Long.MAX_VALUE);
+        }
+        assertEquals(-1, result.get());
+    }
+}
@@ -0,0 +1,33 @@
+package com.github.anilople.javajvm.heap;
+
+import com.github.anilople.javajvm.helper.JvmClassLoaderFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class MetaspaceTest {
+
+    private final JvmClassLoader jvmClassLoader = JvmClassLoaderFactory.getInstance();
+
+    @Test
+    void sizeGrowsWhenConstantsMaterialized() {
+        JvmClass jvmClass = jvmClassLoader.loadClass(MetaspaceTest.class);
+        JvmConstantPool jvmConstantPool = jvmClass.getJvmConstantPool();
+        final long before = Metaspace.sizeOf(jvmClass);
+        Assertions.assertTrue(before > 0);
+        for (int i = 1; i < jvmConstantPool.size(); i++) {
+            if (0 != jvmConstantPool.getTag(i)) {
+                jvmConstantPool.getJvmConstant(i);
+            }
+        }
+        Assertions.assertTrue(Metaspace.sizeOf(jvmClass) >= before);
+    }
+
+    @Test
+    void report() {
+        JvmClass jvmClass = jvmClassLoader.loadClass(MetaspaceTest.class);
+        String report = Metaspace.report(jvmClassLoader);
+        Assertions.assertTrue(report.contains(jvmClass.getName()));
+        Assertions.assertTrue(report.contains("bytes in"));
+    }
+
+}
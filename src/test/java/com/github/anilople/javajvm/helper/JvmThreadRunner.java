@@ -1,6 +1,8 @@
 package com.github.anilople.javajvm.helper;
 
+import com.github.anilople.javajvm.JavaJvmApplication;
 import com.github.anilople.javajvm.instructions.Instruction;
+import com.github.anilople.javajvm.natives.ThreadNatives;
 import com.github.anilople.javajvm.runtimedataarea.JvmThread;
 
 import java.util.*;
@@ -175,6 +177,22 @@ public class JvmThreadRunner {
             consumer.accept(jvmThread);
         }
 
+        final JvmThread previous = JvmThread.enter(jvmThread);
+        try {
+            loop();
+        } finally {
+            JvmThread.exit(previous);
+            // the thread is not kept by vm
+            ThreadNatives.unbind(jvmThread);
+        }
+
+        // after thread running, trigger the listeners
+        for(Consumer<JvmThread> consumer : endListeners) {
+            consumer.accept(jvmThread);
+        }
+    }
+
+    private void loop() {
         while(jvmThread.existFrame()) {
             // read instruction
             Instruction instruction = jvmThread.currentFrame().readNextInstruction();
@@ -190,7 +208,7 @@ public class JvmThreadRunner {
             }
 
             // execute instruction
-            instruction.execute(jvmThread.currentFrame());
+            JavaJvmApplication.execute(instruction, jvmThread.currentFrame());
 
             // after this instruction's execution, trigger the listeners
             if(afterInstructionExecutionListeners.containsKey(instruction.getClass())) {
@@ -199,11 +217,6 @@ public class JvmThreadRunner {
                 }
             }
         }
-
-        // after thread running, trigger the listeners
-        for(Consumer<JvmThread> consumer : endListeners) {
-            consumer.accept(jvmThread);
-        }
     }
 
     /**
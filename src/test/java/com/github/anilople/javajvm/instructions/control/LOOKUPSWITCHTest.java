@@ -0,0 +1,110 @@
+package com.github.anilople.javajvm.instructions.control;
+
+import com.github.anilople.javajvm.helper.JvmThreadFactory;
+import com.github.anilople.javajvm.helper.JvmThreadRunner;
+import com.github.anilople.javajvm.instructions.BytecodeReader;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LOOKUPSWITCHTest {
+
+    private static int sparse(int value) {
+        switch (value) {
+            case -100000:
+                return 1;
+            case 7:
+                return 2;
+            case 1000:
+                return 3;
+            case Integer.MAX_VALUE:
+                return 4;
+            default:
+                return 5;
+        }
+    }
+
+    private static int stringSwitch(String command) {
+        switch (command) {
+            case "start":
+                return 1;
+            case "stop":
+                return 2;
+            default:
+                return 3;
+        }
+    }
+
+    private static void switches() {
+        int min = sparse(-100000);
+        int seven = sparse(7);
+        int max = sparse(Integer.MAX_VALUE);
+        int none = sparse(8);
+        int start = stringSwitch("start");
+        int stop = stringSwitch("stop");
+        int other = stringSwitch("pause");
+    }
+
+    @Test
+    void execute() {
+        final JvmThreadRunner jvmThreadRunner = new JvmThreadRunner(
+                JvmThreadFactory.createFromStaticMethod(this.getClass(), "switches", "()V")
+        );
+        final List<Integer> results = new ArrayList<>();
+        jvmThreadRunner.addBeforeInstructionExecutionListener(IRETURN.class, thread -> {
+            if(thread.currentFrame().getJvmMethod().getJvmClass().isSameName(LOOKUPSWITCHTest.class)) {
+                int value = thread.currentFrame().getOperandStacks().popIntValue();
+                results.add(value);
+                thread.currentFrame().getOperandStacks().pushIntValue(value);
+            }
+        });
+        jvmThreadRunner.run();
+        assertTrue(jvmThreadRunner.isExecuted(LOOKUPSWITCH.class));
+        assertEquals(Arrays.asList(1, 2, 4, 5, 1, 2, 3), results);
+    }
+
+    private static LOOKUPSWITCH decode(int defaultOffset, int... pairs) {
+        // opcode at 0, 3 bytes of padding
+        final ByteBuffer code = ByteBuffer.allocate(4 + 8 + 4 * pairs.length);
+        code.put((byte) 0xab).put(new byte[3]).putInt(defaultOffset).putInt(pairs.length / 2);
+        for(int value : pairs) {
+            code.putInt(value);
+        }
+        final BytecodeReader bytecodeReader = new BytecodeReader(code.array(), 0);
+        bytecodeReader.readU1();
+        final LOOKUPSWITCH lookupswitch = new LOOKUPSWITCH();
+        lookupswitch.fetchOperands(bytecodeReader);
+        assertEquals(code.capacity(), lookupswitch.size());
+        return lookupswitch;
+    }
+
+    @Test
+    void dense() {
+        final LOOKUPSWITCH lookupswitch = decode(100, -1, 10, 0, 20, 2, 30);
+        assertTrue(lookupswitch.isJumpTable());
+        assertEquals(10, lookupswitch.branchOffset(-1));
+        assertEquals(20, lookupswitch.branchOffset(0));
+        assertEquals(100, lookupswitch.branchOffset(1));
+        assertEquals(30, lookupswitch.branchOffset(2));
+        assertEquals(100, lookupswitch.branchOffset(Integer.MIN_VALUE));
+        assertEquals(100, lookupswitch.branchOffset(Integer.MAX_VALUE));
+    }
+
+    @Test
+    void sparseOrEmpty() {
+        final LOOKUPSWITCH lookupswitch = decode(100, Integer.MIN_VALUE, 10, Integer.MAX_VALUE, 20);
+        assertFalse(lookupswitch.isJumpTable());
+        assertEquals(10, lookupswitch.branchOffset(Integer.MIN_VALUE));
+        assertEquals(20, lookupswitch.branchOffset(Integer.MAX_VALUE));
+        assertEquals(100, lookupswitch.branchOffset(0));
+
+        final LOOKUPSWITCH empty = decode(100);
+        assertFalse(empty.isJumpTable());
+        assertEquals(100, empty.branchOffset(0));
+    }
+}
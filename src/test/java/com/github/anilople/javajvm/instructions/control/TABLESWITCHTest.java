@@ -0,0 +1,91 @@
+package com.github.anilople.javajvm.instructions.control;
+
+import com.github.anilople.javajvm.helper.JvmThreadFactory;
+import com.github.anilople.javajvm.helper.JvmThreadRunner;
+import com.github.anilople.javajvm.instructions.BytecodeReader;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TABLESWITCHTest {
+
+    private static int dense(int value) {
+        switch (value) {
+            case -1:
+                return 10;
+            case 0:
+                return 20;
+            case 1:
+                return 30;
+            case 2:
+                return 40;
+            default:
+                return 50;
+        }
+    }
+
+    private static int enumSwitch(TimeUnit timeUnit) {
+        switch (timeUnit) {
+            case SECONDS:
+                return 1;
+            case MINUTES:
+                return 60;
+            case HOURS:
+                return 3600;
+            default:
+                return 0;
+        }
+    }
+
+    private static void switches() {
+        int minus = dense(-1);
+        int zero = dense(0);
+        int two = dense(2);
+        int low = dense(-2);
+        int high = dense(3);
+        int seconds = enumSwitch(TimeUnit.SECONDS);
+        int hours = enumSwitch(TimeUnit.HOURS);
+        int days = enumSwitch(TimeUnit.DAYS);
+    }
+
+    @Test
+    void execute() {
+        final JvmThreadRunner jvmThreadRunner = new JvmThreadRunner(
+                JvmThreadFactory.createFromStaticMethod(this.getClass(), "switches", "()V")
+        );
+        final List<Integer> results = new ArrayList<>();
+        jvmThreadRunner.addBeforeInstructionExecutionListener(IRETURN.class, thread -> {
+            if(thread.currentFrame().getJvmMethod().getJvmClass().isSameName(TABLESWITCHTest.class)) {
+                int value = thread.currentFrame().getOperandStacks().popIntValue();
+                results.add(value);
+                thread.currentFrame().getOperandStacks().pushIntValue(value);
+            }
+        });
+        jvmThreadRunner.run();
+        assertTrue(jvmThreadRunner.isExecuted(TABLESWITCH.class));
+        assertEquals(Arrays.asList(10, 20, 40, 50, 50, 1, 3600, 0), results);
+    }
+
+    @Test
+    void padding() {
+        // default 8, low 1, high 2, offsets 16 and 24
+        final byte[] operands = {0, 0, 0, 8, 0, 0, 0, 1, 0, 0, 0, 2, 0, 0, 0, 16, 0, 0, 0, 24};
+        for(int pc = 0; pc < 4; pc++) {
+            final int padding = (4 - (pc + 1) % 4) % 4;
+            final byte[] code = new byte[pc + 1 + padding + operands.length];
+            code[pc] = (byte) 0xaa;
+            System.arraycopy(operands, 0, code, pc + 1 + padding, operands.length);
+
+            final BytecodeReader bytecodeReader = new BytecodeReader(code, pc);
+            bytecodeReader.readU1();
+            final TABLESWITCH tableswitch = new TABLESWITCH();
+            tableswitch.fetchOperands(bytecodeReader);
+            assertEquals(code.length - pc, tableswitch.size());
+        }
+    }
+}
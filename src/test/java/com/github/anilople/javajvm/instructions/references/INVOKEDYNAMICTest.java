@@ -0,0 +1,81 @@
+package com.github.anilople.javajvm.instructions.references;
+
+import com.github.anilople.javajvm.helper.JvmThreadFactory;
+import com.github.anilople.javajvm.helper.JvmThreadRunner;
+import com.github.anilople.javajvm.instructions.control.IRETURN;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class INVOKEDYNAMICTest {
+
+    private static int nonCapturing() {
+        IntSupplier intSupplier = () -> 42;
+        return intSupplier.getAsInt();
+    }
+
+    private static int capturing(int a, long b) {
+        LongSupplier longSupplier = () -> a + b;
+        return (int) longSupplier.getAsLong();
+    }
+
+    private static int boxing() {
+        Function<String, Integer> parseInt = Integer::parseInt;
+        return parseInt.apply("123");
+    }
+
+    private static int constructor() {
+        Supplier<StringBuilder> supplier = StringBuilder::new;
+        return supplier.get().append("ab").length();
+    }
+
+    private static int defaultMethod() {
+        Function<Integer, Integer> increase = x -> x + 1;
+        return increase.andThen(x -> x * 2).apply(3);
+    }
+
+    private static Runnable runnable() {
+        return () -> {};
+    }
+
+    private static int constantLambda() {
+        return runnable() == runnable() ? 1 : 0;
+    }
+
+    private static void lambdas() {
+        nonCapturing();
+        capturing(1, 2L);
+        boxing();
+        constructor();
+        defaultMethod();
+        constantLambda();
+    }
+
+    @Test
+    void execute() {
+        final JvmThreadRunner jvmThreadRunner = new JvmThreadRunner(
+                JvmThreadFactory.createFromStaticMethod(this.getClass(), "lambdas", "()V")
+        );
+        final List<Integer> results = new ArrayList<>();
+        jvmThreadRunner.addBeforeInstructionExecutionListener(IRETURN.class, thread -> {
+            if(thread.currentFrame().getJvmMethod().getJvmClass().isSameName(INVOKEDYNAMICTest.class)
+                    && !thread.currentFrame().getJvmMethod().getName().startsWith("lambda$")) {
+                int value = thread.currentFrame().getOperandStacks().popIntValue();
+                results.add(value);
+                thread.currentFrame().getOperandStacks().pushIntValue(value);
+            }
+        });
+        jvmThreadRunner.run();
+        assertTrue(jvmThreadRunner.isExecuted(INVOKEDYNAMIC.class));
+        assertEquals(Arrays.asList(42, 3, 123, 2, 8, 1), results);
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.github.anilople.javajvm.instructions.references;
+
+import com.github.anilople.javajvm.helper.JvmThreadFactory;
+import com.github.anilople.javajvm.helper.JvmThreadRunner;
+import com.github.anilople.javajvm.instructions.control.IRETURN;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class INVOKEVIRTUALTest {
+
+    private static int length(String s) {
+        try {
+            return s.length();
+        } catch (NullPointerException e) {
+            return -1;
+        }
+    }
+
+    private static int charAt(String s) {
+        try {
+            return s.charAt(0);
+        } catch (NullPointerException e) {
+            return -1;
+        }
+    }
+
+    private static int append(StringBuilder stringBuilder) {
+        try {
+            return stringBuilder.append("a").length();
+        } catch (NullPointerException e) {
+            return -1;
+        }
+    }
+
+    private static int charSequenceLength(CharSequence charSequence) {
+        try {
+            return charSequence.length();
+        } catch (NullPointerException e) {
+            return -1;
+        }
+    }
+
+    private static int hashCode(Object object) {
+        try {
+            return object.hashCode() == System.identityHashCode(object) ? 1 : 0;
+        } catch (NullPointerException e) {
+            return System.identityHashCode(object) - 1;
+        }
+    }
+
+    private static void nullReceivers() {
+        length("ab");
+        length(null);
+        charAt("a");
+        charAt(null);
+        append(new StringBuilder());
+        append(null);
+        charSequenceLength("abc");
+        charSequenceLength(null);
+        hashCode(new Object());
+        hashCode(null);
+    }
+
+    @Test
+    void nullReceiver() {
+        final JvmThreadRunner jvmThreadRunner = new JvmThreadRunner(
+                JvmThreadFactory.createFromStaticMethod(this.getClass(), "nullReceivers", "()V")
+        );
+        final List<Integer> results = new ArrayList<>();
+        jvmThreadRunner.addBeforeInstructionExecutionListener(IRETURN.class, thread -> {
+            if(thread.currentFrame().getJvmMethod().getJvmClass().isSameName(INVOKEVIRTUALTest.class)) {
+                int value = thread.currentFrame().getOperandStacks().popIntValue();
+                results.add(value);
+                thread.currentFrame().getOperandStacks().pushIntValue(value);
+            }
+        });
+        jvmThreadRunner.run();
+        assertEquals(Arrays.asList(2, -1, (int) 'a', -1, 1, -1, 3, -1, 1, -1), results);
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.github.anilople.javajvm.instructions.references;
+
+import com.github.anilople.javajvm.helper.JvmThreadFactory;
+import com.github.anilople.javajvm.helper.JvmThreadRunner;
+import com.github.anilople.javajvm.instructions.control.IRETURN;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MONITORENTERTest {
+
+    private static int count = 0;
+
+    private static synchronized void increase() {
+        count++;
+    }
+
+    private static int synchronizedBlock() {
+        Object lock = new Object();
+        synchronized (lock) {
+            synchronized (lock) {
+                increase();
+            }
+        }
+        try {
+            synchronized (lock) {
+                throw new IllegalStateException();
+            }
+        } catch (IllegalStateException e) {
+            // the monitor is exited when the exception is thrown
+        }
+        synchronized (lock) {
+            increase();
+        }
+        return count;
+    }
+
+    private static int nullMonitor() {
+        Object lock = null;
+        try {
+            synchronized (lock) {
+                return 1;
+            }
+        } catch (NullPointerException e) {
+            return 0;
+        }
+    }
+
+    private static int identityHashCode() {
+        Object object = new Object();
+        int[] array = new int[1];
+        if(object.hashCode() != object.hashCode() || object.hashCode() != System.identityHashCode(object)) {
+            return 1;
+        }
+        if(array.hashCode() != System.identityHashCode(array)) {
+            return 2;
+        }
+        return System.identityHashCode(null);
+    }
+
+    private static int hashMap() {
+        Object key = new Object();
+        Map<Object, Integer> map = new HashMap<>();
+        map.put(key, 3);
+        map.put(new Object(), 4);
+        return map.get(key);
+    }
+
+    private static void monitors() {
+        int block = synchronizedBlock();
+        int npe = nullMonitor();
+        int hashCode = identityHashCode();
+        int value = hashMap();
+    }
+
+    @Test
+    void execute() {
+        final JvmThreadRunner jvmThreadRunner = new JvmThreadRunner(
+                JvmThreadFactory.createFromStaticMethod(this.getClass(), "monitors", "()V")
+        );
+        final List<Integer> results = new ArrayList<>();
+        jvmThreadRunner.addBeforeInstructionExecutionListener(IRETURN.class, thread -> {
+            if(thread.currentFrame().getJvmMethod().getJvmClass().isSameName(MONITORENTERTest.class)) {
+                int value = thread.currentFrame().getOperandStacks().popIntValue();
+                results.add(value);
+                thread.currentFrame().getOperandStacks().pushIntValue(value);
+            }
+        });
+        jvmThreadRunner.run();
+        assertTrue(jvmThreadRunner.isExecuted(MONITORENTER.class));
+        assertTrue(jvmThreadRunner.isExecuted(MONITOREXIT.class));
+        assertEquals(Arrays.asList(2, 0, 0, 3), results);
+    }
+}
@@ -0,0 +1,96 @@
+package com.github.anilople.javajvm.instructions.stack;
+
+import com.github.anilople.javajvm.helper.JvmThreadFactory;
+import com.github.anilople.javajvm.helper.JvmThreadRunner;
+import com.github.anilople.javajvm.instructions.control.LRETURN;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DUP2Test {
+
+    private long field = 10L;
+
+    private static long discarded() {
+        return -1L;
+    }
+
+    /**
+     * dup2 of 2 category 1 values
+     */
+    private static long arrayUpdate() {
+        long[] values = {1L, 2L, 3L};
+        for(int i = 0; i < values.length; i++) {
+            values[i] += 1L << 40;
+        }
+        return values[0] + values[1] + values[2];
+    }
+
+    /**
+     * dup2 of a category 2 value, pop2 of a category 2 value
+     */
+    private static long chainedAssignment() {
+        long a, b;
+        a = b = 0x1234_5678_9abcL;
+        discarded();
+        return a - b + a;
+    }
+
+    /**
+     * dup2_x1 of a category 2 value
+     */
+    private static long fieldIncrement() {
+        DUP2Test dup2Test = new DUP2Test();
+        long before = dup2Test.field++;
+        return before * 100 + dup2Test.field;
+    }
+
+    /**
+     * dup2_x2 of a category 2 value
+     */
+    private static long arrayIncrement() {
+        double[] doubles = {1.5D};
+        double before = doubles[0]++;
+        long[] longs = {7L};
+        long previous = longs[0]--;
+        return (long) (before * 10 + doubles[0]) * 100 + previous * 10 + longs[0];
+    }
+
+    private static void longs() {
+        arrayUpdate();
+        chainedAssignment();
+        fieldIncrement();
+        arrayIncrement();
+    }
+
+    @Test
+    void execute() {
+        final JvmThreadRunner jvmThreadRunner = new JvmThreadRunner(
+                JvmThreadFactory.createFromStaticMethod(this.getClass(), "longs", "()V")
+        );
+        final List<Long> results = new ArrayList<>();
+        jvmThreadRunner.addBeforeInstructionExecutionListener(LRETURN.class, thread -> {
+            if(!"discarded".equals(thread.currentFrame().getJvmMethod().getName())) {
+                long value = thread.currentFrame().getOperandStacks().popLongValue();
+                results.add(value);
+                thread.currentFrame().getOperandStacks().pushLongValue(value);
+            }
+        });
+        jvmThreadRunner.run();
+        assertTrue(jvmThreadRunner.isExecuted(DUP2.class));
+        assertTrue(jvmThreadRunner.isExecuted(DUP2_X1.class));
+        assertTrue(jvmThreadRunner.isExecuted(DUP2_X2.class));
+        assertTrue(jvmThreadRunner.isExecuted(POP2.class));
+        assertEquals(Arrays.asList(
+                6L + 3 * (1L << 40),
+                0x1234_5678_9abcL,
+                10L * 100 + 11L,
+                (long) (1.5D * 10 + 2.5D) * 100 + 7L * 10 + 6L
+        ), results);
+    }
+
+}
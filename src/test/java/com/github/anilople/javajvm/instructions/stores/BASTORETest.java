@@ -6,7 +6,7 @@ import com.github.anilople.javajvm.helper.JvmThreadRunner;
 import com.github.anilople.javajvm.instructions.Instruction;
 import com.github.anilople.javajvm.instructions.loads.BALOAD;
 import com.github.anilople.javajvm.runtimedataarea.JvmThread;
-import com.github.anilople.javajvm.runtimedataarea.reference.BaseTypeArrayReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.ByteArrayReference;
 import org.junit.jupiter.api.Test;
 
 import java.util.function.BiConsumer;
@@ -20,7 +20,7 @@ class BASTORETest {
         bytes[23] = (byte) 3;
     }
 
-    private BaseTypeArrayReference baseTypeArrayReference = null;
+    private ByteArrayReference baseTypeArrayReference = null;
 
     @Test
     void execute() {
@@ -29,7 +29,7 @@ class BASTORETest {
             assertTrue(instruction instanceof BASTORE);
             int value = jvmThread.currentFrame().getOperandStacks().popIntValue();
             int index = jvmThread.currentFrame().getOperandStacks().popIntValue();
-            this.baseTypeArrayReference = (BaseTypeArrayReference) jvmThread.currentFrame().getOperandStacks().popReference();
+            this.baseTypeArrayReference = (ByteArrayReference) jvmThread.currentFrame().getOperandStacks().popReference();
             // check the array value
             assertEquals(3, value);
             // check the array index
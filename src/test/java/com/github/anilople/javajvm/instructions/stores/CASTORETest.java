@@ -5,7 +5,7 @@ import com.github.anilople.javajvm.helper.JvmThreadFactory;
 import com.github.anilople.javajvm.helper.JvmThreadRunner;
 import com.github.anilople.javajvm.instructions.Instruction;
 import com.github.anilople.javajvm.runtimedataarea.JvmThread;
-import com.github.anilople.javajvm.runtimedataarea.reference.BaseTypeArrayReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.CharArrayReference;
 import org.junit.jupiter.api.Test;
 
 import java.util.function.BiConsumer;
@@ -21,7 +21,7 @@ public class CASTORETest {
         chars[chars.length - 1] = 'k';
     }
 
-    private BaseTypeArrayReference baseTypeArrayReference = null;
+    private CharArrayReference baseTypeArrayReference = null;
 
     @Test
     void execute() {
@@ -30,7 +30,7 @@ public class CASTORETest {
             assertTrue(instruction instanceof CASTORE);
             char value = jvmThread.currentFrame().getOperandStacks().popCharValue();
             int index = jvmThread.currentFrame().getOperandStacks().popIntValue();
-            this.baseTypeArrayReference = (BaseTypeArrayReference) jvmThread.currentFrame().getOperandStacks().popReference();
+            this.baseTypeArrayReference = (CharArrayReference) jvmThread.currentFrame().getOperandStacks().popReference();
             // check the array value
             assertEquals('k', value);
             // check the array index
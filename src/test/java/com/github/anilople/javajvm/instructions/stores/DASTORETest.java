@@ -5,7 +5,7 @@ import com.github.anilople.javajvm.helper.JvmThreadFactory;
 import com.github.anilople.javajvm.helper.JvmThreadRunner;
 import com.github.anilople.javajvm.instructions.Instruction;
 import com.github.anilople.javajvm.runtimedataarea.JvmThread;
-import com.github.anilople.javajvm.runtimedataarea.reference.BaseTypeArrayReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.DoubleArrayReference;
 import org.junit.jupiter.api.Test;
 
 import java.util.function.BiConsumer;
@@ -19,7 +19,7 @@ class DASTORETest {
         doubles[6] = 0.333;
     }
 
-    private BaseTypeArrayReference baseTypeArrayReference = null;
+    private DoubleArrayReference baseTypeArrayReference = null;
     
     @Test
     void execute() {
@@ -28,7 +28,7 @@ class DASTORETest {
             assertTrue(instruction instanceof DASTORE);
             double value = jvmThread.currentFrame().getOperandStacks().popDoubleValue();
             int index = jvmThread.currentFrame().getOperandStacks().popIntValue();
-            this.baseTypeArrayReference = (BaseTypeArrayReference) jvmThread.currentFrame().getOperandStacks().popReference();
+            this.baseTypeArrayReference = (DoubleArrayReference) jvmThread.currentFrame().getOperandStacks().popReference();
             // check the array value
             assertEquals(0.333, value);
             // check the array index
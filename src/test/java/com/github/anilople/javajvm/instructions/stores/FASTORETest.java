@@ -5,7 +5,7 @@ import com.github.anilople.javajvm.helper.JvmThreadFactory;
 import com.github.anilople.javajvm.helper.JvmThreadRunner;
 import com.github.anilople.javajvm.instructions.Instruction;
 import com.github.anilople.javajvm.runtimedataarea.JvmThread;
-import com.github.anilople.javajvm.runtimedataarea.reference.BaseTypeArrayReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.FloatArrayReference;
 import org.junit.jupiter.api.Test;
 
 import java.util.function.BiConsumer;
@@ -19,7 +19,7 @@ class FASTORETest {
         floats[9] = 0.66F;
     }
 
-    private BaseTypeArrayReference baseTypeArrayReference = null;
+    private FloatArrayReference baseTypeArrayReference = null;
 
     @Test
     void execute() {
@@ -28,7 +28,7 @@ class FASTORETest {
             assertTrue(instruction instanceof FASTORE);
             float floatValue = jvmThread.currentFrame().getOperandStacks().popFloatValue();
             int index = jvmThread.currentFrame().getOperandStacks().popIntValue();
-            this.baseTypeArrayReference = (BaseTypeArrayReference) jvmThread.currentFrame().getOperandStacks().popReference();
+            this.baseTypeArrayReference = (FloatArrayReference) jvmThread.currentFrame().getOperandStacks().popReference();
             // check the array value
             assertEquals(0.66F, floatValue);
             // check the array index
@@ -5,7 +5,7 @@ import com.github.anilople.javajvm.helper.JvmThreadFactory;
 import com.github.anilople.javajvm.helper.JvmThreadRunner;
 import com.github.anilople.javajvm.instructions.Instruction;
 import com.github.anilople.javajvm.runtimedataarea.JvmThread;
-import com.github.anilople.javajvm.runtimedataarea.reference.BaseTypeArrayReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.LongArrayReference;
 import org.junit.jupiter.api.Test;
 
 import java.util.function.BiConsumer;
@@ -19,7 +19,7 @@ class LASTORETest {
         longs[1] = 34;
     }
 
-    private BaseTypeArrayReference baseTypeArrayReference = null;
+    private LongArrayReference baseTypeArrayReference = null;
 
     @Test
     void execute() {
@@ -28,7 +28,7 @@ class LASTORETest {
             assertTrue(instruction instanceof LASTORE);
             long longValue = jvmThread.currentFrame().getOperandStacks().popLongValue();
             int index = jvmThread.currentFrame().getOperandStacks().popIntValue();
-            this.baseTypeArrayReference = (BaseTypeArrayReference) jvmThread.currentFrame().getOperandStacks().popReference();
+            this.baseTypeArrayReference = (LongArrayReference) jvmThread.currentFrame().getOperandStacks().popReference();
             // check the array value
             assertEquals(34, longValue);
             // check the array index
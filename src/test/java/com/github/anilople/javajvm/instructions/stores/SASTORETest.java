@@ -5,7 +5,7 @@ import com.github.anilople.javajvm.helper.JvmThreadFactory;
 import com.github.anilople.javajvm.helper.JvmThreadRunner;
 import com.github.anilople.javajvm.instructions.Instruction;
 import com.github.anilople.javajvm.runtimedataarea.JvmThread;
-import com.github.anilople.javajvm.runtimedataarea.reference.BaseTypeArrayReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.ShortArrayReference;
 import org.junit.jupiter.api.Test;
 
 import java.util.function.BiConsumer;
@@ -20,7 +20,7 @@ class SASTORETest {
     }
 
 
-    private BaseTypeArrayReference baseTypeArrayReference = null;
+    private ShortArrayReference baseTypeArrayReference = null;
 
     @Test
     void execute() {
@@ -29,7 +29,7 @@ class SASTORETest {
             assertTrue(instruction instanceof SASTORE);
             short shortValue = jvmThread.currentFrame().getOperandStacks().popShortValue();
             int index = jvmThread.currentFrame().getOperandStacks().popIntValue();
-            this.baseTypeArrayReference = (BaseTypeArrayReference) jvmThread.currentFrame().getOperandStacks().popReference();
+            this.baseTypeArrayReference = (ShortArrayReference) jvmThread.currentFrame().getOperandStacks().popReference();
             // check the array value
             assertEquals(666, shortValue);
             // check the array index
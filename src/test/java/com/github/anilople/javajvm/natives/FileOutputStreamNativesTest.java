@@ -0,0 +1,186 @@
+package com.github.anilople.javajvm.natives;
+
+import com.github.anilople.javajvm.heap.JvmClass;
+import com.github.anilople.javajvm.heap.JvmClassLoader;
+import com.github.anilople.javajvm.helper.JvmClassLoaderFactory;
+import com.github.anilople.javajvm.helper.JvmThreadFactory;
+import com.github.anilople.javajvm.helper.JvmThreadRunner;
+import com.github.anilople.javajvm.instructions.control.IRETURN;
+import com.github.anilople.javajvm.runtimedataarea.JvmThread;
+import com.github.anilople.javajvm.runtimedataarea.reference.ObjectReference;
+import com.github.anilople.javajvm.utils.ReferenceUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import sun.nio.cs.StreamEncoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileOutputStreamNativesTest {
+
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    private OutputStream standardOutput;
+
+    private OutputStream standardError;
+
+    @BeforeEach
+    void redirect() throws IOException {
+        standardOutput = FileDescriptorTable.redirect(FileDescriptorTable.STANDARD_OUTPUT, output);
+        standardError = FileDescriptorTable.redirect(FileDescriptorTable.STANDARD_ERROR, output);
+    }
+
+    @AfterEach
+    void restore() throws IOException {
+        FileDescriptorTable.redirect(FileDescriptorTable.STANDARD_OUTPUT, null == standardOutput ? System.out : standardOutput);
+        FileDescriptorTable.redirect(FileDescriptorTable.STANDARD_ERROR, null == standardError ? System.err : standardError);
+    }
+
+    private static void prints() {
+        System.out.print("a");
+        System.out.println(1);
+        System.out.print('c');
+        System.out.print(2.5);
+        System.out.print(true);
+        System.out.println();
+        System.out.write('x');
+        // toString is interpreted
+        System.out.println(new StringBuilder("sb"));
+        System.out.print((String) null);
+    }
+
+    private static void printsWithoutNewLine() {
+        System.out.print("a");
+        System.out.print(1);
+        System.out.write('x');
+    }
+
+    private static void printsAndFlushes() {
+        System.out.print("out");
+        System.out.flush();
+    }
+
+    private static void printsToBoth() {
+        System.out.print("out,");
+        System.err.print("err");
+    }
+
+    private static void printsAccent(PrintStream printStream) {
+        printStream.print("\u00e9");
+        printStream.flush();
+    }
+
+    private static int checkError(PrintStream printStream) {
+        printStream.print(1);
+        return printStream.checkError() ? 1 : 0;
+    }
+
+    private static void printsAndChecks(PrintStream printStream) {
+        checkError(printStream);
+    }
+
+    /**
+     * @return thread runs the method with a PrintStream, made like the standard one
+     */
+    private JvmThread withPrintStream(String methodName, ObjectReference printStream) {
+        final JvmThread jvmThread = JvmThreadFactory.createFromStaticMethod(this.getClass(), methodName, "(Ljava/io/PrintStream;)V");
+        jvmThread.currentFrame().getLocalVariables().setReference(0, printStream);
+        return jvmThread;
+    }
+
+    private void run(String methodName) {
+        new JvmThreadRunner(
+                JvmThreadFactory.createFromStaticMethod(this.getClass(), methodName, "()V")
+        ).run();
+    }
+
+    @Test
+    void bufferedUntilFlush() throws IOException {
+        run("printsWithoutNewLine");
+        assertEquals(0, output.size());
+        FileDescriptorTable.flush(FileDescriptorTable.STANDARD_OUTPUT);
+        assertEquals("a1x", output.toString());
+    }
+
+    @Test
+    void flushedByPrintln() throws IOException {
+        run("prints");
+        final String separator = System.lineSeparator();
+        // autoFlush, as System.out in jdk
+        assertEquals("a1" + separator + "c2.5true" + separator + "xsb" + separator, output.toString());
+        FileDescriptorTable.flush(FileDescriptorTable.STANDARD_OUTPUT);
+        assertEquals("a1" + separator + "c2.5true" + separator + "xsb" + separator + "null", output.toString());
+    }
+
+    @Test
+    void flushedByGuest() {
+        run("printsAndFlushes");
+        assertEquals("out", output.toString());
+    }
+
+    @Test
+    void standardOutputBeforeError() {
+        run("printsToBoth");
+        assertEquals("out,err", output.toString());
+    }
+
+    @Test
+    void encodedWithCharsetOfStream() {
+        final JvmClassLoader jvmClassLoader = JvmClassLoaderFactory.getInstance();
+        final ObjectReference printStream = FileOutputStreamNatives.standardStream(jvmClassLoader, FileDescriptorTable.STANDARD_OUTPUT);
+        // charOut -> se -> cs -> name, without constructors
+        final ObjectReference charset = ObjectReference.makeObjectReference(jvmClassLoader.loadClass(Charset.class));
+        charset.setReference("name", ReferenceUtils.getStringObjectReference(jvmClassLoader.loadClass(String.class), "UTF-16BE"));
+        final ObjectReference streamEncoder = ObjectReference.makeObjectReference(jvmClassLoader.loadClass(StreamEncoder.class));
+        streamEncoder.setReference("cs", charset);
+        final ObjectReference charOut = ObjectReference.makeObjectReference(jvmClassLoader.loadClass(OutputStreamWriter.class));
+        charOut.setReference("se", streamEncoder);
+        printStream.setReference("charOut", charOut);
+        new JvmThreadRunner(withPrintStream("printsAccent", printStream)).run();
+        assertArrayEquals(new byte[]{0x00, (byte) 0xe9}, output.toByteArray());
+    }
+
+    @Test
+    void troubleSetOnFailure() {
+        // not opened
+        final ObjectReference printStream = FileOutputStreamNatives.standardStream(JvmClassLoaderFactory.getInstance(), -1);
+        final JvmThreadRunner jvmThreadRunner = new JvmThreadRunner(withPrintStream("printsAndChecks", printStream));
+        final List<Integer> results = new ArrayList<>();
+        jvmThreadRunner.addBeforeInstructionExecutionListener(IRETURN.class, thread -> {
+            int value = thread.currentFrame().getOperandStacks().popIntValue();
+            if(thread.currentFrame().getJvmMethod().getJvmClass().isSameName(FileOutputStreamNativesTest.class)) {
+                results.add(value);
+            }
+            thread.currentFrame().getOperandStacks().pushIntValue(value);
+        });
+        jvmThreadRunner.run();
+        assertTrue(printStream.getBooleanValue(FileOutputStreamNatives.TROUBLE));
+        assertEquals(Collections.singletonList(1), results);
+    }
+
+    @Test
+    void layout() {
+        final JvmClass fileOutputStream = JvmClassLoaderFactory.getInstance().loadClass(FileOutputStream.class);
+        assertEquals(FileOutputStreamNatives.FD, fileOutputStream.getJvmFieldByNameIncludeAncestors("fd").calculateNonStaticFieldOffset());
+        final JvmClass fileDescriptor = JvmClassLoaderFactory.getInstance().loadClass(FileDescriptor.class);
+        assertEquals(FileOutputStreamNatives.FILE_DESCRIPTOR_FD, fileDescriptor.getJvmFieldByNameIncludeAncestors("fd").calculateNonStaticFieldOffset());
+        final JvmClass filterOutputStream = JvmClassLoaderFactory.getInstance().loadClass(FilterOutputStream.class);
+        assertEquals(FileOutputStreamNatives.OUT, filterOutputStream.getJvmFieldByNameIncludeAncestors("out").calculateNonStaticFieldOffset());
+        final JvmClass printStream = JvmClassLoaderFactory.getInstance().loadClass(PrintStream.class);
+        assertEquals(FileOutputStreamNatives.AUTO_FLUSH, printStream.getJvmFieldByNameIncludeAncestors("autoFlush").calculateNonStaticFieldOffset());
+        assertEquals(FileOutputStreamNatives.TROUBLE, printStream.getJvmFieldByNameIncludeAncestors("trouble").calculateNonStaticFieldOffset());
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.anilople.javajvm.natives;
+
+import com.github.anilople.javajvm.classpath.Classpath;
+import com.github.anilople.javajvm.heap.JvmClassLoader;
+import com.github.anilople.javajvm.helper.JvmClassLoaderFactory;
+import com.github.anilople.javajvm.runtimedataarea.Reference;
+import com.github.anilople.javajvm.runtimedataarea.reference.ClassObjectReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.HostObjectReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.IntArrayReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.ObjectArrayReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.ObjectReference;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.reflect.Array;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HostBridgeTest {
+
+    private final JvmClassLoader jvmClassLoader = JvmClassLoaderFactory.getInstance();
+
+    @Test
+    void hostObjectKeepsIdentity() {
+        final AtomicInteger hostObject = new AtomicInteger(1);
+        final Reference reference = HostBridge.toGuest(jvmClassLoader, hostObject);
+        assertTrue(reference instanceof HostObjectReference);
+        assertSame(reference, HostBridge.toGuest(jvmClassLoader, hostObject));
+        assertSame(hostObject, HostBridge.toHost(reference, AtomicInteger.class));
+        assertTrue(((ObjectReference) reference).getJvmClass().isSameName(AtomicInteger.class));
+    }
+
+    @Test
+    void identityScopedToVm(@TempDir Path directory) {
+        final JvmClassLoader child = new JvmClassLoader(jvmClassLoader, Classpath.of(directory.toString()));
+        assertSame(jvmClassLoader.getHostObjects(), child.getHostObjects());
+        final AtomicInteger hostObject = new AtomicInteger(2);
+        assertSame(HostBridge.toGuest(jvmClassLoader, hostObject), HostBridge.toGuest(child, hostObject));
+    }
+
+    @Test
+    void primitiveArrayShared() {
+        final int[] ints = new int[]{1, 2, 3};
+        final Reference reference = HostBridge.toGuest(jvmClassLoader, ints);
+        assertSame(reference, HostBridge.toGuest(jvmClassLoader, ints));
+        ((IntArrayReference) reference).setIntValue(0, 9);
+        assertEquals(9, ints[0]);
+        final int[] back = (int[]) HostBridge.toHost(reference, int[].class);
+        back[1] = 8;
+        assertEquals(8, ((IntArrayReference) reference).getIntValue(1));
+    }
+
+    @Test
+    void valuesByValue() {
+        assertEquals("abc", HostBridge.toHost(HostBridge.toGuest(jvmClassLoader, "abc"), String.class));
+        assertEquals(7, HostBridge.toHost(HostBridge.toGuest(jvmClassLoader, 7), Integer.class));
+        assertEquals(-7L, HostBridge.toHost(HostBridge.toGuest(jvmClassLoader, -7L), Object.class));
+        assertEquals(1.5, HostBridge.toHost(HostBridge.toGuest(jvmClassLoader, 1.5), Double.class));
+        assertEquals('c', HostBridge.toHost(HostBridge.toGuest(jvmClassLoader, 'c'), Character.class));
+        assertSame(Reference.NULL, HostBridge.toGuest(jvmClassLoader, null));
+        assertNull(HostBridge.toHost(Reference.NULL, Object.class));
+    }
+
+    @Test
+    void classes() {
+        final Reference reference = HostBridge.toGuest(jvmClassLoader, String.class);
+        assertTrue(reference instanceof ClassObjectReference);
+        assertSame(String.class, HostBridge.toHost(reference, Class.class));
+    }
+
+    @Test
+    void guestObjectsCopied() {
+        final ObjectReference guestObject = ObjectReference.makeObjectReference(jvmClassLoader.loadClass(Object.class));
+        final Object hostObject = HostBridge.toHost(guestObject, Object.class);
+        assertFalse(hostObject instanceof Reference);
+        assertSame(Object.class, hostObject.getClass());
+
+        final ObjectArrayReference guestArray = new ObjectArrayReference(jvmClassLoader.loadClass(Object.class), 3);
+        final Object hostArray = HostBridge.toHost(guestArray, Object.class);
+        assertEquals(3, Array.getLength(hostArray));
+    }
+}
@@ -0,0 +1,85 @@
+package com.github.anilople.javajvm.natives;
+
+import com.github.anilople.javajvm.heap.JvmClassLoader;
+import com.github.anilople.javajvm.helper.JvmClassLoaderFactory;
+import com.github.anilople.javajvm.helper.JvmThreadFactory;
+import com.github.anilople.javajvm.helper.JvmThreadRunner;
+import com.github.anilople.javajvm.instructions.control.IRETURN;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MathIntrinsicsTest {
+
+    private static int doubles() {
+        if(Math.sqrt(16.0) != 4.0 || Math.pow(2.0, 10.0) != 1024.0 || StrictMath.sqrt(2.25) != 1.5) {
+            return 1;
+        }
+        if(Math.abs(-2.5) != 2.5 || Math.min(1.5, -1.5) != -1.5 || Math.max(1.5, -1.5) != 1.5) {
+            return 2;
+        }
+        if(Math.sin(0.0) != 0.0 || Math.cos(0.0) != 1.0 || Math.exp(0.0) != 1.0 || Math.log(1.0) != 0.0) {
+            return 3;
+        }
+        if(Math.abs(-3.0f) != 3.0f || Math.max(1.0f, 2.0f) != 2.0f || Math.min(-0.0f, 0.0f) != -0.0f) {
+            return 4;
+        }
+        if(Double.longBitsToDouble(Double.doubleToRawLongBits(1.25)) != 1.25 || Float.floatToRawIntBits(1.0f) != 0x3f800000) {
+            return 5;
+        }
+        return 0;
+    }
+
+    private static int bits() {
+        if(Integer.bitCount(0xFF) != 8 || Integer.numberOfLeadingZeros(1) != 31 || Integer.numberOfTrailingZeros(8) != 3) {
+            return 1;
+        }
+        if(Integer.reverse(1) != Integer.MIN_VALUE || Integer.rotateLeft(0x80000000, 1) != 1) {
+            return 2;
+        }
+        if(Long.bitCount(-1L) != 64 || Long.numberOfLeadingZeros(1L) != 63 || Long.numberOfTrailingZeros(16L) != 4) {
+            return 3;
+        }
+        if(Long.reverse(1L) != Long.MIN_VALUE || Long.rotateLeft(Long.MIN_VALUE, 1) != 1L) {
+            return 4;
+        }
+        if(Math.abs(-7) != 7 || Math.min(3L, -3L) != -3L || Math.max(3, 4) != 4 || StrictMath.abs(-9L) != 9L) {
+            return 5;
+        }
+        return 0;
+    }
+
+    private static void intrinsics() {
+        int doubles = doubles();
+        int bits = bits();
+    }
+
+    @Test
+    void intrinsicsRunInGuest() {
+        final JvmThreadRunner jvmThreadRunner = new JvmThreadRunner(
+                JvmThreadFactory.createFromStaticMethod(this.getClass(), "intrinsics", "()V")
+        );
+        final List<Integer> results = new ArrayList<>();
+        jvmThreadRunner.addBeforeInstructionExecutionListener(IRETURN.class, thread -> {
+            if(thread.currentFrame().getJvmMethod().getJvmClass().isSameName(MathIntrinsicsTest.class)) {
+                int value = thread.currentFrame().getOperandStacks().popIntValue();
+                results.add(value);
+                thread.currentFrame().getOperandStacks().pushIntValue(value);
+            }
+        });
+        jvmThreadRunner.run();
+        assertEquals(Arrays.asList(0, 0), results);
+    }
+
+    @Test
+    void registered() {
+        final JvmClassLoader jvmClassLoader = JvmClassLoaderFactory.getInstance();
+        assertNotNull(jvmClassLoader.loadClass(Math.class).getMethod("sqrt", "(D)D").getNativeMethod());
+        assertNotNull(jvmClassLoader.loadClass(Integer.class).getMethod("bitCount", "(I)I").getNativeMethod());
+        assertNotNull(jvmClassLoader.loadClass(Long.class).getMethod("rotateLeft", "(JI)J").getNativeMethod());
+    }
+}
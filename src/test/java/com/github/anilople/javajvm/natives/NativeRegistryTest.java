@@ -0,0 +1,86 @@
+package com.github.anilople.javajvm.natives;
+
+import com.github.anilople.javajvm.heap.JvmClass;
+import com.github.anilople.javajvm.heap.JvmMethod;
+import com.github.anilople.javajvm.helper.JvmClassLoaderFactory;
+import com.github.anilople.javajvm.helper.JvmThreadFactory;
+import com.github.anilople.javajvm.helper.JvmThreadRunner;
+import com.github.anilople.javajvm.instructions.control.IRETURN;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NativeRegistryTest {
+
+    private static int elapsed() {
+        long start = System.nanoTime();
+        long sum = 0;
+        for(int i = 0; i < 100; i++) {
+            sum += System.nanoTime() - start;
+        }
+        return sum >= 0 && System.currentTimeMillis() > 0 ? 0 : 1;
+    }
+
+    private static int classes() {
+        Object string = "a";
+        if(string.getClass() != String.class) {
+            return 1;
+        }
+        int[] ints = new int[1];
+        if(ints.getClass() != int[].class) {
+            return 2;
+        }
+        if(new NativeRegistryTest().getClass() != NativeRegistryTest.class) {
+            return 3;
+        }
+        return 0;
+    }
+
+    private static void natives() {
+        int elapsed = elapsed();
+        int classes = classes();
+    }
+
+    @Test
+    void nativesRunInGuest() {
+        final JvmThreadRunner jvmThreadRunner = new JvmThreadRunner(
+                JvmThreadFactory.createFromStaticMethod(this.getClass(), "natives", "()V")
+        );
+        final List<Integer> results = new ArrayList<>();
+        jvmThreadRunner.addBeforeInstructionExecutionListener(IRETURN.class, thread -> {
+            if(thread.currentFrame().getJvmMethod().getJvmClass().isSameName(NativeRegistryTest.class)) {
+                int value = thread.currentFrame().getOperandStacks().popIntValue();
+                results.add(value);
+                thread.currentFrame().getOperandStacks().pushIntValue(value);
+            }
+        });
+        jvmThreadRunner.run();
+        assertEquals(Arrays.asList(0, 0), results);
+    }
+
+    @Test
+    void bindOnce() {
+        final JvmClass system = JvmClassLoaderFactory.getInstance().loadClass(System.class);
+        final JvmMethod nanoTime = system.getMethod("nanoTime", "()J");
+        final NativeMethod nativeMethod = nanoTime.getNativeMethod();
+        assertNotNull(nativeMethod);
+        assertSame(nativeMethod, nanoTime.getNativeMethod());
+
+        // native method without handler registered is bound to host method
+        final JvmMethod intBitsToFloat = JvmClassLoaderFactory.getInstance()
+                .loadClass(Float.class).getMethod("intBitsToFloat", "(I)F");
+        assertNotNull(intBitsToFloat.getNativeMethod());
+    }
+
+    @Test
+    void interpretedNotBound() {
+        final JvmMethod elapsed = JvmClassLoaderFactory.getInstance()
+                .loadClass(NativeRegistryTest.class).getMethod("elapsed", "()I");
+        assertNull(elapsed.getNativeMethod());
+        assertNull(NativeRegistry.bind(elapsed));
+    }
+}
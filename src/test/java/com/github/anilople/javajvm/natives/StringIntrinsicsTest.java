@@ -0,0 +1,115 @@
+package com.github.anilople.javajvm.natives;
+
+import com.github.anilople.javajvm.heap.JvmClass;
+import com.github.anilople.javajvm.helper.JvmClassLoaderFactory;
+import com.github.anilople.javajvm.helper.JvmThreadFactory;
+import com.github.anilople.javajvm.helper.JvmThreadRunner;
+import com.github.anilople.javajvm.instructions.control.IRETURN;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StringIntrinsicsTest {
+
+    private static int strings() {
+        String s = "hello, world";
+        if(s.length() != 12 || s.charAt(4) != 'o') {
+            return 1;
+        }
+        if(s.indexOf('o') != 4 || s.indexOf('o', 5) != 8 || s.indexOf('z') != -1) {
+            return 2;
+        }
+        if(s.indexOf("world") != 7 || s.indexOf("o", 5) != 8 || s.indexOf("") != 0 || s.indexOf("worlds") != -1) {
+            return 3;
+        }
+        String copy = new String(new char[]{'x', 'h', 'i', 'y'}, 1, 2);
+        if(!"hi".equals(copy) || copy.equals("ho") || copy.equals(null) || copy.hashCode() != 3329) {
+            return 4;
+        }
+        if("a".compareTo("b") >= 0 || "ab".compareTo("a") <= 0 || "ab".compareTo("ab") != 0) {
+            return 5;
+        }
+        try {
+            s.charAt(12);
+            return 6;
+        } catch (StringIndexOutOfBoundsException e) {
+            // expected
+        }
+        return 0;
+    }
+
+    private static int builders() {
+        StringBuilder stringBuilder = new StringBuilder();
+        for(int i = 0; i < 20; i++) {
+            stringBuilder.append(i).append(',');
+        }
+        stringBuilder.append((String) null).append("!");
+        String built = stringBuilder.toString();
+        if(!built.startsWith("0,1,2,") || !built.endsWith("19,null!")) {
+            return 1;
+        }
+        // StringBuffer is interpreted, but appends by AbstractStringBuilder
+        StringBuffer stringBuffer = new StringBuffer();
+        stringBuffer.append('a').append(1).append("b");
+        if(!"a1b".equals(stringBuffer.toString())) {
+            return 2;
+        }
+        return 0;
+    }
+
+    /**
+     * HashMap calls hashCode and equals on Object,
+     * they must dispatch to the ones in String
+     */
+    private static int hashMap() {
+        Map<String, Integer> map = new HashMap<>();
+        for(int i = 0; i < 10; i++) {
+            map.put("key" + i, i);
+        }
+        int sum = 0;
+        for(int i = 0; i < 10; i++) {
+            sum += map.get(new StringBuilder("key").append(i).toString());
+        }
+        return sum;
+    }
+
+    private static void intrinsics() {
+        int strings = strings();
+        int builders = builders();
+        int hashMap = hashMap();
+    }
+
+    @Test
+    void intrinsicsRunInGuest() {
+        final JvmThreadRunner jvmThreadRunner = new JvmThreadRunner(
+                JvmThreadFactory.createFromStaticMethod(this.getClass(), "intrinsics", "()V")
+        );
+        final List<Integer> results = new ArrayList<>();
+        jvmThreadRunner.addBeforeInstructionExecutionListener(IRETURN.class, thread -> {
+            if(thread.currentFrame().getJvmMethod().getJvmClass().isSameName(StringIntrinsicsTest.class)) {
+                int value = thread.currentFrame().getOperandStacks().popIntValue();
+                results.add(value);
+                thread.currentFrame().getOperandStacks().pushIntValue(value);
+            }
+        });
+        jvmThreadRunner.run();
+        assertEquals(Arrays.asList(0, 0, 45), results);
+    }
+
+    @Test
+    void layout() {
+        final JvmClass string = JvmClassLoaderFactory.getInstance().loadClass(String.class);
+        assertEquals(StringIntrinsics.VALUE, string.getJvmFieldByNameIncludeAncestors("value").calculateNonStaticFieldOffset());
+        assertEquals(StringIntrinsics.HASH, string.getJvmFieldByNameIncludeAncestors("hash").calculateNonStaticFieldOffset());
+        final JvmClass builder = JvmClassLoaderFactory.getInstance().loadClass(StringBuilder.class);
+        assertEquals(StringIntrinsics.VALUE, builder.getJvmFieldByNameIncludeAncestors("value").calculateNonStaticFieldOffset());
+        assertEquals(StringIntrinsics.COUNT, builder.getJvmFieldByNameIncludeAncestors("count").calculateNonStaticFieldOffset());
+        assertNotNull(string.getMethod("hashCode", "()I").getNativeMethod());
+    }
+}
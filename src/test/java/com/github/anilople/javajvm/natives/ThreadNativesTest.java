@@ -0,0 +1,164 @@
+package com.github.anilople.javajvm.natives;
+
+import com.github.anilople.javajvm.helper.JvmThreadFactory;
+import com.github.anilople.javajvm.helper.JvmThreadRunner;
+import com.github.anilople.javajvm.instructions.control.IRETURN;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThreadNativesTest {
+
+    private static class Counter {
+        int value;
+    }
+
+    private static class Slow {
+        static final int VALUE;
+        static {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            VALUE = 7;
+        }
+    }
+
+    private static int mainThreadName() {
+        return "main".equals(Thread.currentThread().getName()) ? 1 : 0;
+    }
+
+    private static int increments() throws InterruptedException {
+        final Counter counter = new Counter();
+        final Runnable runnable = () -> {
+            for(int i = 0; i < 500; i++) {
+                synchronized (counter) {
+                    counter.value++;
+                }
+            }
+        };
+        final Thread a = new Thread(runnable);
+        final Thread b = new Thread(runnable);
+        a.start();
+        b.start();
+        a.join();
+        b.join();
+        return counter.value;
+    }
+
+    private static int waitAndNotify() throws InterruptedException {
+        final Counter counter = new Counter();
+        final Thread producer = new Thread(() -> {
+            synchronized (counter) {
+                counter.value = 5;
+                counter.notifyAll();
+            }
+        });
+        synchronized (counter) {
+            producer.start();
+            while (0 == counter.value) {
+                counter.wait();
+            }
+        }
+        producer.join();
+        return counter.value;
+    }
+
+    private static int names() throws InterruptedException {
+        final Counter counter = new Counter();
+        final Thread thread = new Thread(() -> {
+            if("worker".equals(Thread.currentThread().getName())) {
+                counter.value = 1;
+            }
+        }, "worker");
+        thread.start();
+        thread.join();
+        return counter.value;
+    }
+
+    private static int aliveness() throws InterruptedException {
+        final Thread thread = new Thread(() -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        final int before = thread.isAlive() ? 1 : 0;
+        thread.start();
+        final int during = thread.isAlive() ? 1 : 0;
+        thread.join();
+        final int after = thread.isAlive() ? 1 : 0;
+        return before * 100 + during * 10 + after;
+    }
+
+    private static int interrupts() throws InterruptedException {
+        final Counter counter = new Counter();
+        final Thread thread = new Thread(() -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                counter.value = 1;
+            }
+        });
+        thread.start();
+        thread.interrupt();
+        thread.join();
+        return counter.value;
+    }
+
+    private static int initializationRace() throws InterruptedException {
+        final int[] values = new int[2];
+        final Thread a = new Thread(() -> values[0] = Slow.VALUE);
+        final Thread b = new Thread(() -> values[1] = Slow.VALUE);
+        a.start();
+        b.start();
+        a.join();
+        b.join();
+        return values[0] + values[1];
+    }
+
+    private static int illegalMonitorState() {
+        try {
+            new Object().notify();
+            return 0;
+        } catch (IllegalMonitorStateException e) {
+            return 1;
+        }
+    }
+
+    private static void threads() throws InterruptedException {
+        mainThreadName();
+        increments();
+        waitAndNotify();
+        names();
+        aliveness();
+        interrupts();
+        initializationRace();
+        illegalMonitorState();
+    }
+
+    @Test
+    void execute() {
+        final JvmThreadRunner jvmThreadRunner = new JvmThreadRunner(
+                JvmThreadFactory.createFromStaticMethod(this.getClass(), "threads", "()V")
+        );
+        final List<Integer> results = new ArrayList<>();
+        jvmThreadRunner.addBeforeInstructionExecutionListener(IRETURN.class, thread -> {
+            if(thread.currentFrame().getJvmMethod().getJvmClass().isSameName(ThreadNativesTest.class)
+                    && !thread.currentFrame().getJvmMethod().getName().startsWith("lambda$")) {
+                int value = thread.currentFrame().getOperandStacks().popIntValue();
+                results.add(value);
+                thread.currentFrame().getOperandStacks().pushIntValue(value);
+            }
+        });
+        jvmThreadRunner.run();
+        assertEquals(Arrays.asList(1, 1000, 5, 1, 10, 1, 14, 1), results);
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.github.anilople.javajvm.natives;
+
+import com.github.anilople.javajvm.helper.JvmThreadFactory;
+import com.github.anilople.javajvm.helper.JvmThreadRunner;
+import com.github.anilople.javajvm.instructions.control.IRETURN;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThrowableNativesTest {
+
+    private static int stackTrace() {
+        Throwable first = new IllegalStateException();
+        Throwable second = new IllegalStateException();
+        StackTraceElement top = first.getStackTrace()[0];
+        if(!"stackTrace".equals(top.getMethodName())) {
+            return 1;
+        }
+        if(!"ThrowableNativesTest.java".equals(top.getFileName())) {
+            return 2;
+        }
+        if(!ThrowableNativesTest.class.getName().equals(top.getClassName())) {
+            return 3;
+        }
+        if(top.getLineNumber() <= 0 || second.getStackTrace()[0].getLineNumber() != top.getLineNumber() + 1) {
+            return 4;
+        }
+        if(!"traces".equals(first.getStackTrace()[1].getMethodName())) {
+            return 5;
+        }
+        return 0;
+    }
+
+    private static int vmException() {
+        int[] ints = new int[0];
+        try {
+            ints[1] = 1;
+            return 1;
+        } catch (ArrayIndexOutOfBoundsException e) {
+            return "vmException".equals(e.getStackTrace()[0].getMethodName()) ? 0 : 2;
+        }
+    }
+
+    /**
+     * no trace is made for exceptions used as control flow
+     */
+    private static int controlFlow() {
+        int count = 0;
+        for(int i = 0; i < 100; i++) {
+            try {
+                throw new IllegalArgumentException();
+            } catch (IllegalArgumentException e) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static void traces() {
+        int stackTrace = stackTrace();
+        int vmException = vmException();
+        int controlFlow = controlFlow();
+    }
+
+    @Test
+    void tracesRunInGuest() {
+        final JvmThreadRunner jvmThreadRunner = new JvmThreadRunner(
+                JvmThreadFactory.createFromStaticMethod(this.getClass(), "traces", "()V")
+        );
+        final List<Integer> results = new ArrayList<>();
+        jvmThreadRunner.addBeforeInstructionExecutionListener(IRETURN.class, thread -> {
+            if(thread.currentFrame().getJvmMethod().getJvmClass().isSameName(ThrowableNativesTest.class)) {
+                int value = thread.currentFrame().getOperandStacks().popIntValue();
+                results.add(value);
+                thread.currentFrame().getOperandStacks().pushIntValue(value);
+            }
+        });
+        jvmThreadRunner.run();
+        assertEquals(Arrays.asList(0, 0, 100), results);
+    }
+}
@@ -14,6 +14,20 @@ public class OperandStacksTest {
         Assertions.assertEquals(100000000000000L, operandStack.popLongValue());
     }
 
+    @Test
+    public void depthTest() {
+        OperandStacks operandStack = new OperandStacks(defaultStackSize);
+        operandStack.pushIntValue(1);
+        operandStack.pushDoubleValue(-0.5D);
+        operandStack.pushLongValue(Long.MIN_VALUE);
+        Assertions.assertEquals(5, operandStack.getDepth());
+        Assertions.assertTrue(operandStack.pop().isCategory2());
+        Assertions.assertEquals(-0.5D, operandStack.popDoubleValue());
+        Assertions.assertEquals(1, operandStack.getDepth());
+        Assertions.assertFalse(operandStack.pop().isCategory2());
+        Assertions.assertEquals(0, operandStack.getDepth());
+    }
+
     @Test
     public void OperandStackTest() {
         OperandStacks operandStack = new OperandStacks(100);
@@ -0,0 +1,78 @@
+package com.github.anilople.javajvm.runtimedataarea.reference;
+
+import com.github.anilople.javajvm.heap.JvmClassLoader;
+import com.github.anilople.javajvm.helper.JvmClassLoaderFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeapReferenceTest {
+
+    private final JvmClassLoader jvmClassLoader = JvmClassLoaderFactory.getInstance();
+
+    @Test
+    void identityHashCodeIsStable() {
+        HeapReference reference = new IntArrayReference(jvmClassLoader, 1);
+        final int hashCode = reference.identityHashCode();
+        assertTrue(hashCode > 0);
+        reference.monitorEnter(1);
+        assertEquals(hashCode, reference.identityHashCode());
+        reference.monitorExit(1);
+        assertEquals(hashCode, reference.identityHashCode());
+    }
+
+    @Test
+    void thinLockIsReentrant() {
+        HeapReference reference = new IntArrayReference(jvmClassLoader, 1);
+        for(int i = 0; i < 1000; i++) {
+            reference.monitorEnter(1);
+        }
+        assertTrue(reference.isLockedBy(1));
+        assertFalse(reference.isLockedBy(2));
+        for(int i = 0; i < 1000; i++) {
+            reference.monitorExit(1);
+        }
+        assertFalse(reference.isLockedBy(1));
+        assertThrows(IllegalMonitorStateException.class, () -> reference.monitorExit(1));
+    }
+
+    @Test
+    void exitByOtherThread() {
+        HeapReference reference = new IntArrayReference(jvmClassLoader, 1);
+        reference.monitorEnter(1);
+        assertThrows(IllegalMonitorStateException.class, () -> reference.monitorExit(2));
+        reference.monitorExit(1);
+    }
+
+    @Test
+    void inflatedWhenContended() throws InterruptedException {
+        HeapReference reference = new IntArrayReference(jvmClassLoader, 1);
+        final int hashCode = reference.identityHashCode();
+        final int threads = 4;
+        final int times = 2000;
+        final int[] counter = new int[1];
+        final AtomicInteger ids = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(threads);
+        for(int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                final int id = ids.incrementAndGet();
+                for(int i = 0; i < times; i++) {
+                    reference.monitorEnter(id);
+                    reference.monitorEnter(id);
+                    counter[0]++;
+                    reference.monitorExit(id);
+                    reference.monitorExit(id);
+                }
+                latch.countDown();
+            }).start();
+        }
+        latch.await();
+        synchronized (reference) {
+            assertEquals(threads * times, counter[0]);
+        }
+        assertEquals(hashCode, reference.identityHashCode());
+    }
+}
@@ -0,0 +1,72 @@
+package com.github.anilople.javajvm.runtimedataarea.reference;
+
+import com.github.anilople.javajvm.heap.JvmClass;
+import com.github.anilople.javajvm.heap.JvmClassLoader;
+import com.github.anilople.javajvm.heap.JvmField;
+import com.github.anilople.javajvm.helper.JvmClassLoaderFactory;
+import com.github.anilople.javajvm.runtimedataarea.Reference;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ObjectReferenceTest {
+
+    private final JvmClassLoader jvmClassLoader = JvmClassLoaderFactory.getInstance();
+
+    static class Parent {
+        int a;
+        Object b;
+    }
+
+    static class Child extends Parent {
+        long c;
+        String d;
+        double a;
+    }
+
+    @Test
+    void layout() {
+        JvmClass parent = jvmClassLoader.loadClass(Parent.class);
+        JvmClass child = jvmClassLoader.loadClass(Child.class);
+        Assertions.assertEquals(1, parent.getPrimitiveFieldsSize());
+        Assertions.assertEquals(1, parent.getReferenceFieldsSize());
+        // int + long + double
+        Assertions.assertEquals(5, child.getPrimitiveFieldsSize());
+        Assertions.assertEquals(2, child.getReferenceFieldsSize());
+
+        JvmField c = child.getJvmFieldByNameIncludeAncestors("c");
+        Assertions.assertEquals(1, c.calculateNonStaticFieldOffset());
+        JvmField d = child.getJvmFieldByNameIncludeAncestors("d");
+        Assertions.assertEquals(1, d.calculateNonStaticFieldOffset());
+    }
+
+    @Test
+    void defaultValuesAndAccess() {
+        ObjectReference objectReference = ObjectReference.makeObjectReference(jvmClassLoader.loadClass(Child.class));
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertEquals(0, objectReference.getIntValue(i));
+        }
+        Assertions.assertSame(Reference.NULL, objectReference.getReference(0));
+        Assertions.assertSame(Reference.NULL, objectReference.getReference(1));
+
+        objectReference.setIntValue(0, -7);
+        objectReference.setLongValue(1, Long.MIN_VALUE + 3);
+        objectReference.setDoubleValue(3, -0.5d);
+        Assertions.assertEquals(-7, objectReference.getIntValue(0));
+        Assertions.assertEquals(Long.MIN_VALUE + 3, objectReference.getLongValue(1));
+        Assertions.assertEquals(-0.5d, objectReference.getDoubleValue(3));
+        objectReference.setReference(1, objectReference);
+        Assertions.assertSame(objectReference, objectReference.getReference("d"));
+    }
+
+    @Test
+    void newObjectsDoNotShareTemplate() {
+        JvmClass child = jvmClassLoader.loadClass(Child.class);
+        ObjectReference first = ObjectReference.makeObjectReference(child);
+        first.setReference(0, first);
+        first.setIntValue(0, 1);
+        ObjectReference second = ObjectReference.makeObjectReference(child);
+        Assertions.assertSame(Reference.NULL, second.getReference(0));
+        Assertions.assertEquals(0, second.getIntValue(0));
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.github.anilople.javajvm.runtimedataarea.reference;
+
+import com.github.anilople.javajvm.heap.JvmClass;
+import com.github.anilople.javajvm.heap.JvmHeap;
+import com.github.anilople.javajvm.helper.JvmClassLoaderFactory;
+import com.github.anilople.javajvm.helper.JvmThreadFactory;
+import com.github.anilople.javajvm.helper.JvmThreadRunner;
+import com.github.anilople.javajvm.instructions.control.IRETURN;
+import com.github.anilople.javajvm.utils.ReferenceUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StringReferenceTest {
+
+    private final JvmClass stringClass = JvmClassLoaderFactory.getInstance().loadClass(String.class);
+
+    @Test
+    void valueMadeWhenRead() {
+        final StringReference stringReference = new StringReference(stringClass, "abc");
+        assertFalse(stringReference.isMaterialized());
+        final CharArrayReference value = (CharArrayReference) stringReference.getReference(0);
+        assertTrue(stringReference.isMaterialized());
+        assertArrayEquals("abc".toCharArray(), value.getArray());
+        assertSame(value, stringReference.getReference(0));
+    }
+
+    @Test
+    void accountedOnce() {
+        final long allocated = JvmHeap.getAllocatedBytes();
+        final StringReference stringReference = new StringReference(stringClass, "abcd");
+        final long expected = JvmHeap.objectSize(stringClass.getPrimitiveFieldsSize(), stringClass.getReferenceFieldsSize())
+                + JvmHeap.arraySize(4, Character.BYTES);
+        assertEquals(expected, JvmHeap.getAllocatedBytes() - allocated);
+        stringReference.getReference(0);
+        assertEquals(expected, JvmHeap.getAllocatedBytes() - allocated);
+    }
+
+    @Test
+    void sharedWithHost() throws IllegalAccessException {
+        final String host = new String("shared");
+        final StringReference stringReference = new StringReference(stringClass, host);
+        assertSame(host, ReferenceUtils.reference2Object(stringReference));
+        assertTrue(ReferenceUtils.object2Reference(stringClass.getLoader(), host) instanceof StringReference);
+    }
+
+    /**
+     * intrinsics only, the literal keeps no char[]
+     */
+    private static int intrinsics() {
+        String s = "compact literal";
+        int result = s.length() + s.indexOf('p') + s.indexOf("lit") + s.compareTo("compact") + s.charAt(0);
+        return s.equals(new StringBuilder("compact").append(" literal").toString()) ? result : -1;
+    }
+
+    /**
+     * substring is interpreted, it reads "value"
+     */
+    private static int interpreted() {
+        return "interpreted literal".substring(12).equals("literal") ? 1 : 0;
+    }
+
+    private static void strings() {
+        int intrinsics = intrinsics();
+        int interpreted = interpreted();
+    }
+
+    @Test
+    void literalsInGuest() {
+        final JvmThreadRunner jvmThreadRunner = new JvmThreadRunner(
+                JvmThreadFactory.createFromStaticMethod(this.getClass(), "strings", "()V")
+        );
+        final List<Integer> results = new ArrayList<>();
+        jvmThreadRunner.addBeforeInstructionExecutionListener(IRETURN.class, thread -> {
+            if(thread.currentFrame().getJvmMethod().getJvmClass().isSameName(StringReferenceTest.class)) {
+                int value = thread.currentFrame().getOperandStacks().popIntValue();
+                results.add(value);
+                thread.currentFrame().getOperandStacks().pushIntValue(value);
+            }
+        });
+        jvmThreadRunner.run();
+        final String s = "compact literal";
+        assertEquals(Arrays.asList(s.length() + s.indexOf('p') + s.indexOf("lit") + s.compareTo("compact") + s.charAt(0), 1), results);
+
+        final StringReference literal = (StringReference) ReferenceUtils.getStringObjectReference(stringClass, "compact literal");
+        assertFalse(literal.isMaterialized());
+        final StringReference interpreted = (StringReference) ReferenceUtils.getStringObjectReference(stringClass, "interpreted literal");
+        assertTrue(interpreted.isMaterialized());
+    }
+}
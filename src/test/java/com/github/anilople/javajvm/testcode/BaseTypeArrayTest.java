@@ -2,12 +2,14 @@ package com.github.anilople.javajvm.testcode;
 
 import com.github.anilople.javajvm.helper.JvmThreadFactory;
 import com.github.anilople.javajvm.helper.JvmThreadRunner;
+import com.github.anilople.javajvm.instructions.control.IRETURN;
 import com.github.anilople.javajvm.instructions.references.ARRAYLENGTH;
 import com.github.anilople.javajvm.instructions.references.NEWARRAY;
 import com.github.anilople.javajvm.instructions.stores.IASTORE;
 import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -67,4 +69,39 @@ public class BaseTypeArrayTest {
         jvmThreadRunner.run();
     }
 
+    private static int loadOutOfBounds() {
+        double[] doubles = new double[2];
+        try {
+            doubles[2] = 1.0;
+            return 0;
+        } catch (ArrayIndexOutOfBoundsException e) {
+            return doubles.length;
+        }
+    }
+
+    private static void indexOutOfBounds() {
+        int length = loadOutOfBounds();
+    }
+
+    @Test
+    void indexOutOfBoundsIsCaughtByGuest() {
+        JvmThreadRunner jvmThreadRunner = new JvmThreadRunner(
+                JvmThreadFactory.createFromStaticMethod(
+                        this.getClass(),
+                        "indexOutOfBounds",
+                        "()V"
+                )
+        );
+        AtomicInteger result = new AtomicInteger(-1);
+        jvmThreadRunner.addBeforeInstructionExecutionListener(IRETURN.class, jvmThread -> {
+            int value = jvmThread.currentFrame().getOperandStacks().popIntValue();
+            result.set(value);
+            jvmThread.currentFrame().getOperandStacks().pushIntValue(value);
+        });
+
+        jvmThreadRunner.run();
+
+        assertEquals(2, result.get());
+    }
+
 }
@@ -0,0 +1,140 @@
+package com.github.anilople.javajvm.testcode;
+
+import com.github.anilople.javajvm.heap.JvmClass;
+import com.github.anilople.javajvm.heap.JvmClassLoader;
+import com.github.anilople.javajvm.helper.JvmClassLoaderFactory;
+import com.github.anilople.javajvm.helper.JvmThreadFactory;
+import com.github.anilople.javajvm.helper.JvmThreadRunner;
+import com.github.anilople.javajvm.instructions.control.IRETURN;
+import com.github.anilople.javajvm.runtimedataarea.JvmThread;
+import com.github.anilople.javajvm.utils.HackUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * jvms 5.5 Initialization
+ */
+public class ClassInitializationTest {
+
+    private final JvmClassLoader jvmClassLoader = JvmClassLoaderFactory.getInstance();
+
+    static int counter;
+
+    static class Parent {
+        static int parentOrder = ++counter;
+    }
+
+    static class Child extends Parent {
+        static int childOrder = ++counter;
+
+        static int value() {
+            return childOrder;
+        }
+    }
+
+    static class NeverUsed {
+        static int neverUsedOrder = ++counter;
+    }
+
+    static class Broken {
+        static int value = Integer.parseInt("not a number");
+    }
+
+    static class Abandoned {
+        static int value = 1;
+    }
+
+    public static void main(String[] args) {
+        if(0 != counter) {
+            throw new IllegalStateException("initialized before active use");
+        }
+        Child.value();
+        if(1 != Parent.parentOrder || 2 != Child.childOrder) {
+            throw new IllegalStateException("super class must be initialized first");
+        }
+    }
+
+    static class BrokenChild extends Broken {
+        static int childValue = 1;
+    }
+
+    static int brokenInitialization() {
+        int result = 0;
+        try {
+            int value = Broken.value;
+        } catch (ExceptionInInitializerError e) {
+            // jvms 5.5 step 11
+            if(e.getCause() instanceof NumberFormatException) {
+                result += 1;
+            }
+        }
+        try {
+            // class is erroneous now
+            int value = Broken.value;
+        } catch (NoClassDefFoundError e) {
+            result += 10;
+        }
+        try {
+            // super class is erroneous
+            int value = BrokenChild.childValue;
+        } catch (NoClassDefFoundError e) {
+            result += 100;
+        }
+        return result;
+    }
+
+    static void erroneous() {
+        brokenInitialization();
+    }
+
+    @Test
+    void lazyAndOrdered() {
+        JvmThreadRunner jvmThreadRunner = new JvmThreadRunner(JvmThreadFactory.makeSimpleInstance(this.getClass()));
+        jvmThreadRunner.run();
+
+        JvmClass child = jvmClassLoader.loadClass(Child.class);
+        Assertions.assertTrue(child.isInitialized());
+        Assertions.assertTrue(child.getSuperClass().isInitialized());
+        JvmClass neverUsed = jvmClassLoader.loadClass(NeverUsed.class);
+        Assertions.assertFalse(neverUsed.isInitialized());
+    }
+
+    @Test
+    void erroneousAfterFailed() {
+        JvmThreadRunner jvmThreadRunner = new JvmThreadRunner(
+                JvmThreadFactory.createFromStaticMethod(this.getClass(), "erroneous", "()V")
+        );
+        final int[] result = new int[1];
+        jvmThreadRunner.addBeforeInstructionExecutionListener(IRETURN.class, thread -> {
+            if("brokenInitialization".equals(thread.currentFrame().getJvmMethod().getName())) {
+                result[0] = thread.currentFrame().getOperandStacks().popIntValue();
+                thread.currentFrame().getOperandStacks().pushIntValue(result[0]);
+            }
+        });
+        jvmThreadRunner.run();
+        Assertions.assertEquals(111, result[0]);
+        JvmClass broken = jvmClassLoader.loadClass(Broken.class);
+        Assertions.assertEquals(JvmClass.InitializationState.ERRONEOUS, broken.getInitializationState());
+        JvmClass brokenChild = jvmClassLoader.loadClass(BrokenChild.class);
+        Assertions.assertEquals(JvmClass.InitializationState.ERRONEOUS, brokenChild.getInitializationState());
+    }
+
+    /**
+     * the host thread initializing the class dies before "<clinit>" runs
+     */
+    @Test
+    void erroneousAfterAbandoned() throws InterruptedException {
+        JvmClass abandoned = jvmClassLoader.loadClass(Abandoned.class);
+        Thread hostThread = new Thread(() -> Assertions.assertTrue(abandoned.initializeIfNecessary(new JvmThread())));
+        hostThread.start();
+        hostThread.join();
+        Assertions.assertEquals(JvmClass.InitializationState.BEING_INITIALIZED, abandoned.getInitializationState());
+
+        HackUtils.GuestException e = Assertions.assertThrows(
+                HackUtils.GuestException.class, () -> abandoned.initializeIfNecessary(new JvmThread())
+        );
+        Assertions.assertTrue(e.getCause() instanceof NoClassDefFoundError);
+        Assertions.assertEquals(JvmClass.InitializationState.ERRONEOUS, abandoned.getInitializationState());
+    }
+
+}
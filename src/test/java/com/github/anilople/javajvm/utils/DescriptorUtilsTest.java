@@ -1,6 +1,9 @@
 package com.github.anilople.javajvm.utils;
 
 import com.github.anilople.javajvm.constants.Descriptors;
+import com.github.anilople.javajvm.runtimedataarea.LocalVariables;
+import com.github.anilople.javajvm.runtimedataarea.OperandStacks;
+import com.github.anilople.javajvm.runtimedataarea.Reference;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -96,4 +99,24 @@ class DescriptorUtilsTest {
         assertEquals(Object.class, DescriptorUtils.objectTypeDescriptor2Class("Ljava/lang/Object;"));
         assertEquals(String.class, DescriptorUtils.objectTypeDescriptor2Class("Ljava/lang/String;"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void popArgsByParameterDescriptor() {
+        OperandStacks operandStacks = new OperandStacks(10);
+        operandStacks.pushReference(Reference.NULL);
+        operandStacks.pushIntValue(1);
+        operandStacks.pushLongValue(0x1_0000_0002L);
+        operandStacks.pushDoubleValue(1.5);
+        operandStacks.pushFloatValue(2.5f);
+        LocalVariables localVariables = DescriptorUtils.popArgsByParameterDescriptor(
+                true,
+                operandStacks,
+                DescriptorUtils.getParameterDescriptor("(IJDF)V")
+        );
+        assertEquals(Reference.NULL, localVariables.getReference(0));
+        assertEquals(1, localVariables.getIntValue(1));
+        assertEquals(0x1_0000_0002L, localVariables.getLongValue(2));
+        assertEquals(1.5, localVariables.getDoubleValue(4));
+        assertEquals(2.5f, localVariables.getFloatValue(6));
+    }
+}
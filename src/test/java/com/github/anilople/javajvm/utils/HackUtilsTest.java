@@ -0,0 +1,133 @@
+package com.github.anilople.javajvm.utils;
+
+import com.github.anilople.javajvm.helper.JvmThreadFactory;
+import com.github.anilople.javajvm.helper.JvmThreadRunner;
+import com.github.anilople.javajvm.instructions.control.IRETURN;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HackUtilsTest {
+
+    private static class Point implements Cloneable {
+        int x;
+        long y;
+        String name;
+
+        @Override
+        protected Point clone() throws CloneNotSupportedException {
+            return (Point) super.clone();
+        }
+    }
+
+    private static class NotCloneable {
+        @Override
+        protected Object clone() throws CloneNotSupportedException {
+            return super.clone();
+        }
+    }
+
+    private static int arraysIntrinsics() {
+        int[] ints = new int[]{5, 3, 1, 4, 2};
+        Arrays.sort(ints);
+        if(!Arrays.equals(ints, new int[]{1, 2, 3, 4, 5})) {
+            return 1;
+        }
+        int[] bigger = Arrays.copyOf(ints, 8);
+        if(bigger.length != 8 || bigger[4] != 5 || bigger[7] != 0) {
+            return 2;
+        }
+        int[] middle = Arrays.copyOfRange(ints, 1, 3);
+        if(middle.length != 2 || middle[0] != 2 || middle[1] != 3) {
+            return 3;
+        }
+        char[] chars = new char[3];
+        Arrays.fill(chars, 'x');
+        if(chars[0] != 'x' || chars[2] != 'x') {
+            return 4;
+        }
+        try {
+            Arrays.fill(ints, 3, 10, 0);
+            return 5;
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // expected
+        }
+        return 0;
+    }
+
+    private static int arrayCopyStoreCheck() {
+        Object[] objects = new Object[]{"a", 1, "c"};
+        String[] strings = new String[3];
+        try {
+            System.arraycopy(objects, 0, strings, 0, 3);
+            return 1;
+        } catch (ArrayStoreException e) {
+            // expected
+        }
+        if(!"a".equals(strings[0]) || null != strings[1]) {
+            return 2;
+        }
+        return 0;
+    }
+
+    private static int arrayListGrowth() {
+        List<Integer> list = new ArrayList<>();
+        for(int i = 0; i < 100; i++) {
+            list.add(i);
+        }
+        return list.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int clones() throws CloneNotSupportedException {
+        Point point = new Point();
+        point.x = 1;
+        point.y = 2L;
+        point.name = "p";
+        Point copy = point.clone();
+        if(copy == point || copy.x != 1 || copy.y != 2L || copy.name != point.name) {
+            return 1;
+        }
+        ArrayList<Integer> list = new ArrayList<>(Arrays.asList(1, 2, 3));
+        ArrayList<Integer> listCopy = (ArrayList<Integer>) list.clone();
+        listCopy.add(4);
+        if(list.size() != 3 || listCopy.size() != 4) {
+            return 2;
+        }
+        try {
+            new NotCloneable().clone();
+            return 3;
+        } catch (CloneNotSupportedException e) {
+            // expected
+        }
+        return 0;
+    }
+
+    private static void intrinsics() throws CloneNotSupportedException {
+        int arrays = arraysIntrinsics();
+        int storeCheck = arrayCopyStoreCheck();
+        int size = arrayListGrowth();
+        int clones = clones();
+    }
+
+    @Test
+    void intrinsicsRunInGuest() {
+        final JvmThreadRunner jvmThreadRunner = new JvmThreadRunner(
+                JvmThreadFactory.createFromStaticMethod(this.getClass(), "intrinsics", "()V")
+        );
+        final List<Integer> results = new ArrayList<>();
+        jvmThreadRunner.addBeforeInstructionExecutionListener(IRETURN.class, thread -> {
+            if(thread.currentFrame().getJvmMethod().getJvmClass().isSameName(HackUtilsTest.class)) {
+                int value = thread.currentFrame().getOperandStacks().popIntValue();
+                results.add(value);
+                thread.currentFrame().getOperandStacks().pushIntValue(value);
+            }
+        });
+        jvmThreadRunner.run();
+        assertEquals(Arrays.asList(0, 0, 100, 0), results);
+    }
+}
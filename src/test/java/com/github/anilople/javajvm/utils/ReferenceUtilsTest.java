@@ -5,6 +5,9 @@ import com.github.anilople.javajvm.heap.JvmClassLoader;
 import com.github.anilople.javajvm.helper.JvmClassLoaderFactory;
 import com.github.anilople.javajvm.runtimedataarea.Reference;
 import com.github.anilople.javajvm.runtimedataarea.reference.BaseTypeArrayReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.BooleanArrayReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.CharArrayReference;
+import com.github.anilople.javajvm.runtimedataarea.reference.IntArrayReference;
 import com.github.anilople.javajvm.runtimedataarea.reference.ObjectArrayReference;
 import com.github.anilople.javajvm.runtimedataarea.reference.ObjectReference;
 import org.junit.jupiter.api.Test;
@@ -25,7 +28,7 @@ class ReferenceUtilsTest {
                 jvmClassLoader.loadClass(String.class),
                 utf8
         );
-        BaseTypeArrayReference baseTypeArrayReference = (BaseTypeArrayReference) objectReference.getReference(0);
+        CharArrayReference baseTypeArrayReference = (CharArrayReference) objectReference.getReference(0);
         assertEquals(utf8.length(), baseTypeArrayReference.length());
         for(int i = 0; i < utf8.length(); i++) {
             assertEquals(utf8.charAt(i), baseTypeArrayReference.getCharValue(i));
@@ -35,7 +38,7 @@ class ReferenceUtilsTest {
     @Test
     void singleDimensionBooleanArray2ArrayReference() throws IllegalAccessException {
         boolean[] booleans = new boolean[]{false, true, false};
-        BaseTypeArrayReference booleanArray = (BaseTypeArrayReference) ReferenceUtils.array2ArrayReference(new HashMap<>(), jvmClassLoader, booleans);
+        BooleanArrayReference booleanArray = (BooleanArrayReference) ReferenceUtils.array2ArrayReference(new HashMap<>(), jvmClassLoader, booleans);
         for(int i = 0; i < booleans.length; i++) {
             assertEquals(booleans[i], booleanArray.getBooleanValue(i));
         }
@@ -44,7 +47,7 @@ class ReferenceUtilsTest {
     @Test
     void singleDimensionCharArray2ArrayReference() throws IllegalAccessException {
         char[] chars = new char[]{'a', '1', '+'};
-        BaseTypeArrayReference charArray = (BaseTypeArrayReference) ReferenceUtils.array2ArrayReference(new HashMap<>(), jvmClassLoader, chars);
+        CharArrayReference charArray = (CharArrayReference) ReferenceUtils.array2ArrayReference(new HashMap<>(), jvmClassLoader, chars);
         for(int i = 0; i < chars.length; i++) {
             assertEquals(chars[i], charArray.getCharValue(i));
         }
@@ -53,7 +56,7 @@ class ReferenceUtilsTest {
     @Test
     void singleDimensionIntArray2ArrayReference() throws IllegalAccessException {
         int[] ints = new int[]{-1, 2, 3, 5};
-        BaseTypeArrayReference intArray = (BaseTypeArrayReference) ReferenceUtils.array2ArrayReference(new HashMap<>(), jvmClassLoader, ints);
+        IntArrayReference intArray = (IntArrayReference) ReferenceUtils.array2ArrayReference(new HashMap<>(), jvmClassLoader, ints);
         for(int i = 0; i < ints.length; i++) {
             assertEquals(ints[i], intArray.getIntValue(i));
         }
@@ -65,11 +68,11 @@ class ReferenceUtilsTest {
         ObjectArrayReference objectArrayReference = ReferenceUtils.singleDimensionObjectArray2ObjectArrayReference(new HashMap<>(), jvmClassLoader, objects);
         assertEquals(objects.length, objectArrayReference.length());
         ObjectReference a = (ObjectReference) objectArrayReference.getReference(0);
-        BaseTypeArrayReference aCharArray = (BaseTypeArrayReference) a.getReference(0);
+        CharArrayReference aCharArray = (CharArrayReference) a.getReference(0);
         assertEquals('d', aCharArray.getCharValue(1));
 
         ObjectReference b = (ObjectReference) objectArrayReference.getReference(1);
-        BaseTypeArrayReference bCharArray = (BaseTypeArrayReference) b.getReference(0);
+        CharArrayReference bCharArray = (CharArrayReference) b.getReference(0);
         assertEquals('h', bCharArray.getCharValue(0));
     }
 
@@ -86,7 +89,7 @@ class ReferenceUtilsTest {
         ObjectReference objectReference = (ObjectReference) reference;
         assertTrue(objectReference.getJvmClass().isSameName(String.class));
         // first field in string is char[], now get it
-        BaseTypeArrayReference charArray = (BaseTypeArrayReference) objectReference.getReference(0);
+        CharArrayReference charArray = (CharArrayReference) objectReference.getReference(0);
         // check char values in char[]
         for(int i = 0; i < s.length(); i++) {
             assertEquals(s.charAt(i), charArray.getCharValue(i));
@@ -146,6 +149,42 @@ class ReferenceUtilsTest {
         ReferenceUtils.setClassStaticFields2JvmClass(Collections.emptyMap(), Values.class, jvmClass);
         assertEquals(value, jvmClass.getStaticFieldsValue().getIntValue(0));
     }
+
+    @Test
+    void arrayCopyOverlap() {
+        IntArrayReference ints = new IntArrayReference(jvmClassLoader, new int[]{1, 2, 3, 4, 5});
+        ReferenceUtils.arrayCopy(ints, 0, ints, 1, 4);
+        assertArrayEquals(new int[]{1, 1, 2, 3, 4}, ints.getArray());
+        ReferenceUtils.arrayCopy(ints, 1, ints, 0, 4);
+        assertArrayEquals(new int[]{1, 2, 3, 4, 4}, ints.getArray());
+    }
+
+    @Test
+    void arrayCopyTypeMismatch() {
+        IntArrayReference ints = new IntArrayReference(jvmClassLoader, 3);
+        CharArrayReference chars = new CharArrayReference(jvmClassLoader, 3);
+        ObjectArrayReference objects = new ObjectArrayReference(jvmClassLoader.loadClass(Object.class), 3);
+        assertThrows(ArrayStoreException.class, () -> ReferenceUtils.arrayCopy(ints, 0, chars, 0, 1));
+        assertThrows(ArrayStoreException.class, () -> ReferenceUtils.arrayCopy(ints, 0, objects, 0, 1));
+        assertThrows(NullPointerException.class, () -> ReferenceUtils.arrayCopy(Reference.NULL, 0, ints, 0, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> ReferenceUtils.arrayCopy(ints, 2, ints, 0, 2));
+    }
+
+    @Test
+    void arrayCopyStoreCheck() {
+        JvmClass stringClass = jvmClassLoader.loadClass(String.class);
+        ObjectArrayReference objects = new ObjectArrayReference(jvmClassLoader.loadClass(Object.class), 3);
+        objects.setReference(0, ReferenceUtils.getStringObjectReference(stringClass, "a"));
+        objects.setReference(1, new IntArrayReference(jvmClassLoader, 1));
+        objects.setReference(2, ReferenceUtils.getStringObjectReference(stringClass, "c"));
+        ObjectArrayReference strings = new ObjectArrayReference(stringClass, 3);
+        assertThrows(ArrayStoreException.class, () -> ReferenceUtils.arrayCopy(objects, 0, strings, 0, 3));
+        // elements before the one cannot be stored are copied
+        assertSame(objects.getReference(0), strings.getReference(0));
+        assertTrue(Reference.isNull(strings.getReference(1)));
+        assertTrue(Reference.isNull(strings.getReference(2)));
+    }
+
 }
 
 /**